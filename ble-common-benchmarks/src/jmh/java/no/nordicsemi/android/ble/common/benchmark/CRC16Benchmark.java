@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+import no.nordicsemi.android.ble.common.util.CRC16Accumulator;
+
+/**
+ * Measures CRC-16 calculation for buffers of typical BLE sizes: a short packet,
+ * a full packet with default MTU, and packets with increased MTU.
+ */
+@State(Scope.Thread)
+public class CRC16Benchmark {
+	@Param({ "8", "20", "64", "244" })
+	public int length;
+
+	private byte[] data;
+	private CRC16Accumulator accumulator;
+
+	@Setup
+	public void setup() {
+		data = Packets.random(length);
+		accumulator = CRC16Accumulator.MCRF4XX();
+	}
+
+	@Benchmark
+	public int ccittKermit() {
+		return CRC16.CCITT_Kermit(data, 0, length);
+	}
+
+	@Benchmark
+	public int ccittFalse() {
+		return CRC16.CCITT_FALSE(data, 0, length);
+	}
+
+	@Benchmark
+	public int mcrf4xx() {
+		return CRC16.MCRF4XX(data, 0, length);
+	}
+
+	@Benchmark
+	public int augCcitt() {
+		return CRC16.AUG_CCITT(data, 0, length);
+	}
+
+	@Benchmark
+	public int arc() {
+		return CRC16.ARC(data, 0, length);
+	}
+
+	@Benchmark
+	public int maxim() {
+		return CRC16.MAXIM(data, 0, length);
+	}
+
+	@Benchmark
+	public int generic() {
+		return CRC16.CRC(0x3D65, 0x0000, data, 0, length, true, true, 0xFFFF);
+	}
+
+	@Benchmark
+	public int accumulator() {
+		accumulator.reset();
+		return accumulator.update(data, 0, length).value();
+	}
+}
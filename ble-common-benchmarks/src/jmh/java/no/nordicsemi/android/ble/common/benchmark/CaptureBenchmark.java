@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+
+import no.nordicsemi.android.ble.common.capture.CaptureReader;
+import no.nordicsemi.android.ble.common.capture.CaptureWriter;
+import no.nordicsemi.android.ble.common.dispatch.NotificationDispatcher;
+import no.nordicsemi.android.ble.common.dispatch.NotificationSink;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Measures appending values to a capture file and replaying a capture of a hub with
+ * 500 devices sending Heart Rate, CSC and CGM measurements through the dispatcher.
+ * The replay score is in captures per microsecond, each with {@link #records} values.
+ */
+@State(Scope.Thread)
+public class CaptureBenchmark {
+	private static final int DEVICES = 500;
+
+	@Param({ "1000000" })
+	public int records;
+
+	private File file;
+	private CaptureReader reader;
+	private NotificationDispatcher dispatcher;
+	private File appendFile;
+	private CaptureWriter writer;
+	private byte[] heartRate;
+	private long timestamp;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final Data[] hrm = Packets.heartRateMeasurement();
+		final Data[] csc = Packets.cyclingSpeedAndCadenceMeasurement();
+		final Data[] cgm = Packets.cgmMeasurement();
+		heartRate = hrm[0].getValue();
+
+		file = File.createTempFile("capture", ".bin");
+		try (CaptureWriter capture = new CaptureWriter(file)) {
+			for (int device = 0; device < DEVICES; device++)
+				capture.addDevice(device, String.format("00:00:00:00:%02X:%02X", device >> 8, device & 0xFF));
+			for (int i = 0; i < records; i++) {
+				final int device = i % DEVICES;
+				final long time = i * 2_000_000L;
+				switch (i % 3) {
+					case 0: capture.append(time, device, Characteristics.HEART_RATE_MEASUREMENT, hrm[i % hrm.length].getValue()); break;
+					case 1: capture.append(time, device, Characteristics.CSC_MEASUREMENT, csc[i % csc.length].getValue()); break;
+					default: capture.append(time, device, Characteristics.CGM_MEASUREMENT, cgm[i % cgm.length].getValue()); break;
+				}
+			}
+		}
+		reader = new CaptureReader(file);
+		dispatcher = new NotificationDispatcher(DEVICES, new NotificationSink() {});
+
+		appendFile = File.createTempFile("append", ".bin");
+		writer = new CaptureWriter(appendFile);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		reader.close();
+		writer.close();
+		//noinspection ResultOfMethodCallIgnored
+		file.delete();
+		//noinspection ResultOfMethodCallIgnored
+		appendFile.delete();
+	}
+
+	@Benchmark
+	public long replay() throws IOException {
+		return reader.replay(dispatcher);
+	}
+
+	@Benchmark
+	public void append() throws IOException {
+		writer.append(timestamp++, 1, Characteristics.HEART_RATE_MEASUREMENT, heartRate);
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import no.nordicsemi.android.ble.common.data.RecordAccessControlPointData;
+import no.nordicsemi.android.ble.common.data.alert.AlertLevelData;
+import no.nordicsemi.android.ble.common.data.cgm.CGMSpecificOpsControlPointData;
+import no.nordicsemi.android.ble.common.data.hr.HeartRateControlPointData;
+import no.nordicsemi.android.ble.common.data.sc.SpeedAndCadenceControlPointData;
+import no.nordicsemi.android.ble.common.profile.glucose.GlucoseTypes;
+import no.nordicsemi.android.ble.common.profile.sc.SensorLocationTypes;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Measures creation of control point requests and other outgoing values.
+ */
+@State(Scope.Thread)
+public class DataBuilderBenchmark {
+	/** Whether the CGM requests should be secured with E2E-CRC. */
+	@Param({ "false", "true" })
+	public boolean secure;
+
+	// Record Access Control Point
+
+	@Benchmark
+	public Data racpReportAllStoredRecords() {
+		return RecordAccessControlPointData.reportAllStoredRecords();
+	}
+
+	@Benchmark
+	public Data racpReportStoredRecordsGreaterThenOrEqualTo() {
+		return RecordAccessControlPointData.reportStoredRecordsGreaterThenOrEqualTo(1234);
+	}
+
+	@Benchmark
+	public Data racpReportStoredRecordsFromRange() {
+		return RecordAccessControlPointData.reportStoredRecordsFromRange(10, 1234);
+	}
+
+	@Benchmark
+	public Data racpReportNumberOfAllStoredRecords() {
+		return RecordAccessControlPointData.reportNumberOfAllStoredRecords();
+	}
+
+	@Benchmark
+	public Data racpDeleteStoredRecordsLessThenOrEqualTo() {
+		return RecordAccessControlPointData.deleteStoredRecordsLessThenOrEqualTo(1234);
+	}
+
+	@Benchmark
+	public Data racpAbortOperation() {
+		return RecordAccessControlPointData.abortOperation();
+	}
+
+	// CGM Specific Ops Control Point
+
+	@Benchmark
+	public Data cgmStartSession() {
+		return CGMSpecificOpsControlPointData.startSession(secure);
+	}
+
+	@Benchmark
+	public Data cgmSetCommunicationInterval() {
+		return CGMSpecificOpsControlPointData.setCommunicationInterval(5, secure);
+	}
+
+	@Benchmark
+	public Data cgmSetCalibrationValue() {
+		return CGMSpecificOpsControlPointData.setCalibrationValue(123.4f,
+				GlucoseTypes.TYPE_CAPILLARY_WHOLE_BLOOD, GlucoseTypes.SAMPLE_LOCATION_FINGER,
+				10, 20, secure);
+	}
+
+	@Benchmark
+	public Data cgmSetPatientHighAlertLevel() {
+		return CGMSpecificOpsControlPointData.setPatientHighAlertLevel(180f, secure);
+	}
+
+	// Other
+
+	@Benchmark
+	public Data scUpdateSensorLocation() {
+		return SpeedAndCadenceControlPointData.updateSensorLocation(SensorLocationTypes.SENSOR_LOCATION_IN_SHOE);
+	}
+
+	@Benchmark
+	public Data scSetCumulativeValue() {
+		return SpeedAndCadenceControlPointData.setCumulativeValue(123456L);
+	}
+
+	@Benchmark
+	public Data heartRateControlPointReset() {
+		return HeartRateControlPointData.reset();
+	}
+
+	@Benchmark
+	public Data alertLevelHigh() {
+		return AlertLevelData.highAlert();
+	}
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.NonNull;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import no.nordicsemi.android.ble.common.callback.DSTOffsetResponse;
+import no.nordicsemi.android.ble.common.callback.DateTimeResponse;
+import no.nordicsemi.android.ble.common.callback.RecordAccessControlPointResponse;
+import no.nordicsemi.android.ble.common.callback.TimeZoneResponse;
+import no.nordicsemi.android.ble.common.callback.alert.AlertLevelResponse;
+import no.nordicsemi.android.ble.common.callback.battery.BatteryLevelResponse;
+import no.nordicsemi.android.ble.common.callback.bps.BloodPressureMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.bps.IntermediateCuffPressureResponse;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMFeatureResponse;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMSessionRunTimeResponse;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMSessionStartTimeResponse;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMSpecificOpsControlPointResponse;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMStatusResponse;
+import no.nordicsemi.android.ble.common.callback.cgm.ContinuousGlucoseMeasurementBatchDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.ContinuousGlucoseMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.csc.CyclingSpeedAndCadenceFeatureResponse;
+import no.nordicsemi.android.ble.common.callback.csc.CyclingSpeedAndCadenceMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseFeatureResponse;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseMeasurementContextResponse;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.hr.BodySensorLocationResponse;
+import no.nordicsemi.android.ble.common.callback.hr.HeartRateMeasurementPrimitiveDataCallback;
+import no.nordicsemi.android.ble.common.callback.hr.HeartRateMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.ht.MeasurementIntervalResponse;
+import no.nordicsemi.android.ble.common.callback.ht.TemperatureMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.ht.TemperatureTypeResponse;
+import no.nordicsemi.android.ble.common.callback.rsc.RunningSpeedAndCadenceFeatureResponse;
+import no.nordicsemi.android.ble.common.callback.rsc.RunningSpeedAndCadenceMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.sc.SensorLocationResponse;
+import no.nordicsemi.android.ble.common.callback.sc.SpeedAndCadenceControlPointResponse;
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementBatch;
+import no.nordicsemi.android.ble.data.Data;
+import no.nordicsemi.android.ble.response.ReadResponse;
+
+/**
+ * Measures parsing of every characteristic supported by the library.
+ * <p>
+ * Each benchmark parses the whole corpus of the characteristic from {@link Packets} using
+ * a single response object, the same way as a notification callback is reused by a BLE
+ * manager. The score is the number of parsed corpora per microsecond; use the
+ * <i>gc.alloc.rate.norm</i> metric to see allocations per corpus.
+ */
+@SuppressWarnings("ConstantConditions")
+@State(Scope.Thread)
+public class DataCallbackBenchmark {
+	// Continuous Glucose Monitoring
+	private Data[] cgmMeasurement;
+	private Data[] cgmStatus;
+	private Data[] cgmFeature;
+	private Data[] cgmSessionStartTime;
+	private Data[] cgmSessionRunTime;
+	private Data[] cgmSpecificOpsControlPoint;
+	// Glucose
+	private Data[] glucoseMeasurement;
+	private Data[] glucoseMeasurementContext;
+	private Data[] glucoseFeature;
+	// Blood Pressure
+	private Data[] bloodPressureMeasurement;
+	private Data[] intermediateCuffPressure;
+	// Heart Rate
+	private Data[] heartRateMeasurement;
+	private Data[] bodySensorLocation;
+	// Health Thermometer
+	private Data[] temperatureMeasurement;
+	private Data[] temperatureType;
+	private Data[] measurementInterval;
+	// Cycling and Running Speed and Cadence
+	private Data[] cyclingSpeedAndCadenceMeasurement;
+	private Data[] cyclingSpeedAndCadenceFeature;
+	private Data[] runningSpeedAndCadenceMeasurement;
+	private Data[] runningSpeedAndCadenceFeature;
+	private Data[] sensorLocation;
+	private Data[] speedAndCadenceControlPoint;
+	// Other
+	private Data[] recordAccessControlPoint;
+	private Data[] dateTime;
+	private Data[] dstOffset;
+	private Data[] timeZone;
+	private Data[] batteryLevel;
+	private Data[] alertLevel;
+
+	private ContinuousGlucoseMeasurementResponse cgmMeasurementResponse;
+	private ContinuousGlucoseMeasurementConsumer cgmMeasurementBatchCallback;
+	private CGMStatusResponse cgmStatusResponse;
+	private CGMFeatureResponse cgmFeatureResponse;
+	private CGMSessionStartTimeResponse cgmSessionStartTimeResponse;
+	private CGMSessionRunTimeResponse cgmSessionRunTimeResponse;
+	private CGMSpecificOpsControlPointResponse cgmSpecificOpsControlPointResponse;
+	private GlucoseMeasurementResponse glucoseMeasurementResponse;
+	private GlucoseMeasurementContextResponse glucoseMeasurementContextResponse;
+	private GlucoseFeatureResponse glucoseFeatureResponse;
+	private BloodPressureMeasurementResponse bloodPressureMeasurementResponse;
+	private IntermediateCuffPressureResponse intermediateCuffPressureResponse;
+	private HeartRateMeasurementResponse heartRateMeasurementResponse;
+	private HeartRateMeasurementConsumer heartRateMeasurementPrimitiveCallback;
+	private BodySensorLocationResponse bodySensorLocationResponse;
+	private TemperatureMeasurementResponse temperatureMeasurementResponse;
+	private TemperatureTypeResponse temperatureTypeResponse;
+	private MeasurementIntervalResponse measurementIntervalResponse;
+	private CyclingSpeedAndCadenceMeasurementResponse cyclingSpeedAndCadenceMeasurementResponse;
+	private CyclingSpeedAndCadenceFeatureResponse cyclingSpeedAndCadenceFeatureResponse;
+	private RunningSpeedAndCadenceMeasurementResponse runningSpeedAndCadenceMeasurementResponse;
+	private RunningSpeedAndCadenceFeatureResponse runningSpeedAndCadenceFeatureResponse;
+	private SensorLocationResponse sensorLocationResponse;
+	private SpeedAndCadenceControlPointResponse speedAndCadenceControlPointResponse;
+	private RecordAccessControlPointResponse recordAccessControlPointResponse;
+	private DateTimeResponse dateTimeResponse;
+	private DSTOffsetResponse dstOffsetResponse;
+	private TimeZoneResponse timeZoneResponse;
+	private BatteryLevelResponse batteryLevelResponse;
+	private AlertLevelResponse alertLevelResponse;
+
+	@Setup
+	public void setup() {
+		cgmMeasurement = Packets.cgmMeasurement();
+		cgmStatus = Packets.cgmStatus();
+		cgmFeature = Packets.cgmFeature();
+		cgmSessionStartTime = Packets.cgmSessionStartTime();
+		cgmSessionRunTime = Packets.cgmSessionRunTime();
+		cgmSpecificOpsControlPoint = Packets.cgmSpecificOpsControlPoint();
+		glucoseMeasurement = Packets.glucoseMeasurement();
+		glucoseMeasurementContext = Packets.glucoseMeasurementContext();
+		glucoseFeature = Packets.glucoseFeature();
+		bloodPressureMeasurement = Packets.bloodPressureMeasurement();
+		intermediateCuffPressure = Packets.intermediateCuffPressure();
+		heartRateMeasurement = Packets.heartRateMeasurement();
+		bodySensorLocation = Packets.bodySensorLocation();
+		temperatureMeasurement = Packets.temperatureMeasurement();
+		temperatureType = Packets.temperatureType();
+		measurementInterval = Packets.measurementInterval();
+		cyclingSpeedAndCadenceMeasurement = Packets.cyclingSpeedAndCadenceMeasurement();
+		cyclingSpeedAndCadenceFeature = Packets.cyclingSpeedAndCadenceFeature();
+		runningSpeedAndCadenceMeasurement = Packets.runningSpeedAndCadenceMeasurement();
+		runningSpeedAndCadenceFeature = Packets.runningSpeedAndCadenceFeature();
+		sensorLocation = Packets.sensorLocation();
+		speedAndCadenceControlPoint = Packets.speedAndCadenceControlPoint();
+		recordAccessControlPoint = Packets.recordAccessControlPoint();
+		dateTime = Packets.dateTime();
+		dstOffset = Packets.dstOffset();
+		timeZone = Packets.timeZone();
+		batteryLevel = Packets.batteryLevel();
+		alertLevel = Packets.alertLevel();
+
+		cgmMeasurementResponse = new ContinuousGlucoseMeasurementResponse();
+		cgmMeasurementBatchCallback = new ContinuousGlucoseMeasurementConsumer();
+		cgmStatusResponse = new CGMStatusResponse();
+		cgmFeatureResponse = new CGMFeatureResponse();
+		cgmSessionStartTimeResponse = new CGMSessionStartTimeResponse();
+		cgmSessionRunTimeResponse = new CGMSessionRunTimeResponse();
+		cgmSpecificOpsControlPointResponse = new CGMSpecificOpsControlPointResponse();
+		glucoseMeasurementResponse = new GlucoseMeasurementResponse();
+		glucoseMeasurementContextResponse = new GlucoseMeasurementContextResponse();
+		glucoseFeatureResponse = new GlucoseFeatureResponse();
+		bloodPressureMeasurementResponse = new BloodPressureMeasurementResponse();
+		intermediateCuffPressureResponse = new IntermediateCuffPressureResponse();
+		heartRateMeasurementResponse = new HeartRateMeasurementResponse();
+		heartRateMeasurementPrimitiveCallback = new HeartRateMeasurementConsumer();
+		bodySensorLocationResponse = new BodySensorLocationResponse();
+		temperatureMeasurementResponse = new TemperatureMeasurementResponse();
+		temperatureTypeResponse = new TemperatureTypeResponse();
+		measurementIntervalResponse = new MeasurementIntervalResponse();
+		cyclingSpeedAndCadenceMeasurementResponse = new CyclingSpeedAndCadenceMeasurementResponse();
+		cyclingSpeedAndCadenceFeatureResponse = new CyclingSpeedAndCadenceFeatureResponse();
+		runningSpeedAndCadenceMeasurementResponse = new RunningSpeedAndCadenceMeasurementResponse();
+		runningSpeedAndCadenceFeatureResponse = new RunningSpeedAndCadenceFeatureResponse();
+		sensorLocationResponse = new SensorLocationResponse();
+		speedAndCadenceControlPointResponse = new SpeedAndCadenceControlPointResponse();
+		recordAccessControlPointResponse = new RecordAccessControlPointResponse();
+		dateTimeResponse = new DateTimeResponse();
+		dstOffsetResponse = new DSTOffsetResponse();
+		timeZoneResponse = new TimeZoneResponse();
+		batteryLevelResponse = new BatteryLevelResponse();
+		alertLevelResponse = new AlertLevelResponse();
+	}
+
+	// Continuous Glucose Monitoring
+
+	@Benchmark
+	public void cgmMeasurement(final Blackhole bh) {
+		parse(cgmMeasurementResponse, cgmMeasurement, bh);
+	}
+
+	@Benchmark
+	public void cgmMeasurementBatch(final Blackhole bh) {
+		cgmMeasurementBatchCallback.blackhole = bh;
+		parse(cgmMeasurementBatchCallback, cgmMeasurement, bh);
+	}
+
+	@Benchmark
+	public void cgmStatus(final Blackhole bh) {
+		parse(cgmStatusResponse, cgmStatus, bh);
+	}
+
+	@Benchmark
+	public void cgmFeature(final Blackhole bh) {
+		parse(cgmFeatureResponse, cgmFeature, bh);
+	}
+
+	@Benchmark
+	public void cgmSessionStartTime(final Blackhole bh) {
+		parse(cgmSessionStartTimeResponse, cgmSessionStartTime, bh);
+	}
+
+	@Benchmark
+	public void cgmSessionRunTime(final Blackhole bh) {
+		parse(cgmSessionRunTimeResponse, cgmSessionRunTime, bh);
+	}
+
+	@Benchmark
+	public void cgmSpecificOpsControlPoint(final Blackhole bh) {
+		parse(cgmSpecificOpsControlPointResponse, cgmSpecificOpsControlPoint, bh);
+	}
+
+	// Glucose
+
+	@Benchmark
+	public void glucoseMeasurement(final Blackhole bh) {
+		parse(glucoseMeasurementResponse, glucoseMeasurement, bh);
+	}
+
+	@Benchmark
+	public void glucoseMeasurementContext(final Blackhole bh) {
+		parse(glucoseMeasurementContextResponse, glucoseMeasurementContext, bh);
+	}
+
+	@Benchmark
+	public void glucoseFeature(final Blackhole bh) {
+		parse(glucoseFeatureResponse, glucoseFeature, bh);
+	}
+
+	// Blood Pressure
+
+	@Benchmark
+	public void bloodPressureMeasurement(final Blackhole bh) {
+		parse(bloodPressureMeasurementResponse, bloodPressureMeasurement, bh);
+	}
+
+	@Benchmark
+	public void intermediateCuffPressure(final Blackhole bh) {
+		parse(intermediateCuffPressureResponse, intermediateCuffPressure, bh);
+	}
+
+	// Heart Rate
+
+	@Benchmark
+	public void heartRateMeasurement(final Blackhole bh) {
+		parse(heartRateMeasurementResponse, heartRateMeasurement, bh);
+	}
+
+	@Benchmark
+	public void heartRateMeasurementPrimitive(final Blackhole bh) {
+		heartRateMeasurementPrimitiveCallback.blackhole = bh;
+		parse(heartRateMeasurementPrimitiveCallback, heartRateMeasurement, bh);
+	}
+
+	@Benchmark
+	public void bodySensorLocation(final Blackhole bh) {
+		parse(bodySensorLocationResponse, bodySensorLocation, bh);
+	}
+
+	// Health Thermometer
+
+	@Benchmark
+	public void temperatureMeasurement(final Blackhole bh) {
+		parse(temperatureMeasurementResponse, temperatureMeasurement, bh);
+	}
+
+	@Benchmark
+	public void temperatureType(final Blackhole bh) {
+		parse(temperatureTypeResponse, temperatureType, bh);
+	}
+
+	@Benchmark
+	public void measurementInterval(final Blackhole bh) {
+		parse(measurementIntervalResponse, measurementInterval, bh);
+	}
+
+	// Cycling and Running Speed and Cadence
+
+	@Benchmark
+	public void cyclingSpeedAndCadenceMeasurement(final Blackhole bh) {
+		parse(cyclingSpeedAndCadenceMeasurementResponse, cyclingSpeedAndCadenceMeasurement, bh);
+	}
+
+	@Benchmark
+	public void cyclingSpeedAndCadenceFeature(final Blackhole bh) {
+		parse(cyclingSpeedAndCadenceFeatureResponse, cyclingSpeedAndCadenceFeature, bh);
+	}
+
+	@Benchmark
+	public void runningSpeedAndCadenceMeasurement(final Blackhole bh) {
+		parse(runningSpeedAndCadenceMeasurementResponse, runningSpeedAndCadenceMeasurement, bh);
+	}
+
+	@Benchmark
+	public void runningSpeedAndCadenceFeature(final Blackhole bh) {
+		parse(runningSpeedAndCadenceFeatureResponse, runningSpeedAndCadenceFeature, bh);
+	}
+
+	@Benchmark
+	public void sensorLocation(final Blackhole bh) {
+		parse(sensorLocationResponse, sensorLocation, bh);
+	}
+
+	@Benchmark
+	public void speedAndCadenceControlPoint(final Blackhole bh) {
+		parse(speedAndCadenceControlPointResponse, speedAndCadenceControlPoint, bh);
+	}
+
+	// Other
+
+	@Benchmark
+	public void recordAccessControlPoint(final Blackhole bh) {
+		parse(recordAccessControlPointResponse, recordAccessControlPoint, bh);
+	}
+
+	@Benchmark
+	public void dateTime(final Blackhole bh) {
+		parse(dateTimeResponse, dateTime, bh);
+	}
+
+	@Benchmark
+	public void dstOffset(final Blackhole bh) {
+		parse(dstOffsetResponse, dstOffset, bh);
+	}
+
+	@Benchmark
+	public void timeZone(final Blackhole bh) {
+		parse(timeZoneResponse, timeZone, bh);
+	}
+
+	@Benchmark
+	public void batteryLevel(final Blackhole bh) {
+		parse(batteryLevelResponse, batteryLevel, bh);
+	}
+
+	@Benchmark
+	public void alertLevel(final Blackhole bh) {
+		parse(alertLevelResponse, alertLevel, bh);
+	}
+
+	/**
+	 * Batch CGM Measurement callback that consumes all values.
+	 */
+	private static final class ContinuousGlucoseMeasurementConsumer extends ContinuousGlucoseMeasurementBatchDataCallback {
+		private Blackhole blackhole;
+
+		@Override
+		public void onContinuousGlucoseMeasurementsReceived(@NonNull final BluetoothDevice device,
+															@NonNull final ContinuousGlucoseMeasurementBatch batch) {
+			for (int i = 0; i < batch.size(); ++i) {
+				blackhole.consume(batch.glucoseConcentration(i));
+				blackhole.consume(batch.trend(i));
+				blackhole.consume(batch.quality(i));
+				blackhole.consume(batch.sensorStatus(i));
+				blackhole.consume(batch.timeOffset(i));
+			}
+		}
+	}
+
+	/**
+	 * Primitive Heart Rate Measurement callback that consumes all values.
+	 */
+	private static final class HeartRateMeasurementConsumer extends HeartRateMeasurementPrimitiveDataCallback {
+		private Blackhole blackhole;
+
+		@Override
+		public void onHeartRateMeasurementReceived(@NonNull final BluetoothDevice device,
+												   final int heartRate,
+												   final boolean contactSupported,
+												   final boolean contactDetected,
+												   final boolean energyExpandedPresent,
+												   final int energyExpanded,
+												   @NonNull final int[] rrIntervals,
+												   final int rrIntervalsCount) {
+			blackhole.consume(heartRate);
+			blackhole.consume(contactDetected);
+			blackhole.consume(energyExpanded);
+			for (int i = 0; i < rrIntervalsCount; ++i)
+				blackhole.consume(rrIntervals[i]);
+		}
+	}
+
+	private static void parse(final ReadResponse response, final Data[] corpus, final Blackhole bh) {
+		for (final Data data : corpus) {
+			response.onDataReceived(null, data);
+		}
+		bh.consume(response);
+	}
+}
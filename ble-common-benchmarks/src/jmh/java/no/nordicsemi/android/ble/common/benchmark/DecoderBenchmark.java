@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.decoder.BloodPressureMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.HeartRateMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.RunningSpeedAndCadenceMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Measures the {@link ByteBuffer} decoders on direct buffers, the way notifications are held
+ * in the ingest path. Each corpus from {@link Packets} is copied into a single direct buffer
+ * and every value is decoded in place, using its offset and length.
+ */
+@State(Scope.Thread)
+public class DecoderBenchmark {
+	private ByteBuffer cgmMeasurement;
+	private int[] cgmMeasurementOffsets;
+	private ByteBuffer glucoseMeasurement;
+	private int[] glucoseMeasurementOffsets;
+	private ByteBuffer heartRateMeasurement;
+	private int[] heartRateMeasurementOffsets;
+	private ByteBuffer bloodPressureMeasurement;
+	private int[] bloodPressureMeasurementOffsets;
+	private ByteBuffer glucoseMeasurementContext;
+	private int[] glucoseMeasurementContextOffsets;
+	private ByteBuffer rscMeasurement;
+	private int[] rscMeasurementOffsets;
+	private ByteBuffer dateTime;
+
+	private Consumer consumer;
+
+	@Setup
+	public void setup() {
+		final Data[] cgm = Packets.cgmMeasurement();
+		cgmMeasurementOffsets = offsets(cgm);
+		cgmMeasurement = direct(cgm, cgmMeasurementOffsets);
+		final Data[] glucose = Packets.glucoseMeasurement();
+		glucoseMeasurementOffsets = offsets(glucose);
+		glucoseMeasurement = direct(glucose, glucoseMeasurementOffsets);
+		final Data[] hrm = Packets.heartRateMeasurement();
+		heartRateMeasurementOffsets = offsets(hrm);
+		heartRateMeasurement = direct(hrm, heartRateMeasurementOffsets);
+		final Data[] bpm = Packets.bloodPressureMeasurement();
+		bloodPressureMeasurementOffsets = offsets(bpm);
+		bloodPressureMeasurement = direct(bpm, bloodPressureMeasurementOffsets);
+		final Data[] context = Packets.glucoseMeasurementContext();
+		glucoseMeasurementContextOffsets = offsets(context);
+		glucoseMeasurementContext = direct(context, glucoseMeasurementContextOffsets);
+		final Data[] rsc = Packets.runningSpeedAndCadenceMeasurement();
+		rscMeasurementOffsets = offsets(rsc);
+		rscMeasurement = direct(rsc, rscMeasurementOffsets);
+		final Data[] dateTime = Packets.dateTime();
+		this.dateTime = direct(dateTime, offsets(dateTime));
+	}
+
+	@Benchmark
+	public void cgmMeasurement(final Blackhole bh) {
+		final Consumer consumer = consumer(bh);
+		final int[] offsets = cgmMeasurementOffsets;
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			bh.consume(ContinuousGlucoseMeasurementDecoder.decode(cgmMeasurement,
+					offsets[i], offsets[i + 1] - offsets[i], consumer));
+		}
+	}
+
+	@Benchmark
+	public void glucoseMeasurement(final Blackhole bh) {
+		final Consumer consumer = consumer(bh);
+		final int[] offsets = glucoseMeasurementOffsets;
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			bh.consume(GlucoseMeasurementDecoder.decode(glucoseMeasurement,
+					offsets[i], offsets[i + 1] - offsets[i], consumer));
+		}
+	}
+
+	@Benchmark
+	public void heartRateMeasurement(final Blackhole bh) {
+		final Consumer consumer = consumer(bh);
+		final int[] offsets = heartRateMeasurementOffsets;
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			bh.consume(HeartRateMeasurementDecoder.decode(heartRateMeasurement,
+					offsets[i], offsets[i + 1] - offsets[i], consumer));
+		}
+	}
+
+	@Benchmark
+	public void bloodPressureMeasurement(final Blackhole bh) {
+		final Consumer consumer = consumer(bh);
+		final int[] offsets = bloodPressureMeasurementOffsets;
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			bh.consume(BloodPressureMeasurementDecoder.decode(bloodPressureMeasurement,
+					offsets[i], offsets[i + 1] - offsets[i], consumer));
+		}
+	}
+
+	@Benchmark
+	public void glucoseMeasurementContext(final Blackhole bh) {
+		final Consumer consumer = consumer(bh);
+		final int[] offsets = glucoseMeasurementContextOffsets;
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			bh.consume(GlucoseMeasurementContextDecoder.decode(glucoseMeasurementContext,
+					offsets[i], offsets[i + 1] - offsets[i], consumer));
+		}
+	}
+
+	@Benchmark
+	public void rscMeasurement(final Blackhole bh) {
+		final Consumer consumer = consumer(bh);
+		final int[] offsets = rscMeasurementOffsets;
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			bh.consume(RunningSpeedAndCadenceMeasurementDecoder.decode(rscMeasurement,
+					offsets[i], offsets[i + 1] - offsets[i], consumer));
+		}
+	}
+
+	@Benchmark
+	public long dateTimeCalendar() {
+		return ValueReader.dateTime(dateTime, 0).getTimeInMillis();
+	}
+
+	@Benchmark
+	public long dateTimeEpochMillis() {
+		return DateTime.toEpochMillis(DateTime.read(dateTime, 0));
+	}
+
+	private Consumer consumer(final Blackhole bh) {
+		if (consumer == null || consumer.bh != bh)
+			consumer = new Consumer(bh, heartRateMeasurement);
+		return consumer;
+	}
+
+	/** Returns start offsets of all values, followed by the total length. */
+	private static int[] offsets(final Data[] corpus) {
+		final int[] offsets = new int[corpus.length + 1];
+		for (int i = 0; i < corpus.length; ++i) {
+			offsets[i + 1] = offsets[i] + corpus[i].size();
+		}
+		return offsets;
+	}
+
+	private static ByteBuffer direct(final Data[] corpus, final int[] offsets) {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(offsets[corpus.length]);
+		for (final Data data : corpus) {
+			buffer.put(data.getValue());
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	private static final class Consumer implements ContinuousGlucoseMeasurementDecoder.Callback,
+			GlucoseMeasurementDecoder.Callback, HeartRateMeasurementDecoder.Callback,
+			BloodPressureMeasurementDecoder.Callback, GlucoseMeasurementContextDecoder.Callback,
+			RunningSpeedAndCadenceMeasurementDecoder.Callback {
+		private final Blackhole bh;
+		private final ByteBuffer rrIntervals;
+
+		private Consumer(final Blackhole bh, final ByteBuffer rrIntervals) {
+			this.bh = bh;
+			this.rrIntervals = rrIntervals;
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurement(final float glucoseConcentration,
+												   final boolean trendPresent, final float trend,
+												   final boolean qualityPresent, final float quality,
+												   final boolean statusPresent, final int warningStatus,
+												   final int calibrationTempStatus, final int sensorStatus,
+												   final int timeOffset, final boolean secured) {
+			bh.consume(glucoseConcentration);
+			bh.consume(trend);
+			bh.consume(quality);
+			bh.consume(warningStatus | calibrationTempStatus | sensorStatus);
+			bh.consume(timeOffset);
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurementCrcError() {
+			bh.consume(false);
+		}
+
+		@Override
+		public void onGlucoseMeasurement(final int sequenceNumber, final long baseTime, final int timeOffset,
+										 final boolean glucoseDataPresent, final float glucoseConcentration,
+										 final boolean unitMolL, final int type, final int sampleLocation,
+										 final boolean statusPresent, final int status,
+										 final boolean contextInformationFollows) {
+			bh.consume(sequenceNumber);
+			bh.consume(DateTime.toEpochMillis(baseTime) + timeOffset * 60_000L);
+			bh.consume(glucoseConcentration);
+			bh.consume(type | sampleLocation);
+			bh.consume(status);
+		}
+
+		@Override
+		public void onHeartRateMeasurement(final int heartRate,
+										   final boolean contactSupported, final boolean contactDetected,
+										   final boolean energyExpandedPresent, final int energyExpanded,
+										   final int rrIntervalsOffset, final int rrIntervalsCount) {
+			bh.consume(heartRate);
+			bh.consume(energyExpanded);
+			for (int i = 0; i < rrIntervalsCount; ++i) {
+				bh.consume(HeartRateMeasurementDecoder.rrInterval(rrIntervals, rrIntervalsOffset, i));
+			}
+		}
+
+		@Override
+		public void onBloodPressureMeasurement(final float systolic, final float diastolic,
+											   final float meanArterialPressure, final boolean unitKPa,
+											   final boolean timestampPresent, final long timestamp,
+											   final boolean pulseRatePresent, final float pulseRate,
+											   final boolean userIdPresent, final int userId,
+											   final boolean statusPresent, final int status) {
+			bh.consume(systolic + diastolic + meanArterialPressure + pulseRate);
+			bh.consume(timestamp);
+			bh.consume(userId | status);
+		}
+
+		@Override
+		public void onGlucoseMeasurementContext(final int sequenceNumber, final int flags,
+												final int carbohydrateId, final float carbohydrateAmount,
+												final int meal, final int tester, final int health,
+												final int exerciseDuration, final int exerciseIntensity,
+												final int medicationId, final float medicationAmount,
+												final float HbA1c) {
+			bh.consume(sequenceNumber);
+			bh.consume(carbohydrateId | meal | tester | health | medicationId);
+			bh.consume(exerciseDuration | exerciseIntensity);
+			bh.consume(carbohydrateAmount + medicationAmount + HbA1c);
+		}
+
+		@Override
+		public void onRSCMeasurement(final boolean running, final float instantaneousSpeed,
+									 final int instantaneousCadence,
+									 final boolean strideLengthPresent, final int strideLength,
+									 final boolean totalDistancePresent, final long totalDistance) {
+			bh.consume(instantaneousSpeed);
+			bh.consume(instantaneousCadence | strideLength);
+			bh.consume(totalDistance);
+		}
+	}
+}
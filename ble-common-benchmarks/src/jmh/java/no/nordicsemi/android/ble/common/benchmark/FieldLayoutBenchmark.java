@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import no.nordicsemi.android.ble.common.decoder.FieldLayout;
+
+/**
+ * Compares finding the length and the field offsets of a Blood Pressure Measurement by summing
+ * the sizes of the present fields, as the decoders did, with a lookup in a {@link FieldLayout}
+ * table. The flags are random, so the branches cannot be predicted, as with values from
+ * different sensors in one stream. {@link DecoderBenchmark} measures complete decoders.
+ */
+@State(Scope.Thread)
+public class FieldLayoutBenchmark {
+	private static final int[] FIELDS = { 0x02, 7, 0x04, 2, 0x08, 1, 0x10, 2 };
+	private static final int STRIDE = FieldLayout.stride(FIELDS);
+	private static final byte[] LAYOUT = FieldLayout.create(7, FIELDS);
+
+	private int[] flags;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(0x2A35);
+		flags = new int[1024];
+		for (int i = 0; i < flags.length; i++)
+			flags[i] = random.nextInt(0x20);
+	}
+
+	@Benchmark
+	public int flagsArithmetic() {
+		int sum = 0;
+		for (final int f : flags) {
+			int position = 7;
+			final int length = 7 + ((f & 0x02) != 0 ? 7 : 0) + ((f & 0x04) != 0 ? 2 : 0)
+					+ ((f & 0x08) != 0 ? 1 : 0) + ((f & 0x10) != 0 ? 2 : 0);
+			int timestamp = 0, pulseRate = 0, userId = 0, status = 0;
+			if ((f & 0x02) != 0) {
+				timestamp = position;
+				position += 7;
+			}
+			if ((f & 0x04) != 0) {
+				pulseRate = position;
+				position += 2;
+			}
+			if ((f & 0x08) != 0) {
+				userId = position;
+				position += 1;
+			}
+			if ((f & 0x10) != 0) {
+				status = position;
+			}
+			sum += length + timestamp + pulseRate + userId + status;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int layoutTable() {
+		int sum = 0;
+		for (final int f : flags) {
+			final int entry = f * STRIDE;
+			sum += LAYOUT[entry + FieldLayout.LENGTH] + LAYOUT[entry + 1] + LAYOUT[entry + 2]
+					+ LAYOUT[entry + 3] + LAYOUT[entry + 4];
+		}
+		return sum;
+	}
+}
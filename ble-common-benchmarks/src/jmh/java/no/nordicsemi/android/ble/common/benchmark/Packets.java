@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+import no.nordicsemi.android.ble.data.Data;
+import no.nordicsemi.android.ble.data.MutableData;
+
+/**
+ * Packet corpora used by the benchmarks. Each corpus contains realistic values of a
+ * characteristic, from the shortest valid packet to packets with all optional fields present.
+ */
+@SuppressWarnings("WeakerAccess")
+final class Packets {
+
+	private Packets() {
+		// empty private constructor
+	}
+
+	// Continuous Glucose Monitoring
+
+	static Data[] cgmMeasurement() {
+		return new Data[] {
+				cgmMeasurement(1, false, false),
+				cgmMeasurement(1, true, false),
+				cgmMeasurement(1, true, true),
+				// Backfill with high MTU: many records in a single notification
+				cgmMeasurement(4, true, true),
+				cgmMeasurement(16, false, true)
+		};
+	}
+
+	static Data cgmMeasurement(final int records, final boolean full, final boolean crc) {
+		final int size = (full ? 13 : 6) + (crc ? 2 : 0);
+		final MutableData data = new MutableData(new byte[records * size]);
+		for (int i = 0; i < records; ++i) {
+			final int offset = i * size;
+			data.setValue(size, Data.FORMAT_UINT8, offset);
+			data.setValue(full ? 0xE3 : 0x00, Data.FORMAT_UINT8, offset + 1);
+			data.setValue(1234 + i, -1, Data.FORMAT_SFLOAT, offset + 2);
+			data.setValue(5 * i, Data.FORMAT_UINT16, offset + 4);
+			if (full) {
+				data.setValue(0x02, Data.FORMAT_UINT8, offset + 6);
+				data.setValue(0x14, Data.FORMAT_UINT8, offset + 7);
+				data.setValue(0x00, Data.FORMAT_UINT8, offset + 8);
+				data.setValue(-2, -1, Data.FORMAT_SFLOAT, offset + 9);
+				data.setValue(997, -1, Data.FORMAT_SFLOAT, offset + 11);
+			}
+			if (crc) {
+				appendCrc(data, offset, size - 2);
+			}
+		}
+		return data;
+	}
+
+	static Data[] cgmStatus() {
+		final MutableData secured = new MutableData(new byte[7]);
+		secured.setValue(1234, Data.FORMAT_UINT16, 0);
+		secured.setValue(0x3F, Data.FORMAT_UINT8, 2);
+		secured.setValue(0x01, Data.FORMAT_UINT8, 3);
+		secured.setValue(0x80, Data.FORMAT_UINT8, 4);
+		appendCrc(secured, 0, 5);
+		return new Data[] { new Data(new byte[] { (byte) 0xD2, 0x04, 0x3F, 0x01, (byte) 0x80 }), secured };
+	}
+
+	static Data[] cgmFeature() {
+		final MutableData secured = new MutableData(new byte[6]);
+		secured.setValue(0x01F7FF, Data.FORMAT_UINT24, 0);
+		secured.setValue(0x59, Data.FORMAT_UINT8, 3);
+		appendCrc(secured, 0, 4);
+		final MutableData unsecured = new MutableData(new byte[6]);
+		unsecured.setValue(0x00EFFF, Data.FORMAT_UINT24, 0);
+		unsecured.setValue(0x59, Data.FORMAT_UINT8, 3);
+		unsecured.setValue(0xFFFF, Data.FORMAT_UINT16, 4);
+		return new Data[] { unsecured, secured };
+	}
+
+	static Data[] cgmSessionStartTime() {
+		final MutableData unsecured = new MutableData(new byte[9]);
+		unsecured.setValue(2018, Data.FORMAT_UINT16, 0);
+		unsecured.setValue(6, Data.FORMAT_UINT8, 2);
+		unsecured.setValue(15, Data.FORMAT_UINT8, 3);
+		unsecured.setValue(8, Data.FORMAT_UINT8, 4);
+		unsecured.setValue(30, Data.FORMAT_UINT8, 5);
+		unsecured.setValue(45, Data.FORMAT_UINT8, 6);
+		unsecured.setValue(4, Data.FORMAT_SINT8, 7);
+		unsecured.setValue(4, Data.FORMAT_UINT8, 8);
+		final MutableData secured = new MutableData(new byte[11]);
+		System.arraycopy(unsecured.getValue(), 0, secured.getValue(), 0, 9);
+		appendCrc(secured, 0, 9);
+		return new Data[] { unsecured, secured };
+	}
+
+	static Data[] cgmSessionRunTime() {
+		final MutableData secured = new MutableData(new byte[4]);
+		secured.setValue(336, Data.FORMAT_UINT16, 0);
+		appendCrc(secured, 0, 2);
+		return new Data[] { new Data(new byte[] { 0x50, 0x01 }), secured };
+	}
+
+	static Data[] cgmSpecificOpsControlPoint() {
+		final MutableData calibration = new MutableData(new byte[13]);
+		calibration.setValue(6, Data.FORMAT_UINT8, 0);
+		calibration.setValue(1234, -1, Data.FORMAT_SFLOAT, 1);
+		calibration.setValue(10, Data.FORMAT_UINT16, 3);
+		calibration.setValue(0x52, Data.FORMAT_UINT8, 5);
+		calibration.setValue(20, Data.FORMAT_UINT16, 6);
+		calibration.setValue(1, Data.FORMAT_UINT16, 8);
+		calibration.setValue(0, Data.FORMAT_UINT8, 10);
+		appendCrc(calibration, 0, 11);
+		final MutableData highAlert = new MutableData(new byte[5]);
+		highAlert.setValue(9, Data.FORMAT_UINT8, 0);
+		highAlert.setValue(180, 0, Data.FORMAT_SFLOAT, 1);
+		appendCrc(highAlert, 0, 3);
+		return new Data[] {
+				new Data(new byte[] { 3, 5 }),
+				new Data(new byte[] { 28, 26, 1 }),
+				new Data(new byte[] { 28, 4, 5 }),
+				calibration,
+				highAlert
+		};
+	}
+
+	// Glucose
+
+	static Data[] glucoseMeasurement() {
+		final MutableData full = new MutableData(new byte[17]);
+		full.setValue(0x1F, Data.FORMAT_UINT8, 0);
+		full.setValue(1, Data.FORMAT_UINT16, 1);
+		dateTime(full, 3);
+		full.setValue(-60, Data.FORMAT_SINT16, 10);
+		full.setValue(655, -7, Data.FORMAT_SFLOAT, 12);
+		full.setValue(0x12, Data.FORMAT_UINT8, 14);
+		full.setValue(0x0001, Data.FORMAT_UINT16, 15);
+		final MutableData minimal = new MutableData(new byte[10]);
+		minimal.setValue(2, Data.FORMAT_UINT16, 1);
+		dateTime(minimal, 3);
+		final MutableData concentration = new MutableData(new byte[13]);
+		concentration.setValue(0x02, Data.FORMAT_UINT8, 0);
+		concentration.setValue(3, Data.FORMAT_UINT16, 1);
+		dateTime(concentration, 3);
+		concentration.setValue(655, -7, Data.FORMAT_SFLOAT, 10);
+		concentration.setValue(0x11, Data.FORMAT_UINT8, 12);
+		return new Data[] { minimal, concentration, full };
+	}
+
+	static Data[] glucoseMeasurementContext() {
+		final MutableData full = new MutableData(new byte[17]);
+		full.setValue(0xDF, Data.FORMAT_UINT8, 0);
+		full.setValue(1, Data.FORMAT_UINT16, 1);
+		full.setValue(0, Data.FORMAT_UINT8, 3); // extended flags
+		full.setValue(1, Data.FORMAT_UINT8, 4);
+		full.setValue(100, -1, Data.FORMAT_SFLOAT, 5);
+		full.setValue(2, Data.FORMAT_UINT8, 7);
+		full.setValue(0x12, Data.FORMAT_UINT8, 8);
+		full.setValue(1800, Data.FORMAT_UINT16, 9);
+		full.setValue(70, Data.FORMAT_UINT8, 11);
+		full.setValue(1, Data.FORMAT_UINT8, 12);
+		full.setValue(25, -3, Data.FORMAT_SFLOAT, 13);
+		full.setValue(60, -1, Data.FORMAT_SFLOAT, 15);
+		final MutableData meal = new MutableData(new byte[4]);
+		meal.setValue(0x02, Data.FORMAT_UINT8, 0);
+		meal.setValue(2, Data.FORMAT_UINT16, 1);
+		meal.setValue(1, Data.FORMAT_UINT8, 3);
+		return new Data[] { new Data(new byte[] { 0, 3, 0 }), meal, full };
+	}
+
+	static Data[] glucoseFeature() {
+		return new Data[] { new Data(new byte[] { (byte) 0xFF, 0x07 }) };
+	}
+
+	// Blood Pressure
+
+	static Data[] bloodPressureMeasurement() {
+		final MutableData full = new MutableData(new byte[19]);
+		full.setValue(0x1E, Data.FORMAT_UINT8, 0);
+		full.setValue(121, 0, Data.FORMAT_SFLOAT, 1);
+		full.setValue(81, 0, Data.FORMAT_SFLOAT, 3);
+		full.setValue(106, 0, Data.FORMAT_SFLOAT, 5);
+		dateTime(full, 7);
+		full.setValue(60, 0, Data.FORMAT_SFLOAT, 14);
+		full.setValue(1, Data.FORMAT_UINT8, 16);
+		full.setValue(0x0001, Data.FORMAT_UINT16, 17);
+		final MutableData minimal = new MutableData(new byte[7]);
+		minimal.setValue(0x01, Data.FORMAT_UINT8, 0);
+		minimal.setValue(161, -1, Data.FORMAT_SFLOAT, 1);
+		minimal.setValue(108, -1, Data.FORMAT_SFLOAT, 3);
+		minimal.setValue(141, -1, Data.FORMAT_SFLOAT, 5);
+		return new Data[] { minimal, full };
+	}
+
+	static Data[] intermediateCuffPressure() {
+		final MutableData full = new MutableData(new byte[19]);
+		full.setValue(0x1E, Data.FORMAT_UINT8, 0);
+		full.setValue(95, 0, Data.FORMAT_SFLOAT, 1);
+		full.setValue(0x07FF, Data.FORMAT_UINT16, 3);
+		full.setValue(0x07FF, Data.FORMAT_UINT16, 5);
+		dateTime(full, 7);
+		full.setValue(60, 0, Data.FORMAT_SFLOAT, 14);
+		full.setValue(1, Data.FORMAT_UINT8, 16);
+		full.setValue(0x0004, Data.FORMAT_UINT16, 17);
+		final MutableData minimal = new MutableData(new byte[7]);
+		minimal.setValue(95, 0, Data.FORMAT_SFLOAT, 1);
+		minimal.setValue(0x07FF, Data.FORMAT_UINT16, 3);
+		minimal.setValue(0x07FF, Data.FORMAT_UINT16, 5);
+		return new Data[] { minimal, full };
+	}
+
+	// Heart Rate
+
+	static Data[] heartRateMeasurement() {
+		return new Data[] {
+				heartRateMeasurement(false, false, 0),
+				heartRateMeasurement(false, true, 1),
+				// Maximum number of RR-Intervals with default MTU
+				heartRateMeasurement(true, true, 8),
+				// RR-Intervals buffered by the sensor, sent with high MTU
+				heartRateMeasurement(false, false, 100)
+		};
+	}
+
+	static Data heartRateMeasurement(final boolean uint16, final boolean energyExpended, final int rrIntervals) {
+		final int flags = (uint16 ? 0x01 : 0x00) | 0x06 | (energyExpended ? 0x08 : 0x00) | (rrIntervals > 0 ? 0x10 : 0x00);
+		final MutableData data = new MutableData(new byte[1 + (uint16 ? 2 : 1) + (energyExpended ? 2 : 0) + 2 * rrIntervals]);
+		int offset = 0;
+		data.setValue(flags, Data.FORMAT_UINT8, offset++);
+		data.setValue(72, uint16 ? Data.FORMAT_UINT16 : Data.FORMAT_UINT8, offset);
+		offset += uint16 ? 2 : 1;
+		if (energyExpended) {
+			data.setValue(350, Data.FORMAT_UINT16, offset);
+			offset += 2;
+		}
+		for (int i = 0; i < rrIntervals; ++i) {
+			data.setValue(830 + (i % 7) * 5, Data.FORMAT_UINT16, offset);
+			offset += 2;
+		}
+		return data;
+	}
+
+	static Data[] bodySensorLocation() {
+		return new Data[] { new Data(new byte[] { 1 }) };
+	}
+
+	// Health Thermometer
+
+	static Data[] temperatureMeasurement() {
+		final MutableData full = new MutableData(new byte[13]);
+		full.setValue(0x06, Data.FORMAT_UINT8, 0);
+		full.setValue(3675, -2, Data.FORMAT_FLOAT, 1);
+		dateTime(full, 5);
+		full.setValue(2, Data.FORMAT_UINT8, 12);
+		final MutableData minimal = new MutableData(new byte[5]);
+		minimal.setValue(0x01, Data.FORMAT_UINT8, 0);
+		minimal.setValue(9815, -2, Data.FORMAT_FLOAT, 1);
+		return new Data[] { minimal, full };
+	}
+
+	static Data[] temperatureType() {
+		return new Data[] { new Data(new byte[] { 2 }) };
+	}
+
+	static Data[] measurementInterval() {
+		return new Data[] { new Data(new byte[] { 60, 0 }) };
+	}
+
+	// Cycling and Running Speed and Cadence
+
+	static Data[] cyclingSpeedAndCadenceMeasurement() {
+		// Consecutive measurements, so that speed and cadence are calculated
+		final Data[] corpus = new Data[8];
+		for (int i = 0; i < corpus.length; ++i) {
+			final MutableData data = new MutableData(new byte[11]);
+			data.setValue(0x03, Data.FORMAT_UINT8, 0);
+			data.setValue(1000 + 3 * i, Data.FORMAT_UINT32, 1);
+			data.setValue((1024 * i) & 0xFFFF, Data.FORMAT_UINT16, 5);
+			data.setValue(500 + i, Data.FORMAT_UINT16, 7);
+			data.setValue((1100 * i) & 0xFFFF, Data.FORMAT_UINT16, 9);
+			corpus[i] = data;
+		}
+		return corpus;
+	}
+
+	static Data[] cyclingSpeedAndCadenceFeature() {
+		return new Data[] { new Data(new byte[] { 0x07, 0x00 }) };
+	}
+
+	static Data[] runningSpeedAndCadenceMeasurement() {
+		final MutableData full = new MutableData(new byte[10]);
+		full.setValue(0x07, Data.FORMAT_UINT8, 0);
+		full.setValue(3 * 256, Data.FORMAT_UINT16, 1);
+		full.setValue(180, Data.FORMAT_UINT8, 3);
+		full.setValue(86, Data.FORMAT_UINT16, 4);
+		full.setValue(123456, Data.FORMAT_UINT32, 6);
+		final MutableData minimal = new MutableData(new byte[4]);
+		minimal.setValue(2 * 256, Data.FORMAT_UINT16, 1);
+		minimal.setValue(160, Data.FORMAT_UINT8, 3);
+		return new Data[] { minimal, full };
+	}
+
+	static Data[] runningSpeedAndCadenceFeature() {
+		return new Data[] { new Data(new byte[] { 0x1F, 0x00 }) };
+	}
+
+	static Data[] sensorLocation() {
+		return new Data[] { new Data(new byte[] { 12 }) };
+	}
+
+	static Data[] speedAndCadenceControlPoint() {
+		return new Data[] {
+				new Data(new byte[] { 16, 1, 1 }),
+				new Data(new byte[] { 16, 3, 4 }),
+				new Data(new byte[] { 16, 4, 1, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14 })
+		};
+	}
+
+	// Other
+
+	static Data[] recordAccessControlPoint() {
+		return new Data[] {
+				new Data(new byte[] { 5, 0, 0x10, 0x27 }),
+				new Data(new byte[] { 5, 0, 0x10, 0x27, 0, 0 }),
+				new Data(new byte[] { 6, 0, 1, 1 }),
+				new Data(new byte[] { 6, 0, 1, 6 }),
+				new Data(new byte[] { 6, 0, 3, 7 })
+		};
+	}
+
+	static Data[] dateTime() {
+		final MutableData data = new MutableData(new byte[7]);
+		dateTime(data, 0);
+		return new Data[] { data };
+	}
+
+	static Data[] dstOffset() {
+		return new Data[] { new Data(new byte[] { 4 }) };
+	}
+
+	static Data[] timeZone() {
+		return new Data[] { new Data(new byte[] { 4 }) };
+	}
+
+	static Data[] batteryLevel() {
+		return new Data[] { new Data(new byte[] { 85 }) };
+	}
+
+	static Data[] alertLevel() {
+		return new Data[] { new Data(new byte[] { 2 }) };
+	}
+
+	/**
+	 * Returns a buffer of given length filled with pseudo-random bytes.
+	 */
+	static byte[] random(final int length) {
+		final byte[] data = new byte[length];
+		int seed = 0x1021;
+		for (int i = 0; i < length; ++i) {
+			seed = seed * 1103515245 + 12345;
+			data[i] = (byte) (seed >>> 16);
+		}
+		return data;
+	}
+
+	private static void dateTime(final MutableData data, final int offset) {
+		data.setValue(2018, Data.FORMAT_UINT16, offset);
+		data.setValue(6, Data.FORMAT_UINT8, offset + 2);
+		data.setValue(15, Data.FORMAT_UINT8, offset + 3);
+		data.setValue(8, Data.FORMAT_UINT8, offset + 4);
+		data.setValue(30, Data.FORMAT_UINT8, offset + 5);
+		data.setValue(45, Data.FORMAT_UINT8, offset + 6);
+	}
+
+	@SuppressWarnings("ConstantConditions")
+	private static void appendCrc(final MutableData data, final int offset, final int length) {
+		final int crc = CRC16.MCRF4XX(data.getValue(), offset, length);
+		data.setValue(crc, Data.FORMAT_UINT16, offset + length);
+	}
+}
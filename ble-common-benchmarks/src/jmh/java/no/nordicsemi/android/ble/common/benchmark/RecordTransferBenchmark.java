@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import android.bluetooth.BluetoothDevice;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Calendar;
+
+import no.nordicsemi.android.ble.common.callback.cgm.ContinuousGlucoseMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+import no.nordicsemi.android.ble.common.simulator.CGMServerSimulator;
+import no.nordicsemi.android.ble.common.simulator.GlucoseServerSimulator;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Measures downloading all records from simulated Glucose and CGM servers, including
+ * the RACP request, packing records into packets and parsing them with the data callbacks.
+ * Packets are sent without pacing. The score is in downloads per second, each with
+ * {@link #records} records.
+ */
+@State(Scope.Thread)
+@SuppressWarnings("ConstantConditions")
+public class RecordTransferBenchmark {
+	private static final byte[] REPORT_ALL_RECORDS = { 1, 1 };
+
+	@Param({ "10000" })
+	public int records;
+
+	@Param({ "23", "247" })
+	public int mtu;
+
+	@Param({ "false", "true" })
+	public boolean e2eCrc;
+
+	private GlucoseServerSimulator glucoseServer;
+	private CGMServerSimulator cgmServer;
+	private int received;
+
+	private final GlucoseMeasurementDataCallback glucoseCallback = new GlucoseMeasurementDataCallback() {
+		@Override
+		public void onGlucoseMeasurementReceived(@NonNull final BluetoothDevice device, final int sequenceNumber,
+												 @NonNull final Calendar time, @Nullable final Float glucoseConcentration,
+												 @Nullable final Integer unit, @Nullable final Integer type,
+												 @Nullable final Integer sampleLocation, @Nullable final GlucoseStatus status,
+												 final boolean contextInformationFollows) {
+			received++;
+		}
+	};
+
+	private final ContinuousGlucoseMeasurementDataCallback cgmCallback = new ContinuousGlucoseMeasurementDataCallback() {
+		@Override
+		public void onContinuousGlucoseMeasurementReceived(@NonNull final BluetoothDevice device,
+														   final float glucoseConcentration,
+														   @Nullable final Float cgmTrend, @Nullable final Float cgmQuality,
+														   @Nullable final CGMStatus status,
+														   final int timeOffset, final boolean secured) {
+			received++;
+		}
+	};
+
+	@Setup
+	public void setup() {
+		glucoseServer = new GlucoseServerSimulator((characteristic, value, offset, length) -> {
+			if (characteristic == Characteristics.GLUCOSE_MEASUREMENT)
+				glucoseCallback.onDataReceived(null, new Data(Arrays.copyOfRange(value, offset, offset + length)));
+		});
+		cgmServer = new CGMServerSimulator((characteristic, value, offset, length) -> {
+			if (characteristic == Characteristics.CGM_MEASUREMENT)
+				cgmCallback.onDataReceived(null, new Data(Arrays.copyOfRange(value, offset, offset + length)));
+		});
+		glucoseServer.setMtu(mtu);
+		cgmServer.setMtu(mtu);
+		cgmServer.setE2eCrc(e2eCrc);
+
+		final long baseTime = DateTime.pack(2026, 1, 1, 0, 0, 0);
+		for (int i = 0; i < records; i++) {
+			glucoseServer.addRecord(baseTime, i, 0.0055f + i % 10 * 0.0001f, true, 1, 1, -1);
+			cgmServer.addRecord(i, 100f + i % 50, -0.5f, 95f, -1, -1, i % 10 == 0 ? 0x11 : -1);
+		}
+	}
+
+	@Benchmark
+	public int glucose() {
+		received = 0;
+		glucoseServer.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, REPORT_ALL_RECORDS);
+		glucoseServer.drain();
+		return received;
+	}
+
+	@Benchmark
+	public int cgm() {
+		received = 0;
+		cgmServer.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, REPORT_ALL_RECORDS);
+		cgmServer.drain();
+		return received;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import no.nordicsemi.android.ble.common.decoder.IEEE11073Float;
+
+/**
+ * Measures IEEE-11073 SFLOAT decoding of 1024 values typical for medical measurements:
+ * the former {@link Math#pow(double, double)} implementation, the power-of-ten table
+ * and the memoized table of all values, and encoding with {@link IEEE11073Float#toSfloat(float)}.
+ */
+@State(Scope.Thread)
+public class SfloatBenchmark {
+	private int[] raw;
+	private float[] values;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(11073);
+		raw = new int[1024];
+		values = new float[raw.length];
+		for (int i = 0; i < raw.length; i++) {
+			// Mostly exponents -3 to 0, as in glucose, blood pressure and temperature values
+			raw[i] = IEEE11073Float.sfloat(random.nextInt(2000), -random.nextInt(4));
+			values[i] = IEEE11073Float.sfloat(raw[i]);
+		}
+	}
+
+	@Benchmark
+	public float mathPow() {
+		float sum = 0;
+		for (final int value : raw) {
+			final int mantissa = (value << 20) >> 20;
+			final int exponent = (value << 16) >> 28;
+			sum += (float) (mantissa * Math.pow(10, exponent));
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public float powerTable() {
+		float sum = 0;
+		for (final int value : raw)
+			sum += IEEE11073Float.sfloat(value);
+		return sum;
+	}
+
+	@Benchmark
+	public float memoizedTable() {
+		float sum = 0;
+		for (final int value : raw)
+			sum += IEEE11073Float.sfloatFromTable(value);
+		return sum;
+	}
+
+	@Benchmark
+	public int encode() {
+		int sum = 0;
+		for (final float value : values)
+			sum += IEEE11073Float.toSfloat(value);
+		return sum;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.capture;
+
+/**
+ * The capture file format.
+ * <p>
+ * A file starts with an 8 byte header: the magic number {@link #MAGIC} and the format version
+ * (uint16), followed by 2 reserved bytes. Records follow the header back to back:
+ * <pre>
+ * int64  timestamp in nanoseconds
+ * uint16 device
+ * uint16 16-bit UUID of the characteristic, or {@link #DEVICE_RECORD}
+ * uint16 length of the value
+ * byte[] value
+ * </pre>
+ * A device record declares the address of a device, given as a UTF-8 value. All numbers are
+ * little endian. A truncated record at the end of the file, for example after a crash,
+ * is ignored.
+ */
+final class CaptureFormat {
+	/** "BLEC" as a little endian int. */
+	static final int MAGIC = 0x43454C42;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 8;
+
+	static final int TIMESTAMP = 0;
+	static final int DEVICE = 8;
+	static final int CHARACTERISTIC = 10;
+	static final int LENGTH = 12;
+	static final int RECORD_HEADER_SIZE = 14;
+
+	static final int DEVICE_RECORD = 0;
+	static final int MAX_DEVICE = 0xFFFF;
+	static final int MAX_VALUE_LENGTH = 0xFFFF;
+	static final int MAX_RECORD_SIZE = RECORD_HEADER_SIZE + MAX_VALUE_LENGTH;
+
+	private CaptureFormat() {
+		// empty private constructor
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.capture;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import no.nordicsemi.android.ble.common.dispatch.NotificationDispatcher;
+
+import static no.nordicsemi.android.ble.common.capture.CaptureFormat.*;
+
+/**
+ * Replays a capture file written by {@link CaptureWriter}.
+ * <p>
+ * The file is memory-mapped in windows of up to 1 GB and values are passed to the visitor
+ * as the mapped buffer with an offset and length, so they are decoded without copying.
+ * Values may be replayed at full speed or paced by their timestamps.
+ * <p>
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CaptureReader implements Closeable {
+	private static final long MAX_WINDOW_SIZE = 1 << 30;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long size;
+	private MappedByteBuffer window;
+	private long windowStart;
+
+	public interface Visitor {
+
+		/**
+		 * Called when the address of the device is declared.
+		 *
+		 * @param device  the device id.
+		 * @param address the device address.
+		 */
+		default void onDevice(final int device, @NonNull final String address) {
+			// empty default implementation
+		}
+
+		/**
+		 * Called for each recorded value.
+		 *
+		 * @param timestamp      the time the value was received, in nanoseconds.
+		 * @param device         the device id.
+		 * @param characteristic the 16-bit UUID of the characteristic.
+		 * @param buffer         the buffer with the value, valid only until this method returns.
+		 *                       The position and limit must not be modified.
+		 * @param offset         index of the first byte of the value.
+		 * @param length         length of the value in bytes.
+		 */
+		void onValue(long timestamp, int device, int characteristic,
+					 @NonNull ByteBuffer buffer, int offset, int length);
+	}
+
+	/**
+	 * Opens the capture file.
+	 *
+	 * @param file the file.
+	 * @throws IOException if the file could not be read or is not a capture file.
+	 */
+	public CaptureReader(@NonNull final File file) throws IOException {
+		this.file = new RandomAccessFile(file, "r");
+		this.channel = this.file.getChannel();
+		this.size = channel.size();
+		try {
+			if (!map(0, HEADER_SIZE) || window.getInt(0) != MAGIC)
+				throw new IOException("Not a capture file");
+			if ((window.getShort(4) & 0xFFFF) != VERSION)
+				throw new IOException("Unsupported capture version: " + (window.getShort(4) & 0xFFFF));
+		} catch (final IOException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Replays all values at full speed.
+	 *
+	 * @return The number of values replayed.
+	 */
+	public long replay(@NonNull final Visitor visitor) throws IOException {
+		return replay(visitor, 0);
+	}
+
+	/**
+	 * Replays all values, pacing them by their timestamps.
+	 *
+	 * @param visitor the visitor.
+	 * @param speed   the replay speed, 1.0 for real time; 0 replays at full speed.
+	 * @return The number of values replayed.
+	 * @throws InterruptedIOException if the thread was interrupted while waiting for a value.
+	 */
+	public long replay(@NonNull final Visitor visitor, final double speed) throws IOException {
+		if (speed < 0)
+			throw new IllegalArgumentException("Speed must not be negative");
+		final Charset utf8 = Charset.forName("UTF-8");
+		long position = HEADER_SIZE;
+		long count = 0;
+		long firstTimestamp = 0;
+		long start = 0;
+		while (map(position, RECORD_HEADER_SIZE)) {
+			final int header = (int) (position - windowStart);
+			final int length = window.getShort(header + LENGTH) & 0xFFFF;
+			if (!map(position, RECORD_HEADER_SIZE + length))
+				break;
+			// The window may have moved
+			final int record = (int) (position - windowStart);
+			final long timestamp = window.getLong(record + TIMESTAMP);
+			final int device = window.getShort(record + DEVICE) & 0xFFFF;
+			final int characteristic = window.getShort(record + CHARACTERISTIC) & 0xFFFF;
+
+			if (characteristic == DEVICE_RECORD) {
+				final byte[] address = new byte[length];
+				for (int i = 0; i < length; i++)
+					address[i] = window.get(record + RECORD_HEADER_SIZE + i);
+				visitor.onDevice(device, new String(address, utf8));
+			} else {
+				if (speed > 0) {
+					if (count == 0) {
+						firstTimestamp = timestamp;
+						start = System.nanoTime();
+					} else {
+						await(start + (long) ((timestamp - firstTimestamp) / speed));
+					}
+				}
+				visitor.onValue(timestamp, device, characteristic, window, record + RECORD_HEADER_SIZE, length);
+				count++;
+			}
+			position += RECORD_HEADER_SIZE + length;
+		}
+		return count;
+	}
+
+	/**
+	 * Replays all values at full speed to the dispatcher. Devices declared in the capture are
+	 * added to the dispatcher; values of devices that could not be added are skipped.
+	 *
+	 * @return The number of values replayed.
+	 */
+	public long replay(@NonNull final NotificationDispatcher dispatcher) throws IOException {
+		return replay(dispatcher, 0);
+	}
+
+	/**
+	 * Replays all values to the dispatcher, pacing them by their timestamps. Devices declared
+	 * in the capture are added to the dispatcher; values of devices that could not be added
+	 * are skipped.
+	 *
+	 * @param dispatcher the dispatcher.
+	 * @param speed      the replay speed, 1.0 for real time; 0 replays at full speed.
+	 * @return The number of values replayed.
+	 */
+	public long replay(@NonNull final NotificationDispatcher dispatcher, final double speed) throws IOException {
+		final int[] devices = new int[MAX_DEVICE + 1];
+		Arrays.fill(devices, -1);
+		return replay(new Visitor() {
+			@Override
+			public void onDevice(final int device, @NonNull final String address) {
+				devices[device] = dispatcher.addDevice(address);
+			}
+
+			@Override
+			public void onValue(final long timestamp, final int device, final int characteristic,
+								@NonNull final ByteBuffer buffer, final int offset, final int length) {
+				final int index = devices[device];
+				if (index >= 0)
+					dispatcher.dispatch(index, characteristic, buffer, offset, length);
+			}
+		}, speed);
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		file.close();
+	}
+
+	/**
+	 * Maps a window containing the given range of the file, unless the current one does.
+	 *
+	 * @return False if the range exceeds the file.
+	 */
+	private boolean map(final long position, final int length) throws IOException {
+		if (position + length > size)
+			return false;
+		if (window != null && position >= windowStart && position + length <= windowStart + window.capacity())
+			return true;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, MAX_WINDOW_SIZE));
+		window.order(ByteOrder.LITTLE_ENDIAN);
+		windowStart = position;
+		return true;
+	}
+
+	private static void await(final long deadline) throws InterruptedIOException {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted())
+				throw new InterruptedIOException("Replay interrupted");
+		}
+	}
+}
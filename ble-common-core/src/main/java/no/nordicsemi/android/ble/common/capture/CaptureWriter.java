@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.capture;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import static no.nordicsemi.android.ble.common.capture.CaptureFormat.*;
+
+/**
+ * Writes raw notifications and indications to a capture file, which can be replayed using
+ * {@link CaptureReader}. See {@link CaptureFormat} for the file format.
+ * <p>
+ * Records are collected in a direct buffer allocated once and written to the file when it is
+ * full, so appending a value does not allocate. Methods are synchronized, as notifications
+ * of different devices may be received on different threads.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CaptureWriter implements Closeable {
+	/** The default buffer size, fitting any record. */
+	public static final int DEFAULT_BUFFER_SIZE = 0x20000;
+	private static final byte[] EMPTY = new byte[0];
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private boolean closed;
+
+	/**
+	 * Creates a new capture file, replacing the existing one.
+	 *
+	 * @param file the file.
+	 */
+	public CaptureWriter(@NonNull final File file) throws IOException {
+		this(file, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new capture file, replacing the existing one.
+	 *
+	 * @param file       the file.
+	 * @param bufferSize the size of the buffer, at least 65549 bytes, so that any record fits.
+	 */
+	public CaptureWriter(@NonNull final File file, final int bufferSize) throws IOException {
+		if (bufferSize < MAX_RECORD_SIZE)
+			throw new IllegalArgumentException("Buffer size must be at least " + MAX_RECORD_SIZE);
+		this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+		this.file = new RandomAccessFile(file, "rw");
+		this.channel = this.file.getChannel();
+		try {
+			this.file.setLength(0);
+		} catch (final IOException e) {
+			this.file.close();
+			throw e;
+		}
+		buffer.putInt(MAGIC);
+		buffer.putShort((short) VERSION);
+		buffer.putShort((short) 0);
+	}
+
+	/**
+	 * Declares the address of the device. Replays report it before the following records.
+	 *
+	 * @param device  the device id, from 0 to 65535.
+	 * @param address the device address.
+	 */
+	public void addDevice(final int device, @NonNull final String address) throws IOException {
+		final byte[] value = address.getBytes(Charset.forName("UTF-8"));
+		write(System.nanoTime(), device, DEVICE_RECORD, value, 0, value.length);
+	}
+
+	/**
+	 * Appends the value.
+	 *
+	 * @param timestamp      the time the value was received, in nanoseconds.
+	 * @param device         the device id, from 0 to 65535.
+	 * @param characteristic the 16-bit UUID of the characteristic, other than 0.
+	 * @param value          the value, null is treated as an empty value.
+	 */
+	public void append(final long timestamp, final int device, final int characteristic,
+					   @Nullable final byte[] value) throws IOException {
+		if (value == null) {
+			append(timestamp, device, characteristic, EMPTY, 0, 0);
+		} else {
+			append(timestamp, device, characteristic, value, 0, value.length);
+		}
+	}
+
+	/**
+	 * Appends the value.
+	 *
+	 * @param timestamp      the time the value was received, in nanoseconds.
+	 * @param device         the device id, from 0 to 65535.
+	 * @param characteristic the 16-bit UUID of the characteristic, other than 0.
+	 * @param value          the array with the value.
+	 * @param offset         index of the first byte of the value.
+	 * @param length         length of the value in bytes, at most 65535.
+	 * @throws IndexOutOfBoundsException if the value is outside of the array.
+	 */
+	public void append(final long timestamp, final int device, final int characteristic,
+					   @NonNull final byte[] value, final int offset, final int length) throws IOException {
+		checkCharacteristic(characteristic);
+		checkBounds(offset, length, value.length);
+		write(timestamp, device, characteristic, value, offset, length);
+	}
+
+	/**
+	 * Appends the value.
+	 *
+	 * @param timestamp      the time the value was received, in nanoseconds.
+	 * @param device         the device id, from 0 to 65535.
+	 * @param characteristic the 16-bit UUID of the characteristic, other than 0.
+	 * @param value          the buffer with the value. The position and limit are not modified.
+	 * @param offset         index of the first byte of the value.
+	 * @param length         length of the value in bytes, at most 65535.
+	 * @throws IndexOutOfBoundsException if the value is outside of the buffer limit.
+	 */
+	public synchronized void append(final long timestamp, final int device, final int characteristic,
+									@NonNull final ByteBuffer value, final int offset, final int length) throws IOException {
+		checkCharacteristic(characteristic);
+		checkBounds(offset, length, value.limit());
+		prepare(timestamp, device, characteristic, length);
+		for (int i = 0; i < length; i++)
+			buffer.put(value.get(offset + i));
+	}
+
+	/**
+	 * Writes the buffered records to the file.
+	 */
+	public synchronized void flush() throws IOException {
+		if (closed)
+			throw new IOException("Writer closed");
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		try {
+			flush();
+		} finally {
+			closed = true;
+			file.close();
+		}
+	}
+
+	private synchronized void write(final long timestamp, final int device, final int characteristic,
+									@NonNull final byte[] value, final int offset, final int length) throws IOException {
+		prepare(timestamp, device, characteristic, length);
+		buffer.put(value, offset, length);
+	}
+
+	private static void checkCharacteristic(final int characteristic) {
+		if (characteristic == DEVICE_RECORD)
+			throw new IllegalArgumentException("Characteristic 0 is reserved for device records");
+	}
+
+	/**
+	 * Validates the value bounds before anything is written, so a failed append
+	 * does not leave a partial record.
+	 */
+	private static void checkBounds(final int offset, final int length, final int size) {
+		if (offset < 0 || length < 0 || offset > size - length)
+			throw new IndexOutOfBoundsException("Value out of bounds: offset " + offset
+					+ ", length " + length + ", size " + size);
+	}
+
+	private void prepare(final long timestamp, final int device, final int characteristic,
+						 final int length) throws IOException {
+		if (closed)
+			throw new IOException("Writer closed");
+		if (device < 0 || device > MAX_DEVICE)
+			throw new IllegalArgumentException("Device must be in range 0-65535");
+		if (characteristic < 0 || characteristic > 0xFFFF)
+			throw new IllegalArgumentException("Characteristic must be a 16-bit UUID");
+		if (length < 0 || length > MAX_VALUE_LENGTH)
+			throw new IllegalArgumentException("Value too long: " + length);
+		if (buffer.remaining() < RECORD_HEADER_SIZE + length)
+			flush();
+		buffer.putLong(timestamp);
+		buffer.putShort((short) device);
+		buffer.putShort((short) characteristic);
+		buffer.putShort((short) length);
+	}
+}
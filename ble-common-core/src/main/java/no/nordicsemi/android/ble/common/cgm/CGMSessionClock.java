@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.cgm;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.decoder.CGMSessionStartTimeDecoder;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+
+/**
+ * Converts the time offsets of CGM Measurement records into absolute timestamps.
+ * <p>
+ * A CGM Measurement contains only the time offset in minutes since the session start.
+ * The clock caches the CGM Session Start Time as UTC epoch milliseconds, together with the
+ * time zone and DST offset, so converting a record is a plain integer operation.
+ * <p>
+ * The time offset is a uint16 value and wraps around after 65536 minutes (about 45 days).
+ * The clock keeps track of the highest offset seen in the current session and extends
+ * each offset to the one closest to it, so both records following a wrap and older records
+ * from a backfill are resolved correctly, as long as they are less than 32768 minutes
+ * (about 22 days) apart.
+ * <p>
+ * A single clock should be used for each device. Call
+ * {@link #setSessionStartTime(ByteBuffer, int, int)} when the CGM Session Start Time is read,
+ * and {@link #reset()} when a new session is started on the device.
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CGMSessionClock implements CGMSessionStartTimeDecoder.Callback {
+	/** The value returned by {@link #toEpochMillis(int)} if the session start time is unknown. */
+	public static final long UNKNOWN = Long.MIN_VALUE;
+
+	private static final int TIME_ZONE_UNKNOWN = -128;
+	private static final int DST_OFFSET_UNKNOWN = 255;
+	private static final long MILLIS_PER_MINUTE = 60_000L;
+
+	/** The session start time in UTC epoch milliseconds, or {@link #UNKNOWN}. */
+	private long sessionStartMillis = UNKNOWN;
+	private int timeZoneOffset;
+	private int dstOffset;
+	private boolean crcError;
+	/** The highest time offset seen in the session, extended beyond 16 bits, or -1. */
+	private long lastTimeOffset = -1;
+
+	/**
+	 * Sets the session start time from the CGM Session Start Time value.
+	 * If the start time differs from the cached one, a new session is assumed.
+	 *
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @return True if the value is valid and its E2E-CRC, if present, matches, false otherwise.
+	 */
+	public boolean setSessionStartTime(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		crcError = false;
+		return CGMSessionStartTimeDecoder.decode(buffer, offset, length, this) && !crcError;
+	}
+
+	/**
+	 * Sets the session start time. The date and time are the local time of the device.
+	 * If the start time differs from the cached one, a new session is assumed.
+	 *
+	 * @param year      the year, e.g. 2018.
+	 * @param month     the month, 1-12.
+	 * @param day       the day of month, 1-31.
+	 * @param hours     the hours, 0-23.
+	 * @param minutes   the minutes, 0-59.
+	 * @param seconds   the seconds, 0-59.
+	 * @param timeZone  the time zone, as offset from UTC in 15 minutes increments,
+	 *                  or -128 if unknown.
+	 * @param dstOffset the DST offset code: 0, 2, 4, 8, or 255 if unknown.
+	 */
+	public void setSessionStartTime(final int year, final int month, final int day,
+									final int hours, final int minutes, final int seconds,
+									final int timeZone, final int dstOffset) {
+		setSessionStartTimeLocal(DateTime.toLocalMillis(
+				DateTime.pack(year, month, day, hours, minutes, seconds)), timeZone, dstOffset);
+	}
+
+	/**
+	 * Sets the session start time.
+	 * If the start time differs from the cached one, a new session is assumed.
+	 *
+	 * @param sessionStartMillis the session start time in UTC epoch milliseconds.
+	 * @param timeZoneOffset     the time zone offset from UTC in minutes.
+	 * @param dstOffset          the DST offset in minutes.
+	 */
+	public void setSessionStartTime(final long sessionStartMillis,
+									final int timeZoneOffset, final int dstOffset) {
+		if (this.sessionStartMillis != sessionStartMillis)
+			lastTimeOffset = -1;
+		this.sessionStartMillis = sessionStartMillis;
+		this.timeZoneOffset = timeZoneOffset;
+		this.dstOffset = dstOffset;
+	}
+
+	/**
+	 * Forgets the session start time and the time offsets seen. This should be called when
+	 * a new session is started on the device, or when the clock is used for another device.
+	 */
+	public void reset() {
+		sessionStartMillis = UNKNOWN;
+		timeZoneOffset = 0;
+		dstOffset = 0;
+		lastTimeOffset = -1;
+	}
+
+	/**
+	 * Returns true if the session start time has been set.
+	 */
+	public boolean isSessionStartTimeKnown() {
+		return sessionStartMillis != UNKNOWN;
+	}
+
+	/**
+	 * Returns the session start time in UTC epoch milliseconds, or {@link #UNKNOWN}.
+	 */
+	public long getSessionStartMillis() {
+		return sessionStartMillis;
+	}
+
+	/**
+	 * Returns the time zone offset of the device from UTC in minutes, without DST.
+	 */
+	public int getTimeZoneOffset() {
+		return timeZoneOffset;
+	}
+
+	/**
+	 * Returns the DST offset of the device in minutes.
+	 */
+	public int getDstOffset() {
+		return dstOffset;
+	}
+
+	/**
+	 * Converts the time offset of a CGM Measurement record into UTC epoch milliseconds.
+	 *
+	 * @param timeOffset the time offset in minutes since Session Start Time, as uint16.
+	 * @return The timestamp in UTC epoch milliseconds, or {@link #UNKNOWN} if the session
+	 * start time has not been set.
+	 */
+	public long toEpochMillis(final int timeOffset) {
+		final long extendedTimeOffset = extend(timeOffset & 0xFFFF);
+		if (sessionStartMillis == UNKNOWN)
+			return UNKNOWN;
+		return sessionStartMillis + extendedTimeOffset * MILLIS_PER_MINUTE;
+	}
+
+	/**
+	 * Returns the time offset extended beyond 16 bits, closest to the highest offset seen.
+	 */
+	private long extend(final int timeOffset) {
+		if (lastTimeOffset < 0) {
+			lastTimeOffset = timeOffset;
+			return timeOffset;
+		}
+		final int delta = (short) (timeOffset - (int) (lastTimeOffset & 0xFFFF));
+		long extended = lastTimeOffset + delta;
+		if (extended < 0)
+			extended = timeOffset;
+		if (extended > lastTimeOffset)
+			lastTimeOffset = extended;
+		return extended;
+	}
+
+	@Override
+	public void onContinuousGlucoseMonitorSessionStartTime(final long dateTime,
+														   final int timeZone, final int dstOffset,
+														   final boolean secured) {
+		setSessionStartTimeLocal(DateTime.toLocalMillis(dateTime), timeZone, dstOffset);
+	}
+
+	@Override
+	public void onContinuousGlucoseMonitorSessionStartTimeCrcError() {
+		crcError = true;
+	}
+
+	/**
+	 * Sets the session start time from the local time of the device, see
+	 * {@link DateTime#toLocalMillis(long)}, and the time zone and DST offset codes.
+	 */
+	private void setSessionStartTimeLocal(final long localMillis, final int timeZone, final int dstOffset) {
+		final int timeZoneMinutes = timeZone != TIME_ZONE_UNKNOWN ? timeZone * 15 : 0;
+		final int dstMinutes = dstOffset != DST_OFFSET_UNKNOWN ? dstOffset * 15 : 0;
+		setSessionStartTime(localMillis - (timeZoneMinutes + dstMinutes) * MILLIS_PER_MINUTE,
+				timeZoneMinutes, dstMinutes);
+	}
+}
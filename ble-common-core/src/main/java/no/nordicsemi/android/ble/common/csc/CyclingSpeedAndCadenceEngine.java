@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.csc;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.decoder.CyclingSpeedAndCadenceMeasurementDecoder;
+
+/**
+ * Calculates speed, distance and cadence from CSC Measurement values of multiple sensors.
+ * <p>
+ * The state of all sensors is kept in primitive arrays allocated once. Each sensor is
+ * identified by the index returned from {@link #addSensor(float)}. Speed and cadence are
+ * averaged over a moving window of the last revolution and event time differences,
+ * so a single late or early notification does not cause a spike.
+ * <p>
+ * Cumulative wheel revolutions (uint32), crank revolutions (uint16) and event times
+ * (uint16, 1/1024 s) are all differentiated modulo their range, so wraparounds are exact.
+ * The event time wraps every 64 seconds, so consecutive events of a sensor must not be
+ * further apart than that. A measurement with an unchanged event time is ignored.
+ * Wheel revolution differences are signed, as the count may decrease when the bike is
+ * rolled backwards; speed and distance then decrease as well.
+ * <p>
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CyclingSpeedAndCadenceEngine implements CyclingSpeedAndCadenceMeasurementDecoder.Callback {
+	/** The default wheel circumference in millimeters. */
+	public static final float WHEEL_CIRCUMFERENCE_DEFAULT = 2340;
+	/** The bit set in the value returned by {@link #process} when wheel data changed. */
+	public static final int WHEEL_DATA_CHANGED = 0x01;
+	/** The bit set in the value returned by {@link #process} when crank data changed. */
+	public static final int CRANK_DATA_CHANGED = 0x02;
+
+	private static final float TICKS_PER_SECOND = 1024.0f;
+
+	// Layout of the int state of each sensor
+	private static final int FLAGS = 0;
+	private static final int LAST_WHEEL_REVOLUTIONS = 1;
+	private static final int LAST_WHEEL_EVENT_TIME = 2;
+	private static final int LAST_CRANK_REVOLUTIONS = 3;
+	private static final int LAST_CRANK_EVENT_TIME = 4;
+	private static final int WHEEL_INDEX = 5;
+	private static final int WHEEL_COUNT = 6;
+	private static final int CRANK_INDEX = 7;
+	private static final int CRANK_COUNT = 8;
+	private static final int INT_STRIDE = 9;
+
+	// Layout of the long state of each sensor
+	private static final int WHEEL_REVOLUTIONS_SUM = 0;
+	private static final int WHEEL_TICKS_SUM = 1;
+	private static final int CRANK_REVOLUTIONS_SUM = 2;
+	private static final int CRANK_TICKS_SUM = 3;
+	private static final int DISTANCE_REVOLUTIONS = 4;
+	private static final int LONG_STRIDE = 5;
+
+	private static final int FLAG_IN_USE = 0x01;
+	private static final int FLAG_WHEEL = 0x02;
+	private static final int FLAG_CRANK = 0x04;
+
+	private final int maxSensors;
+	private final int window;
+	private final int[] state;
+	private final long[] sums;
+	private final float[] circumference;
+	/** Revolution and tick differences in the windows, {@link #window} entries per sensor. */
+	private final int[] wheelRevolutionDeltas;
+	private final char[] wheelTickDeltas;
+	private final char[] crankRevolutionDeltas;
+	private final char[] crankTickDeltas;
+
+	/** The sensor used by the decoder callbacks. */
+	private int current;
+	private int changed;
+
+	/**
+	 * Creates the engine.
+	 *
+	 * @param maxSensors the maximum number of sensors served at a time.
+	 * @param window     the number of revolution events averaged; 1 disables smoothing.
+	 */
+	public CyclingSpeedAndCadenceEngine(@IntRange(from = 1) final int maxSensors,
+										@IntRange(from = 1, to = 0x10000) final int window) {
+		if (maxSensors < 1)
+			throw new IllegalArgumentException("At least 1 sensor required");
+		if (window < 1 || window > 0x10000)
+			throw new IllegalArgumentException("Window must be in range 1-65536");
+		this.maxSensors = maxSensors;
+		this.window = window;
+		this.state = new int[maxSensors * INT_STRIDE];
+		this.sums = new long[maxSensors * LONG_STRIDE];
+		this.circumference = new float[maxSensors];
+		this.wheelRevolutionDeltas = new int[maxSensors * window];
+		this.wheelTickDeltas = new char[maxSensors * window];
+		this.crankRevolutionDeltas = new char[maxSensors * window];
+		this.crankTickDeltas = new char[maxSensors * window];
+	}
+
+	/**
+	 * Adds a sensor.
+	 *
+	 * @param wheelCircumference the wheel circumference in millimeters.
+	 * @return The sensor index, or -1 if the maximum number of sensors is already served.
+	 */
+	public int addSensor(final float wheelCircumference) {
+		for (int sensor = 0; sensor < maxSensors; sensor++) {
+			if ((state[sensor * INT_STRIDE + FLAGS] & FLAG_IN_USE) == 0) {
+				reset(sensor);
+				state[sensor * INT_STRIDE + FLAGS] = FLAG_IN_USE;
+				circumference[sensor] = wheelCircumference;
+				return sensor;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes the sensor. The index may be returned by a following {@link #addSensor(float)}.
+	 */
+	public void removeSensor(final int sensor) {
+		reset(sensor);
+		state[sensor * INT_STRIDE + FLAGS] = 0;
+	}
+
+	/**
+	 * Returns the number of sensors served.
+	 */
+	public int getSensorCount() {
+		int count = 0;
+		for (int sensor = 0; sensor < maxSensors; sensor++) {
+			if ((state[sensor * INT_STRIDE + FLAGS] & FLAG_IN_USE) != 0)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Forgets the previous measurements of the sensor, e.g. after a reconnection
+	 * or when the cumulative value has been set on the sensor.
+	 */
+	public void reset(final int sensor) {
+		final int base = sensor * INT_STRIDE;
+		state[base + FLAGS] &= FLAG_IN_USE;
+		for (int i = 1; i < INT_STRIDE; i++)
+			state[base + i] = 0;
+		for (int i = 0; i < LONG_STRIDE; i++)
+			sums[sensor * LONG_STRIDE + i] = 0;
+	}
+
+	/**
+	 * Sets the wheel circumference of the sensor, in millimeters.
+	 */
+	public void setWheelCircumference(final int sensor, final float wheelCircumference) {
+		circumference[sensor] = wheelCircumference;
+	}
+
+	public float getWheelCircumference(final int sensor) {
+		return circumference[sensor];
+	}
+
+	/**
+	 * Decodes the CSC Measurement value and updates the state of the sensor.
+	 *
+	 * @param sensor the sensor index.
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @return A combination of {@link #WHEEL_DATA_CHANGED} and {@link #CRANK_DATA_CHANGED},
+	 * or -1 if the value is invalid.
+	 */
+	public int process(final int sensor, @NonNull final ByteBuffer buffer,
+					   final int offset, final int length) {
+		current = sensor;
+		changed = 0;
+		if (!CyclingSpeedAndCadenceMeasurementDecoder.decode(buffer, offset, length, this))
+			return -1;
+		return changed;
+	}
+
+	@Override
+	public void onWheelMeasurement(final long wheelRevolutions, final int lastWheelEventTime) {
+		if (onWheelMeasurement(current, wheelRevolutions, lastWheelEventTime))
+			changed |= WHEEL_DATA_CHANGED;
+	}
+
+	@Override
+	public void onCrankMeasurement(final int crankRevolutions, final int lastCrankEventTime) {
+		if (onCrankMeasurement(current, crankRevolutions, lastCrankEventTime))
+			changed |= CRANK_DATA_CHANGED;
+	}
+
+	/**
+	 * Updates the wheel state of the sensor.
+	 *
+	 * @param sensor             the sensor index.
+	 * @param wheelRevolutions   the cumulative wheel revolutions, as uint32.
+	 * @param lastWheelEventTime the last wheel event time in 1/1024 s, as uint16.
+	 * @return True if speed and distance changed, false if this is the first measurement
+	 * or the event time has not changed.
+	 */
+	public boolean onWheelMeasurement(final int sensor, final long wheelRevolutions, final int lastWheelEventTime) {
+		final int base = sensor * INT_STRIDE;
+		final int revolutions = (int) wheelRevolutions;
+		final int eventTime = lastWheelEventTime & 0xFFFF;
+		if ((state[base + FLAGS] & FLAG_WHEEL) == 0) {
+			state[base + FLAGS] |= FLAG_WHEEL;
+			state[base + LAST_WHEEL_REVOLUTIONS] = revolutions;
+			state[base + LAST_WHEEL_EVENT_TIME] = eventTime;
+			return false;
+		}
+		final int ticks = (eventTime - state[base + LAST_WHEEL_EVENT_TIME]) & 0xFFFF;
+		if (ticks == 0)
+			return false;
+		final int revolutionsDelta = revolutions - state[base + LAST_WHEEL_REVOLUTIONS];
+		state[base + LAST_WHEEL_REVOLUTIONS] = revolutions;
+		state[base + LAST_WHEEL_EVENT_TIME] = eventTime;
+
+		final int sumBase = sensor * LONG_STRIDE;
+		final int slot = sensor * window + state[base + WHEEL_INDEX];
+		if (state[base + WHEEL_COUNT] == window) {
+			sums[sumBase + WHEEL_REVOLUTIONS_SUM] -= wheelRevolutionDeltas[slot];
+			sums[sumBase + WHEEL_TICKS_SUM] -= wheelTickDeltas[slot];
+		} else {
+			state[base + WHEEL_COUNT]++;
+		}
+		wheelRevolutionDeltas[slot] = revolutionsDelta;
+		wheelTickDeltas[slot] = (char) ticks;
+		sums[sumBase + WHEEL_REVOLUTIONS_SUM] += revolutionsDelta;
+		sums[sumBase + WHEEL_TICKS_SUM] += ticks;
+		sums[sumBase + DISTANCE_REVOLUTIONS] += revolutionsDelta;
+		state[base + WHEEL_INDEX] = (state[base + WHEEL_INDEX] + 1) % window;
+		return true;
+	}
+
+	/**
+	 * Updates the crank state of the sensor.
+	 *
+	 * @param sensor             the sensor index.
+	 * @param crankRevolutions   the cumulative crank revolutions, as uint16.
+	 * @param lastCrankEventTime the last crank event time in 1/1024 s, as uint16.
+	 * @return True if the cadence changed, false if this is the first measurement
+	 * or the event time has not changed.
+	 */
+	public boolean onCrankMeasurement(final int sensor, final int crankRevolutions, final int lastCrankEventTime) {
+		final int base = sensor * INT_STRIDE;
+		final int revolutions = crankRevolutions & 0xFFFF;
+		final int eventTime = lastCrankEventTime & 0xFFFF;
+		if ((state[base + FLAGS] & FLAG_CRANK) == 0) {
+			state[base + FLAGS] |= FLAG_CRANK;
+			state[base + LAST_CRANK_REVOLUTIONS] = revolutions;
+			state[base + LAST_CRANK_EVENT_TIME] = eventTime;
+			return false;
+		}
+		final int ticks = (eventTime - state[base + LAST_CRANK_EVENT_TIME]) & 0xFFFF;
+		if (ticks == 0)
+			return false;
+		final int revolutionsDelta = (revolutions - state[base + LAST_CRANK_REVOLUTIONS]) & 0xFFFF;
+		state[base + LAST_CRANK_REVOLUTIONS] = revolutions;
+		state[base + LAST_CRANK_EVENT_TIME] = eventTime;
+
+		final int sumBase = sensor * LONG_STRIDE;
+		final int slot = sensor * window + state[base + CRANK_INDEX];
+		if (state[base + CRANK_COUNT] == window) {
+			sums[sumBase + CRANK_REVOLUTIONS_SUM] -= crankRevolutionDeltas[slot];
+			sums[sumBase + CRANK_TICKS_SUM] -= crankTickDeltas[slot];
+		} else {
+			state[base + CRANK_COUNT]++;
+		}
+		crankRevolutionDeltas[slot] = (char) revolutionsDelta;
+		crankTickDeltas[slot] = (char) ticks;
+		sums[sumBase + CRANK_REVOLUTIONS_SUM] += revolutionsDelta;
+		sums[sumBase + CRANK_TICKS_SUM] += ticks;
+		state[base + CRANK_INDEX] = (state[base + CRANK_INDEX] + 1) % window;
+		return true;
+	}
+
+	/**
+	 * Returns the speed averaged over the window, in m/s, or 0 if unknown.
+	 */
+	public float getSpeed(final int sensor) {
+		final int sumBase = sensor * LONG_STRIDE;
+		final long ticks = sums[sumBase + WHEEL_TICKS_SUM];
+		if (ticks == 0)
+			return 0.0f;
+		return sums[sumBase + WHEEL_REVOLUTIONS_SUM] * circumference[sensor] / 1000.0f
+				* TICKS_PER_SECOND / ticks;
+	}
+
+	/**
+	 * Returns the wheel cadence averaged over the window, in revolutions per minute,
+	 * or -1 if unknown.
+	 */
+	public float getWheelCadence(final int sensor) {
+		final int sumBase = sensor * LONG_STRIDE;
+		final long ticks = sums[sumBase + WHEEL_TICKS_SUM];
+		if (ticks == 0)
+			return -1.0f;
+		return sums[sumBase + WHEEL_REVOLUTIONS_SUM] * 60.0f * TICKS_PER_SECOND / ticks;
+	}
+
+	/**
+	 * Returns the crank cadence averaged over the window, in revolutions per minute,
+	 * or 0 if unknown.
+	 */
+	public float getCrankCadence(final int sensor) {
+		final int sumBase = sensor * LONG_STRIDE;
+		final long ticks = sums[sumBase + CRANK_TICKS_SUM];
+		if (ticks == 0)
+			return 0.0f;
+		return sums[sumBase + CRANK_REVOLUTIONS_SUM] * 60.0f * TICKS_PER_SECOND / ticks;
+	}
+
+	/**
+	 * Returns the ratio of wheel cadence to crank cadence, or 0 if either is unknown.
+	 */
+	public float getGearRatio(final int sensor) {
+		final float crankCadence = getCrankCadence(sensor);
+		final float wheelCadence = getWheelCadence(sensor);
+		return crankCadence > 0 && wheelCadence >= 0 ? wheelCadence / crankCadence : 0.0f;
+	}
+
+	/**
+	 * Returns the distance since the first measurement of the sensor, in meters.
+	 */
+	public float getDistance(final int sensor) {
+		return sums[sensor * LONG_STRIDE + DISTANCE_REVOLUTIONS] * circumference[sensor] / 1000.0f;
+	}
+
+	/**
+	 * Returns the total distance reported by the sensor, in meters.
+	 */
+	public float getTotalDistance(final int sensor) {
+		return (state[sensor * INT_STRIDE + LAST_WHEEL_REVOLUTIONS] & 0xFFFFFFFFL) * circumference[sensor] / 1000.0f;
+	}
+}
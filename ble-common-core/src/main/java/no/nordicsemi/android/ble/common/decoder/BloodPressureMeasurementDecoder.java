@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sfloat;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the Blood Pressure Measurement and the Intermediate Cuff Pressure characteristics.
+ * Both characteristics have the same format. In the Intermediate Cuff Pressure the current cuff
+ * pressure is sent in place of the systolic pressure and the remaining two fields are unused.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.blood_pressure_measurement.xml
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.intermediate_cuff_pressure.xml
+ */
+public final class BloodPressureMeasurementDecoder {
+	/** The format of the value. The unit flag (0x01) does not change the layout. */
+	public static final CharacteristicSchema SCHEMA = new CharacteristicSchema.Builder()
+			.field("systolic", CharacteristicSchema.FORMAT_SFLOAT)
+			.field("diastolic", CharacteristicSchema.FORMAT_SFLOAT)
+			.field("meanArterialPressure", CharacteristicSchema.FORMAT_SFLOAT)
+			.optional("timestamp", 0x02, CharacteristicSchema.FORMAT_DATE_TIME)
+			.optional("pulseRate", 0x04, CharacteristicSchema.FORMAT_SFLOAT)
+			.optional("userId", 0x08, CharacteristicSchema.FORMAT_UINT8)
+			.optional("status", 0x10, CharacteristicSchema.FORMAT_UINT16)
+			.build();
+	private static final int SYSTOLIC = SCHEMA.slotOf("systolic");
+	private static final int DIASTOLIC = SCHEMA.slotOf("diastolic");
+	private static final int MEAN_ARTERIAL_PRESSURE = SCHEMA.slotOf("meanArterialPressure");
+	private static final int TIMESTAMP = SCHEMA.slotOf("timestamp");
+	private static final int PULSE_RATE = SCHEMA.slotOf("pulseRate");
+	private static final int USER_ID = SCHEMA.slotOf("userId");
+	private static final int STATUS = SCHEMA.slotOf("status");
+	private static final int STRIDE = SCHEMA.getStride();
+	private static final byte[] LAYOUT = SCHEMA.getLayout();
+	private static final int MIN_LENGTH = SCHEMA.getLength(0);
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid measurement has been decoded.
+		 *
+		 * @param systolic             the systolic compound value, or the cuff pressure.
+		 * @param diastolic            the diastolic compound value.
+		 * @param meanArterialPressure the Mean Arterial Pressure (MAP) compound value.
+		 * @param unitKPa              true if the values are in kPa, false if in mmHg.
+		 * @param timestampPresent     true if the timestamp is present.
+		 * @param timestamp            the timestamp, packed, see {@link DateTime}.
+		 * @param pulseRatePresent     true if the pulse rate is present.
+		 * @param pulseRate            the pulse rate.
+		 * @param userIdPresent        true if the user ID is present.
+		 * @param userId               the user ID.
+		 * @param statusPresent        true if the measurement status is present.
+		 * @param status               the measurement status, 0 if not present.
+		 */
+		void onBloodPressureMeasurement(float systolic, float diastolic, float meanArterialPressure,
+										boolean unitKPa, boolean timestampPresent, long timestamp,
+										boolean pulseRatePresent, float pulseRate,
+										boolean userIdPresent, int userId,
+										boolean statusPresent, int status);
+	}
+
+	private BloodPressureMeasurementDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < MIN_LENGTH)
+			return false;
+
+		// First byte: flags
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * STRIDE;
+
+		final boolean unitKPa                  = (flags & 0x01) != 0;
+		final boolean timestampPresent         = (flags & 0x02) != 0;
+		final boolean pulseRatePresent         = (flags & 0x04) != 0;
+		final boolean userIdPresent            = (flags & 0x08) != 0;
+		final boolean measurementStatusPresent = (flags & 0x10) != 0;
+
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		// Following bytes - systolic, diastolic and mean arterial pressure
+		final float systolic = sfloat(buffer, offset + LAYOUT[entry + SYSTOLIC]);
+		final float diastolic = sfloat(buffer, offset + LAYOUT[entry + DIASTOLIC]);
+		final float meanArterialPressure = sfloat(buffer, offset + LAYOUT[entry + MEAN_ARTERIAL_PRESSURE]);
+
+		// Optional fields
+		final long timestamp = timestampPresent
+				? DateTime.read(buffer, offset + LAYOUT[entry + TIMESTAMP]) : 0;
+		final float pulseRate = pulseRatePresent
+				? sfloat(buffer, offset + LAYOUT[entry + PULSE_RATE]) : 0;
+		final int userId = userIdPresent
+				? uint8(buffer, offset + LAYOUT[entry + USER_ID]) : 0;
+		final int status = measurementStatusPresent
+				? uint16(buffer, offset + LAYOUT[entry + STATUS]) : 0;
+
+		callback.onBloodPressureMeasurement(systolic, diastolic, meanArterialPressure, unitKPa,
+				timestampPresent, timestamp,
+				pulseRatePresent, pulseRate, userIdPresent, userId, measurementStatusPresent, status);
+		return true;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+
+/**
+ * Decoder of the CGM Session Run Time characteristic.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.cgm_session_run_time.xml
+ */
+public final class CGMSessionRunTimeDecoder {
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid CGM Session Run Time has been decoded.
+		 *
+		 * @param sessionRunTime the expected run time of the CGM session in hours.
+		 * @param secured        true if the value contained a valid E2E-CRC.
+		 */
+		void onContinuousGlucoseMonitorSessionRunTime(int sessionRunTime, boolean secured);
+
+		/**
+		 * Called when the value contained E2E-CRC field that did not match the value.
+		 */
+		void onContinuousGlucoseMonitorSessionRunTimeCrcError();
+	}
+
+	private CGMSessionRunTimeDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length != 2 && length != 4)
+			return false;
+
+		final int sessionRunTime = uint16(buffer, offset);
+
+		final boolean crcPresent = length == 4;
+		if (crcPresent) {
+			final int actualCrc = CRC16.MCRF4XX(buffer, offset, 2);
+			final int expectedCrc = uint16(buffer, offset + 2);
+			if (actualCrc != expectedCrc) {
+				callback.onContinuousGlucoseMonitorSessionRunTimeCrcError();
+				return true;
+			}
+		}
+
+		callback.onContinuousGlucoseMonitorSessionRunTime(sessionRunTime, crcPresent);
+		return true;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sint8;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the CGM Session Start Time characteristic.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.cgm_session_start_time.xml
+ */
+public final class CGMSessionStartTimeDecoder {
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid CGM Session Start Time has been decoded.
+		 *
+		 * @param dateTime the session start time, packed, see {@link DateTime}.
+		 * @param timeZone the time zone, as offset from UTC in 15 minutes increments,
+		 *                 or -128 if unknown.
+		 * @param dstOffset the DST offset code: 0, 2, 4, 8, or 255 if unknown.
+		 * @param secured  true if the value contained a valid E2E-CRC.
+		 */
+		void onContinuousGlucoseMonitorSessionStartTime(long dateTime,
+														int timeZone, int dstOffset,
+														boolean secured);
+
+		/**
+		 * Called when the value contained E2E-CRC field that did not match the value.
+		 */
+		void onContinuousGlucoseMonitorSessionStartTimeCrcError();
+	}
+
+	private CGMSessionStartTimeDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length != 9 && length != 11)
+			return false;
+
+		final boolean crcPresent = length == 11;
+		if (crcPresent) {
+			final int actualCrc = CRC16.MCRF4XX(buffer, offset, 9);
+			final int expectedCrc = uint16(buffer, offset + 9);
+			if (actualCrc != expectedCrc) {
+				callback.onContinuousGlucoseMonitorSessionStartTimeCrcError();
+				return true;
+			}
+		}
+
+		final int timeZone = sint8(buffer, offset + 7);
+		final int dstOffset = uint8(buffer, offset + 8);
+		switch (dstOffset) {
+			case 0: case 2: case 4: case 8: case 255:
+				break;
+			default:
+				return false;
+		}
+
+		final long dateTime = DateTime.read(buffer, offset);
+		callback.onContinuousGlucoseMonitorSessionStartTime(dateTime, timeZone, dstOffset, crcPresent);
+		return true;
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sfloat;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the CGM Specific Ops Control Point characteristic responses.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.cgm_specific_ops_control_point.xml
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CGMSpecificOpsControlPointDecoder {
+	public final static int OP_CODE_COMMUNICATION_INTERVAL_RESPONSE = 3;
+	public final static int OP_CODE_CALIBRATION_VALUE_RESPONSE = 6;
+	public final static int OP_CODE_PATIENT_HIGH_ALERT_LEVEL_RESPONSE = 9;
+	public final static int OP_CODE_PATIENT_LOW_ALERT_LEVEL_RESPONSE = 12;
+	public final static int OP_CODE_HYPO_ALERT_LEVEL_RESPONSE = 15;
+	public final static int OP_CODE_HYPER_ALERT_LEVEL_RESPONSE = 18;
+	public final static int OP_CODE_RATE_OF_DECREASE_ALERT_LEVEL_RESPONSE = 21;
+	public final static int OP_CODE_RATE_OF_INCREASE_ALERT_LEVEL_RESPONSE = 24;
+	public final static int OP_CODE_RESPONSE_CODE = 28;
+	private final static int CGM_RESPONSE_SUCCESS = 1;
+
+	public interface Callback {
+
+		/**
+		 * Called when the Communication Interval response has been decoded.
+		 *
+		 * @param interval the communication interval in minutes.
+		 * @param secured  true if the value contained a valid E2E-CRC.
+		 */
+		void onCommunicationInterval(int interval, boolean secured);
+
+		/**
+		 * Called when the Calibration Value response has been decoded.
+		 *
+		 * @param glucoseConcentrationOfCalibration the glucose concentration of calibration in mg/dL.
+		 * @param calibrationTime                   the calibration time in minutes.
+		 * @param nextCalibrationTime               the next calibration time in minutes.
+		 * @param type                              the sample type.
+		 * @param sampleLocation                    the sample location.
+		 * @param calibrationDataRecordNumber       the calibration record number.
+		 * @param calibrationStatus                 the calibration status.
+		 * @param secured                           true if the value contained a valid E2E-CRC.
+		 */
+		void onCalibrationValue(float glucoseConcentrationOfCalibration,
+								int calibrationTime, int nextCalibrationTime,
+								int type, int sampleLocation,
+								int calibrationDataRecordNumber, int calibrationStatus,
+								boolean secured);
+
+		/**
+		 * Called when one of the alert level responses has been decoded.
+		 *
+		 * @param opCode  the response Op Code, one of OP_CODE_*_ALERT_LEVEL_RESPONSE.
+		 * @param level   the alert level in mg/dL, or (mg/dL)/min for rate alerts.
+		 * @param secured true if the value contained a valid E2E-CRC.
+		 */
+		void onAlertLevel(int opCode, float level, boolean secured);
+
+		/**
+		 * Called when the Response Code with success has been decoded.
+		 *
+		 * @param requestCode the request Op Code.
+		 * @param secured     true if the value contained a valid E2E-CRC.
+		 */
+		void onOperationCompleted(int requestCode, boolean secured);
+
+		/**
+		 * Called when the Response Code with an error has been decoded.
+		 *
+		 * @param requestCode the request Op Code.
+		 * @param errorCode   the response code.
+		 * @param secured     true if the value contained a valid E2E-CRC.
+		 */
+		void onOperationError(int requestCode, int errorCode, boolean secured);
+
+		/**
+		 * Called when the value contained E2E-CRC field that did not match the value.
+		 */
+		void onCrcError();
+	}
+
+	private CGMSpecificOpsControlPointDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < 2)
+			return false;
+
+		// Read the Op Code
+		final int opCode = uint8(buffer, offset);
+
+		// Estimate the expected operand size based on the Op Code
+		final int expectedOperandSize;
+		switch (opCode) {
+			case OP_CODE_COMMUNICATION_INTERVAL_RESPONSE:
+				// UINT8
+				expectedOperandSize = 1;
+				break;
+			case OP_CODE_CALIBRATION_VALUE_RESPONSE:
+				// Calibration Value
+				expectedOperandSize = 10;
+				break;
+			case OP_CODE_PATIENT_HIGH_ALERT_LEVEL_RESPONSE:
+			case OP_CODE_PATIENT_LOW_ALERT_LEVEL_RESPONSE:
+			case OP_CODE_HYPO_ALERT_LEVEL_RESPONSE:
+			case OP_CODE_HYPER_ALERT_LEVEL_RESPONSE:
+			case OP_CODE_RATE_OF_DECREASE_ALERT_LEVEL_RESPONSE:
+			case OP_CODE_RATE_OF_INCREASE_ALERT_LEVEL_RESPONSE:
+				// SFLOAT
+				expectedOperandSize = 2;
+				break;
+			case OP_CODE_RESPONSE_CODE:
+				// Request Op Code (UINT8), Response Code Value (UINT8)
+				expectedOperandSize = 2;
+				break;
+			default:
+				return false;
+		}
+
+		// Verify packet length
+		if (length != 1 + expectedOperandSize && length != 1 + expectedOperandSize + 2)
+			return false;
+
+		// Verify CRC if present
+		final boolean crcPresent = length == 1 + expectedOperandSize + 2; // opCode + expected operand + CRC
+		if (crcPresent) {
+			final int expectedCrc = uint16(buffer, offset + 1 + expectedOperandSize);
+			final int actualCrc   = CRC16.MCRF4XX(buffer, offset, 1 + expectedOperandSize);
+			if (expectedCrc != actualCrc) {
+				callback.onCrcError();
+				return true;
+			}
+		}
+
+		switch (opCode) {
+			case OP_CODE_COMMUNICATION_INTERVAL_RESPONSE:
+				callback.onCommunicationInterval(uint8(buffer, offset + 1), crcPresent);
+				break;
+			case OP_CODE_CALIBRATION_VALUE_RESPONSE:
+				final float glucoseConcentrationOfCalibration = sfloat(buffer, offset + 1);
+				final int calibrationTime = uint16(buffer, offset + 3);
+				final int calibrationTypeAndSampleLocation = uint8(buffer, offset + 5);
+				final int calibrationType = calibrationTypeAndSampleLocation & 0x0F;
+				final int calibrationSampleLocation = calibrationTypeAndSampleLocation >> 4;
+				final int nextCalibrationTime = uint16(buffer, offset + 6);
+				final int calibrationDataRecordNumber = uint16(buffer, offset + 8);
+				final int calibrationStatus = uint8(buffer, offset + 10);
+				callback.onCalibrationValue(glucoseConcentrationOfCalibration,
+						calibrationTime, nextCalibrationTime, calibrationType, calibrationSampleLocation,
+						calibrationDataRecordNumber, calibrationStatus, crcPresent);
+				break;
+			case OP_CODE_RESPONSE_CODE:
+				final int requestCode = uint8(buffer, offset + 1);
+				final int responseCode = uint8(buffer, offset + 2);
+				if (responseCode == CGM_RESPONSE_SUCCESS) {
+					callback.onOperationCompleted(requestCode, crcPresent);
+				} else {
+					callback.onOperationError(requestCode, responseCode, crcPresent);
+				}
+				break;
+			default:
+				callback.onAlertLevel(opCode, sfloat(buffer, offset + 1), crcPresent);
+				break;
+		}
+		return true;
+	}
+}
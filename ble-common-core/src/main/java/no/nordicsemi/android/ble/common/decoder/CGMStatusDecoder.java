@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the CGM Status characteristic.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.cgm_status.xml
+ */
+public final class CGMStatusDecoder {
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid CGM Status has been decoded.
+		 *
+		 * @param timeOffset            the time offset in minutes since Session Start Time.
+		 * @param warningStatus         the Sensor Status Annunciation warning octet.
+		 * @param calibrationTempStatus the Sensor Status Annunciation Cal/Temp octet.
+		 * @param sensorStatus          the Sensor Status Annunciation status octet.
+		 * @param secured               true if the value contained a valid E2E-CRC.
+		 */
+		void onContinuousGlucoseMonitorStatus(int timeOffset, int warningStatus,
+											  int calibrationTempStatus, int sensorStatus,
+											  boolean secured);
+
+		/**
+		 * Called when the value contained E2E-CRC field that did not match the value.
+		 */
+		void onContinuousGlucoseMonitorStatusCrcError();
+	}
+
+	private CGMStatusDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length != 5 && length != 7)
+			return false;
+
+		final int timeOffset = uint16(buffer, offset);
+		final int warningStatus = uint8(buffer, offset + 2);
+		final int calibrationTempStatus = uint8(buffer, offset + 3);
+		final int sensorStatus = uint8(buffer, offset + 4);
+
+		final boolean crcPresent = length == 7;
+		if (crcPresent) {
+			final int actualCrc = CRC16.MCRF4XX(buffer, offset, 5);
+			final int expectedCrc = uint16(buffer, offset + 5);
+			if (actualCrc != expectedCrc) {
+				callback.onContinuousGlucoseMonitorStatusCrcError();
+				return true;
+			}
+		}
+
+		callback.onContinuousGlucoseMonitorStatus(timeOffset, warningStatus, calibrationTempStatus, sensorStatus, crcPresent);
+		return true;
+	}
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sint32;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sint8;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint24;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint32;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Declarative description of a characteristic value that starts with a flags byte, followed by
+ * mandatory fields and fields present only if a flag is set.
+ * <p>
+ * The schema is compiled once into a table with an entry for each of the 256 flags values,
+ * holding the minimum length of the value and the offset of every field, or 0 if the field
+ * is not present. Hand-written decoders use the table through {@link #getLayout()} and
+ * {@link #slotOf(String)}, so the wire format is declared in one place and every read is
+ * a single lookup. Characteristics without a dedicated decoder may be decoded and encoded
+ * with {@link #decode(ByteBuffer, int, int, CharacteristicValues)} and
+ * {@link #encode(CharacteristicValues, byte[], int)}, which do not allocate.
+ * <p>
+ * Example, the Temperature Measurement:
+ * <pre>
+ * CharacteristicSchema schema = new CharacteristicSchema.Builder()
+ *         .field("temperature", CharacteristicSchema.FORMAT_FLOAT)
+ *         .optional("timestamp", 0x02, CharacteristicSchema.FORMAT_DATE_TIME)
+ *         .optional("type", 0x04, CharacteristicSchema.FORMAT_UINT8)
+ *         .build();
+ * </pre>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CharacteristicSchema {
+	// The lower nibble of a format is the size in bytes, as in the Data class of the BLE library.
+	public static final int FORMAT_UINT8 = 0x11;
+	public static final int FORMAT_UINT16 = 0x12;
+	public static final int FORMAT_UINT24 = 0x13;
+	public static final int FORMAT_UINT32 = 0x14;
+	public static final int FORMAT_SINT8 = 0x21;
+	public static final int FORMAT_SINT16 = 0x22;
+	public static final int FORMAT_SINT32 = 0x24;
+	public static final int FORMAT_SFLOAT = 0x32;
+	public static final int FORMAT_FLOAT = 0x34;
+	/** Date Time, decoded with {@link DateTime#read(ByteBuffer, int)}. */
+	public static final int FORMAT_DATE_TIME = 0x47;
+
+	/** The maximum number of fields in a schema. */
+	public static final int MAX_FIELDS = 64;
+
+	private final String[] names;
+	private final int[] masks;
+	private final int[] formats;
+	private final int stride;
+	private final byte[] layout;
+
+	public static final class Builder {
+		private final List<String> names = new ArrayList<>();
+		private final List<Integer> masks = new ArrayList<>();
+		private final List<Integer> formats = new ArrayList<>();
+
+		/**
+		 * Adds a mandatory field.
+		 *
+		 * @param name   the field name, unique in the schema.
+		 * @param format the format, one of FORMAT_* constants.
+		 * @return The builder.
+		 */
+		@NonNull
+		public Builder field(@NonNull final String name, final int format) {
+			return add(name, 0, format);
+		}
+
+		/**
+		 * Adds a field that is present if any of the bits of the mask is set in the flags.
+		 * Consecutive fields may share the mask.
+		 *
+		 * @param name   the field name, unique in the schema.
+		 * @param mask   the flags mask.
+		 * @param format the format, one of FORMAT_* constants.
+		 * @return The builder.
+		 */
+		@NonNull
+		public Builder optional(@NonNull final String name, final int mask, final int format) {
+			if (mask <= 0 || mask > 0xFF)
+				throw new IllegalArgumentException("Mask must be in range 0x01-0xFF");
+			return add(name, mask, format);
+		}
+
+		@NonNull
+		public CharacteristicSchema build() {
+			return new CharacteristicSchema(this);
+		}
+
+		private Builder add(final String name, final int mask, final int format) {
+			if (names.contains(name))
+				throw new IllegalArgumentException("Duplicate field: " + name);
+			if (names.size() == MAX_FIELDS)
+				throw new IllegalArgumentException("Too many fields");
+			switch (format) {
+				case FORMAT_UINT8: case FORMAT_UINT16: case FORMAT_UINT24: case FORMAT_UINT32:
+				case FORMAT_SINT8: case FORMAT_SINT16: case FORMAT_SINT32:
+				case FORMAT_SFLOAT: case FORMAT_FLOAT: case FORMAT_DATE_TIME:
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown format: " + format);
+			}
+			names.add(name);
+			masks.add(mask);
+			formats.add(format);
+			return this;
+		}
+	}
+
+	private CharacteristicSchema(final Builder builder) {
+		final int count = builder.names.size();
+		names = builder.names.toArray(new String[0]);
+		masks = new int[count];
+		formats = new int[count];
+		for (int i = 0; i < count; i++) {
+			masks[i] = builder.masks.get(i);
+			formats[i] = builder.formats.get(i);
+		}
+		stride = 1 + count;
+		layout = new byte[256 * stride];
+		for (int flags = 0; flags < 256; flags++) {
+			final int entry = flags * stride;
+			int position = 1;
+			for (int i = 0; i < count; i++) {
+				if (masks[i] == 0 || (flags & masks[i]) != 0) {
+					layout[entry + 1 + i] = (byte) position;
+					position += formats[i] & 0x0F;
+				}
+			}
+			if (position > Byte.MAX_VALUE)
+				throw new IllegalArgumentException("Value too long: " + position);
+			layout[entry + FieldLayout.LENGTH] = (byte) position;
+		}
+	}
+
+	/**
+	 * Returns the number of fields, without the flags.
+	 */
+	public int getFieldCount() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the index of the field with the given name.
+	 *
+	 * @throws IllegalArgumentException if there is no such field.
+	 */
+	public int indexOf(@NonNull final String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name))
+				return i;
+		}
+		throw new IllegalArgumentException("Unknown field: " + name);
+	}
+
+	@NonNull
+	public String getName(final int field) {
+		return names[field];
+	}
+
+	public int getFormat(final int field) {
+		return formats[field];
+	}
+
+	/**
+	 * Returns the flags mask of the field, or 0 for mandatory fields.
+	 */
+	public int getMask(final int field) {
+		return masks[field];
+	}
+
+	/**
+	 * Returns the layout table. The entry for flags starts at {@code flags * getStride()}
+	 * and contains the minimum length at {@link FieldLayout#LENGTH}, followed by the offset
+	 * of each field, at {@link #slotOf(String)}. The table must not be modified.
+	 */
+	@NonNull
+	public byte[] getLayout() {
+		return layout;
+	}
+
+	public int getStride() {
+		return stride;
+	}
+
+	/**
+	 * Returns the index of the offset of the field in an entry of the layout table.
+	 */
+	public int slotOf(@NonNull final String name) {
+		return 1 + indexOf(name);
+	}
+
+	/**
+	 * Returns the minimum length of a value with the given flags.
+	 */
+	public int getLength(final int flags) {
+		return layout[(flags & 0xFF) * stride + FieldLayout.LENGTH];
+	}
+
+	/**
+	 * Returns the offset of the field in a value with the given flags, or 0 if the field
+	 * is not present.
+	 */
+	public int getOffset(final int flags, final int field) {
+		return layout[(flags & 0xFF) * stride + 1 + field];
+	}
+
+	/**
+	 * Creates a container for values of this schema, which may be reused.
+	 */
+	@NonNull
+	public CharacteristicValues newValues() {
+		return new CharacteristicValues(this);
+	}
+
+	/**
+	 * Decodes the value into the container. Bytes following the fields are ignored.
+	 *
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @param values the container created by {@link #newValues()} of this schema.
+	 * @return True if the value is valid, false if it is too short.
+	 */
+	public boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+						  @NonNull final CharacteristicValues values) {
+		checkValues(values);
+		if (length < 1)
+			return false;
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * stride;
+		if (length < layout[entry + FieldLayout.LENGTH])
+			return false;
+
+		long present = 0;
+		for (int i = 0; i < names.length; i++) {
+			final int fieldOffset = layout[entry + 1 + i];
+			if (fieldOffset != 0) {
+				values.raw[i] = read(buffer, offset + fieldOffset, formats[i]);
+				present |= 1L << i;
+			} else {
+				values.raw[i] = 0;
+			}
+		}
+		values.flags = flags;
+		values.present = present;
+		return true;
+	}
+
+	/**
+	 * Encodes the values. The flags are taken from {@link CharacteristicValues#getFlags()};
+	 * only the fields present according to the flags are written.
+	 *
+	 * @param values the values.
+	 * @param out    the output array.
+	 * @param offset index at which the value is written.
+	 * @return The length of the encoded value.
+	 * @throws IndexOutOfBoundsException if the value does not fit in the array.
+	 */
+	public int encode(@NonNull final CharacteristicValues values, @NonNull final byte[] out, final int offset) {
+		checkValues(values);
+		final int flags = values.flags;
+		final int entry = flags * stride;
+		final int length = layout[entry + FieldLayout.LENGTH];
+		if (offset < 0 || offset + length > out.length)
+			throw new IndexOutOfBoundsException("Value does not fit: " + length + " bytes");
+
+		out[offset] = (byte) flags;
+		for (int i = 0; i < names.length; i++) {
+			final int fieldOffset = layout[entry + 1 + i];
+			if (fieldOffset != 0)
+				write(out, offset + fieldOffset, formats[i], values.raw[i]);
+		}
+		return length;
+	}
+
+	private void checkValues(final CharacteristicValues values) {
+		if (values.schema != this)
+			throw new IllegalArgumentException("Values created by another schema");
+	}
+
+	private static long read(final ByteBuffer buffer, final int offset, final int format) {
+		switch (format) {
+			case FORMAT_UINT8: return uint8(buffer, offset);
+			case FORMAT_UINT16: return uint16(buffer, offset);
+			case FORMAT_UINT24: return uint24(buffer, offset);
+			case FORMAT_UINT32: return uint32(buffer, offset);
+			case FORMAT_SINT8: return sint8(buffer, offset);
+			case FORMAT_SINT16: return sint16(buffer, offset);
+			case FORMAT_SINT32: return sint32(buffer, offset);
+			case FORMAT_SFLOAT: return uint16(buffer, offset);
+			case FORMAT_FLOAT: return sint32(buffer, offset);
+			default: return DateTime.read(buffer, offset);
+		}
+	}
+
+	private static void write(final byte[] out, final int offset, final int format, final long value) {
+		if (format == FORMAT_DATE_TIME) {
+			final int year = DateTime.getYear(value);
+			out[offset] = (byte) year;
+			out[offset + 1] = (byte) (year >> 8);
+			out[offset + 2] = (byte) DateTime.getMonth(value);
+			out[offset + 3] = (byte) DateTime.getDay(value);
+			out[offset + 4] = (byte) DateTime.getHours(value);
+			out[offset + 5] = (byte) DateTime.getMinutes(value);
+			out[offset + 6] = (byte) DateTime.getSeconds(value);
+			return;
+		}
+		// Little endian, the size is the lower nibble of the format
+		for (int i = 0; i < (format & 0x0F); i++)
+			out[offset + i] = (byte) (value >> (8 * i));
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Values of a characteristic described by a {@link CharacteristicSchema}. Fields are
+ * addressed by the index returned from {@link CharacteristicSchema#indexOf(String)}.
+ * SFLOAT and FLOAT fields are kept in their encoded form and converted by
+ * {@link #getFloat(int)} and {@link #setFloat(int, float)}.
+ * <p>
+ * Instances are reusable and not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CharacteristicValues {
+	final CharacteristicSchema schema;
+	final long[] raw;
+	int flags;
+	long present;
+
+	CharacteristicValues(@NonNull final CharacteristicSchema schema) {
+		this.schema = schema;
+		this.raw = new long[schema.getFieldCount()];
+	}
+
+	@NonNull
+	public CharacteristicSchema getSchema() {
+		return schema;
+	}
+
+	public int getFlags() {
+		return flags;
+	}
+
+	/**
+	 * Sets the flags. Optional fields are encoded if their flag is set.
+	 */
+	public void setFlags(final int flags) {
+		this.flags = flags & 0xFF;
+	}
+
+	/**
+	 * Returns true if the field was present in the decoded value.
+	 */
+	public boolean isPresent(final int field) {
+		return (present & (1L << field)) != 0;
+	}
+
+	public int getInt(final int field) {
+		return (int) raw[field];
+	}
+
+	/**
+	 * Returns the value of an integer field, or the packed Date Time of a
+	 * {@link CharacteristicSchema#FORMAT_DATE_TIME} field, see {@link DateTime}.
+	 */
+	public long getLong(final int field) {
+		return raw[field];
+	}
+
+	public float getFloat(final int field) {
+		switch (schema.getFormat(field)) {
+			case CharacteristicSchema.FORMAT_SFLOAT: return IEEE11073Float.sfloat((int) raw[field]);
+			case CharacteristicSchema.FORMAT_FLOAT: return IEEE11073Float.float32((int) raw[field]);
+			default: return raw[field];
+		}
+	}
+
+	public void setInt(final int field, final int value) {
+		set(field, value);
+	}
+
+	public void setLong(final int field, final long value) {
+		set(field, value);
+	}
+
+	public void setFloat(final int field, final float value) {
+		switch (schema.getFormat(field)) {
+			case CharacteristicSchema.FORMAT_SFLOAT: set(field, IEEE11073Float.toSfloat(value)); break;
+			case CharacteristicSchema.FORMAT_FLOAT: set(field, IEEE11073Float.toFloat32(value)); break;
+			default: set(field, Math.round(value)); break;
+		}
+	}
+
+	/**
+	 * Clears the flags and all fields.
+	 */
+	public void clear() {
+		flags = 0;
+		present = 0;
+		for (int i = 0; i < raw.length; i++)
+			raw[i] = 0;
+	}
+
+	private void set(final int field, final long value) {
+		raw[field] = value;
+		present |= 1L << field;
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reusable container for all records of a CGM Measurement value.
+ * <p>
+ * The records are stored in primitive arrays, which grow when a value with more records than
+ * ever before is decoded and are reused afterwards. Decoding a value into the batch does not
+ * allocate memory otherwise. The content is valid until the next call to
+ * {@link #decode(ByteBuffer, int, int)} or {@link #clear()}.
+ * <p>
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class ContinuousGlucoseMeasurementBatch implements ContinuousGlucoseMeasurementDecoder.Callback {
+	/** Number of the shortest records that fit into a notification with the default MTU. */
+	private static final int DEFAULT_CAPACITY = 3;
+
+	private static final int FLAG_TREND_PRESENT = 0x01;
+	private static final int FLAG_QUALITY_PRESENT = 0x02;
+	private static final int FLAG_STATUS_PRESENT = 0x04;
+	private static final int FLAG_SECURED = 0x08;
+
+	private int size;
+	private boolean crcError;
+	private float[] glucoseConcentrations = new float[DEFAULT_CAPACITY];
+	private float[] trends = new float[DEFAULT_CAPACITY];
+	private float[] qualities = new float[DEFAULT_CAPACITY];
+	private int[] timeOffsets = new int[DEFAULT_CAPACITY];
+	/** Sensor Status Annunciation octets: warning | cal/temp << 8 | status << 16. */
+	private int[] statuses = new int[DEFAULT_CAPACITY];
+	private byte[] flags = new byte[DEFAULT_CAPACITY];
+
+	/**
+	 * Decodes all records of the CGM Measurement value into this batch. The previous content
+	 * is cleared. If the value is invalid, records preceding the invalid one are kept.
+	 * If a record has an invalid E2E-CRC, decoding stops at it and {@link #hasCrcError()}
+	 * returns true.
+	 *
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		clear();
+		return ContinuousGlucoseMeasurementDecoder.decode(buffer, offset, length, this);
+	}
+
+	/**
+	 * Removes all records. The arrays are kept for reuse.
+	 */
+	public void clear() {
+		size = 0;
+		crcError = false;
+	}
+
+	@Override
+	public void onContinuousGlucoseMeasurement(final float glucoseConcentration,
+											   final boolean trendPresent, final float trend,
+											   final boolean qualityPresent, final float quality,
+											   final boolean statusPresent, final int warningStatus,
+											   final int calibrationTempStatus, final int sensorStatus,
+											   final int timeOffset, final boolean secured) {
+		if (size == glucoseConcentrations.length)
+			grow(size * 2);
+
+		final int i = size++;
+		glucoseConcentrations[i] = glucoseConcentration;
+		trends[i] = trendPresent ? trend : Float.NaN;
+		qualities[i] = qualityPresent ? quality : Float.NaN;
+		timeOffsets[i] = timeOffset;
+		statuses[i] = warningStatus | (calibrationTempStatus << 8) | (sensorStatus << 16);
+		flags[i] = (byte) ((trendPresent ? FLAG_TREND_PRESENT : 0)
+				| (qualityPresent ? FLAG_QUALITY_PRESENT : 0)
+				| (statusPresent ? FLAG_STATUS_PRESENT : 0)
+				| (secured ? FLAG_SECURED : 0));
+	}
+
+	@Override
+	public void onContinuousGlucoseMeasurementCrcError() {
+		crcError = true;
+	}
+
+	/**
+	 * Returns the number of records decoded.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if decoding stopped at a record with an invalid E2E-CRC.
+	 */
+	public boolean hasCrcError() {
+		return crcError;
+	}
+
+	/**
+	 * Returns the glucose concentration of the record with given index, in mg/dL.
+	 */
+	public float glucoseConcentration(final int index) {
+		return glucoseConcentrations[checkIndex(index)];
+	}
+
+	/**
+	 * Returns true if the record with given index contains CGM Trend information.
+	 */
+	public boolean isTrendPresent(final int index) {
+		return (flags[checkIndex(index)] & FLAG_TREND_PRESENT) != 0;
+	}
+
+	/**
+	 * Returns the CGM Trend information of the record with given index, in (mg/dL)/min,
+	 * or {@link Float#NaN} if not present.
+	 */
+	public float trend(final int index) {
+		return trends[checkIndex(index)];
+	}
+
+	/**
+	 * Returns true if the record with given index contains CGM Quality information.
+	 */
+	public boolean isQualityPresent(final int index) {
+		return (flags[checkIndex(index)] & FLAG_QUALITY_PRESENT) != 0;
+	}
+
+	/**
+	 * Returns the CGM Quality information of the record with given index, in percent,
+	 * or {@link Float#NaN} if not present.
+	 */
+	public float quality(final int index) {
+		return qualities[checkIndex(index)];
+	}
+
+	/**
+	 * Returns true if the record with given index contains any Sensor Status Annunciation octet.
+	 */
+	public boolean isStatusPresent(final int index) {
+		return (flags[checkIndex(index)] & FLAG_STATUS_PRESENT) != 0;
+	}
+
+	/**
+	 * Returns the Sensor Status Annunciation warning octet of the record with given index,
+	 * 0 if not present.
+	 */
+	public int warningStatus(final int index) {
+		return statuses[checkIndex(index)] & 0xFF;
+	}
+
+	/**
+	 * Returns the Sensor Status Annunciation Cal/Temp octet of the record with given index,
+	 * 0 if not present.
+	 */
+	public int calibrationTempStatus(final int index) {
+		return (statuses[checkIndex(index)] >> 8) & 0xFF;
+	}
+
+	/**
+	 * Returns the Sensor Status Annunciation status octet of the record with given index,
+	 * 0 if not present.
+	 */
+	public int sensorStatus(final int index) {
+		return (statuses[checkIndex(index)] >> 16) & 0xFF;
+	}
+
+	/**
+	 * Returns the time offset of the record with given index, in minutes since Session Start Time.
+	 */
+	public int timeOffset(final int index) {
+		return timeOffsets[checkIndex(index)];
+	}
+
+	/**
+	 * Returns true if the record with given index contained a valid E2E-CRC.
+	 */
+	public boolean isSecured(final int index) {
+		return (flags[checkIndex(index)] & FLAG_SECURED) != 0;
+	}
+
+	private int checkIndex(final int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		return index;
+	}
+
+	private void grow(final int capacity) {
+		glucoseConcentrations = Arrays.copyOf(glucoseConcentrations, capacity);
+		trends = Arrays.copyOf(trends, capacity);
+		qualities = Arrays.copyOf(qualities, capacity);
+		timeOffsets = Arrays.copyOf(timeOffsets, capacity);
+		statuses = Arrays.copyOf(statuses, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sfloat;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the CGM Measurement characteristic. A single value may contain multiple records.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.cgm_measurement.xml
+ */
+public final class ContinuousGlucoseMeasurementDecoder {
+	private static final int[] FIELDS = {
+			0x20, 1, // Sensor Status Annunciation - Warning
+			0x40, 1, // Sensor Status Annunciation - Cal/Temp
+			0x80, 1, // Sensor Status Annunciation - Status
+			0x01, 2, // CGM Trend Information
+			0x02, 2, // CGM Quality
+	};
+	private static final int WARNING = 1;
+	private static final int CAL_TEMP = 2;
+	private static final int STATUS = 3;
+	private static final int TREND = 4;
+	private static final int QUALITY = 5;
+	private static final int STRIDE = FieldLayout.stride(FIELDS);
+	/** Size, flags, glucose concentration and time offset, followed by the optional fields. */
+	private static final byte[] LAYOUT = FieldLayout.create(6, FIELDS);
+
+	public interface Callback {
+
+		/**
+		 * Called for each record of the CGM Measurement.
+		 *
+		 * @param glucoseConcentration  the glucose concentration in mg/dL.
+		 * @param trendPresent          true if the CGM Trend information is present.
+		 * @param trend                 the CGM Trend information, in (mg/dL)/min.
+		 * @param qualityPresent        true if the CGM Quality information is present.
+		 * @param quality               the CGM Quality information in percent.
+		 * @param statusPresent         true if any of the Sensor Status Annunciation octets is present.
+		 * @param warningStatus         the Sensor Status Annunciation warning octet, 0 if not present.
+		 * @param calibrationTempStatus the Sensor Status Annunciation Cal/Temp octet, 0 if not present.
+		 * @param sensorStatus          the Sensor Status Annunciation status octet, 0 if not present.
+		 * @param timeOffset            the time offset in minutes since Session Start Time.
+		 * @param secured               true if the record contained a valid E2E-CRC.
+		 */
+		void onContinuousGlucoseMeasurement(float glucoseConcentration,
+											boolean trendPresent, float trend,
+											boolean qualityPresent, float quality,
+											boolean statusPresent, int warningStatus,
+											int calibrationTempStatus, int sensorStatus,
+											int timeOffset, boolean secured);
+
+		/**
+		 * Called when a record contained E2E-CRC field that did not match the record.
+		 * Decoding stops at this record.
+		 */
+		void onContinuousGlucoseMeasurementCrcError();
+	}
+
+	private ContinuousGlucoseMeasurementDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value. Records are reported in order. If an invalid record is found,
+	 * decoding stops and false is returned; records preceding it have already been reported.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about decoded records.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < 1)
+			return false;
+
+		final int end = offset + length;
+		int position = offset;
+
+		while (position < end) {
+			// Packet size
+			final int size = uint8(buffer, position);
+
+			if (size < 6 || position + size > end)
+				return false;
+
+			// Flags
+			final int flags = uint8(buffer, position + 1);
+			final int entry = flags * STRIDE;
+
+			final boolean cgmTrendInformationPresent   = (flags & 0x01) != 0;
+			final boolean cgmQualityInformationPresent = (flags & 0x02) != 0;
+			final boolean sensorWarningOctetPresent    = (flags & 0x20) != 0;
+			final boolean sensorCalTempOctetPresent    = (flags & 0x40) != 0;
+			final boolean sensorStatusOctetPresent     = (flags & 0x80) != 0;
+
+			final int dataSize = LAYOUT[entry + FieldLayout.LENGTH];
+			if (size != dataSize && size != dataSize + 2)
+				return false;
+
+			final boolean crcPresent = size == dataSize + 2;
+			if (crcPresent) {
+				final int expectedCrc = uint16(buffer, position + dataSize);
+				final int actualCrc = CRC16.MCRF4XX(buffer, position, dataSize);
+				if (expectedCrc != actualCrc) {
+					callback.onContinuousGlucoseMeasurementCrcError();
+					return true;
+				}
+			}
+
+			// Glucose concentration and time offset (in minutes since Session Start)
+			final float glucoseConcentration = sfloat(buffer, position + 2);
+			final int timeOffset = uint16(buffer, position + 4);
+
+			// Sensor Status Annunciation
+			final int warningStatus = sensorWarningOctetPresent
+					? uint8(buffer, position + LAYOUT[entry + WARNING]) : 0;
+			final int calibrationTempStatus = sensorCalTempOctetPresent
+					? uint8(buffer, position + LAYOUT[entry + CAL_TEMP]) : 0;
+			final int sensorStatus = sensorStatusOctetPresent
+					? uint8(buffer, position + LAYOUT[entry + STATUS]) : 0;
+
+			// CGM Trend and Quality Information
+			final float trend = cgmTrendInformationPresent
+					? sfloat(buffer, position + LAYOUT[entry + TREND]) : 0;
+			final float quality = cgmQualityInformationPresent
+					? sfloat(buffer, position + LAYOUT[entry + QUALITY]) : 0;
+
+			position += size;
+
+			callback.onContinuousGlucoseMeasurement(glucoseConcentration,
+					cgmTrendInformationPresent, trend, cgmQualityInformationPresent, quality,
+					sensorWarningOctetPresent || sensorCalTempOctetPresent || sensorStatusOctetPresent,
+					warningStatus, calibrationTempStatus, sensorStatus, timeOffset, crcPresent);
+		}
+		return true;
+	}
+}
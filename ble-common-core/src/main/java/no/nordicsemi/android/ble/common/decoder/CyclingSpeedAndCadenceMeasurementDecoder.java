@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint32;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the CSC Measurement characteristic. The decoder reports the raw cumulative values;
+ * speed and cadence have to be calculated from consecutive measurements.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.csc_measurement.xml
+ */
+public final class CyclingSpeedAndCadenceMeasurementDecoder {
+	/** The format of the value. */
+	public static final CharacteristicSchema SCHEMA = new CharacteristicSchema.Builder()
+			.optional("wheelRevolutions", 0x01, CharacteristicSchema.FORMAT_UINT32)
+			.optional("lastWheelEventTime", 0x01, CharacteristicSchema.FORMAT_UINT16)
+			.optional("crankRevolutions", 0x02, CharacteristicSchema.FORMAT_UINT16)
+			.optional("lastCrankEventTime", 0x02, CharacteristicSchema.FORMAT_UINT16)
+			.build();
+	private static final int WHEEL_REVOLUTIONS = SCHEMA.slotOf("wheelRevolutions");
+	private static final int LAST_WHEEL_EVENT_TIME = SCHEMA.slotOf("lastWheelEventTime");
+	private static final int CRANK_REVOLUTIONS = SCHEMA.slotOf("crankRevolutions");
+	private static final int LAST_CRANK_EVENT_TIME = SCHEMA.slotOf("lastCrankEventTime");
+	private static final int STRIDE = SCHEMA.getStride();
+	private static final byte[] LAYOUT = SCHEMA.getLayout();
+	private static final int MIN_LENGTH = SCHEMA.getLength(0);
+
+	public interface Callback {
+
+		/**
+		 * Called when the wheel revolution data has been decoded.
+		 *
+		 * @param wheelRevolutions   the cumulative wheel revolutions.
+		 * @param lastWheelEventTime the last wheel event time in 1/1024 s.
+		 */
+		void onWheelMeasurement(long wheelRevolutions, int lastWheelEventTime);
+
+		/**
+		 * Called when the crank revolution data has been decoded, after the wheel data, if present.
+		 *
+		 * @param crankRevolutions   the cumulative crank revolutions.
+		 * @param lastCrankEventTime the last crank event time in 1/1024 s.
+		 */
+		void onCrankMeasurement(int crankRevolutions, int lastCrankEventTime);
+	}
+
+	private CyclingSpeedAndCadenceMeasurementDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < MIN_LENGTH)
+			return false;
+
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * STRIDE;
+		final boolean wheelRevPresent = (flags & 0x01) != 0;
+		final boolean crankRevPreset = (flags & 0x02) != 0;
+
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		if (wheelRevPresent) {
+			final long wheelRevolutions = uint32(buffer, offset + LAYOUT[entry + WHEEL_REVOLUTIONS]);
+			final int lastWheelEventTime = uint16(buffer, offset + LAYOUT[entry + LAST_WHEEL_EVENT_TIME]); // 1/1024 s
+			callback.onWheelMeasurement(wheelRevolutions, lastWheelEventTime);
+		}
+
+		if (crankRevPreset) {
+			final int crankRevolutions = uint16(buffer, offset + LAYOUT[entry + CRANK_REVOLUTIONS]);
+			final int lastCrankEventTime = uint16(buffer, offset + LAYOUT[entry + LAST_CRANK_EVENT_TIME]);
+			callback.onCrankMeasurement(crankRevolutions, lastCrankEventTime);
+		}
+		return true;
+	}
+}
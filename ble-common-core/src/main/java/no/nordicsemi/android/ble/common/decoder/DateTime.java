@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Calendar-free representation of the Date Time characteristic value.
+ * <p>
+ * The 7-byte value is packed into a single {@code long} by {@link #read(ByteBuffer, int)}.
+ * The fields may be obtained with the getters, and the value may be converted to epoch
+ * milliseconds using integer arithmetic and a cached offset of the local time zone,
+ * without allocating a {@link Calendar}. Use {@link #toCalendar(long)} only when
+ * a Calendar is needed.
+ * <p>
+ * Year, month or day set to 0 mean unknown. When converted to milliseconds they are
+ * assumed to be 1970, January and 1.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.date_time.xml
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class DateTime {
+	private static final long MILLIS_PER_DAY = 86_400_000L;
+
+	/**
+	 * Offset of the local time zone, valid for the whole local day.
+	 * The object is immutable, so the cache may be replaced from any thread.
+	 */
+	private static final class ZoneOffset {
+		private final long day;
+		private final int offset;
+
+		private ZoneOffset(final long day, final int offset) {
+			this.day = day;
+			this.offset = offset;
+		}
+	}
+
+	private static volatile ZoneOffset zoneOffset;
+
+	private DateTime() {
+		// empty private constructor
+	}
+
+	/**
+	 * Reads the 7-byte Date Time value and packs it into a long.
+	 *
+	 * @param buffer the buffer.
+	 * @param offset index of the first byte of the value.
+	 * @return The packed date and time.
+	 */
+	public static long read(@NonNull final ByteBuffer buffer, final int offset) {
+		return pack(uint16(buffer, offset), uint8(buffer, offset + 2), uint8(buffer, offset + 3),
+				uint8(buffer, offset + 4), uint8(buffer, offset + 5), uint8(buffer, offset + 6));
+	}
+
+	/**
+	 * Packs the date and time fields into a long.
+	 *
+	 * @param year    the year, or 0 if unknown.
+	 * @param month   the month, 1-12, or 0 if unknown.
+	 * @param day     the day of month, 1-31, or 0 if unknown.
+	 * @param hours   the hours, 0-23.
+	 * @param minutes the minutes, 0-59.
+	 * @param seconds the seconds, 0-59.
+	 * @return The packed date and time.
+	 */
+	public static long pack(final int year, final int month, final int day,
+							final int hours, final int minutes, final int seconds) {
+		return ((long) (year & 0xFFFF) << 40) | ((long) (month & 0xFF) << 32)
+				| ((long) (day & 0xFF) << 24) | ((hours & 0xFF) << 16) | ((minutes & 0xFF) << 8)
+				| (seconds & 0xFF);
+	}
+
+	public static int getYear(final long dateTime) {
+		return (int) (dateTime >>> 40) & 0xFFFF;
+	}
+
+	public static int getMonth(final long dateTime) {
+		return (int) (dateTime >>> 32) & 0xFF;
+	}
+
+	public static int getDay(final long dateTime) {
+		return (int) (dateTime >>> 24) & 0xFF;
+	}
+
+	public static int getHours(final long dateTime) {
+		return (int) (dateTime >>> 16) & 0xFF;
+	}
+
+	public static int getMinutes(final long dateTime) {
+		return (int) (dateTime >>> 8) & 0xFF;
+	}
+
+	public static int getSeconds(final long dateTime) {
+		return (int) dateTime & 0xFF;
+	}
+
+	/**
+	 * Returns the date and time as if it was in UTC, in milliseconds since the epoch.
+	 * This is the local time, to be corrected by the time zone offset.
+	 *
+	 * @param dateTime the packed date and time.
+	 * @return The local time in milliseconds.
+	 */
+	public static long toLocalMillis(final long dateTime) {
+		final int year = getYear(dateTime);
+		final int month = getMonth(dateTime);
+		final int day = getDay(dateTime);
+		return daysFromCivil(year > 0 ? year : 1970, month > 0 ? month : 1, day > 0 ? day : 1) * MILLIS_PER_DAY
+				+ ((getHours(dateTime) * 60L + getMinutes(dateTime)) * 60L + getSeconds(dateTime)) * 1000L;
+	}
+
+	/**
+	 * Returns the date and time in the local time zone as milliseconds since the epoch.
+	 * No objects are allocated, unless the value is from a different day than the previous one.
+	 * <p>
+	 * The result matches {@code toCalendar(dateTime).getTimeInMillis()} only for a complete
+	 * date outside of DST transitions. Unknown year, month or day are taken as 1970, January
+	 * and 1, while the Calendar takes them from the current date. A local time skipped or
+	 * repeated by a DST transition is converted using the offset at the local time minus
+	 * the raw offset, which may differ from the Calendar by the DST saving.
+	 *
+	 * @param dateTime the packed date and time.
+	 * @return The time in UTC epoch milliseconds.
+	 */
+	public static long toEpochMillis(final long dateTime) {
+		return localToEpochMillis(toLocalMillis(dateTime));
+	}
+
+	/**
+	 * Converts the local time in the default time zone to UTC epoch milliseconds.
+	 * The offset is cached per day. The default time zone is read again for a value from
+	 * a different day, so a change of the default time zone applies from then on.
+	 *
+	 * @param localMillis the local time in milliseconds, see {@link #toLocalMillis(long)}.
+	 * @return The time in UTC epoch milliseconds.
+	 */
+	public static long localToEpochMillis(final long localMillis) {
+		// Math.floorDiv(long, long) requires API 24
+		final long day = localMillis >= 0 ? localMillis / MILLIS_PER_DAY : (localMillis + 1) / MILLIS_PER_DAY - 1;
+		final ZoneOffset cached = zoneOffset;
+		if (cached != null && cached.day == day)
+			return localMillis - cached.offset;
+
+		// The default time zone may have changed since the offset was cached
+		final TimeZone timeZone = TimeZone.getDefault();
+		final int offset = offset(timeZone, localMillis);
+		// Cache the offset only if it is the same for the whole day
+		final long start = day * MILLIS_PER_DAY;
+		if (offset(timeZone, start) == offset(timeZone, start + MILLIS_PER_DAY - 1))
+			zoneOffset = new ZoneOffset(day, offset);
+		return localMillis - offset;
+	}
+
+	/**
+	 * Clears the cached offset of the local time zone. Call this when the default time zone
+	 * has changed, e.g. on {@code Intent.ACTION_TIMEZONE_CHANGED}, for the change to apply
+	 * also to values from the day of the last converted value.
+	 */
+	public static void resetTimeZone() {
+		zoneOffset = null;
+	}
+
+	/**
+	 * Returns a Gregorian Calendar object with YEAR, MONTH, DATE, HOUR, MINUTE, SECONDS set
+	 * from the packed value. MILLISECONDS are set to 0. Time Zone and DST offset are from
+	 * the local time zone.
+	 * <p>
+	 * If YEAR, MONTH or DATE are 0, the corresponding fields in the calendar are 'unset',
+	 * that is {@code calendar.isSet(Calendar.YEAR)} returns false.
+	 *
+	 * @param dateTime the packed date and time.
+	 * @return Calendar object.
+	 */
+	@NonNull
+	public static Calendar toCalendar(final long dateTime) {
+		final Calendar calendar = Calendar.getInstance();
+		final int year = getYear(dateTime);
+		final int month = getMonth(dateTime);
+		final int day = getDay(dateTime);
+		if (year > 0)
+			calendar.set(Calendar.YEAR, year);
+		else
+			calendar.clear(Calendar.YEAR);
+		if (month > 0)
+			calendar.set(Calendar.MONTH, month - 1); // months are 1-based in Date Time characteristic
+		else
+			calendar.clear(Calendar.MONTH);
+		if (day > 0)
+			calendar.set(Calendar.DATE, day);
+		else
+			calendar.clear(Calendar.DATE);
+		calendar.set(Calendar.HOUR_OF_DAY, getHours(dateTime));
+		calendar.set(Calendar.MINUTE, getMinutes(dateTime));
+		calendar.set(Calendar.SECOND, getSeconds(dateTime));
+		calendar.set(Calendar.MILLISECOND, 0);
+		return calendar;
+	}
+
+	/**
+	 * Returns the number of days since 1970-01-01 in the proleptic Gregorian calendar.
+	 * See: http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+	 *
+	 * @param year  the year.
+	 * @param month the month, 1-12.
+	 * @param day   the day of month, 1-31.
+	 * @return The number of days since the epoch.
+	 */
+	public static long daysFromCivil(final int year, final int month, final int day) {
+		final int y = month <= 2 ? year - 1 : year;
+		final int era = (y >= 0 ? y : y - 399) / 400;
+		final int yoe = y - era * 400;
+		final int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097L + doe - 719468;
+	}
+
+	/**
+	 * Returns the offset of the time zone at the given local time, the way
+	 * {@link java.util.GregorianCalendar} resolves it.
+	 */
+	private static int offset(@NonNull final TimeZone timeZone, final long localMillis) {
+		return timeZone.getOffset(localMillis - timeZone.getRawOffset());
+	}
+}
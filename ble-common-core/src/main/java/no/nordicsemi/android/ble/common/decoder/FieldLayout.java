@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Creates field layout tables for characteristics whose optional fields are selected by
+ * a flags byte.
+ * <p>
+ * A table has an entry for each of the 256 flags values. The entry contains the minimum
+ * length of the value, followed by the offset of each optional field from the beginning
+ * of the value, or 0 if the field is not present. Decoders create the tables once and,
+ * instead of summing the field sizes for every value, look the entry up by the flags.
+ */
+public final class FieldLayout {
+	/** Index of the minimum length of the value in an entry. */
+	public static final int LENGTH = 0;
+
+	private FieldLayout() {
+		// empty private constructor
+	}
+
+	/**
+	 * Creates the table.
+	 *
+	 * @param fixedLength the length of the mandatory part of the value, including the flags,
+	 *                    which precedes the optional fields.
+	 * @param fields      the flags mask and the size in bytes of each optional field,
+	 *                    as pairs, in the order the fields follow in the value.
+	 *                    The offset of the i-th field is at index i + 1 of an entry.
+	 * @return The table, with {@link #stride(int...)} bytes for each flags value.
+	 */
+	@NonNull
+	public static byte[] create(final int fixedLength, @NonNull final int... fields) {
+		final int stride = stride(fields);
+		final byte[] table = new byte[256 * stride];
+		for (int flags = 0; flags < 256; flags++) {
+			final int entry = flags * stride;
+			int position = fixedLength;
+			for (int i = 0; i < fields.length; i += 2) {
+				if ((flags & fields[i]) != 0) {
+					table[entry + 1 + i / 2] = (byte) position;
+					position += fields[i + 1];
+				}
+			}
+			if (position > Byte.MAX_VALUE)
+				throw new IllegalArgumentException("Value too long: " + position);
+			table[entry + LENGTH] = (byte) position;
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the number of bytes of each entry for the given fields.
+	 */
+	public static int stride(@NonNull final int... fields) {
+		if (fields.length % 2 != 0)
+			throw new IllegalArgumentException("Fields must be given as mask and size pairs");
+		return 1 + fields.length / 2;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sfloat;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the Glucose Measurement Context characteristic.
+ * <p>
+ * Optional fields are reported together with the flags of the value. Use the FLAG_* masks
+ * to check which fields are present. Fields that are not present are set to 0.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.glucose_measurement_context.xml
+ */
+@SuppressWarnings("WeakerAccess")
+public final class GlucoseMeasurementContextDecoder {
+	public final static int FLAG_CARBOHYDRATE_PRESENT = 0x01;
+	public final static int FLAG_MEAL_PRESENT = 0x02;
+	public final static int FLAG_TESTER_HEALTH_PRESENT = 0x04;
+	public final static int FLAG_EXERCISE_PRESENT = 0x08;
+	public final static int FLAG_MEDICATION_PRESENT = 0x10;
+	public final static int FLAG_MEDICATION_UNIT_LITER = 0x20;
+	public final static int FLAG_HBA1C_PRESENT = 0x40;
+	public final static int FLAG_EXTENDED_FLAGS_PRESENT = 0x80;
+
+	/** The format of the value. The medication unit (0x20) flag does not change the layout. */
+	public static final CharacteristicSchema SCHEMA = new CharacteristicSchema.Builder()
+			.field("sequenceNumber", CharacteristicSchema.FORMAT_UINT16)
+			.optional("extendedFlags", FLAG_EXTENDED_FLAGS_PRESENT, CharacteristicSchema.FORMAT_UINT8)
+			.optional("carbohydrateId", FLAG_CARBOHYDRATE_PRESENT, CharacteristicSchema.FORMAT_UINT8)
+			.optional("carbohydrateAmount", FLAG_CARBOHYDRATE_PRESENT, CharacteristicSchema.FORMAT_SFLOAT)
+			.optional("meal", FLAG_MEAL_PRESENT, CharacteristicSchema.FORMAT_UINT8)
+			.optional("testerAndHealth", FLAG_TESTER_HEALTH_PRESENT, CharacteristicSchema.FORMAT_UINT8)
+			.optional("exerciseDuration", FLAG_EXERCISE_PRESENT, CharacteristicSchema.FORMAT_UINT16)
+			.optional("exerciseIntensity", FLAG_EXERCISE_PRESENT, CharacteristicSchema.FORMAT_UINT8)
+			.optional("medicationId", FLAG_MEDICATION_PRESENT, CharacteristicSchema.FORMAT_UINT8)
+			.optional("medicationAmount", FLAG_MEDICATION_PRESENT, CharacteristicSchema.FORMAT_SFLOAT)
+			.optional("HbA1c", FLAG_HBA1C_PRESENT, CharacteristicSchema.FORMAT_SFLOAT)
+			.build();
+	private static final int SEQUENCE_NUMBER = SCHEMA.slotOf("sequenceNumber");
+	private static final int CARBOHYDRATE_ID = SCHEMA.slotOf("carbohydrateId");
+	private static final int CARBOHYDRATE_AMOUNT = SCHEMA.slotOf("carbohydrateAmount");
+	private static final int MEAL = SCHEMA.slotOf("meal");
+	private static final int TESTER_HEALTH = SCHEMA.slotOf("testerAndHealth");
+	private static final int EXERCISE_DURATION = SCHEMA.slotOf("exerciseDuration");
+	private static final int EXERCISE_INTENSITY = SCHEMA.slotOf("exerciseIntensity");
+	private static final int MEDICATION_ID = SCHEMA.slotOf("medicationId");
+	private static final int MEDICATION_AMOUNT = SCHEMA.slotOf("medicationAmount");
+	private static final int HBA1C = SCHEMA.slotOf("HbA1c");
+	private static final int STRIDE = SCHEMA.getStride();
+	private static final byte[] LAYOUT = SCHEMA.getLayout();
+	private static final int MIN_LENGTH = SCHEMA.getLength(0);
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid Glucose Measurement Context has been decoded.
+		 *
+		 * @param sequenceNumber     the sequence number of the matching Glucose Measurement.
+		 * @param flags              the flags, see FLAG_* masks.
+		 * @param carbohydrateId     the carbohydrate ID.
+		 * @param carbohydrateAmount the amount of carbohydrate in grams.
+		 * @param meal               the meal ID.
+		 * @param tester             the tester ID.
+		 * @param health             the health ID.
+		 * @param exerciseDuration   the exercise duration in seconds.
+		 * @param exerciseIntensity  the exercise intensity in percent.
+		 * @param medicationId       the medication ID.
+		 * @param medicationAmount   the amount of medication in milligrams or milliliters,
+		 *                           see {@link #FLAG_MEDICATION_UNIT_LITER}.
+		 * @param HbA1c              the HbA1c value in percent.
+		 */
+		void onGlucoseMeasurementContext(int sequenceNumber, int flags,
+										 int carbohydrateId, float carbohydrateAmount,
+										 int meal, int tester, int health,
+										 int exerciseDuration, int exerciseIntensity,
+										 int medicationId, float medicationAmount,
+										 float HbA1c);
+	}
+
+	private GlucoseMeasurementContextDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < MIN_LENGTH)
+			return false;
+
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * STRIDE;
+
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		final int sequenceNumber = uint16(buffer, offset + LAYOUT[entry + SEQUENCE_NUMBER]);
+
+		// Optional fields, the extended flags are ignored
+		int carbohydrateId = 0;
+		float carbohydrateAmount = 0;
+		if ((flags & FLAG_CARBOHYDRATE_PRESENT) != 0) {
+			carbohydrateId = uint8(buffer, offset + LAYOUT[entry + CARBOHYDRATE_ID]);
+			carbohydrateAmount = sfloat(buffer, offset + LAYOUT[entry + CARBOHYDRATE_AMOUNT]); // in grams
+		}
+
+		final int meal = (flags & FLAG_MEAL_PRESENT) != 0
+				? uint8(buffer, offset + LAYOUT[entry + MEAL]) : 0;
+
+		int tester = 0;
+		int health = 0;
+		if ((flags & FLAG_TESTER_HEALTH_PRESENT) != 0) {
+			final int testerAndHealth = uint8(buffer, offset + LAYOUT[entry + TESTER_HEALTH]);
+			tester = testerAndHealth & 0x0F;
+			health = testerAndHealth >> 4;
+		}
+
+		int exerciseDuration = 0;
+		int exerciseIntensity = 0;
+		if ((flags & FLAG_EXERCISE_PRESENT) != 0) {
+			exerciseDuration = uint16(buffer, offset + LAYOUT[entry + EXERCISE_DURATION]); // in seconds
+			exerciseIntensity = uint8(buffer, offset + LAYOUT[entry + EXERCISE_INTENSITY]); // in percentage
+		}
+
+		int medicationId = 0;
+		float medicationAmount = 0;
+		if ((flags & FLAG_MEDICATION_PRESENT) != 0) {
+			medicationId = uint8(buffer, offset + LAYOUT[entry + MEDICATION_ID]);
+			medicationAmount = sfloat(buffer, offset + LAYOUT[entry + MEDICATION_AMOUNT]); // mg or ml
+		}
+
+		final float HbA1c = (flags & FLAG_HBA1C_PRESENT) != 0
+				? sfloat(buffer, offset + LAYOUT[entry + HBA1C]) : 0;
+
+		callback.onGlucoseMeasurementContext(sequenceNumber, flags, carbohydrateId, carbohydrateAmount,
+				meal, tester, health, exerciseDuration, exerciseIntensity,
+				medicationId, medicationAmount, HbA1c);
+		return true;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sfloat;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the Glucose Measurement characteristic.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.glucose_measurement.xml
+ */
+public final class GlucoseMeasurementDecoder {
+	/** The format of the value. The unit (0x04) and context (0x10) flags do not change the layout. */
+	public static final CharacteristicSchema SCHEMA = new CharacteristicSchema.Builder()
+			.field("sequenceNumber", CharacteristicSchema.FORMAT_UINT16)
+			.field("baseTime", CharacteristicSchema.FORMAT_DATE_TIME)
+			.optional("timeOffset", 0x01, CharacteristicSchema.FORMAT_SINT16)
+			.optional("glucoseConcentration", 0x02, CharacteristicSchema.FORMAT_SFLOAT)
+			.optional("typeAndSampleLocation", 0x02, CharacteristicSchema.FORMAT_UINT8)
+			.optional("status", 0x08, CharacteristicSchema.FORMAT_UINT16)
+			.build();
+	private static final int SEQUENCE_NUMBER = SCHEMA.slotOf("sequenceNumber");
+	private static final int BASE_TIME = SCHEMA.slotOf("baseTime");
+	private static final int TIME_OFFSET = SCHEMA.slotOf("timeOffset");
+	private static final int CONCENTRATION = SCHEMA.slotOf("glucoseConcentration");
+	private static final int TYPE_AND_LOCATION = SCHEMA.slotOf("typeAndSampleLocation");
+	private static final int STATUS = SCHEMA.slotOf("status");
+	private static final int STRIDE = SCHEMA.getStride();
+	private static final byte[] LAYOUT = SCHEMA.getLayout();
+	private static final int MIN_LENGTH = SCHEMA.getLength(0);
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid Glucose Measurement has been decoded.
+		 *
+		 * @param sequenceNumber            the sequence number.
+		 * @param baseTime                  the base time, packed, see {@link DateTime}.
+		 * @param timeOffset                the time offset in minutes, to be added to the base time,
+		 *                                  0 if not present.
+		 * @param glucoseDataPresent        true if the concentration, type and sample location are present.
+		 * @param glucoseConcentration      the glucose concentration in kg/L or mol/L.
+		 * @param unitMolL                  true if the concentration is in mol/L, false if in kg/L.
+		 * @param type                      the sample type.
+		 * @param sampleLocation            the sample location.
+		 * @param statusPresent             true if the Sensor Status Annunciation is present.
+		 * @param status                    the Sensor Status Annunciation, 0 if not present.
+		 * @param contextInformationFollows true if the Glucose Measurement Context will follow.
+		 */
+		void onGlucoseMeasurement(int sequenceNumber, long baseTime, int timeOffset,
+								  boolean glucoseDataPresent, float glucoseConcentration, boolean unitMolL,
+								  int type, int sampleLocation,
+								  boolean statusPresent, int status,
+								  boolean contextInformationFollows);
+	}
+
+	private GlucoseMeasurementDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < MIN_LENGTH)
+			return false;
+
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * STRIDE;
+		final boolean timeOffsetPresent = (flags & 0x01) != 0;
+		final boolean glucoseDataPresent = (flags & 0x02) != 0;
+		final boolean unitMolL = (flags & 0x04) != 0;
+		final boolean sensorStatusAnnunciationPresent = (flags & 0x08) != 0;
+		final boolean contextInformationFollows = (flags & 0x10) != 0;
+
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		// Required fields
+		final int sequenceNumber = uint16(buffer, offset + LAYOUT[entry + SEQUENCE_NUMBER]);
+		final long baseTime = DateTime.read(buffer, offset + LAYOUT[entry + BASE_TIME]);
+
+		// Optional fields
+		final int timeOffset = timeOffsetPresent
+				? sint16(buffer, offset + LAYOUT[entry + TIME_OFFSET]) : 0;
+
+		float glucoseConcentration = 0;
+		int type = 0;
+		int sampleLocation = 0;
+		if (glucoseDataPresent) {
+			glucoseConcentration = sfloat(buffer, offset + LAYOUT[entry + CONCENTRATION]);
+			final int typeAndSampleLocation = uint8(buffer, offset + LAYOUT[entry + TYPE_AND_LOCATION]);
+			type = typeAndSampleLocation & 0x0F;
+			sampleLocation = typeAndSampleLocation >> 4;
+		}
+
+		final int status = sensorStatusAnnunciationPresent
+				? uint16(buffer, offset + LAYOUT[entry + STATUS]) : 0;
+
+		callback.onGlucoseMeasurement(sequenceNumber, baseTime, timeOffset,
+				glucoseDataPresent, glucoseConcentration, unitMolL, type, sampleLocation,
+				sensorStatusAnnunciationPresent, status, contextInformationFollows);
+		return true;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the Heart Rate Measurement characteristic.
+ * <p>
+ * RR intervals are not copied. The callback gets the index of the first interval in the buffer
+ * and the number of intervals, which may be read using {@link #rrInterval(ByteBuffer, int, int)}.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.heart_rate_measurement.xml
+ */
+@SuppressWarnings("WeakerAccess")
+public final class HeartRateMeasurementDecoder {
+	private static final int[] FIELDS = {
+			0x01, 1, // the upper byte of the Heart Rate Measurement Value (uint16)
+			0x08, 2, // Energy Expended
+			0x10, 2, // RR-Interval, at least one
+	};
+	private static final int ENERGY_EXPANDED = 2;
+	private static final int RR_INTERVALS = 3;
+	private static final int STRIDE = FieldLayout.stride(FIELDS);
+	/** Flags and the Heart Rate Measurement Value (uint8), followed by the optional fields. */
+	private static final byte[] LAYOUT = FieldLayout.create(2, FIELDS);
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid Heart Rate Measurement has been decoded.
+		 *
+		 * @param heartRate             the current heart rate in beats per minute.
+		 * @param contactSupported      true if the sensor supports contact detection.
+		 * @param contactDetected       true if the sensor contact has been detected.
+		 * @param energyExpandedPresent true if the energy expanded field is present.
+		 * @param energyExpanded        the energy expanded in kilo Joules, 0 if not present.
+		 * @param rrIntervalsOffset     index of the first RR interval in the buffer.
+		 * @param rrIntervalsCount      number of RR intervals, 0 if not present.
+		 */
+		void onHeartRateMeasurement(int heartRate,
+									boolean contactSupported, boolean contactDetected,
+									boolean energyExpandedPresent, int energyExpanded,
+									int rrIntervalsOffset, int rrIntervalsCount);
+	}
+
+	private HeartRateMeasurementDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < 2)
+			return false;
+
+		// Read flags
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * STRIDE;
+
+		// Validate packet length
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		final int heartRate = (flags & 0x01) != 0 ? uint16(buffer, offset + 1) : uint8(buffer, offset + 1);
+		final int energyExpanded = (flags & 0x08) != 0
+				? uint16(buffer, offset + LAYOUT[entry + ENERGY_EXPANDED]) : 0;
+		notify(flags, heartRate, energyExpanded, offset, length, callback);
+		return true;
+	}
+
+	/**
+	 * Decodes the value from the array, without wrapping it into a {@link ByteBuffer}.
+	 * RR intervals may be read using {@link #rrInterval(byte[], int, int)}.
+	 *
+	 * @param value    the array with the value.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final byte[] value, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < 2)
+			return false;
+
+		// Read flags
+		final int flags = uint8(value, offset);
+		final int entry = flags * STRIDE;
+
+		// Validate packet length
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		final int heartRate = (flags & 0x01) != 0 ? uint16(value, offset + 1) : uint8(value, offset + 1);
+		final int energyExpanded = (flags & 0x08) != 0
+				? uint16(value, offset + LAYOUT[entry + ENERGY_EXPANDED]) : 0;
+		notify(flags, heartRate, energyExpanded, offset, length, callback);
+		return true;
+	}
+
+	private static void notify(final int flags, final int heartRate, final int energyExpanded,
+							   final int offset, final int length, @NonNull final Callback callback) {
+		final int sensorContactStatus = (flags & 0x06) >> 1;
+		final boolean sensorContactSupported = sensorContactStatus == 2 || sensorContactStatus == 3;
+		final boolean sensorContactDetected = sensorContactStatus == 3;
+		final boolean energyExpandedPresent = (flags & 0x08) != 0;
+		final boolean rrIntervalsPresent = (flags & 0x10) != 0;
+
+		final int position = offset + LAYOUT[flags * STRIDE + RR_INTERVALS];
+		final int rrIntervalsCount = rrIntervalsPresent ? (offset + length - position) / 2 : 0;
+
+		callback.onHeartRateMeasurement(heartRate, sensorContactSupported, sensorContactDetected,
+				energyExpandedPresent, energyExpanded, position, rrIntervalsCount);
+	}
+
+	/**
+	 * Reads the RR interval with given index.
+	 *
+	 * @param buffer            the buffer with the value.
+	 * @param rrIntervalsOffset index of the first RR interval, as given to the callback.
+	 * @param index             index of the RR interval.
+	 * @return The RR interval in 1/1024 of a second unit.
+	 */
+	public static int rrInterval(@NonNull final ByteBuffer buffer, final int rrIntervalsOffset, final int index) {
+		return uint16(buffer, rrIntervalsOffset + 2 * index);
+	}
+
+	/**
+	 * Reads the RR interval with given index from the array given to
+	 * {@link #decode(byte[], int, int, Callback)}.
+	 *
+	 * @param value             the array with the value.
+	 * @param rrIntervalsOffset index of the first RR interval, as given to the callback.
+	 * @param index             index of the RR interval.
+	 * @return The RR interval in 1/1024 of a second unit.
+	 */
+	public static int rrInterval(@NonNull final byte[] value, final int rrIntervalsOffset, final int index) {
+		return uint16(value, rrIntervalsOffset + 2 * index);
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+/**
+ * Converts IEEE-11073 16-bit SFLOAT and 32-bit FLOAT values without {@link Math#pow(double, double)}.
+ * <p>
+ * Powers of ten are taken from a table of correctly rounded doubles. Negative exponents
+ * divide by the positive power, so every value that is exactly representable as a decimal,
+ * e.g. 12.3, decodes to the float nearest to it. Reserved values are decoded as
+ * {@link Float#NaN}, {@link Float#POSITIVE_INFINITY} or {@link Float#NEGATIVE_INFINITY}.
+ * <p>
+ * {@link #toSfloat(float)} encodes with the highest precision possible, so decoding
+ * an encoded value returns the original float for every decoded SFLOAT value.
+ * {@link #toFloat32(float)} does the same for FLOAT.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class IEEE11073Float {
+	public static final int SFLOAT_POSITIVE_INFINITY = 0x07FE;
+	public static final int SFLOAT_NAN = 0x07FF;
+	public static final int SFLOAT_NRES = 0x0800;
+	public static final int SFLOAT_RESERVED = 0x0801;
+	public static final int SFLOAT_NEGATIVE_INFINITY = 0x0802;
+
+	public static final int FLOAT_POSITIVE_INFINITY = 0x007FFFFE;
+	public static final int FLOAT_NAN = 0x007FFFFF;
+	public static final int FLOAT_NRES = 0x00800000;
+	public static final int FLOAT_RESERVED = 0x00800001;
+	public static final int FLOAT_NEGATIVE_INFINITY = 0x00800002;
+
+	private static final int SFLOAT_MANTISSA_MAX = 0x07FD;
+	private static final int SFLOAT_EXPONENT_MIN = -8;
+	private static final int SFLOAT_EXPONENT_MAX = 7;
+	private static final int FLOAT_MANTISSA_MAX = 0x007FFFFD;
+	private static final int FLOAT_EXPONENT_MIN = -128;
+	private static final int FLOAT_EXPONENT_MAX = 127;
+
+	/** 10^0 to 10^128, each the double nearest to the exact value. */
+	private static final double[] POWERS_OF_TEN = new double[129];
+
+	static {
+		for (int i = 0; i < POWERS_OF_TEN.length; i++)
+			POWERS_OF_TEN[i] = Double.parseDouble("1e" + i);
+	}
+
+	/** All 65536 SFLOAT values, created on first use. */
+	private static final class SfloatTable {
+		static final float[] VALUES = new float[0x10000];
+
+		static {
+			for (int raw = 0; raw < VALUES.length; raw++)
+				VALUES[raw] = sfloat(raw);
+		}
+	}
+
+	private IEEE11073Float() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the SFLOAT value.
+	 *
+	 * @param raw the value as uint16.
+	 * @return The value.
+	 */
+	public static float sfloat(final int raw) {
+		final int mantissa = (raw << 20) >> 20; // 12-bit signed
+		final int exponent = (raw << 16) >> 28; // 4-bit signed
+		if (exponent == 0) {
+			switch (mantissa) {
+				case SFLOAT_POSITIVE_INFINITY: return Float.POSITIVE_INFINITY;
+				case SFLOAT_NAN:
+				case SFLOAT_NRES - 0x1000:
+				case SFLOAT_RESERVED - 0x1000: return Float.NaN;
+				case SFLOAT_NEGATIVE_INFINITY - 0x1000: return Float.NEGATIVE_INFINITY;
+			}
+			return mantissa;
+		}
+		return scale(mantissa, exponent);
+	}
+
+	/**
+	 * Decodes the SFLOAT value using a table of all 65536 values. The table takes 256 kB
+	 * and is created on the first call. This is faster than {@link #sfloat(int)} only if
+	 * the table stays in the CPU cache, that is when values are decoded in bulk.
+	 *
+	 * @param raw the value as uint16.
+	 * @return The value.
+	 */
+	public static float sfloatFromTable(final int raw) {
+		return SfloatTable.VALUES[raw & 0xFFFF];
+	}
+
+	/**
+	 * Decodes the FLOAT value.
+	 *
+	 * @param raw the value as int32.
+	 * @return The value.
+	 */
+	public static float float32(final int raw) {
+		final int mantissa = (raw << 8) >> 8; // 24-bit signed
+		final int exponent = raw >> 24; // 8-bit signed
+		if (exponent == 0) {
+			switch (mantissa) {
+				case FLOAT_POSITIVE_INFINITY: return Float.POSITIVE_INFINITY;
+				case FLOAT_NAN:
+				case FLOAT_NRES - 0x01000000:
+				case FLOAT_RESERVED - 0x01000000: return Float.NaN;
+				case FLOAT_NEGATIVE_INFINITY - 0x01000000: return Float.NEGATIVE_INFINITY;
+			}
+			return mantissa;
+		}
+		return scale(mantissa, exponent);
+	}
+
+	/**
+	 * Encodes the value as SFLOAT with the highest precision that fits in the 12-bit mantissa.
+	 * The mantissas of the reserved values are used only with non-zero exponents.
+	 * Values too large to be encoded are encoded as infinities, values too small as 0.
+	 *
+	 * @param value the value.
+	 * @return The SFLOAT value as uint16.
+	 */
+	public static int toSfloat(final float value) {
+		if (Float.isNaN(value))
+			return SFLOAT_NAN;
+		if (value == Float.POSITIVE_INFINITY)
+			return SFLOAT_POSITIVE_INFINITY;
+		if (value == Float.NEGATIVE_INFINITY)
+			return SFLOAT_NEGATIVE_INFINITY;
+		if (value == 0.0f)
+			return 0;
+
+		for (int exponent = SFLOAT_EXPONENT_MIN; exponent <= SFLOAT_EXPONENT_MAX; exponent++) {
+			final double scaled = exponent < 0
+					? value * POWERS_OF_TEN[-exponent]
+					: value / POWERS_OF_TEN[exponent];
+			// The reserved values use only exponent 0
+			final int max = exponent == 0 ? SFLOAT_MANTISSA_MAX : 0x07FF;
+			final int min = exponent == 0 ? -SFLOAT_MANTISSA_MAX : -0x0800;
+			final long mantissa = Math.round(scaled);
+			if (mantissa == 0)
+				return 0;
+			if (mantissa <= max && mantissa >= min)
+				return sfloat((int) mantissa, exponent);
+		}
+		return value > 0 ? SFLOAT_POSITIVE_INFINITY : SFLOAT_NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Encodes the value as FLOAT with the highest precision that fits in the 24-bit mantissa.
+	 * The mantissas of the reserved values are used only with non-zero exponents.
+	 * Values too large to be encoded are encoded as infinities, values too small as 0.
+	 *
+	 * @param value the value.
+	 * @return The FLOAT value as int32.
+	 */
+	public static int toFloat32(final float value) {
+		if (Float.isNaN(value))
+			return FLOAT_NAN;
+		if (value == Float.POSITIVE_INFINITY)
+			return FLOAT_POSITIVE_INFINITY;
+		if (value == Float.NEGATIVE_INFINITY)
+			return FLOAT_NEGATIVE_INFINITY;
+		if (value == 0.0f)
+			return 0;
+
+		// The mantissa has almost 7 decimal digits, start one below the estimate
+		final int estimate = (int) Math.floor(Math.log10(Math.abs(value))) - 7;
+		for (int exponent = Math.max(estimate, FLOAT_EXPONENT_MIN); exponent <= FLOAT_EXPONENT_MAX; exponent++) {
+			final double scaled = exponent < 0
+					? value * POWERS_OF_TEN[-exponent]
+					: value / POWERS_OF_TEN[exponent];
+			final int max = exponent == 0 ? FLOAT_MANTISSA_MAX : 0x007FFFFF;
+			final int min = exponent == 0 ? -FLOAT_MANTISSA_MAX : -0x00800000;
+			final long mantissa = Math.round(scaled);
+			if (mantissa == 0)
+				return 0;
+			if (mantissa <= max && mantissa >= min)
+				return float32((int) mantissa, exponent);
+		}
+		return value > 0 ? FLOAT_POSITIVE_INFINITY : FLOAT_NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Encodes the mantissa and exponent as FLOAT.
+	 *
+	 * @param mantissa the mantissa, 24-bit signed, without the reserved values if the exponent is 0.
+	 * @param exponent the exponent, -128 to 127.
+	 * @return The FLOAT value as int32.
+	 */
+	public static int float32(final int mantissa, final int exponent) {
+		return (exponent << 24) | (mantissa & 0x00FFFFFF);
+	}
+
+	/**
+	 * Encodes the mantissa and exponent as SFLOAT.
+	 *
+	 * @param mantissa the mantissa, -2048 to 2047, or -2045 to 2045 if the exponent is 0.
+	 * @param exponent the exponent, -8 to 7.
+	 * @return The SFLOAT value as uint16.
+	 */
+	public static int sfloat(final int mantissa, final int exponent) {
+		return ((exponent & 0x0F) << 12) | (mantissa & 0x0FFF);
+	}
+
+	private static float scale(final int mantissa, final int exponent) {
+		if (exponent < 0)
+			return (float) (mantissa / POWERS_OF_TEN[-exponent]);
+		return (float) (mantissa * POWERS_OF_TEN[exponent]);
+	}
+}
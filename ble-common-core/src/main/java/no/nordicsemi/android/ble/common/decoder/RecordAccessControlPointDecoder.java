@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.sint32;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the Record Access Control Point characteristic responses.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.record_access_control_point.xml
+ */
+public final class RecordAccessControlPointDecoder {
+	private final static int OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE = 5;
+	private final static int OP_CODE_RESPONSE_CODE = 6;
+	private final static int OPERATOR_NULL = 0;
+	private final static int RACP_RESPONSE_SUCCESS = 1;
+	private final static int RACP_ERROR_NO_RECORDS_FOUND = 6;
+
+	public interface Callback {
+
+		/**
+		 * Called when the Number of Stored Records response has been decoded.
+		 *
+		 * @param numberOfRecords the number of records.
+		 */
+		void onNumberOfRecords(int numberOfRecords);
+
+		/**
+		 * Called when the Response Code with success has been decoded.
+		 *
+		 * @param requestCode the request Op Code.
+		 */
+		void onOperationCompleted(int requestCode);
+
+		/**
+		 * Called when the Response Code with 'No records found' has been decoded.
+		 *
+		 * @param requestCode the request Op Code.
+		 */
+		void onOperationCompletedWithNoRecordsFound(int requestCode);
+
+		/**
+		 * Called when the Response Code with an error has been decoded.
+		 *
+		 * @param requestCode the request Op Code.
+		 * @param errorCode   the response code.
+		 */
+		void onOperationError(int requestCode, int errorCode);
+	}
+
+	private RecordAccessControlPointDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < 3)
+			return false;
+
+		final int opCode = uint8(buffer, offset);
+		if (opCode != OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE && opCode != OP_CODE_RESPONSE_CODE)
+			return false;
+
+		final int operator = uint8(buffer, offset + 1);
+		if (operator != OPERATOR_NULL)
+			return false;
+
+		if (opCode == OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE) {
+			// Field size is defined per service
+			final int numberOfRecords;
+			switch (length - 2) {
+				case 1:
+					numberOfRecords = uint8(buffer, offset + 2);
+					break;
+				case 2:
+					numberOfRecords = uint16(buffer, offset + 2);
+					break;
+				case 4:
+					numberOfRecords = sint32(buffer, offset + 2);
+					break;
+				default:
+					// Other field sizes are not supported
+					return false;
+			}
+			callback.onNumberOfRecords(numberOfRecords);
+			return true;
+		}
+
+		if (length != 4)
+			return false;
+
+		final int requestCode = uint8(buffer, offset + 2);
+		final int responseCode = uint8(buffer, offset + 3);
+		if (responseCode == RACP_RESPONSE_SUCCESS) {
+			callback.onOperationCompleted(requestCode);
+		} else if (responseCode == RACP_ERROR_NO_RECORDS_FOUND) {
+			callback.onOperationCompletedWithNoRecordsFound(requestCode);
+		} else {
+			callback.onOperationError(requestCode, responseCode);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint16;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint32;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the RSC Measurement characteristic.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.rsc_measurement.xml
+ */
+public final class RunningSpeedAndCadenceMeasurementDecoder {
+	/** The format of the value. The running flag (0x04) does not change the layout. */
+	public static final CharacteristicSchema SCHEMA = new CharacteristicSchema.Builder()
+			.field("speed", CharacteristicSchema.FORMAT_UINT16)
+			.field("cadence", CharacteristicSchema.FORMAT_UINT8)
+			.optional("strideLength", 0x01, CharacteristicSchema.FORMAT_UINT16)
+			.optional("totalDistance", 0x02, CharacteristicSchema.FORMAT_UINT32)
+			.build();
+	private static final int SPEED = SCHEMA.slotOf("speed");
+	private static final int CADENCE = SCHEMA.slotOf("cadence");
+	private static final int STRIDE_LENGTH = SCHEMA.slotOf("strideLength");
+	private static final int TOTAL_DISTANCE = SCHEMA.slotOf("totalDistance");
+	private static final int STRIDE = SCHEMA.getStride();
+	private static final byte[] LAYOUT = SCHEMA.getLayout();
+	private static final int MIN_LENGTH = SCHEMA.getLength(0);
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid RSC Measurement has been decoded.
+		 *
+		 * @param running              true if the user is running, false if walking.
+		 * @param instantaneousSpeed   the speed in m/s.
+		 * @param instantaneousCadence the cadence in steps per minute.
+		 * @param strideLengthPresent  true if the stride length is present.
+		 * @param strideLength         the stride length in centimeters.
+		 * @param totalDistancePresent true if the total distance is present.
+		 * @param totalDistance        the total distance in decimeters.
+		 */
+		void onRSCMeasurement(boolean running, float instantaneousSpeed, int instantaneousCadence,
+							  boolean strideLengthPresent, int strideLength,
+							  boolean totalDistancePresent, long totalDistance);
+	}
+
+	private RunningSpeedAndCadenceMeasurementDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < MIN_LENGTH)
+			return false;
+
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * STRIDE;
+		final boolean instantaneousStrideLengthPresent = (flags & 0x01) != 0;
+		final boolean totalDistancePresent = (flags & 0x02) != 0;
+		final boolean statusRunning = (flags & 0x04) != 0;
+
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		final float speed = uint16(buffer, offset + LAYOUT[entry + SPEED]) / 256.f; // [m/s]
+		final int cadence = uint8(buffer, offset + LAYOUT[entry + CADENCE]);
+
+		final int strideLength = instantaneousStrideLengthPresent
+				? uint16(buffer, offset + LAYOUT[entry + STRIDE_LENGTH]) : 0;
+		final long totalDistance = totalDistancePresent
+				? uint32(buffer, offset + LAYOUT[entry + TOTAL_DISTANCE]) : 0;
+
+		callback.onRSCMeasurement(statusRunning, speed, cadence,
+				instantaneousStrideLengthPresent, strideLength, totalDistancePresent, totalDistance);
+		return true;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.float32;
+import static no.nordicsemi.android.ble.common.decoder.ValueReader.uint8;
+
+/**
+ * Decoder of the Temperature Measurement and Intermediate Temperature characteristics.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.temperature_measurement.xml
+ */
+public final class TemperatureMeasurementDecoder {
+	/** The format of the value. The unit flag (0x01) does not change the layout. */
+	public static final CharacteristicSchema SCHEMA = new CharacteristicSchema.Builder()
+			.field("temperature", CharacteristicSchema.FORMAT_FLOAT)
+			.optional("timestamp", 0x02, CharacteristicSchema.FORMAT_DATE_TIME)
+			.optional("type", 0x04, CharacteristicSchema.FORMAT_UINT8)
+			.build();
+	private static final int TEMPERATURE = SCHEMA.slotOf("temperature");
+	private static final int TIMESTAMP = SCHEMA.slotOf("timestamp");
+	private static final int TYPE = SCHEMA.slotOf("type");
+	private static final int STRIDE = SCHEMA.getStride();
+	private static final byte[] LAYOUT = SCHEMA.getLayout();
+	private static final int MIN_LENGTH = SCHEMA.getLength(0);
+
+	public interface Callback {
+
+		/**
+		 * Called when a valid Temperature Measurement has been decoded.
+		 *
+		 * @param temperature      the temperature value.
+		 * @param fahrenheit       true if the value is in Fahrenheit, false if in Celsius.
+		 * @param timestampPresent true if the timestamp is present.
+		 * @param timestamp        the timestamp, packed, see {@link DateTime}.
+		 * @param typePresent      true if the temperature type is present.
+		 * @param type             the temperature type.
+		 */
+		void onTemperatureMeasurement(float temperature, boolean fahrenheit,
+									  boolean timestampPresent, long timestamp,
+									  boolean typePresent, int type);
+	}
+
+	private TemperatureMeasurementDecoder() {
+		// empty private constructor
+	}
+
+	/**
+	 * Decodes the value.
+	 *
+	 * @param buffer   the buffer with the value. The position and limit are not modified.
+	 * @param offset   index of the first byte of the value.
+	 * @param length   length of the value in bytes.
+	 * @param callback the callback that will be notified about the decoded value.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public static boolean decode(@NonNull final ByteBuffer buffer, final int offset, final int length,
+								 @NonNull final Callback callback) {
+		if (length < MIN_LENGTH)
+			return false;
+
+		final int flags = uint8(buffer, offset);
+		final int entry = flags * STRIDE;
+		final boolean fahrenheit = (flags & 0x01) != 0;
+		final boolean timestampPresent = (flags & 0x02) != 0;
+		final boolean temperatureTypePresent = (flags & 0x04) != 0;
+
+		if (length < LAYOUT[entry + FieldLayout.LENGTH])
+			return false;
+
+		final float temperature = float32(buffer, offset + LAYOUT[entry + TEMPERATURE]);
+		final long timestamp = timestampPresent
+				? DateTime.read(buffer, offset + LAYOUT[entry + TIMESTAMP]) : 0;
+		final int type = temperatureTypePresent
+				? uint8(buffer, offset + LAYOUT[entry + TYPE]) : 0;
+
+		callback.onTemperatureMeasurement(temperature, fahrenheit, timestampPresent, timestamp,
+				temperatureTypePresent, type);
+		return true;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+
+/**
+ * Reads little-endian values from a {@link ByteBuffer}, as defined for Bluetooth characteristics.
+ * Integers may also be read from a byte array, which avoids wrapping the array into a buffer.
+ * <p>
+ * All methods use absolute indexes and do not depend on, or modify, the position and the byte
+ * order of the buffer. The values are read directly from the buffer, without copying.
+ * The caller is responsible for validating that the value fits in the buffer.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ValueReader {
+	private static final ByteBuffer EMPTY = ByteBuffer.wrap(new byte[0]);
+
+	private ValueReader() {
+		// empty private constructor
+	}
+
+	/**
+	 * Wraps the value into a buffer, without copying. Null is treated as an empty value.
+	 *
+	 * @param value the value.
+	 * @return The buffer. The length of the value is the buffer limit.
+	 */
+	@NonNull
+	public static ByteBuffer wrap(@Nullable final byte[] value) {
+		return value != null ? ByteBuffer.wrap(value) : EMPTY;
+	}
+
+	public static int uint8(@NonNull final ByteBuffer buffer, final int offset) {
+		return buffer.get(offset) & 0xFF;
+	}
+
+	public static int uint8(@NonNull final byte[] value, final int offset) {
+		return value[offset] & 0xFF;
+	}
+
+	public static int sint8(@NonNull final ByteBuffer buffer, final int offset) {
+		return buffer.get(offset);
+	}
+
+	public static int uint16(@NonNull final ByteBuffer buffer, final int offset) {
+		return (buffer.get(offset) & 0xFF) | ((buffer.get(offset + 1) & 0xFF) << 8);
+	}
+
+	public static int uint16(@NonNull final byte[] value, final int offset) {
+		return (value[offset] & 0xFF) | ((value[offset + 1] & 0xFF) << 8);
+	}
+
+	public static int sint16(@NonNull final ByteBuffer buffer, final int offset) {
+		return (short) uint16(buffer, offset);
+	}
+
+	public static int uint24(@NonNull final ByteBuffer buffer, final int offset) {
+		return uint16(buffer, offset) | ((buffer.get(offset + 2) & 0xFF) << 16);
+	}
+
+	public static long uint32(@NonNull final ByteBuffer buffer, final int offset) {
+		return sint32(buffer, offset) & 0xFFFFFFFFL;
+	}
+
+	public static int sint32(@NonNull final ByteBuffer buffer, final int offset) {
+		return uint24(buffer, offset) | (buffer.get(offset + 3) << 24);
+	}
+
+	/**
+	 * Reads the IEEE-11073 16-bit SFLOAT value. Special values are returned as
+	 * {@link Float#NaN}, {@link Float#POSITIVE_INFINITY} or {@link Float#NEGATIVE_INFINITY}.
+	 *
+	 * @param buffer the buffer.
+	 * @param offset index of the first byte of the value.
+	 * @return The value.
+	 */
+	public static float sfloat(@NonNull final ByteBuffer buffer, final int offset) {
+		return IEEE11073Float.sfloat(uint16(buffer, offset));
+	}
+
+	/**
+	 * Reads the IEEE-11073 32-bit FLOAT value. Special values are returned as
+	 * {@link Float#NaN}, {@link Float#POSITIVE_INFINITY} or {@link Float#NEGATIVE_INFINITY}.
+	 *
+	 * @param buffer the buffer.
+	 * @param offset index of the first byte of the value.
+	 * @return The value.
+	 */
+	public static float float32(@NonNull final ByteBuffer buffer, final int offset) {
+		return IEEE11073Float.float32(sint32(buffer, offset));
+	}
+
+	/**
+	 * Returns a Gregorian Calendar object with YEAR, MONTH, DATE, HOUR, MINUTE, SECONDS set from
+	 * the 7 bytes at given offset using the Date Time characteristic format.
+	 * MILLISECONDS are set to 0. Time Zone and DST offset are from the local time zone.
+	 * <p>
+	 * If YEAR, MONTH or DATE are set to 0 in the data, the corresponding fields in the calendar
+	 * are 'unset', that is {@code calendar.isSet(Calendar.YEAR)} returns false.
+	 * <p>
+	 * Use {@link DateTime#read(ByteBuffer, int)} if a Calendar is not needed.
+	 *
+	 * @param buffer the buffer.
+	 * @param offset index of the first byte of the value.
+	 * @return Calendar object.
+	 */
+	@NonNull
+	public static Calendar dateTime(@NonNull final ByteBuffer buffer, final int offset) {
+		return DateTime.toCalendar(DateTime.read(buffer, offset));
+	}
+
+	/**
+	 * Reads the Date Time value if the range contains it.
+	 *
+	 * @param buffer the buffer.
+	 * @param offset index of the first byte of the value.
+	 * @param end    index after the last byte of the range.
+	 * @return Calendar object or null, if the range is too short.
+	 */
+	@Nullable
+	public static Calendar dateTime(@NonNull final ByteBuffer buffer, final int offset, final int end) {
+		if (end < offset + 7)
+			return null;
+		return dateTime(buffer, offset);
+	}
+}
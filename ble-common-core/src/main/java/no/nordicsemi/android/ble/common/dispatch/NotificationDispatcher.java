@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.dispatch;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import no.nordicsemi.android.ble.common.csc.CyclingSpeedAndCadenceEngine;
+import no.nordicsemi.android.ble.common.decoder.BloodPressureMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.HeartRateMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.RunningSpeedAndCadenceMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.TemperatureMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+/**
+ * Dispatches notifications and indications of many devices to a single {@link NotificationSink}.
+ * <p>
+ * Parsers are kept in a table indexed by the 16-bit characteristic UUID and devices are
+ * identified by indexes returned from {@link #addDevice(String)}, so dispatching a value is
+ * a pair of array lookups and does not allocate. Parsers of the Heart Rate, CSC, RSC, Blood
+ * Pressure, Health Thermometer, Glucose (Measurement and Measurement Context), CGM Measurement
+ * and Battery Level characteristics are registered by default. The CSC state of all devices is
+ * kept in one {@link CyclingSpeedAndCadenceEngine}, in which each added device is a sensor
+ * with the device index as the sensor index.
+ * <p>
+ * Instances are not thread safe. Parsers are shared between devices, so values must be
+ * dispatched from one thread at a time.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class NotificationDispatcher {
+	/** Characteristics 0x2A00-0x2BFF can be registered. */
+	private static final int FIRST_CHARACTERISTIC = 0x2A00;
+	private static final int CHARACTERISTIC_COUNT = 0x200;
+
+	private final NotificationSink sink;
+	private final NotificationParser[] parsers = new NotificationParser[CHARACTERISTIC_COUNT];
+	private final String[] addresses;
+	private final Map<String, Integer> devices = new HashMap<>();
+	private final CyclingSpeedAndCadenceEngine cscEngine;
+
+	/**
+	 * Creates the dispatcher without smoothing of CSC values.
+	 *
+	 * @param maxDevices the maximum number of devices served at a time.
+	 * @param sink       the sink receiving the parsed values.
+	 */
+	public NotificationDispatcher(@IntRange(from = 1) final int maxDevices,
+								  @NonNull final NotificationSink sink) {
+		this(maxDevices, 1, sink);
+	}
+
+	/**
+	 * Creates the dispatcher.
+	 *
+	 * @param maxDevices the maximum number of devices served at a time.
+	 * @param cscWindow  the number of CSC revolution events averaged, see
+	 *                   {@link CyclingSpeedAndCadenceEngine}.
+	 * @param sink       the sink receiving the parsed values.
+	 */
+	public NotificationDispatcher(@IntRange(from = 1) final int maxDevices,
+								  @IntRange(from = 1, to = 0x10000) final int cscWindow,
+								  @NonNull final NotificationSink sink) {
+		this.sink = sink;
+		this.cscEngine = new CyclingSpeedAndCadenceEngine(maxDevices, cscWindow);
+		this.addresses = new String[maxDevices];
+
+		register(Characteristics.HEART_RATE_MEASUREMENT, new HeartRateParser());
+		register(Characteristics.CSC_MEASUREMENT, (device, buffer, offset, length) -> {
+			final int changed = cscEngine.process(device, buffer, offset, length);
+			if (changed < 0)
+				return false;
+			sink.onCyclingSpeedAndCadenceMeasurement(device, cscEngine, changed);
+			return true;
+		});
+		register(Characteristics.RSC_MEASUREMENT, new RunningSpeedAndCadenceParser());
+		register(Characteristics.BLOOD_PRESSURE_MEASUREMENT, new BloodPressureParser(false));
+		register(Characteristics.INTERMEDIATE_CUFF_PRESSURE, new BloodPressureParser(true));
+		register(Characteristics.TEMPERATURE_MEASUREMENT, new TemperatureParser(false));
+		register(Characteristics.INTERMEDIATE_TEMPERATURE, new TemperatureParser(true));
+		register(Characteristics.GLUCOSE_MEASUREMENT, new GlucoseParser());
+		register(Characteristics.GLUCOSE_MEASUREMENT_CONTEXT, new GlucoseContextParser());
+		register(Characteristics.CGM_MEASUREMENT, new ContinuousGlucoseParser());
+		register(Characteristics.BATTERY_LEVEL, (device, buffer, offset, length) -> {
+			if (length != 1)
+				return false;
+			final int batteryLevel = ValueReader.uint8(buffer, offset);
+			if (batteryLevel > 100)
+				return false;
+			sink.onBatteryLevel(device, batteryLevel);
+			return true;
+		});
+	}
+
+	/**
+	 * Registers the parser of the characteristic, replacing the previous one.
+	 *
+	 * @param characteristic the 16-bit UUID of the characteristic, from 0x2A00 to 0x2BFF.
+	 * @param parser         the parser, or null to ignore values of the characteristic.
+	 */
+	public void register(final int characteristic, @Nullable final NotificationParser parser) {
+		final int index = characteristic - FIRST_CHARACTERISTIC;
+		if (index < 0 || index >= CHARACTERISTIC_COUNT)
+			throw new IllegalArgumentException("Characteristic must be in range 0x2A00-0x2BFF");
+		parsers[index] = parser;
+	}
+
+	/**
+	 * Adds the device and returns its index. The device is added to the CSC engine as a sensor
+	 * with the default wheel circumference, and the sensor index is used as the device index.
+	 *
+	 * @param address the device address.
+	 * @return The device index, or -1 if the maximum number of devices has been reached.
+	 * If the device has already been added, its index is returned.
+	 */
+	public int addDevice(@NonNull final String address) {
+		final Integer existing = devices.get(address);
+		if (existing != null)
+			return existing;
+		final int device = cscEngine.addSensor(CyclingSpeedAndCadenceEngine.WHEEL_CIRCUMFERENCE_DEFAULT);
+		if (device < 0)
+			return -1;
+		addresses[device] = address;
+		devices.put(address, device);
+		return device;
+	}
+
+	/**
+	 * Removes the device and its sensor from the CSC engine. The index may be reused by
+	 * a device added later.
+	 */
+	public void removeDevice(final int device) {
+		final String address = addresses[device];
+		if (address != null) {
+			devices.remove(address);
+			addresses[device] = null;
+			cscEngine.removeSensor(device);
+		}
+	}
+
+	/**
+	 * Returns the index of the device, or -1 if it has not been added.
+	 */
+	public int getDevice(@NonNull final String address) {
+		final Integer device = devices.get(address);
+		return device != null ? device : -1;
+	}
+
+	@Nullable
+	public String getAddress(final int device) {
+		return addresses[device];
+	}
+
+	/**
+	 * Returns the engine with the CSC state of all devices. The wheel circumference of a device
+	 * may be set using {@link CyclingSpeedAndCadenceEngine#setWheelCircumference(int, float)}.
+	 * Sensors must not be added or removed directly, use {@link #addDevice(String)} and
+	 * {@link #removeDevice(int)} instead.
+	 */
+	@NonNull
+	public CyclingSpeedAndCadenceEngine getCyclingSpeedAndCadenceEngine() {
+		return cscEngine;
+	}
+
+	/**
+	 * Dispatches the value received from the device.
+	 *
+	 * @param device         the device index.
+	 * @param characteristic the 16-bit UUID of the characteristic.
+	 * @param buffer         the buffer with the value. The position and limit are not modified.
+	 * @param offset         index of the first byte of the value.
+	 * @param length         length of the value in bytes.
+	 * @return True if the value was valid, false if it was invalid or no parser is registered
+	 * for the characteristic. A value with an E2E-CRC error reported to the sink is not invalid.
+	 */
+	public boolean dispatch(final int device, final int characteristic,
+							@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		final int index = characteristic - FIRST_CHARACTERISTIC;
+		if (index < 0 || index >= CHARACTERISTIC_COUNT)
+			return false;
+		final NotificationParser parser = parsers[index];
+		if (parser == null)
+			return false;
+		if (parser.parse(device, buffer, offset, length))
+			return true;
+		sink.onInvalidData(device, characteristic, buffer, offset, length);
+		return false;
+	}
+
+	/**
+	 * Dispatches the value received from the device.
+	 *
+	 * @param device         the device index.
+	 * @param characteristic the characteristic UUID.
+	 * @param value          the value.
+	 * @return True if the value was valid, false if it was invalid or no parser is registered
+	 * for the characteristic.
+	 */
+	public boolean dispatch(final int device, @NonNull final UUID characteristic, @Nullable final byte[] value) {
+		final ByteBuffer buffer = ValueReader.wrap(value);
+		return dispatch(device, Characteristics.fromUuid(characteristic), buffer, 0, buffer.limit());
+	}
+
+	/**
+	 * Dispatches the value received from the device with given address.
+	 *
+	 * @return True if the value was valid, false if it was invalid, the device has not been added
+	 * or no parser is registered for the characteristic.
+	 */
+	public boolean dispatch(@NonNull final String address, @NonNull final UUID characteristic,
+							@Nullable final byte[] value) {
+		final int device = getDevice(address);
+		return device >= 0 && dispatch(device, characteristic, value);
+	}
+
+	private final class HeartRateParser implements NotificationParser, HeartRateMeasurementDecoder.Callback {
+		private int device;
+		private ByteBuffer buffer;
+
+		@Override
+		public boolean parse(final int device, @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			this.buffer = buffer;
+			try {
+				return HeartRateMeasurementDecoder.decode(buffer, offset, length, this);
+			} finally {
+				this.buffer = null;
+			}
+		}
+
+		@Override
+		public void onHeartRateMeasurement(final int heartRate,
+										   final boolean contactSupported, final boolean contactDetected,
+										   final boolean energyExpandedPresent, final int energyExpanded,
+										   final int rrIntervalsOffset, final int rrIntervalsCount) {
+			sink.onHeartRateMeasurement(device, heartRate, contactSupported, contactDetected,
+					energyExpandedPresent, energyExpanded, buffer, rrIntervalsOffset, rrIntervalsCount);
+		}
+	}
+
+	private final class RunningSpeedAndCadenceParser implements NotificationParser, RunningSpeedAndCadenceMeasurementDecoder.Callback {
+		private int device;
+
+		@Override
+		public boolean parse(final int device, @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			return RunningSpeedAndCadenceMeasurementDecoder.decode(buffer, offset, length, this);
+		}
+
+		@Override
+		public void onRSCMeasurement(final boolean running, final float instantaneousSpeed, final int instantaneousCadence,
+									 final boolean strideLengthPresent, final int strideLength,
+									 final boolean totalDistancePresent, final long totalDistance) {
+			sink.onRunningSpeedAndCadenceMeasurement(device, running, instantaneousSpeed, instantaneousCadence,
+					strideLengthPresent, strideLength, totalDistancePresent, totalDistance);
+		}
+	}
+
+	private final class BloodPressureParser implements NotificationParser, BloodPressureMeasurementDecoder.Callback {
+		private final boolean intermediate;
+		private int device;
+
+		BloodPressureParser(final boolean intermediate) {
+			this.intermediate = intermediate;
+		}
+
+		@Override
+		public boolean parse(final int device, @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			return BloodPressureMeasurementDecoder.decode(buffer, offset, length, this);
+		}
+
+		@Override
+		public void onBloodPressureMeasurement(final float systolic, final float diastolic, final float meanArterialPressure,
+											   final boolean unitKPa, final boolean timestampPresent, final long timestamp,
+											   final boolean pulseRatePresent, final float pulseRate,
+											   final boolean userIdPresent, final int userId,
+											   final boolean statusPresent, final int status) {
+			if (intermediate) {
+				sink.onIntermediateCuffPressure(device, systolic, unitKPa, timestampPresent, timestamp,
+						pulseRatePresent, pulseRate, userIdPresent, userId, statusPresent, status);
+			} else {
+				sink.onBloodPressureMeasurement(device, systolic, diastolic, meanArterialPressure,
+						unitKPa, timestampPresent, timestamp, pulseRatePresent, pulseRate,
+						userIdPresent, userId, statusPresent, status);
+			}
+		}
+	}
+
+	private final class TemperatureParser implements NotificationParser, TemperatureMeasurementDecoder.Callback {
+		private final boolean intermediate;
+		private int device;
+
+		TemperatureParser(final boolean intermediate) {
+			this.intermediate = intermediate;
+		}
+
+		@Override
+		public boolean parse(final int device, @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			return TemperatureMeasurementDecoder.decode(buffer, offset, length, this);
+		}
+
+		@Override
+		public void onTemperatureMeasurement(final float temperature, final boolean fahrenheit,
+											 final boolean timestampPresent, final long timestamp,
+											 final boolean typePresent, final int type) {
+			sink.onTemperatureMeasurement(device, intermediate, temperature, fahrenheit,
+					timestampPresent, timestamp, typePresent, type);
+		}
+	}
+
+	private final class GlucoseParser implements NotificationParser, GlucoseMeasurementDecoder.Callback {
+		private int device;
+
+		@Override
+		public boolean parse(final int device, @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			return GlucoseMeasurementDecoder.decode(buffer, offset, length, this);
+		}
+
+		@Override
+		public void onGlucoseMeasurement(final int sequenceNumber, final long baseTime, final int timeOffset,
+										 final boolean glucoseDataPresent, final float glucoseConcentration,
+										 final boolean unitMolL, final int type, final int sampleLocation,
+										 final boolean statusPresent, final int status,
+										 final boolean contextInformationFollows) {
+			sink.onGlucoseMeasurement(device, sequenceNumber, baseTime, timeOffset,
+					glucoseDataPresent, glucoseConcentration, unitMolL, type, sampleLocation,
+					statusPresent, status, contextInformationFollows);
+		}
+	}
+
+	private final class GlucoseContextParser implements NotificationParser, GlucoseMeasurementContextDecoder.Callback {
+		private int device;
+
+		@Override
+		public boolean parse(final int device, @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			return GlucoseMeasurementContextDecoder.decode(buffer, offset, length, this);
+		}
+
+		@Override
+		public void onGlucoseMeasurementContext(final int sequenceNumber, final int flags,
+												final int carbohydrateId, final float carbohydrateAmount,
+												final int meal, final int tester, final int health,
+												final int exerciseDuration, final int exerciseIntensity,
+												final int medicationId, final float medicationAmount,
+												final float HbA1c) {
+			sink.onGlucoseMeasurementContext(device, sequenceNumber, flags, carbohydrateId, carbohydrateAmount,
+					meal, tester, health, exerciseDuration, exerciseIntensity, medicationId, medicationAmount, HbA1c);
+		}
+	}
+
+	private final class ContinuousGlucoseParser implements NotificationParser, ContinuousGlucoseMeasurementDecoder.Callback {
+		private int device;
+
+		@Override
+		public boolean parse(final int device, @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			return ContinuousGlucoseMeasurementDecoder.decode(buffer, offset, length, this);
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurement(final float glucoseConcentration,
+												   final boolean trendPresent, final float trend,
+												   final boolean qualityPresent, final float quality,
+												   final boolean statusPresent, final int warningStatus,
+												   final int calibrationTempStatus, final int sensorStatus,
+												   final int timeOffset, final boolean secured) {
+			sink.onContinuousGlucoseMeasurement(device, glucoseConcentration, trendPresent, trend,
+					qualityPresent, quality, statusPresent, warningStatus, calibrationTempStatus, sensorStatus,
+					timeOffset, secured);
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurementCrcError() {
+			sink.onContinuousGlucoseMeasurementCrcError(device);
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.dispatch;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.csc.CyclingSpeedAndCadenceEngine;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+import no.nordicsemi.android.ble.common.decoder.HeartRateMeasurementDecoder;
+
+/**
+ * Receives the values parsed by a {@link NotificationDispatcher}. All methods have empty
+ * default implementations, so only the profiles used need to be implemented.
+ * <p>
+ * The device is given as the index returned by {@link NotificationDispatcher#addDevice(String)}.
+ * The parameters are the same as of the corresponding decoder callbacks.
+ */
+@SuppressWarnings("unused")
+public interface NotificationSink {
+
+	/**
+	 * Called when a Heart Rate Measurement value has been received. RR-Intervals can be read
+	 * using {@link HeartRateMeasurementDecoder#rrInterval(ByteBuffer, int, int)} until this
+	 * method returns.
+	 */
+	default void onHeartRateMeasurement(final int device, final int heartRate,
+										final boolean contactSupported, final boolean contactDetected,
+										final boolean energyExpandedPresent, final int energyExpanded,
+										@NonNull final ByteBuffer buffer,
+										final int rrIntervalsOffset, final int rrIntervalsCount) {
+		// empty default implementation
+	}
+
+	/**
+	 * Called when a CSC Measurement value has been received. The speed, cadence and distance
+	 * of the device can be read from the engine, using the device index as the sensor index.
+	 *
+	 * @param changed a combination of {@link CyclingSpeedAndCadenceEngine#WHEEL_DATA_CHANGED}
+	 *                and {@link CyclingSpeedAndCadenceEngine#CRANK_DATA_CHANGED}.
+	 */
+	default void onCyclingSpeedAndCadenceMeasurement(final int device,
+													 @NonNull final CyclingSpeedAndCadenceEngine engine,
+													 final int changed) {
+		// empty default implementation
+	}
+
+	default void onRunningSpeedAndCadenceMeasurement(final int device, final boolean running,
+													 final float instantaneousSpeed, final int instantaneousCadence,
+													 final boolean strideLengthPresent, final int strideLength,
+													 final boolean totalDistancePresent, final long totalDistance) {
+		// empty default implementation
+	}
+
+	default void onBloodPressureMeasurement(final int device,
+											final float systolic, final float diastolic, final float meanArterialPressure,
+											final boolean unitKPa, final boolean timestampPresent, final long timestamp,
+											final boolean pulseRatePresent, final float pulseRate,
+											final boolean userIdPresent, final int userId,
+											final boolean statusPresent, final int status) {
+		// empty default implementation
+	}
+
+	default void onIntermediateCuffPressure(final int device, final float cuffPressure,
+											final boolean unitKPa, final boolean timestampPresent, final long timestamp,
+											final boolean pulseRatePresent, final float pulseRate,
+											final boolean userIdPresent, final int userId,
+											final boolean statusPresent, final int status) {
+		// empty default implementation
+	}
+
+	/**
+	 * Called when a Temperature Measurement or an Intermediate Temperature value has been received.
+	 *
+	 * @param intermediate true if the value was received from the Intermediate Temperature
+	 *                     characteristic.
+	 */
+	default void onTemperatureMeasurement(final int device, final boolean intermediate,
+										  final float temperature, final boolean fahrenheit,
+										  final boolean timestampPresent, final long timestamp,
+										  final boolean typePresent, final int type) {
+		// empty default implementation
+	}
+
+	default void onGlucoseMeasurement(final int device, final int sequenceNumber,
+									  final long baseTime, final int timeOffset,
+									  final boolean glucoseDataPresent, final float glucoseConcentration,
+									  final boolean unitMolL, final int type, final int sampleLocation,
+									  final boolean statusPresent, final int status,
+									  final boolean contextInformationFollows) {
+		// empty default implementation
+	}
+
+	/**
+	 * Called when a Glucose Measurement Context value has been received. Fields that are not
+	 * present are set to 0, see the FLAG_* masks in {@link GlucoseMeasurementContextDecoder}.
+	 */
+	default void onGlucoseMeasurementContext(final int device, final int sequenceNumber, final int flags,
+											 final int carbohydrateId, final float carbohydrateAmount,
+											 final int meal, final int tester, final int health,
+											 final int exerciseDuration, final int exerciseIntensity,
+											 final int medicationId, final float medicationAmount,
+											 final float HbA1c) {
+		// empty default implementation
+	}
+
+	/**
+	 * Called for each record of a CGM Measurement value. Records preceding an invalid one
+	 * are reported before {@link #onInvalidData(int, int, ByteBuffer, int, int)}.
+	 */
+	default void onContinuousGlucoseMeasurement(final int device, final float glucoseConcentration,
+												final boolean trendPresent, final float trend,
+												final boolean qualityPresent, final float quality,
+												final boolean statusPresent, final int warningStatus,
+												final int calibrationTempStatus, final int sensorStatus,
+												final int timeOffset, final boolean secured) {
+		// empty default implementation
+	}
+
+	default void onContinuousGlucoseMeasurementCrcError(final int device) {
+		// empty default implementation
+	}
+
+	default void onBatteryLevel(final int device, final int batteryLevel) {
+		// empty default implementation
+	}
+
+	/**
+	 * Called when the value of a registered characteristic was invalid.
+	 *
+	 * @param characteristic the 16-bit UUID of the characteristic.
+	 */
+	default void onInvalidData(final int device, final int characteristic,
+							   @NonNull final ByteBuffer buffer, final int offset, final int length) {
+		// empty default implementation
+	}
+}
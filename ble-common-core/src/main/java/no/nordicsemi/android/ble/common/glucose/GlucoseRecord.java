@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.glucose;
+
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+
+/**
+ * A Glucose Measurement record joined with its Glucose Measurement Context, if received.
+ * <p>
+ * Instances are reused by {@link GlucoseRecordJoiner} and are valid only until the listener
+ * returns. Copy the values if they are needed later.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class GlucoseRecord {
+	// Glucose Measurement
+	int sequenceNumber;
+	long time;
+	boolean glucoseDataPresent;
+	float glucoseConcentration;
+	boolean unitMolL;
+	int type;
+	int sampleLocation;
+	boolean statusPresent;
+	int status;
+	boolean contextInformationFollows;
+
+	// Glucose Measurement Context
+	boolean contextPresent;
+	int contextFlags;
+	int carbohydrateId;
+	float carbohydrateAmount;
+	int meal;
+	int tester;
+	int health;
+	int exerciseDuration;
+	int exerciseIntensity;
+	int medicationId;
+	float medicationAmount;
+	float HbA1c;
+
+	GlucoseRecord() {
+		// empty
+	}
+
+	public int getSequenceNumber() {
+		return sequenceNumber;
+	}
+
+	/**
+	 * Returns the base time of the record with the time offset applied, in epoch milliseconds.
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns true if the concentration, type and sample location are present.
+	 */
+	public boolean isGlucoseDataPresent() {
+		return glucoseDataPresent;
+	}
+
+	/**
+	 * Returns the glucose concentration in kg/L or mol/L, see {@link #isUnitMolL()},
+	 * or {@link Float#NaN} if not present.
+	 */
+	public float getGlucoseConcentration() {
+		return glucoseConcentration;
+	}
+
+	public boolean isUnitMolL() {
+		return unitMolL;
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	public int getSampleLocation() {
+		return sampleLocation;
+	}
+
+	public boolean isStatusPresent() {
+		return statusPresent;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public boolean contextInformationFollows() {
+		return contextInformationFollows;
+	}
+
+	/**
+	 * Returns true if the Glucose Measurement Context was received for the record.
+	 * If false, the context fields are 0.
+	 */
+	public boolean isContextPresent() {
+		return contextPresent;
+	}
+
+	/**
+	 * Returns the flags of the Glucose Measurement Context.
+	 * See the FLAG_* masks in {@link GlucoseMeasurementContextDecoder}.
+	 */
+	public int getContextFlags() {
+		return contextFlags;
+	}
+
+	public int getCarbohydrateId() {
+		return carbohydrateId;
+	}
+
+	public float getCarbohydrateAmount() {
+		return carbohydrateAmount;
+	}
+
+	public int getMeal() {
+		return meal;
+	}
+
+	public int getTester() {
+		return tester;
+	}
+
+	public int getHealth() {
+		return health;
+	}
+
+	public int getExerciseDuration() {
+		return exerciseDuration;
+	}
+
+	public int getExerciseIntensity() {
+		return exerciseIntensity;
+	}
+
+	public int getMedicationId() {
+		return medicationId;
+	}
+
+	public float getMedicationAmount() {
+		return medicationAmount;
+	}
+
+	public float getHbA1c() {
+		return HbA1c;
+	}
+
+	void clearContext() {
+		contextPresent = false;
+		contextFlags = 0;
+		carbohydrateId = 0;
+		carbohydrateAmount = 0;
+		meal = 0;
+		tester = 0;
+		health = 0;
+		exerciseDuration = 0;
+		exerciseIntensity = 0;
+		medicationId = 0;
+		medicationAmount = 0;
+		HbA1c = 0;
+	}
+}
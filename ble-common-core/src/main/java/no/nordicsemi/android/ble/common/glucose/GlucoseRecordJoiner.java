@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.glucose;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementDecoder;
+
+/**
+ * Joins Glucose Measurement records with the Glucose Measurement Context records that
+ * follow them, by sequence number.
+ * <p>
+ * A measurement without the Context Information Follows flag is emitted immediately.
+ * Other measurements are kept pending until the context with the same sequence number
+ * arrives, and then emitted as a single {@link GlucoseRecord}. Pending measurements are
+ * stored in primitive arrays allocated once, indexed with an open addressing map.
+ * A measurement is emitted without the context if the context did not arrive within the
+ * timeout, or when the pending store is full and room is needed for a new measurement.
+ * Contexts that do not match any pending measurement are ignored.
+ * <p>
+ * Call {@link #flush()} when the transfer has finished, to emit all pending measurements.
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class GlucoseRecordJoiner implements GlucoseMeasurementDecoder.Callback,
+		GlucoseMeasurementContextDecoder.Callback {
+	/** The default time after which a measurement is emitted without the context. */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 5_000;
+
+	public interface Listener {
+
+		/**
+		 * Called when a record is ready, with or without the context.
+		 *
+		 * @param record the record. The object is reused and is valid only until
+		 *               this method returns.
+		 */
+		void onGlucoseRecord(@NonNull GlucoseRecord record);
+	}
+
+	public interface TimeSource {
+
+		/**
+		 * Returns the current value of a monotonic clock, in nanoseconds.
+		 */
+		long nanoTime();
+	}
+
+	private static final int TYPE_MASK = 0x0F;
+	private static final int SAMPLE_LOCATION_SHIFT = 4;
+	private static final int FLAG_GLUCOSE_DATA_PRESENT = 0x0100;
+	private static final int FLAG_UNIT_MOL_L = 0x0200;
+	private static final int FLAG_STATUS_PRESENT = 0x0400;
+	private static final int FLAG_PENDING = 0x0800;
+	private static final int STATUS_SHIFT = 16;
+
+	@NonNull
+	private final Listener listener;
+	@NonNull
+	private final TimeSource timeSource;
+	private final long timeoutNanos;
+	@NonNull
+	private final GlucoseRecord record = new GlucoseRecord();
+
+	// Pending measurements, in a ring buffer in the order of arrival.
+	// Slots of measurements joined out of order stay in the ring until they reach the head.
+	private final int capacity;
+	private int head;
+	private int slots;
+	private int pending;
+	private final char[] sequenceNumbers;
+	private final long[] times;
+	private final float[] glucoseConcentrations;
+	/** Type, sample location, flags and the Sensor Status Annunciation, see the masks above. */
+	private final int[] info;
+	private final long[] arrivalNanos;
+	@NonNull
+	private final SequenceNumberIndex sequenceNumberIndex;
+
+	/**
+	 * Creates the joiner.
+	 *
+	 * @param capacity      the maximum number of pending measurements.
+	 * @param timeoutMillis the time after which a pending measurement is emitted without
+	 *                      the context.
+	 * @param listener      the listener of joined records.
+	 */
+	public GlucoseRecordJoiner(@IntRange(from = 1, to = 0x10000) final int capacity,
+							   final long timeoutMillis, @NonNull final Listener listener) {
+		this(capacity, timeoutMillis, listener, System::nanoTime);
+	}
+
+	public GlucoseRecordJoiner(@IntRange(from = 1, to = 0x10000) final int capacity,
+							   final long timeoutMillis, @NonNull final Listener listener,
+							   @NonNull final TimeSource timeSource) {
+		if (capacity < 1 || capacity > 0x10000)
+			throw new IllegalArgumentException("Capacity must be in range 1-65536");
+		this.capacity = capacity;
+		this.timeoutNanos = timeoutMillis * 1_000_000L;
+		this.listener = listener;
+		this.timeSource = timeSource;
+		this.sequenceNumbers = new char[capacity];
+		this.times = new long[capacity];
+		this.glucoseConcentrations = new float[capacity];
+		this.info = new int[capacity];
+		this.arrivalNanos = new long[capacity];
+		this.sequenceNumberIndex = new SequenceNumberIndex(capacity);
+	}
+
+	/**
+	 * Decodes the Glucose Measurement value and emits it, or keeps it pending if
+	 * the context follows.
+	 *
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public boolean addMeasurement(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		return GlucoseMeasurementDecoder.decode(buffer, offset, length, this);
+	}
+
+	/**
+	 * Decodes the Glucose Measurement Context value and emits the joined record, if the
+	 * measurement with the same sequence number is pending.
+	 *
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public boolean addContext(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		return GlucoseMeasurementContextDecoder.decode(buffer, offset, length, this);
+	}
+
+	@Override
+	public void onGlucoseMeasurement(final int sequenceNumber, final long baseTime, final int timeOffset,
+									 final boolean glucoseDataPresent, final float glucoseConcentration,
+									 final boolean unitMolL, final int type, final int sampleLocation,
+									 final boolean statusPresent, final int status,
+									 final boolean contextInformationFollows) {
+		addMeasurement(sequenceNumber, DateTime.toEpochMillis(baseTime) + timeOffset * 60_000L,
+				glucoseDataPresent, glucoseConcentration, unitMolL, type, sampleLocation,
+				statusPresent, status, contextInformationFollows);
+	}
+
+	/**
+	 * Emits the Glucose Measurement, or keeps it pending if the context follows.
+	 * A pending measurement with the same sequence number is emitted without the context first.
+	 */
+	public void addMeasurement(final int sequenceNumber, final long time,
+							   final boolean glucoseDataPresent, final float glucoseConcentration,
+							   final boolean unitMolL, final int type, final int sampleLocation,
+							   final boolean statusPresent, final int status,
+							   final boolean contextInformationFollows) {
+		final long now = timeSource.nanoTime();
+		evictExpired(now);
+
+		final int packed = (type & TYPE_MASK)
+				| ((sampleLocation & TYPE_MASK) << SAMPLE_LOCATION_SHIFT)
+				| (glucoseDataPresent ? FLAG_GLUCOSE_DATA_PRESENT : 0)
+				| (unitMolL ? FLAG_UNIT_MOL_L : 0)
+				| (statusPresent ? FLAG_STATUS_PRESENT : 0)
+				| (status << STATUS_SHIFT);
+		final float concentration = glucoseDataPresent ? glucoseConcentration : Float.NaN;
+
+		if (!contextInformationFollows) {
+			fill(sequenceNumber, time, concentration, packed, false);
+			record.clearContext();
+			listener.onGlucoseRecord(record);
+			return;
+		}
+
+		final int existing = sequenceNumberIndex.get(sequenceNumber);
+		if (existing >= 0)
+			emit(existing);
+		if (slots == capacity) {
+			if (pending == capacity)
+				emit(head);
+			else
+				defragment();
+		}
+		compact();
+
+		int slot = head + slots;
+		if (slot >= capacity)
+			slot -= capacity;
+		slots++;
+		pending++;
+		sequenceNumbers[slot] = (char) sequenceNumber;
+		times[slot] = time;
+		glucoseConcentrations[slot] = concentration;
+		info[slot] = packed | FLAG_PENDING;
+		arrivalNanos[slot] = now;
+		sequenceNumberIndex.put(sequenceNumber, slot);
+	}
+
+	@Override
+	public void onGlucoseMeasurementContext(final int sequenceNumber, final int flags,
+											final int carbohydrateId, final float carbohydrateAmount,
+											final int meal, final int tester, final int health,
+											final int exerciseDuration, final int exerciseIntensity,
+											final int medicationId, final float medicationAmount,
+											final float HbA1c) {
+		evictExpired(timeSource.nanoTime());
+
+		final int slot = sequenceNumberIndex.get(sequenceNumber);
+		if (slot < 0)
+			return;
+		record.contextPresent = true;
+		record.contextFlags = flags;
+		record.carbohydrateId = carbohydrateId;
+		record.carbohydrateAmount = carbohydrateAmount;
+		record.meal = meal;
+		record.tester = tester;
+		record.health = health;
+		record.exerciseDuration = exerciseDuration;
+		record.exerciseIntensity = exerciseIntensity;
+		record.medicationId = medicationId;
+		record.medicationAmount = medicationAmount;
+		record.HbA1c = HbA1c;
+		take(slot);
+		listener.onGlucoseRecord(record);
+		compact();
+	}
+
+	/**
+	 * Emits all pending measurements, whose context has not arrived within the timeout,
+	 * without the context. This is also done whenever a new value is added, but may be
+	 * called periodically to emit records when no more values are received.
+	 */
+	public void evictExpired() {
+		evictExpired(timeSource.nanoTime());
+	}
+
+	/**
+	 * Emits all pending measurements without the context, in the order of arrival.
+	 */
+	public void flush() {
+		while (slots > 0) {
+			emit(head);
+			compact();
+		}
+	}
+
+	/**
+	 * Returns the number of measurements waiting for the context.
+	 */
+	public int getPendingCount() {
+		return pending;
+	}
+
+	private void evictExpired(final long now) {
+		compact();
+		while (slots > 0 && now - arrivalNanos[head] >= timeoutNanos) {
+			emit(head);
+			compact();
+		}
+	}
+
+	/**
+	 * Moves the head over slots that are no longer pending.
+	 */
+	private void compact() {
+		while (slots > 0 && (info[head] & FLAG_PENDING) == 0) {
+			head = head + 1 == capacity ? 0 : head + 1;
+			slots--;
+		}
+	}
+
+	/**
+	 * Moves pending measurements towards the head, over the slots of measurements joined
+	 * out of order, so that the ring has room at the tail. This is done only when the ring
+	 * is full, so the cost is amortized over the freed slots.
+	 */
+	private void defragment() {
+		int to = head;
+		int from = head;
+		for (int i = 0; i < slots; ++i) {
+			if ((info[from] & FLAG_PENDING) != 0) {
+				if (from != to) {
+					sequenceNumbers[to] = sequenceNumbers[from];
+					times[to] = times[from];
+					glucoseConcentrations[to] = glucoseConcentrations[from];
+					info[to] = info[from];
+					arrivalNanos[to] = arrivalNanos[from];
+					sequenceNumberIndex.put(sequenceNumbers[to], to);
+				}
+				to = to + 1 == capacity ? 0 : to + 1;
+			}
+			from = from + 1 == capacity ? 0 : from + 1;
+		}
+		slots = pending;
+	}
+
+	/**
+	 * Emits the pending measurement in the slot without the context.
+	 */
+	private void emit(final int slot) {
+		if ((info[slot] & FLAG_PENDING) == 0)
+			return;
+		record.clearContext();
+		take(slot);
+		listener.onGlucoseRecord(record);
+	}
+
+	/**
+	 * Copies the measurement from the slot to the record and releases the slot.
+	 */
+	private void take(final int slot) {
+		final int packed = info[slot];
+		fill(sequenceNumbers[slot], times[slot], glucoseConcentrations[slot], packed, true);
+		info[slot] = packed & ~FLAG_PENDING;
+		sequenceNumberIndex.remove(sequenceNumbers[slot]);
+		pending--;
+	}
+
+	private void fill(final int sequenceNumber, final long time, final float glucoseConcentration,
+					  final int packed, final boolean contextInformationFollows) {
+		record.sequenceNumber = sequenceNumber;
+		record.time = time;
+		record.glucoseDataPresent = (packed & FLAG_GLUCOSE_DATA_PRESENT) != 0;
+		record.glucoseConcentration = glucoseConcentration;
+		record.unitMolL = (packed & FLAG_UNIT_MOL_L) != 0;
+		record.type = packed & TYPE_MASK;
+		record.sampleLocation = (packed >> SAMPLE_LOCATION_SHIFT) & TYPE_MASK;
+		record.statusPresent = (packed & FLAG_STATUS_PRESENT) != 0;
+		record.status = packed >>> STATUS_SHIFT;
+		record.contextInformationFollows = contextInformationFollows;
+	}
+}
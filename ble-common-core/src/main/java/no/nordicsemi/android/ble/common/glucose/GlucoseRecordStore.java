@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.glucose;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementDecoder;
+
+/**
+ * Store of glucose records, indexed by sequence number.
+ * <p>
+ * Records are kept in primitive parallel arrays, allocated once with the given capacity,
+ * which takes about 55 bytes per record including the index. When the store is full, adding
+ * a new record removes the oldest one. Looking up a record by sequence number takes constant
+ * time. A record is added with {@link #addMeasurement(ByteBuffer, int, int)}, directly from
+ * the Glucose Measurement value, and the context may be added afterwards with
+ * {@link #addContext(ByteBuffer, int, int)}.
+ * <p>
+ * Records are identified by an index, as returned by {@link #indexOf(int)}. The index of
+ * a record does not change until the record is removed.
+ * <p>
+ * Usage example:
+ * <pre>
+ * final GlucoseRecordStore store = new GlucoseRecordStore(5000);
+ * store.addMeasurement(buffer, offset, length);
+ * ...
+ * store.forEach(100, 200, index -&gt; {
+ *     plot(store.time(index), store.glucoseConcentration(index));
+ * });
+ * </pre>
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class GlucoseRecordStore implements GlucoseMeasurementDecoder.Callback,
+		GlucoseMeasurementContextDecoder.Callback {
+
+	public interface Visitor {
+
+		/**
+		 * Called for each record.
+		 *
+		 * @param index the index of the record in the store.
+		 */
+		void onRecord(int index);
+	}
+
+	private static final int TYPE_MASK = 0x0F;
+	private static final int SAMPLE_LOCATION_SHIFT = 4;
+	private static final int FLAG_GLUCOSE_DATA_PRESENT = 0x0100;
+	private static final int FLAG_UNIT_MOL_L = 0x0200;
+	private static final int FLAG_STATUS_PRESENT = 0x0400;
+	private static final int FLAG_CONTEXT_FOLLOWS = 0x0800;
+	private static final int FLAG_CONTEXT_PRESENT = 0x1000;
+	private static final int STATUS_SHIFT = 16;
+
+	private final int capacity;
+	/** Index of the oldest record. */
+	private int head;
+	private int size;
+
+	// Glucose Measurement
+	private final char[] sequenceNumbers;
+	private final long[] times;
+	private final float[] glucoseConcentrations;
+	/** Type, sample location, flags and the Sensor Status Annunciation, see the masks above. */
+	private final int[] info;
+
+	// Glucose Measurement Context
+	private final byte[] contextFlags;
+	private final byte[] carbohydrateIds;
+	private final float[] carbohydrateAmounts;
+	private final byte[] meals;
+	/** Tester in the lower nibble, health in the upper nibble. */
+	private final byte[] testerHealth;
+	private final char[] exerciseDurations;
+	private final byte[] exerciseIntensities;
+	private final byte[] medicationIds;
+	private final float[] medicationAmounts;
+	private final float[] HbA1cs;
+
+	private final SequenceNumberIndex sequenceNumberIndex;
+
+	/**
+	 * Creates the store.
+	 *
+	 * @param capacity the maximum number of records, at most 65536, as sequence numbers
+	 *                 are 16-bit.
+	 */
+	public GlucoseRecordStore(final int capacity) {
+		if (capacity < 1 || capacity > 0x10000)
+			throw new IllegalArgumentException("Capacity must be in range 1-65536");
+		this.capacity = capacity;
+		this.sequenceNumbers = new char[capacity];
+		this.times = new long[capacity];
+		this.glucoseConcentrations = new float[capacity];
+		this.info = new int[capacity];
+		this.contextFlags = new byte[capacity];
+		this.carbohydrateIds = new byte[capacity];
+		this.carbohydrateAmounts = new float[capacity];
+		this.meals = new byte[capacity];
+		this.testerHealth = new byte[capacity];
+		this.exerciseDurations = new char[capacity];
+		this.exerciseIntensities = new byte[capacity];
+		this.medicationIds = new byte[capacity];
+		this.medicationAmounts = new float[capacity];
+		this.HbA1cs = new float[capacity];
+		this.sequenceNumberIndex = new SequenceNumberIndex(capacity);
+	}
+
+	/**
+	 * Decodes the Glucose Measurement value and stores the record. A record with the same
+	 * sequence number is replaced, including its context. If the store is full, the oldest
+	 * record is removed.
+	 *
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public boolean addMeasurement(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		return GlucoseMeasurementDecoder.decode(buffer, offset, length, this);
+	}
+
+	/**
+	 * Decodes the Glucose Measurement Context value and stores it with the record with the
+	 * same sequence number. The context is ignored if there is no such record.
+	 *
+	 * @param buffer the buffer with the value. The position and limit are not modified.
+	 * @param offset index of the first byte of the value.
+	 * @param length length of the value in bytes.
+	 * @return True if the value is valid, false otherwise.
+	 */
+	public boolean addContext(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		return GlucoseMeasurementContextDecoder.decode(buffer, offset, length, this);
+	}
+
+	@Override
+	public void onGlucoseMeasurement(final int sequenceNumber, final long baseTime, final int timeOffset,
+									 final boolean glucoseDataPresent, final float glucoseConcentration,
+									 final boolean unitMolL, final int type, final int sampleLocation,
+									 final boolean statusPresent, final int status,
+									 final boolean contextInformationFollows) {
+		addMeasurement(sequenceNumber, DateTime.toEpochMillis(baseTime) + timeOffset * 60_000L,
+				glucoseDataPresent, glucoseConcentration, unitMolL, type, sampleLocation,
+				statusPresent, status, contextInformationFollows);
+	}
+
+	/**
+	 * Stores the Glucose Measurement record. A record with the same sequence number is
+	 * replaced, including its context. If the store is full, the oldest record is removed.
+	 *
+	 * @return The index of the record.
+	 */
+	public int addMeasurement(final int sequenceNumber, final long time,
+							  final boolean glucoseDataPresent, final float glucoseConcentration,
+							  final boolean unitMolL, final int type, final int sampleLocation,
+							  final boolean statusPresent, final int status,
+							  final boolean contextInformationFollows) {
+		int index = sequenceNumberIndex.get(sequenceNumber);
+		if (index < 0) {
+			if (size == capacity) {
+				sequenceNumberIndex.remove(sequenceNumbers[head]);
+				head = next(head);
+				size--;
+			}
+			index = head + size;
+			if (index >= capacity)
+				index -= capacity;
+			size++;
+			sequenceNumbers[index] = (char) sequenceNumber;
+			sequenceNumberIndex.put(sequenceNumber, index);
+		}
+		times[index] = time;
+		glucoseConcentrations[index] = glucoseDataPresent ? glucoseConcentration : Float.NaN;
+		info[index] = (type & TYPE_MASK)
+				| ((sampleLocation & TYPE_MASK) << SAMPLE_LOCATION_SHIFT)
+				| (glucoseDataPresent ? FLAG_GLUCOSE_DATA_PRESENT : 0)
+				| (unitMolL ? FLAG_UNIT_MOL_L : 0)
+				| (statusPresent ? FLAG_STATUS_PRESENT : 0)
+				| (contextInformationFollows ? FLAG_CONTEXT_FOLLOWS : 0)
+				| (status << STATUS_SHIFT);
+		return index;
+	}
+
+	@Override
+	public void onGlucoseMeasurementContext(final int sequenceNumber, final int flags,
+											final int carbohydrateId, final float carbohydrateAmount,
+											final int meal, final int tester, final int health,
+											final int exerciseDuration, final int exerciseIntensity,
+											final int medicationId, final float medicationAmount,
+											final float HbA1c) {
+		final int index = indexOf(sequenceNumber);
+		if (index < 0)
+			return;
+		info[index] |= FLAG_CONTEXT_PRESENT;
+		contextFlags[index] = (byte) flags;
+		carbohydrateIds[index] = (byte) carbohydrateId;
+		carbohydrateAmounts[index] = carbohydrateAmount;
+		meals[index] = (byte) meal;
+		testerHealth[index] = (byte) ((tester & 0x0F) | (health << 4));
+		exerciseDurations[index] = (char) exerciseDuration;
+		exerciseIntensities[index] = (byte) exerciseIntensity;
+		medicationIds[index] = (byte) medicationId;
+		medicationAmounts[index] = medicationAmount;
+		HbA1cs[index] = HbA1c;
+	}
+
+	/**
+	 * Returns the index of the record with given sequence number, or -1 if not found.
+	 */
+	public int indexOf(final int sequenceNumber) {
+		return sequenceNumberIndex.get(sequenceNumber);
+	}
+
+	/**
+	 * Calls the visitor for each stored record with sequence number in the given range,
+	 * in the order of sequence numbers. This takes time proportional to the length
+	 * of the range.
+	 *
+	 * @param first   the first sequence number, inclusive.
+	 * @param last    the last sequence number, inclusive.
+	 * @param visitor the visitor.
+	 */
+	public void forEach(final int first, final int last, @NonNull final Visitor visitor) {
+		for (int sequenceNumber = Math.max(first, 0); sequenceNumber <= Math.min(last, 0xFFFF); ++sequenceNumber) {
+			final int index = indexOf(sequenceNumber);
+			if (index >= 0)
+				visitor.onRecord(index);
+		}
+	}
+
+	/**
+	 * Calls the visitor for each stored record, from the oldest to the newest added.
+	 *
+	 * @param visitor the visitor.
+	 */
+	public void forEach(@NonNull final Visitor visitor) {
+		for (int i = 0, index = head; i < size; ++i, index = next(index)) {
+			visitor.onRecord(index);
+		}
+	}
+
+	/**
+	 * Removes all records.
+	 */
+	public void clear() {
+		sequenceNumberIndex.clear();
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of records.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of records.
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	public int sequenceNumber(final int index) {
+		return sequenceNumbers[index];
+	}
+
+	/**
+	 * Returns the base time of the record with the time offset applied, in epoch milliseconds.
+	 */
+	public long time(final int index) {
+		return times[index];
+	}
+
+	/**
+	 * Returns true if the concentration, type and sample location are present.
+	 */
+	public boolean isGlucoseDataPresent(final int index) {
+		return (info[index] & FLAG_GLUCOSE_DATA_PRESENT) != 0;
+	}
+
+	/**
+	 * Returns the glucose concentration in kg/L or mol/L, see {@link #isUnitMolL(int)},
+	 * or {@link Float#NaN} if not present.
+	 */
+	public float glucoseConcentration(final int index) {
+		return glucoseConcentrations[index];
+	}
+
+	/**
+	 * Returns true if the concentration is in mol/L, false if in kg/L.
+	 */
+	public boolean isUnitMolL(final int index) {
+		return (info[index] & FLAG_UNIT_MOL_L) != 0;
+	}
+
+	public int type(final int index) {
+		return info[index] & TYPE_MASK;
+	}
+
+	public int sampleLocation(final int index) {
+		return (info[index] >> SAMPLE_LOCATION_SHIFT) & TYPE_MASK;
+	}
+
+	public boolean isStatusPresent(final int index) {
+		return (info[index] & FLAG_STATUS_PRESENT) != 0;
+	}
+
+	/**
+	 * Returns the Sensor Status Annunciation, 0 if not present.
+	 */
+	public int status(final int index) {
+		return info[index] >>> STATUS_SHIFT;
+	}
+
+	public boolean contextInformationFollows(final int index) {
+		return (info[index] & FLAG_CONTEXT_FOLLOWS) != 0;
+	}
+
+	/**
+	 * Returns true if the Glucose Measurement Context has been stored for the record.
+	 */
+	public boolean isContextPresent(final int index) {
+		return (info[index] & FLAG_CONTEXT_PRESENT) != 0;
+	}
+
+	/**
+	 * Returns the flags of the Glucose Measurement Context, 0 if not present.
+	 * See the FLAG_* masks in {@link GlucoseMeasurementContextDecoder}.
+	 */
+	public int contextFlags(final int index) {
+		return isContextPresent(index) ? contextFlags[index] & 0xFF : 0;
+	}
+
+	/**
+	 * The following return the fields of the Glucose Measurement Context,
+	 * 0 if the context or the field is not present.
+	 */
+	public int carbohydrateId(final int index) {
+		return isContextPresent(index) ? carbohydrateIds[index] & 0xFF : 0;
+	}
+
+	public float carbohydrateAmount(final int index) {
+		return isContextPresent(index) ? carbohydrateAmounts[index] : 0;
+	}
+
+	public int meal(final int index) {
+		return isContextPresent(index) ? meals[index] & 0xFF : 0;
+	}
+
+	public int tester(final int index) {
+		return isContextPresent(index) ? testerHealth[index] & 0x0F : 0;
+	}
+
+	public int health(final int index) {
+		return isContextPresent(index) ? (testerHealth[index] >> 4) & 0x0F : 0;
+	}
+
+	public int exerciseDuration(final int index) {
+		return isContextPresent(index) ? exerciseDurations[index] : 0;
+	}
+
+	public int exerciseIntensity(final int index) {
+		return isContextPresent(index) ? exerciseIntensities[index] & 0xFF : 0;
+	}
+
+	public int medicationId(final int index) {
+		return isContextPresent(index) ? medicationIds[index] & 0xFF : 0;
+	}
+
+	public float medicationAmount(final int index) {
+		return isContextPresent(index) ? medicationAmounts[index] : 0;
+	}
+
+	public float HbA1c(final int index) {
+		return isContextPresent(index) ? HbA1cs[index] : 0;
+	}
+
+	private int next(final int index) {
+		return index + 1 == capacity ? 0 : index + 1;
+	}
+}
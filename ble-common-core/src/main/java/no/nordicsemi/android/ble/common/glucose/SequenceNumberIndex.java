@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.glucose;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from 16-bit sequence numbers to non-negative int values,
+ * using linear probing. Entries are removed by shifting back the following entries,
+ * so no tombstones are needed and the lookup time does not degrade over time.
+ * The table is allocated once and does not allocate memory afterwards.
+ */
+final class SequenceNumberIndex {
+	private static final int EMPTY = -1;
+
+	private final char[] keys;
+	private final int[] values;
+	private final int mask;
+	private final int shift;
+
+	/**
+	 * Creates the index.
+	 *
+	 * @param capacity the maximum number of entries. The table is sized to keep the load
+	 *                 factor at most 0.5.
+	 */
+	SequenceNumberIndex(final int capacity) {
+		final int size = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+		this.keys = new char[size];
+		this.values = new int[size];
+		this.mask = size - 1;
+		this.shift = Integer.numberOfLeadingZeros(mask);
+		Arrays.fill(values, EMPTY);
+	}
+
+	/**
+	 * Returns the value for the sequence number, or -1 if not found.
+	 */
+	int get(final int sequenceNumber) {
+		final char key = (char) sequenceNumber;
+		for (int i = hash(key); ; i = (i + 1) & mask) {
+			final int value = values[i];
+			if (value == EMPTY || keys[i] == key)
+				return value;
+		}
+	}
+
+	/**
+	 * Sets the value for the sequence number. The caller must not put more entries
+	 * than the capacity.
+	 */
+	void put(final int sequenceNumber, final int value) {
+		final char key = (char) sequenceNumber;
+		int i = hash(key);
+		while (values[i] != EMPTY && keys[i] != key)
+			i = (i + 1) & mask;
+		keys[i] = key;
+		values[i] = value;
+	}
+
+	/**
+	 * Removes the sequence number from the index, if present.
+	 */
+	void remove(final int sequenceNumber) {
+		final char key = (char) sequenceNumber;
+		int i = hash(key);
+		while (values[i] != EMPTY && keys[i] != key)
+			i = (i + 1) & mask;
+		if (values[i] == EMPTY)
+			return;
+		for (int j = (i + 1) & mask; values[j] != EMPTY; j = (j + 1) & mask) {
+			final int k = hash(keys[j]);
+			// Move the entry if its home bucket is not cyclically in (i, j]
+			final boolean inRange = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+			if (!inRange) {
+				keys[i] = keys[j];
+				values[i] = values[j];
+				i = j;
+			}
+		}
+		values[i] = EMPTY;
+	}
+
+	void clear() {
+		Arrays.fill(values, EMPTY);
+	}
+
+	private int hash(final char key) {
+		// Fibonacci hashing, sequence numbers are often consecutive
+		return (key * 0x9E3779B1) >>> shift;
+	}
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.hrv;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+import no.nordicsemi.android.ble.common.decoder.HeartRateMeasurementDecoder;
+
+/**
+ * Calculates heart rate variability over a sliding window of RR intervals for multiple subjects.
+ * <p>
+ * RR intervals are kept in their native 1/1024 s unit in a ring buffer per subject, together
+ * with running integer sums of the intervals, their squares and the squares of successive
+ * differences. Adding a beat and reading any statistic is O(1), and the sums are exact,
+ * so they do not drift over long sessions. All state is kept in primitive arrays allocated
+ * once; each subject is identified by the index returned from {@link #addSubject()}.
+ * <p>
+ * An interval is rejected as an artifact if it is outside of 300-2000 ms, or if it deviates
+ * from the mean of the window by more than the configured percentage. A rejected interval
+ * breaks the chain of successive differences. After {@link #MAX_CONSECUTIVE_ARTIFACTS}
+ * rejections in a row the window is restarted, so a genuine change of the heart rate is
+ * accepted.
+ * <p>
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class HeartRateVariabilityEngine implements HeartRateMeasurementDecoder.Callback {
+	/** The default maximum deviation of an interval from the mean, in percent. */
+	public static final int DEFAULT_MAX_DEVIATION_PERCENT = 20;
+	/** The number of artifacts in a row after which the window is restarted. */
+	public static final int MAX_CONSECUTIVE_ARTIFACTS = 5;
+
+	private static final int MIN_RR_MS = 300;
+	private static final int MAX_RR_MS = 2000;
+	/** The number of intervals in the window before the deviation filter is applied. */
+	private static final int MIN_INTERVALS_FOR_FILTER = 4;
+	private static final int NO_DIFFERENCE = Integer.MIN_VALUE;
+
+	// Layout of the int state of each subject
+	private static final int FLAGS = 0;
+	private static final int INDEX = 1;
+	private static final int COUNT = 2;
+	private static final int DIFFERENCE_COUNT = 3;
+	private static final int NN50_COUNT = 4;
+	/** The last accepted interval, or 0 if the chain of successive differences is broken. */
+	private static final int LAST_INTERVAL = 5;
+	private static final int CONSECUTIVE_ARTIFACTS = 6;
+	private static final int ARTIFACTS = 7;
+	private static final int INT_STRIDE = 8;
+
+	// Layout of the long state of each subject
+	private static final int SUM = 0;
+	private static final int SUM_OF_SQUARES = 1;
+	private static final int SUM_OF_SQUARED_DIFFERENCES = 2;
+	private static final int LONG_STRIDE = 3;
+
+	private static final int FLAG_IN_USE = 0x01;
+
+	private final int maxSubjects;
+	private final int window;
+	private final int maxDeviationPercent;
+	private final int[] state;
+	private final long[] sums;
+	/** RR intervals in 1/1024 s, {@link #window} entries per subject. */
+	private final char[] intervals;
+	/** Differences to the preceding intervals, or {@link #NO_DIFFERENCE}. */
+	private final int[] differences;
+
+	/** The subject and buffer used by the decoder callback. */
+	private int current;
+	private ByteBuffer currentBuffer;
+	private int accepted;
+
+	/**
+	 * Creates the engine with the default artifact threshold.
+	 *
+	 * @param maxSubjects the maximum number of subjects served at a time.
+	 * @param window      the number of RR intervals in the sliding window.
+	 */
+	public HeartRateVariabilityEngine(@IntRange(from = 1) final int maxSubjects,
+									  @IntRange(from = 2, to = 0x10000) final int window) {
+		this(maxSubjects, window, DEFAULT_MAX_DEVIATION_PERCENT);
+	}
+
+	/**
+	 * Creates the engine.
+	 *
+	 * @param maxSubjects         the maximum number of subjects served at a time.
+	 * @param window              the number of RR intervals in the sliding window.
+	 * @param maxDeviationPercent the maximum deviation of an interval from the mean of
+	 *                            the window, in percent.
+	 */
+	public HeartRateVariabilityEngine(@IntRange(from = 1) final int maxSubjects,
+									  @IntRange(from = 2, to = 0x10000) final int window,
+									  @IntRange(from = 1) final int maxDeviationPercent) {
+		if (maxSubjects < 1)
+			throw new IllegalArgumentException("At least 1 subject required");
+		if (window < 2 || window > 0x10000)
+			throw new IllegalArgumentException("Window must be in range 2-65536");
+		if (maxDeviationPercent < 1)
+			throw new IllegalArgumentException("Maximum deviation must be positive");
+		this.maxSubjects = maxSubjects;
+		this.window = window;
+		this.maxDeviationPercent = maxDeviationPercent;
+		this.state = new int[maxSubjects * INT_STRIDE];
+		this.sums = new long[maxSubjects * LONG_STRIDE];
+		this.intervals = new char[maxSubjects * window];
+		this.differences = new int[maxSubjects * window];
+	}
+
+	/**
+	 * Adds a subject.
+	 *
+	 * @return The subject index, or -1 if the maximum number of subjects is already served.
+	 */
+	public int addSubject() {
+		for (int subject = 0; subject < maxSubjects; subject++) {
+			if ((state[subject * INT_STRIDE + FLAGS] & FLAG_IN_USE) == 0) {
+				reset(subject);
+				state[subject * INT_STRIDE + FLAGS] = FLAG_IN_USE;
+				return subject;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes the subject. The index may be returned by a following {@link #addSubject()}.
+	 */
+	public void removeSubject(final int subject) {
+		reset(subject);
+		state[subject * INT_STRIDE + FLAGS] = 0;
+	}
+
+	/**
+	 * Clears the window and the artifact count of the subject.
+	 */
+	public void reset(final int subject) {
+		restart(subject);
+		state[subject * INT_STRIDE + ARTIFACTS] = 0;
+	}
+
+	/**
+	 * Decodes the Heart Rate Measurement value and adds its RR intervals to the subject.
+	 *
+	 * @param subject the subject index.
+	 * @param buffer  the buffer with the value. The position and limit are not modified.
+	 * @param offset  index of the first byte of the value.
+	 * @param length  length of the value in bytes.
+	 * @return The number of RR intervals accepted, or -1 if the value is invalid.
+	 */
+	public int process(final int subject, @NonNull final ByteBuffer buffer,
+					   final int offset, final int length) {
+		current = subject;
+		currentBuffer = buffer;
+		accepted = 0;
+		final boolean valid = HeartRateMeasurementDecoder.decode(buffer, offset, length, this);
+		currentBuffer = null;
+		return valid ? accepted : -1;
+	}
+
+	@Override
+	public void onHeartRateMeasurement(final int heartRate,
+									   final boolean contactSupported, final boolean contactDetected,
+									   final boolean energyExpandedPresent, final int energyExpanded,
+									   final int rrIntervalsOffset, final int rrIntervalsCount) {
+		for (int i = 0; i < rrIntervalsCount; i++) {
+			if (addInterval(current, HeartRateMeasurementDecoder.rrInterval(currentBuffer, rrIntervalsOffset, i)))
+				accepted++;
+		}
+	}
+
+	/**
+	 * Adds an RR interval to the subject.
+	 *
+	 * @param subject    the subject index.
+	 * @param rrInterval the RR interval in 1/1024 s, as uint16.
+	 * @return True if the interval has been accepted, false if it was rejected as an artifact.
+	 */
+	public boolean addInterval(final int subject, final int rrInterval) {
+		final int base = subject * INT_STRIDE;
+		final int sumBase = subject * LONG_STRIDE;
+		final int interval = rrInterval & 0xFFFF;
+
+		if (isArtifact(subject, interval)) {
+			state[base + ARTIFACTS]++;
+			state[base + LAST_INTERVAL] = 0;
+			if (++state[base + CONSECUTIVE_ARTIFACTS] >= MAX_CONSECUTIVE_ARTIFACTS)
+				restart(subject);
+			return false;
+		}
+		state[base + CONSECUTIVE_ARTIFACTS] = 0;
+
+		// Evict the oldest interval when the window is full
+		final int slot = subject * window + state[base + INDEX];
+		if (state[base + COUNT] == window) {
+			final long oldest = intervals[slot];
+			sums[sumBase + SUM] -= oldest;
+			sums[sumBase + SUM_OF_SQUARES] -= oldest * oldest;
+			removeDifference(subject, differences[slot]);
+			// The next interval becomes the oldest one, its difference leaves the window
+			final int next = subject * window + (state[base + INDEX] + 1) % window;
+			removeDifference(subject, differences[next]);
+			differences[next] = NO_DIFFERENCE;
+		} else {
+			state[base + COUNT]++;
+		}
+
+		final int last = state[base + LAST_INTERVAL];
+		final int difference = last != 0 ? interval - last : NO_DIFFERENCE;
+		intervals[slot] = (char) interval;
+		differences[slot] = difference;
+		sums[sumBase + SUM] += interval;
+		sums[sumBase + SUM_OF_SQUARES] += (long) interval * interval;
+		if (difference != NO_DIFFERENCE) {
+			sums[sumBase + SUM_OF_SQUARED_DIFFERENCES] += (long) difference * difference;
+			state[base + DIFFERENCE_COUNT]++;
+			if (isNN50(difference))
+				state[base + NN50_COUNT]++;
+		}
+		state[base + LAST_INTERVAL] = interval;
+		state[base + INDEX] = (state[base + INDEX] + 1) % window;
+		return true;
+	}
+
+	/**
+	 * Returns the number of RR intervals in the window.
+	 */
+	public int getIntervalCount(final int subject) {
+		return state[subject * INT_STRIDE + COUNT];
+	}
+
+	/**
+	 * Returns the number of RR intervals rejected as artifacts since the subject was added
+	 * or reset.
+	 */
+	public int getArtifactCount(final int subject) {
+		return state[subject * INT_STRIDE + ARTIFACTS];
+	}
+
+	/**
+	 * Returns the mean RR interval in the window in milliseconds, or 0 if the window is empty.
+	 */
+	public float getMeanInterval(final int subject) {
+		final int count = state[subject * INT_STRIDE + COUNT];
+		if (count == 0)
+			return 0.0f;
+		return toMillis(sums[subject * LONG_STRIDE + SUM]) / count;
+	}
+
+	/**
+	 * Returns the mean heart rate in the window in beats per minute, or 0 if the window is empty.
+	 */
+	public float getMeanHeartRate(final int subject) {
+		final long sum = sums[subject * LONG_STRIDE + SUM];
+		if (sum == 0)
+			return 0.0f;
+		return 60.0f * 1024.0f * state[subject * INT_STRIDE + COUNT] / sum;
+	}
+
+	/**
+	 * Returns the standard deviation of the RR intervals in the window (SDNN) in milliseconds,
+	 * or 0 if there are fewer than 2 intervals.
+	 */
+	public float getSdnn(final int subject) {
+		final int count = state[subject * INT_STRIDE + COUNT];
+		if (count < 2)
+			return 0.0f;
+		final long sum = sums[subject * LONG_STRIDE + SUM];
+		// n * sum(x^2) - sum(x)^2 is exact in integers
+		final long numerator = count * sums[subject * LONG_STRIDE + SUM_OF_SQUARES] - sum * sum;
+		return toMillis((float) Math.sqrt((double) numerator / ((long) count * (count - 1))));
+	}
+
+	/**
+	 * Returns the root mean square of successive differences in the window (RMSSD)
+	 * in milliseconds, or 0 if there are no successive intervals.
+	 */
+	public float getRmssd(final int subject) {
+		final int count = state[subject * INT_STRIDE + DIFFERENCE_COUNT];
+		if (count == 0)
+			return 0.0f;
+		return toMillis((float) Math.sqrt(
+				(double) sums[subject * LONG_STRIDE + SUM_OF_SQUARED_DIFFERENCES] / count));
+	}
+
+	/**
+	 * Returns the percentage of successive differences in the window greater than 50 ms (pNN50),
+	 * or 0 if there are no successive intervals.
+	 */
+	public float getPnn50(final int subject) {
+		final int count = state[subject * INT_STRIDE + DIFFERENCE_COUNT];
+		if (count == 0)
+			return 0.0f;
+		return 100.0f * state[subject * INT_STRIDE + NN50_COUNT] / count;
+	}
+
+	private boolean isArtifact(final int subject, final int interval) {
+		// Milliseconds, rounded, with fixed-point arithmetic
+		final int millis = (interval * 1000 + 512) >> 10;
+		if (millis < MIN_RR_MS || millis > MAX_RR_MS)
+			return true;
+		final int count = state[subject * INT_STRIDE + COUNT];
+		if (count < MIN_INTERVALS_FOR_FILTER)
+			return false;
+		// |interval - sum / count| / (sum / count) > max / 100, without division
+		final long sum = sums[subject * LONG_STRIDE + SUM];
+		return Math.abs((long) interval * count - sum) * 100 > maxDeviationPercent * sum;
+	}
+
+	private void removeDifference(final int subject, final int difference) {
+		if (difference == NO_DIFFERENCE)
+			return;
+		sums[subject * LONG_STRIDE + SUM_OF_SQUARED_DIFFERENCES] -= (long) difference * difference;
+		state[subject * INT_STRIDE + DIFFERENCE_COUNT]--;
+		if (isNN50(difference))
+			state[subject * INT_STRIDE + NN50_COUNT]--;
+	}
+
+	/**
+	 * Clears the window of the subject, keeping the artifact count.
+	 */
+	private void restart(final int subject) {
+		final int base = subject * INT_STRIDE;
+		for (int i = 1; i < INT_STRIDE; i++) {
+			if (i != ARTIFACTS)
+				state[base + i] = 0;
+		}
+		for (int i = 0; i < LONG_STRIDE; i++)
+			sums[subject * LONG_STRIDE + i] = 0;
+	}
+
+	/**
+	 * Returns true if the difference is greater than 50 ms, that is 51.2 in 1/1024 s.
+	 */
+	private static boolean isNN50(final int difference) {
+		return Math.abs(difference) * 1000 > 50 * 1024;
+	}
+
+	private static float toMillis(final float ticks) {
+		return ticks * 1000.0f / 1024.0f;
+	}
+}
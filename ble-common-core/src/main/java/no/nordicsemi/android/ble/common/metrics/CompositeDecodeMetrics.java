@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * {@link DecodeMetrics} forwarding every report to all of the given metrics, in order,
+ * e.g. to keep {@link StripedDecodeMetrics} counters and {@link HistogramDecodeMetrics}
+ * latencies at the same time:
+ * <pre>
+ * Metrics.setDecodeMetrics(new CompositeDecodeMetrics(counters, histograms));
+ * </pre>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CompositeDecodeMetrics implements DecodeMetrics {
+	private final DecodeMetrics[] metrics;
+
+	public CompositeDecodeMetrics(@NonNull final DecodeMetrics... metrics) {
+		this.metrics = metrics.clone();
+		for (final DecodeMetrics m : this.metrics) {
+			if (m == null)
+				throw new NullPointerException("Metrics must not be null");
+		}
+	}
+
+	@Override
+	public void onDecoded(final int characteristic, @Nullable final String deviceAddress,
+						  final int outcome, final int length, final long nanos) {
+		for (final DecodeMetrics m : metrics)
+			m.onDecoded(characteristic, deviceAddress, outcome, length, nanos);
+	}
+
+	@Override
+	public void onDispatched(final int characteristic, @Nullable final String deviceAddress, final long nanos) {
+		for (final DecodeMetrics m : metrics)
+			m.onDispatched(characteristic, deviceAddress, nanos);
+	}
+}
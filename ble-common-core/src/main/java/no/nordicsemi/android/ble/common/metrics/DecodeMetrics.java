@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Receives the outcome of every value decoded by the data callbacks and, optionally, the time
+ * until the listener has handled it.
+ * <p>
+ * Implementations are called on the thread delivering notifications, so they must be
+ * thread safe, must not block and should not allocate. Install an implementation with
+ * {@link Metrics#setDecodeMetrics(DecodeMetrics)}.
+ */
+public interface DecodeMetrics {
+	/** The value was valid and has been reported. */
+	int OUTCOME_VALID = 0;
+	/** The value was invalid. */
+	int OUTCOME_INVALID = 1;
+	/** The value, or one of its records, had an E2E-CRC not matching the data. */
+	int OUTCOME_CRC_ERROR = 2;
+
+	/** Metrics that ignore all values. */
+	DecodeMetrics NONE = (characteristic, deviceAddress, outcome, length, nanos) -> {};
+
+	/**
+	 * Called when a value has been decoded, before it is reported to the listener.
+	 *
+	 * @param characteristic the 16-bit UUID of the characteristic, see
+	 *                       {@link no.nordicsemi.android.ble.common.profile.Characteristics}.
+	 * @param deviceAddress  the device address, or null if not known.
+	 * @param outcome        one of OUTCOME_* constants.
+	 * @param length         the length of the value in bytes.
+	 * @param nanos          the time spent decoding the value, in nanoseconds.
+	 */
+	void onDecoded(int characteristic, @Nullable String deviceAddress, int outcome, int length, long nanos);
+
+	/**
+	 * Called when the data callback has returned from the listener, after
+	 * {@link #onDecoded(int, String, int, int, long)}.
+	 *
+	 * @param characteristic the 16-bit UUID of the characteristic.
+	 * @param deviceAddress  the device address, or null if not known.
+	 * @param nanos          the time from receiving the value until the listener returned,
+	 *                       in nanoseconds.
+	 */
+	default void onDispatched(final int characteristic, @Nullable final String deviceAddress, final long nanos) {
+		// empty default implementation
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static no.nordicsemi.android.ble.common.metrics.StripedDecodeMetrics.FIRST_CHARACTERISTIC;
+import static no.nordicsemi.android.ble.common.metrics.StripedDecodeMetrics.OTHER_CHARACTERISTICS;
+import static no.nordicsemi.android.ble.common.metrics.StripedDecodeMetrics.slot;
+
+/**
+ * {@link DecodeMetrics} recording latency histograms per characteristic: the decode time
+ * and the time from receiving a value until the listener has returned. Comparing the two
+ * shows whether decoding or the application's handlers take the time.
+ * <p>
+ * The histograms use fixed memory and are created when a characteristic is seen for the first
+ * time, so recording does not allocate afterwards. Characteristics outside 0x2A00-0x2AFF share
+ * the histograms.
+ * <p>
+ * To record counters as well, combine it with {@link StripedDecodeMetrics} using
+ * {@link CompositeDecodeMetrics}.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class HistogramDecodeMetrics implements DecodeMetrics {
+	private final long highestTrackableValue;
+	private final int precisionBits;
+	private final AtomicReferenceArray<LatencyHistogram> decode = new AtomicReferenceArray<>(OTHER_CHARACTERISTICS + 1);
+	private final AtomicReferenceArray<LatencyHistogram> dispatch = new AtomicReferenceArray<>(OTHER_CHARACTERISTICS + 1);
+
+	public interface Visitor {
+		/**
+		 * @param characteristic the 16-bit UUID, or -1 for characteristics outside 0x2A00-0x2AFF.
+		 * @param decode         the decode times, or null if no value was decoded.
+		 * @param dispatch       the times until the listener returned, or null if none was recorded.
+		 */
+		void visit(int characteristic, @Nullable LatencyHistogram decode, @Nullable LatencyHistogram dispatch);
+	}
+
+	/**
+	 * Creates the metrics with histograms of the default range and precision,
+	 * see {@link LatencyHistogram}.
+	 */
+	public HistogramDecodeMetrics() {
+		this(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, LatencyHistogram.DEFAULT_PRECISION_BITS);
+	}
+
+	/**
+	 * @param highestTrackableValue the highest time counted separately, in nanoseconds.
+	 * @param precisionBits         the number of significant bits of the times.
+	 * @see LatencyHistogram#LatencyHistogram(long, int)
+	 */
+	public HistogramDecodeMetrics(final long highestTrackableValue, final int precisionBits) {
+		// Validate the parameters before the first value is received
+		LatencyHistogram.checkArguments(highestTrackableValue, precisionBits);
+		this.highestTrackableValue = highestTrackableValue;
+		this.precisionBits = precisionBits;
+	}
+
+	@Override
+	public void onDecoded(final int characteristic, @Nullable final String deviceAddress,
+						  final int outcome, final int length, final long nanos) {
+		histogram(decode, characteristic).record(nanos);
+	}
+
+	@Override
+	public void onDispatched(final int characteristic, @Nullable final String deviceAddress, final long nanos) {
+		histogram(dispatch, characteristic).record(nanos);
+	}
+
+	/** Returns the decode times of the characteristic, or null if no value was decoded. */
+	@Nullable
+	public LatencyHistogram getDecodeHistogram(final int characteristic) {
+		return decode.get(slot(characteristic));
+	}
+
+	/**
+	 * Returns the times from receiving a value of the characteristic until the listener returned,
+	 * or null if none was recorded.
+	 */
+	@Nullable
+	public LatencyHistogram getDispatchHistogram(final int characteristic) {
+		return dispatch.get(slot(characteristic));
+	}
+
+	public void forEachCharacteristic(@NonNull final Visitor visitor) {
+		for (int i = 0; i <= OTHER_CHARACTERISTICS; i++) {
+			final LatencyHistogram decodeHistogram = decode.get(i);
+			final LatencyHistogram dispatchHistogram = dispatch.get(i);
+			if (decodeHistogram != null || dispatchHistogram != null)
+				visitor.visit(i < OTHER_CHARACTERISTICS ? FIRST_CHARACTERISTIC + i : -1,
+						decodeHistogram, dispatchHistogram);
+		}
+	}
+
+	/** Resets all histograms. Values recorded concurrently may be lost. */
+	public void reset() {
+		for (int i = 0; i <= OTHER_CHARACTERISTICS; i++) {
+			final LatencyHistogram decodeHistogram = decode.get(i);
+			if (decodeHistogram != null)
+				decodeHistogram.reset();
+			final LatencyHistogram dispatchHistogram = dispatch.get(i);
+			if (dispatchHistogram != null)
+				dispatchHistogram.reset();
+		}
+	}
+
+	private LatencyHistogram histogram(final AtomicReferenceArray<LatencyHistogram> histograms,
+									   final int characteristic) {
+		final int slot = slot(characteristic);
+		final LatencyHistogram histogram = histograms.get(slot);
+		if (histogram != null)
+			return histogram;
+		histograms.compareAndSet(slot, null, new LatencyHistogram(highestTrackableValue, precisionBits));
+		return histograms.get(slot);
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size histogram of non-negative values, like latencies in nanoseconds, with buckets
+ * growing exponentially, as in HdrHistogram. Each power of 2 is split into
+ * 2<sup>precisionBits - 1</sup> buckets, so the relative error of a recorded value is
+ * at most 2<sup>1 - precisionBits</sup>.
+ * <p>
+ * Recording is lock-free and does not allocate. Snapshots taken while values are being recorded
+ * may include some of them.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class LatencyHistogram {
+	/** The default highest trackable value, 1 minute in nanoseconds. */
+	public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 60_000_000_000L;
+	/** The default precision, with relative error of at most 3.125%. */
+	public static final int DEFAULT_PRECISION_BITS = 6;
+
+	private final long highestTrackableValue;
+	private final int precisionBits;
+	private final AtomicLongArray counts;
+
+	/** Values recorded in a histogram at some point in time. */
+	public static final class Snapshot {
+		private final int precisionBits;
+		private final long[] counts;
+		private final long totalCount;
+
+		Snapshot(final int precisionBits, @NonNull final long[] counts) {
+			this.precisionBits = precisionBits;
+			this.counts = counts;
+			long total = 0;
+			for (final long count : counts)
+				total += count;
+			this.totalCount = total;
+		}
+
+		/** Returns the number of recorded values. */
+		public long getTotalCount() {
+			return totalCount;
+		}
+
+		/** Returns the lowest value equivalent to the smallest recorded one, or 0 if empty. */
+		public long getMin() {
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] != 0)
+					return lowestValueAt(i, precisionBits);
+			}
+			return 0;
+		}
+
+		/** Returns the highest value equivalent to the largest recorded one, or 0 if empty. */
+		public long getMax() {
+			for (int i = counts.length - 1; i >= 0; i--) {
+				if (counts[i] != 0)
+					return highestValueAt(i, precisionBits);
+			}
+			return 0;
+		}
+
+		/** Returns the mean of the recorded values, or 0 if empty. */
+		public double getMean() {
+			if (totalCount == 0)
+				return 0;
+			double sum = 0;
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] != 0) {
+					final long low = lowestValueAt(i, precisionBits);
+					final long high = highestValueAt(i, precisionBits);
+					sum += (low + (high - low) / 2.0) * counts[i];
+				}
+			}
+			return sum / totalCount;
+		}
+
+		/**
+		 * Returns the highest value equivalent to the value at the given percentile,
+		 * or 0 if empty.
+		 *
+		 * @param percentile the percentile, from 0 to 100.
+		 */
+		public long getValueAtPercentile(final double percentile) {
+			if (totalCount == 0)
+				return 0;
+			final double fraction = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+			final long countAtPercentile = Math.max(1, (long) Math.ceil(fraction * totalCount));
+			long count = 0;
+			for (int i = 0; i < counts.length; i++) {
+				count += counts[i];
+				if (count >= countAtPercentile)
+					return highestValueAt(i, precisionBits);
+			}
+			return getMax();
+		}
+
+		/** Returns the number of buckets. */
+		public int getBucketCount() {
+			return counts.length;
+		}
+
+		/** Returns the number of values recorded in the bucket. */
+		public long getCountAt(final int bucket) {
+			return counts[bucket];
+		}
+
+		/** Returns the lowest value counted in the bucket. */
+		public long getLowestValueAt(final int bucket) {
+			return lowestValueAt(bucket, precisionBits);
+		}
+
+		/** Returns the highest value counted in the bucket. */
+		public long getHighestValueAt(final int bucket) {
+			return highestValueAt(bucket, precisionBits);
+		}
+	}
+
+	/**
+	 * Creates a histogram with the default highest trackable value and precision.
+	 */
+	public LatencyHistogram() {
+		this(DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_PRECISION_BITS);
+	}
+
+	/**
+	 * @param highestTrackableValue the highest value counted separately, larger values are
+	 *                              recorded as this value. At most {@link Long#MAX_VALUE} / 2.
+	 * @param precisionBits         the number of significant bits of the values, from 1 to 16.
+	 */
+	public LatencyHistogram(final long highestTrackableValue, final int precisionBits) {
+		checkArguments(highestTrackableValue, precisionBits);
+		this.highestTrackableValue = highestTrackableValue;
+		this.precisionBits = precisionBits;
+		this.counts = new AtomicLongArray(indexOf(highestTrackableValue, precisionBits) + 1);
+	}
+
+	/**
+	 * Throws {@link IllegalArgumentException} if a histogram can't be created with the arguments.
+	 */
+	static void checkArguments(final long highestTrackableValue, final int precisionBits) {
+		if (highestTrackableValue < 1 || highestTrackableValue > Long.MAX_VALUE / 2)
+			throw new IllegalArgumentException("Invalid highest trackable value: " + highestTrackableValue);
+		if (precisionBits < 1 || precisionBits > 16)
+			throw new IllegalArgumentException("Precision must be from 1 to 16 bits");
+	}
+
+	public long getHighestTrackableValue() {
+		return highestTrackableValue;
+	}
+
+	public int getPrecisionBits() {
+		return precisionBits;
+	}
+
+	/**
+	 * Records the value. Negative values are recorded as 0.
+	 */
+	public void record(final long value) {
+		final long clamped = value < 0 ? 0 : Math.min(value, highestTrackableValue);
+		counts.incrementAndGet(indexOf(clamped, precisionBits));
+	}
+
+	/** Returns the values recorded so far. */
+	@NonNull
+	public Snapshot snapshot() {
+		final long[] copy = new long[counts.length()];
+		for (int i = 0; i < copy.length; i++)
+			copy[i] = counts.get(i);
+		return new Snapshot(precisionBits, copy);
+	}
+
+	/**
+	 * Returns the values recorded so far and resets the histogram. Each value recorded
+	 * concurrently is either in the snapshot or remains in the histogram.
+	 */
+	@NonNull
+	public Snapshot snapshotAndReset() {
+		final long[] copy = new long[counts.length()];
+		for (int i = 0; i < copy.length; i++)
+			copy[i] = counts.getAndSet(i, 0);
+		return new Snapshot(precisionBits, copy);
+	}
+
+	/** Removes all recorded values. Values recorded concurrently may be lost. */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++)
+			counts.set(i, 0);
+	}
+
+	/**
+	 * Values below 2<sup>precisionBits</sup> have own buckets. Larger values are shifted right
+	 * until they have precisionBits bits, the shift selects the power of 2 and the remaining
+	 * bits the bucket within it.
+	 */
+	static int indexOf(final long value, final int precisionBits) {
+		if (value < (1L << precisionBits))
+			return (int) value;
+		final int shift = 64 - Long.numberOfLeadingZeros(value) - precisionBits;
+		return (shift << (precisionBits - 1)) + (int) (value >>> shift);
+	}
+
+	static long lowestValueAt(final int index, final int precisionBits) {
+		final int half = 1 << (precisionBits - 1);
+		if (index < half << 1)
+			return index;
+		final int shift = index / half - 1;
+		return (long) (index - shift * half) << shift;
+	}
+
+	static long highestValueAt(final int index, final int precisionBits) {
+		return lowestValueAt(index + 1, precisionBits) - 1;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Holds the {@link DecodeMetrics} that all data callbacks report to. By default
+ * {@link DecodeMetrics#NONE} is used and the callbacks do not read the clock.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class Metrics {
+	private static volatile DecodeMetrics decodeMetrics = DecodeMetrics.NONE;
+
+	private Metrics() {
+		// empty private constructor
+	}
+
+	/**
+	 * Sets the metrics that all data callbacks report to.
+	 *
+	 * @param metrics the metrics, or null to disable reporting.
+	 */
+	public static void setDecodeMetrics(@Nullable final DecodeMetrics metrics) {
+		decodeMetrics = metrics != null ? metrics : DecodeMetrics.NONE;
+	}
+
+	@NonNull
+	public static DecodeMetrics getDecodeMetrics() {
+		return decodeMetrics;
+	}
+
+	/**
+	 * Returns the start time of decoding, or 0 if metrics are disabled.
+	 */
+	public static long start() {
+		return decodeMetrics != DecodeMetrics.NONE ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Reports the outcome of decoding a value.
+	 *
+	 * @param characteristic the 16-bit UUID of the characteristic.
+	 * @param deviceAddress  the device address, or null if not known.
+	 * @param outcome        one of {@link DecodeMetrics} OUTCOME_* constants.
+	 * @param length         the length of the value in bytes.
+	 * @param start          the time returned by {@link #start()}.
+	 */
+	public static void report(final int characteristic, @Nullable final String deviceAddress,
+							  final int outcome, final int length, final long start) {
+		final DecodeMetrics metrics = decodeMetrics;
+		if (metrics != DecodeMetrics.NONE) {
+			final long nanos = start != 0 ? System.nanoTime() - start : 0;
+			metrics.onDecoded(characteristic, deviceAddress, outcome, length, nanos);
+		}
+	}
+
+	/**
+	 * Reports that the value has been handled by the listener.
+	 *
+	 * @param characteristic the 16-bit UUID of the characteristic.
+	 * @param deviceAddress  the device address, or null if not known.
+	 * @param start          the time returned by {@link #start()}.
+	 */
+	public static void reportDispatch(final int characteristic, @Nullable final String deviceAddress,
+									  final long start) {
+		final DecodeMetrics metrics = decodeMetrics;
+		if (metrics != DecodeMetrics.NONE) {
+			final long nanos = start != 0 ? System.nanoTime() - start : 0;
+			metrics.onDispatched(characteristic, deviceAddress, nanos);
+		}
+	}
+}
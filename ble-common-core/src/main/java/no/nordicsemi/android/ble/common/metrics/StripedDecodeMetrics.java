@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DecodeMetrics} counting the values per characteristic and per device using
+ * {@link LongAdder}s, which are striped so that recording from many threads does not contend.
+ * Recording does not allocate, except when a characteristic or a device is seen for the first time.
+ * <p>
+ * To bound the memory used in large fleets, at most the given number of devices are counted
+ * separately. Values from further devices are counted together, see {@link #getOtherDevices()}.
+ * <p>
+ * {@link LongAdder} and {@link Map#computeIfAbsent} require Android API 24 or newer.
+ */
+@RequiresApi(24)
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class StripedDecodeMetrics implements DecodeMetrics {
+	/** Characteristics 0x2A00-0x2AFF are counted in own slots, others share the last slot. */
+	static final int FIRST_CHARACTERISTIC = 0x2A00;
+	static final int OTHER_CHARACTERISTICS = 256;
+
+	/** Counters of a characteristic, a device or all values. */
+	public static final class Counters {
+		private final LongAdder valid = new LongAdder();
+		private final LongAdder invalid = new LongAdder();
+		private final LongAdder crcErrors = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+
+		void record(final int outcome, final int length, final long time) {
+			switch (outcome) {
+				case OUTCOME_VALID: valid.increment(); break;
+				case OUTCOME_CRC_ERROR: crcErrors.increment(); break;
+				default: invalid.increment(); break;
+			}
+			bytes.add(length);
+			nanos.add(time);
+		}
+
+		public long getValid() {
+			return valid.sum();
+		}
+
+		public long getInvalid() {
+			return invalid.sum();
+		}
+
+		public long getCrcErrors() {
+			return crcErrors.sum();
+		}
+
+		/** Returns the number of all values. */
+		public long getCount() {
+			return valid.sum() + invalid.sum() + crcErrors.sum();
+		}
+
+		/** Returns the number of bytes decoded. */
+		public long getBytes() {
+			return bytes.sum();
+		}
+
+		/** Returns the total time spent decoding, in nanoseconds. */
+		public long getNanos() {
+			return nanos.sum();
+		}
+
+		void reset() {
+			valid.reset();
+			invalid.reset();
+			crcErrors.reset();
+			bytes.reset();
+			nanos.reset();
+		}
+	}
+
+	public interface CharacteristicVisitor {
+		/**
+		 * @param characteristic the 16-bit UUID, or -1 for characteristics outside 0x2A00-0x2AFF.
+		 * @param counters       the counters.
+		 */
+		void visit(int characteristic, @NonNull Counters counters);
+	}
+
+	public interface DeviceVisitor {
+		void visit(@NonNull String deviceAddress, @NonNull Counters counters);
+	}
+
+	private final int maxDevices;
+	private final Counters total = new Counters();
+	private final AtomicReferenceArray<Counters> characteristics = new AtomicReferenceArray<>(OTHER_CHARACTERISTICS + 1);
+	private final Map<String, Counters> devices = new ConcurrentHashMap<>();
+	private final Counters otherDevices = new Counters();
+	private final Counters unknownDevice = new Counters();
+
+	/**
+	 * @param maxDevices the maximum number of devices counted separately.
+	 */
+	public StripedDecodeMetrics(final int maxDevices) {
+		if (maxDevices < 0)
+			throw new IllegalArgumentException("maxDevices must not be negative");
+		this.maxDevices = maxDevices;
+	}
+
+	@Override
+	public void onDecoded(final int characteristic, @Nullable final String deviceAddress,
+						  final int outcome, final int length, final long nanos) {
+		total.record(outcome, length, nanos);
+		characteristicCounters(characteristic).record(outcome, length, nanos);
+		deviceCounters(deviceAddress).record(outcome, length, nanos);
+	}
+
+	/** Returns the counters of all values. */
+	@NonNull
+	public Counters getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the counters of the characteristic, or null if no value was decoded.
+	 * Characteristics outside 0x2A00-0x2AFF share the counters.
+	 */
+	@Nullable
+	public Counters getCharacteristic(final int characteristic) {
+		return characteristics.get(slot(characteristic));
+	}
+
+	/** Returns the counters of the device, or null if it was not counted separately. */
+	@Nullable
+	public Counters getDevice(@NonNull final String deviceAddress) {
+		return devices.get(deviceAddress);
+	}
+
+	/** Returns the counters of devices over the limit. */
+	@NonNull
+	public Counters getOtherDevices() {
+		return otherDevices;
+	}
+
+	/** Returns the counters of values received from unknown devices. */
+	@NonNull
+	public Counters getUnknownDevice() {
+		return unknownDevice;
+	}
+
+	public void forEachCharacteristic(@NonNull final CharacteristicVisitor visitor) {
+		for (int i = 0; i <= OTHER_CHARACTERISTICS; i++) {
+			final Counters counters = characteristics.get(i);
+			if (counters != null)
+				visitor.visit(i < OTHER_CHARACTERISTICS ? FIRST_CHARACTERISTIC + i : -1, counters);
+		}
+	}
+
+	public void forEachDevice(@NonNull final DeviceVisitor visitor) {
+		for (final Map.Entry<String, Counters> entry : devices.entrySet())
+			visitor.visit(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * Resets all counters. The devices counted separately are forgotten. Values recorded
+	 * concurrently with the reset may be lost.
+	 */
+	public void reset() {
+		total.reset();
+		for (int i = 0; i <= OTHER_CHARACTERISTICS; i++) {
+			final Counters counters = characteristics.get(i);
+			if (counters != null)
+				counters.reset();
+		}
+		devices.clear();
+		otherDevices.reset();
+		unknownDevice.reset();
+	}
+
+	private Counters characteristicCounters(final int characteristic) {
+		final int slot = slot(characteristic);
+		final Counters counters = characteristics.get(slot);
+		if (counters != null)
+			return counters;
+		characteristics.compareAndSet(slot, null, new Counters());
+		return characteristics.get(slot);
+	}
+
+	private Counters deviceCounters(@Nullable final String deviceAddress) {
+		if (deviceAddress == null)
+			return unknownDevice;
+		final Counters counters = devices.get(deviceAddress);
+		if (counters != null)
+			return counters;
+		// The limit may be exceeded slightly by concurrent first values of new devices
+		if (devices.size() >= maxDevices)
+			return otherDevices;
+		return devices.computeIfAbsent(deviceAddress, address -> new Counters());
+	}
+
+	static int slot(final int characteristic) {
+		final int index = characteristic - FIRST_CHARACTERISTIC;
+		return index >= 0 && index < OTHER_CHARACTERISTICS ? index : OTHER_CHARACTERISTICS;
+	}
+}
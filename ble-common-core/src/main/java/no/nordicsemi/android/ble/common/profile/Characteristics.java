@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.profile;
+
+import androidx.annotation.NonNull;
+
+import java.util.UUID;
+
+/**
+ * 16-bit UUIDs of the characteristics supported by this library, as assigned by the Bluetooth SIG.
+ * The values are used to identify characteristics without allocating {@link UUID} objects.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class Characteristics {
+	public static final int ALERT_LEVEL = 0x2A06;
+	public static final int DATE_TIME = 0x2A08;
+	public static final int DST_OFFSET = 0x2A0D;
+	public static final int TIME_ZONE = 0x2A0E;
+	public static final int GLUCOSE_MEASUREMENT = 0x2A18;
+	public static final int BATTERY_LEVEL = 0x2A19;
+	public static final int TEMPERATURE_MEASUREMENT = 0x2A1C;
+	public static final int TEMPERATURE_TYPE = 0x2A1D;
+	public static final int INTERMEDIATE_TEMPERATURE = 0x2A1E;
+	public static final int MEASUREMENT_INTERVAL = 0x2A21;
+	public static final int GLUCOSE_MEASUREMENT_CONTEXT = 0x2A34;
+	public static final int BLOOD_PRESSURE_MEASUREMENT = 0x2A35;
+	public static final int INTERMEDIATE_CUFF_PRESSURE = 0x2A36;
+	public static final int HEART_RATE_MEASUREMENT = 0x2A37;
+	public static final int BODY_SENSOR_LOCATION = 0x2A38;
+	public static final int GLUCOSE_FEATURE = 0x2A51;
+	public static final int RECORD_ACCESS_CONTROL_POINT = 0x2A52;
+	public static final int RSC_MEASUREMENT = 0x2A53;
+	public static final int RSC_FEATURE = 0x2A54;
+	public static final int SC_CONTROL_POINT = 0x2A55;
+	public static final int CSC_MEASUREMENT = 0x2A5B;
+	public static final int CSC_FEATURE = 0x2A5C;
+	public static final int SENSOR_LOCATION = 0x2A5D;
+	public static final int CGM_MEASUREMENT = 0x2AA7;
+	public static final int CGM_FEATURE = 0x2AA8;
+	public static final int CGM_STATUS = 0x2AA9;
+	public static final int CGM_SESSION_START_TIME = 0x2AAA;
+	public static final int CGM_SESSION_RUN_TIME = 0x2AAB;
+	public static final int CGM_SPECIFIC_OPS_CONTROL_POINT = 0x2AAC;
+
+	/** The most significant bits of the Bluetooth Base UUID, without the 16-bit UUID. */
+	private static final long BASE_UUID_MSB = 0x0000000000001000L;
+	private static final long BASE_UUID_LSB = 0x800000805F9B34FBL;
+
+	private Characteristics() {
+		// empty private constructor
+	}
+
+	/**
+	 * Returns the 128-bit UUID of the 16-bit characteristic UUID.
+	 */
+	@NonNull
+	public static UUID toUuid(final int uuid16) {
+		return new UUID(BASE_UUID_MSB | ((long) (uuid16 & 0xFFFF) << 32), BASE_UUID_LSB);
+	}
+
+	/**
+	 * Returns the 16-bit UUID of the given UUID, or -1 if it is not based on the Bluetooth Base UUID.
+	 */
+	public static int fromUuid(@NonNull final UUID uuid) {
+		final long msb = uuid.getMostSignificantBits();
+		if (uuid.getLeastSignificantBits() != BASE_UUID_LSB || (msb & 0xFFFF0000FFFFFFFFL) != BASE_UUID_MSB)
+			return -1;
+		return (int) (msb >>> 32);
+	}
+}
@@ -24,15 +24,22 @@ package no.nordicsemi.android.ble.common.util;
 
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 /**
  * CRC-16 class is a helper that calculates different types of CRC.
  * Catalogue of CRC-16 algorithms:
  * <a href="http://reveng.sourceforge.net/crc-catalogue/16.htm">http://reveng.sourceforge.net/crc-catalogue/16.htm</a>
  * <p>Testing is based on 'check' from the link above and
  * <a href="https://www.lammertbies.nl/comm/info/crc-calculation.html">https://www.lammertbies.nl/comm/info/crc-calculation.html</a>.
+ * <p>
+ * The CRC is calculated using lookup tables, which are computed once for each polynomial.
  */
 @SuppressWarnings("WeakerAccess")
 public final class CRC16 {
+	private static final CRC16Table POLY_1021 = CRC16Table.of(0x1021, false);
+	private static final CRC16Table POLY_1021_REFLECTED = CRC16Table.of(0x1021, true);
+	private static final CRC16Table POLY_8005_REFLECTED = CRC16Table.of(0x8005, true);
 
 	private CRC16() {
 		// empty private constructor
@@ -50,7 +57,7 @@ public final class CRC16 {
 	 * @return the CRC-16 CCITT (Kermit).
 	 */
 	public static int CCITT_Kermit(@NonNull final byte[] data, final int offset, final int length) {
-		return CRC(0x1021, 0x0000, data, offset, length, true, true, 0x0000);
+		return CRC(POLY_1021_REFLECTED, 0x0000, data, offset, length, true, 0x0000);
 	}
 
 	/**
@@ -77,7 +84,7 @@ public final class CRC16 {
 //			crc ^= ((crc & 0xFF) << 4) << 1;
 //		}
 
-		return CRC(0x1021, 0xFFFF, data, offset, length, false, false, 0x0000);
+		return CRC(POLY_1021, 0xFFFF, data, offset, length, false, 0x0000);
 	}
 
 	/**
@@ -96,7 +103,25 @@ public final class CRC16 {
 	 * @return the CRC-16 MCRF4XX.
 	 */
 	public static int MCRF4XX(@NonNull final byte[] data, final int offset, final int length) {
-		return CRC(0x1021, 0xFFFF, data, offset, length, true, true, 0x0000);
+		return CRC(POLY_1021_REFLECTED, 0xFFFF, data, offset, length, true, 0x0000);
+	}
+
+	/**
+	 * Calculates CRC MCRF4XX over given range of bytes from the buffer.
+	 * The offset is an absolute index in the buffer; its position and limit are not modified.
+	 * Bytes beyond the buffer limit are ignored.
+	 *
+	 * @param buffer The input buffer, heap or direct.
+	 * @param offset Index from where the range starts.
+	 * @param length Length of the range in bytes.
+	 * @return the CRC-16 MCRF4XX.
+	 * @see #MCRF4XX(byte[], int, int)
+	 */
+	public static int MCRF4XX(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		final CRC16Table table = POLY_1021_REFLECTED;
+		final int end = Math.min(offset + length, buffer.limit());
+		final int crc = table.update(table.init(0xFFFF), buffer, offset, end);
+		return table.finish(crc, true, 0x0000);
 	}
 
 	/**
@@ -112,7 +137,7 @@ public final class CRC16 {
 	 * @return the CRC-16 AUG-CCITT.
 	 */
 	public static int AUG_CCITT(@NonNull final byte[] data, final int offset, final int length) {
-		return CRC(0x1021, 0x1D0F, data, offset, length, false, false, 0x0000);
+		return CRC(POLY_1021, 0x1D0F, data, offset, length, false, 0x0000);
 	}
 
 	/**
@@ -129,7 +154,7 @@ public final class CRC16 {
 	 * @return the CRC-16.
 	 */
 	public static int ARC(@NonNull final byte[] data, final int offset, final int length) {
-		return CRC(0x8005, 0x0000, data, offset, length, true, true, 0x0000);
+		return CRC(POLY_8005_REFLECTED, 0x0000, data, offset, length, true, 0x0000);
 	}
 
 	/**
@@ -146,7 +171,7 @@ public final class CRC16 {
 	 * @return the CRC-16 MAXIM.
 	 */
 	public static int MAXIM(@NonNull final byte[] data, final int offset, final int length) {
-		return CRC(0x8005, 0x0000, data, offset, length, true, true, 0xFFFF);
+		return CRC(POLY_8005_REFLECTED, 0x0000, data, offset, length, true, 0xFFFF);
 	}
 
 	/**
@@ -165,23 +190,13 @@ public final class CRC16 {
 	 * @return CRC calculated with given parameters.
 	 */
 	public static int CRC(final int poly, final int init, @NonNull final byte[] data, final int offset, final int length, final boolean refin, final boolean refout, final int xorout) {
-		int crc = init;
-
-		for (int i = offset; i < offset + length && i < data.length; ++i) {
-			final byte b = data[i];
-			for (int j = 0; j < 8; j++) {
-				final int k = refin ? 7 - j : j;
-				final boolean bit = ((b >> (7 - k) & 1) == 1);
-				final boolean c15 = ((crc >> 15 & 1) == 1);
-				crc <<= 1;
-				if (c15 ^ bit) crc ^= poly;
-			}
-		}
+		return CRC(CRC16Table.of(poly, refin), init, data, offset, length, refout, xorout);
+	}
 
-		if (refout) {
-			return (Integer.reverse(crc) >>> 16) ^ xorout;
-		} else {
-			return (crc ^ xorout) & 0xFFFF;
-		}
+	private static int CRC(@NonNull final CRC16Table table, final int init, @NonNull final byte[] data,
+						   final int offset, final int length, final boolean refout, final int xorout) {
+		final int end = Math.min(offset + length, data.length);
+		final int crc = table.update(table.init(init), data, offset, end);
+		return table.finish(crc, refout, xorout);
 	}
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.util;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental CRC-16 calculator.
+ * <p>
+ * The accumulator may be fed with data in chunks, for example from fragmented packets,
+ * and the CRC may be obtained at any time using {@link #value()}. Feeding the same bytes
+ * in any number of chunks gives the same result as the corresponding one-shot method in
+ * {@link CRC16}. Updating the accumulator does not allocate memory.
+ * <p>
+ * Usage example:
+ * <pre>
+ * final CRC16Accumulator crc = CRC16Accumulator.MCRF4XX();
+ * crc.update(header, 0, header.length).update(payload, 0, payload.length);
+ * if (crc.value() != expectedCrc) {
+ *     ...
+ * }
+ * crc.reset();
+ * </pre>
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused", "UnusedReturnValue"})
+public final class CRC16Accumulator {
+	private final CRC16Table table;
+	private final int init;
+	private final boolean refout;
+	private final int xorout;
+	private int crc;
+
+	/**
+	 * Creates the CRC accumulator with given parameters.
+	 *
+	 * See: http://www.zorc.breitbandkatze.de/crc.html
+	 *
+	 * @param poly   Polynomial used to calculate the CRC16.
+	 * @param init   Initial value to feed the buffer.
+	 * @param refin  True if the input data should be reversed.
+	 * @param refout True if the output data should be reversed.
+	 * @param xorout The value to XOR the output with.
+	 */
+	public CRC16Accumulator(final int poly, final int init, final boolean refin, final boolean refout, final int xorout) {
+		this.table = CRC16Table.of(poly, refin);
+		this.init = table.init(init);
+		this.refout = refout;
+		this.xorout = xorout;
+		this.crc = this.init;
+	}
+
+	/**
+	 * Creates an accumulator calculating CRC CCITT (Kermit).
+	 *
+	 * @see CRC16#CCITT_Kermit(byte[], int, int)
+	 */
+	@NonNull
+	public static CRC16Accumulator CCITT_Kermit() {
+		return new CRC16Accumulator(0x1021, 0x0000, true, true, 0x0000);
+	}
+
+	/**
+	 * Creates an accumulator calculating CRC CCITT-FALSE.
+	 *
+	 * @see CRC16#CCITT_FALSE(byte[], int, int)
+	 */
+	@NonNull
+	public static CRC16Accumulator CCITT_FALSE() {
+		return new CRC16Accumulator(0x1021, 0xFFFF, false, false, 0x0000);
+	}
+
+	/**
+	 * Creates an accumulator calculating CRC MCRF4XX, used in Bluetooth LE CGMS service
+	 * E2E-CRC calculation.
+	 *
+	 * @see CRC16#MCRF4XX(byte[], int, int)
+	 */
+	@NonNull
+	public static CRC16Accumulator MCRF4XX() {
+		return new CRC16Accumulator(0x1021, 0xFFFF, true, true, 0x0000);
+	}
+
+	/**
+	 * Creates an accumulator calculating CRC AUG-CCITT.
+	 *
+	 * @see CRC16#AUG_CCITT(byte[], int, int)
+	 */
+	@NonNull
+	public static CRC16Accumulator AUG_CCITT() {
+		return new CRC16Accumulator(0x1021, 0x1D0F, false, false, 0x0000);
+	}
+
+	/**
+	 * Creates an accumulator calculating CRC-16 ARC.
+	 *
+	 * @see CRC16#ARC(byte[], int, int)
+	 */
+	@NonNull
+	public static CRC16Accumulator ARC() {
+		return new CRC16Accumulator(0x8005, 0x0000, true, true, 0x0000);
+	}
+
+	/**
+	 * Creates an accumulator calculating CRC-16 MAXIM.
+	 *
+	 * @see CRC16#MAXIM(byte[], int, int)
+	 */
+	@NonNull
+	public static CRC16Accumulator MAXIM() {
+		return new CRC16Accumulator(0x8005, 0x0000, true, true, 0xFFFF);
+	}
+
+	/**
+	 * Updates the CRC with a single byte.
+	 *
+	 * @param b the byte.
+	 * @return This accumulator.
+	 */
+	@NonNull
+	public CRC16Accumulator update(final byte b) {
+		crc = table.update(crc, b);
+		return this;
+	}
+
+	/**
+	 * Updates the CRC with given range of bytes from the block of data.
+	 * Bytes beyond the end of the array are ignored.
+	 *
+	 * @param data   The input data block.
+	 * @param offset Offset from where the range starts.
+	 * @param length Length of the range in bytes.
+	 * @return This accumulator.
+	 */
+	@NonNull
+	public CRC16Accumulator update(@NonNull final byte[] data, final int offset, final int length) {
+		final int end = Math.min(offset + length, data.length);
+		crc = table.update(crc, data, offset, end);
+		return this;
+	}
+
+	/**
+	 * Updates the CRC with given range of bytes from the buffer. The offset is an absolute
+	 * index in the buffer; its position and limit are not modified.
+	 * Bytes beyond the buffer limit are ignored.
+	 *
+	 * @param buffer The input buffer, heap or direct.
+	 * @param offset Index from where the range starts.
+	 * @param length Length of the range in bytes.
+	 * @return This accumulator.
+	 */
+	@NonNull
+	public CRC16Accumulator update(@NonNull final ByteBuffer buffer, final int offset, final int length) {
+		final int end = Math.min(offset + length, buffer.limit());
+		crc = table.update(crc, buffer, offset, end);
+		return this;
+	}
+
+	/**
+	 * Resets the accumulator to the initial value, so it can be reused for another calculation.
+	 */
+	public void reset() {
+		crc = init;
+	}
+
+	/**
+	 * Returns the CRC of all the bytes given since the accumulator was created or reset.
+	 * This method does not modify the state, more data may be added afterwards.
+	 *
+	 * @return The CRC-16.
+	 */
+	public int value() {
+		return table.finish(crc, refout, xorout);
+	}
+}
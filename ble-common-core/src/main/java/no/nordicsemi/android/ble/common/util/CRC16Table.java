@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.util;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed lookup tables for a CRC-16 polynomial.
+ * <p>
+ * The tables are computed once per polynomial and input reflection and are shared by all
+ * calculations using the same parameters. Buffers are processed 8 bytes at a time
+ * (slicing-by-8), then 4 bytes at a time, and the remaining bytes one by one.
+ * <p>
+ * For reflected input the register is kept reflected, so no bit reversal is needed per byte.
+ * Use {@link #init(int)} and {@link #finish(int, boolean, int)} to convert between
+ * the register and the CRC value.
+ */
+final class CRC16Table {
+	private static final int SLICES = 8;
+	private static final ConcurrentHashMap<Integer, CRC16Table> CACHE = new ConcurrentHashMap<>();
+
+	/** True, if the table processes input bytes LSB first. */
+	final boolean reflected;
+	/** {@link #SLICES} tables, 256 entries each. Table k is at index k * 256. */
+	private final int[] table;
+
+	private CRC16Table(final int poly, final boolean reflected) {
+		this.reflected = reflected;
+		this.table = new int[SLICES * 256];
+
+		if (reflected) {
+			final int rpoly = reflect(poly);
+			for (int n = 0; n < 256; n++) {
+				int c = n;
+				for (int k = 0; k < 8; k++)
+					c = (c & 1) != 0 ? (c >>> 1) ^ rpoly : c >>> 1;
+				table[n] = c;
+			}
+			for (int n = 0; n < 256; n++) {
+				int c = table[n];
+				for (int s = 1; s < SLICES; s++) {
+					c = (c >>> 8) ^ table[c & 0xFF];
+					table[(s << 8) + n] = c;
+				}
+			}
+		} else {
+			for (int n = 0; n < 256; n++) {
+				int c = n << 8;
+				for (int k = 0; k < 8; k++)
+					c = (c & 0x8000) != 0 ? ((c << 1) ^ poly) & 0xFFFF : (c << 1) & 0xFFFF;
+				table[n] = c;
+			}
+			for (int n = 0; n < 256; n++) {
+				int c = table[n];
+				for (int s = 1; s < SLICES; s++) {
+					c = ((c << 8) & 0xFFFF) ^ table[c >>> 8];
+					table[(s << 8) + n] = c;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the lookup tables for given polynomial and input reflection.
+	 * The tables are created on first use and cached.
+	 *
+	 * @param poly  the CRC-16 polynomial.
+	 * @param refin true if the input data should be reversed.
+	 * @return The lookup tables.
+	 */
+	@NonNull
+	static CRC16Table of(final int poly, final boolean refin) {
+		final Integer key = (poly & 0xFFFF) | (refin ? 0x10000 : 0);
+		CRC16Table table = CACHE.get(key);
+		if (table == null) {
+			table = new CRC16Table(poly & 0xFFFF, refin);
+			final CRC16Table previous = CACHE.putIfAbsent(key, table);
+			if (previous != null)
+				table = previous;
+		}
+		return table;
+	}
+
+	/**
+	 * Converts the initial CRC value to the register value used by {@link #update(int, byte[], int, int)}.
+	 *
+	 * @param init the initial value, as defined in the CRC catalogue.
+	 * @return The initial register value.
+	 */
+	int init(final int init) {
+		return reflected ? reflect(init & 0xFFFF) : init & 0xFFFF;
+	}
+
+	/**
+	 * Processes bytes from offset (inclusive) to end (exclusive).
+	 *
+	 * @param crc    the current register value.
+	 * @param data   the input data block.
+	 * @param offset offset of the first byte to process.
+	 * @param end    offset after the last byte to process.
+	 * @return The new register value.
+	 */
+	int update(int crc, @NonNull final byte[] data, int offset, final int end) {
+		final int[] t = table;
+		if (reflected) {
+			while (end - offset >= 8) {
+				final int x = crc ^ (data[offset] & 0xFF) ^ ((data[offset + 1] & 0xFF) << 8);
+				crc = t[0x700 + (x & 0xFF)] ^ t[0x600 + (x >>> 8)]
+						^ t[0x500 + (data[offset + 2] & 0xFF)] ^ t[0x400 + (data[offset + 3] & 0xFF)]
+						^ t[0x300 + (data[offset + 4] & 0xFF)] ^ t[0x200 + (data[offset + 5] & 0xFF)]
+						^ t[0x100 + (data[offset + 6] & 0xFF)] ^ t[data[offset + 7] & 0xFF];
+				offset += 8;
+			}
+			if (end - offset >= 4) {
+				final int x = crc ^ (data[offset] & 0xFF) ^ ((data[offset + 1] & 0xFF) << 8);
+				crc = t[0x300 + (x & 0xFF)] ^ t[0x200 + (x >>> 8)]
+						^ t[0x100 + (data[offset + 2] & 0xFF)] ^ t[data[offset + 3] & 0xFF];
+				offset += 4;
+			}
+			while (offset < end) {
+				crc = (crc >>> 8) ^ t[(crc ^ data[offset++]) & 0xFF];
+			}
+		} else {
+			while (end - offset >= 8) {
+				final int x = crc ^ ((data[offset] & 0xFF) << 8) ^ (data[offset + 1] & 0xFF);
+				crc = t[0x700 + (x >>> 8)] ^ t[0x600 + (x & 0xFF)]
+						^ t[0x500 + (data[offset + 2] & 0xFF)] ^ t[0x400 + (data[offset + 3] & 0xFF)]
+						^ t[0x300 + (data[offset + 4] & 0xFF)] ^ t[0x200 + (data[offset + 5] & 0xFF)]
+						^ t[0x100 + (data[offset + 6] & 0xFF)] ^ t[data[offset + 7] & 0xFF];
+				offset += 8;
+			}
+			if (end - offset >= 4) {
+				final int x = crc ^ ((data[offset] & 0xFF) << 8) ^ (data[offset + 1] & 0xFF);
+				crc = t[0x300 + (x >>> 8)] ^ t[0x200 + (x & 0xFF)]
+						^ t[0x100 + (data[offset + 2] & 0xFF)] ^ t[data[offset + 3] & 0xFF];
+				offset += 4;
+			}
+			while (offset < end) {
+				crc = ((crc << 8) & 0xFFFF) ^ t[((crc >>> 8) ^ data[offset++]) & 0xFF];
+			}
+		}
+		return crc;
+	}
+
+	/**
+	 * Processes bytes from offset (inclusive) to end (exclusive) using absolute reads.
+	 * The position and limit of the buffer are not modified.
+	 *
+	 * @param crc    the current register value.
+	 * @param buffer the input buffer.
+	 * @param offset index of the first byte to process.
+	 * @param end    index after the last byte to process.
+	 * @return The new register value.
+	 */
+	int update(int crc, @NonNull final ByteBuffer buffer, int offset, final int end) {
+		if (buffer.hasArray()) {
+			final int arrayOffset = buffer.arrayOffset();
+			return update(crc, buffer.array(), arrayOffset + offset, arrayOffset + end);
+		}
+		final int[] t = table;
+		if (reflected) {
+			while (end - offset >= 4) {
+				final int x = crc ^ (buffer.get(offset) & 0xFF) ^ ((buffer.get(offset + 1) & 0xFF) << 8);
+				crc = t[0x300 + (x & 0xFF)] ^ t[0x200 + (x >>> 8)]
+						^ t[0x100 + (buffer.get(offset + 2) & 0xFF)] ^ t[buffer.get(offset + 3) & 0xFF];
+				offset += 4;
+			}
+			while (offset < end) {
+				crc = (crc >>> 8) ^ t[(crc ^ buffer.get(offset++)) & 0xFF];
+			}
+		} else {
+			while (end - offset >= 4) {
+				final int x = crc ^ ((buffer.get(offset) & 0xFF) << 8) ^ (buffer.get(offset + 1) & 0xFF);
+				crc = t[0x300 + (x >>> 8)] ^ t[0x200 + (x & 0xFF)]
+						^ t[0x100 + (buffer.get(offset + 2) & 0xFF)] ^ t[buffer.get(offset + 3) & 0xFF];
+				offset += 4;
+			}
+			while (offset < end) {
+				crc = ((crc << 8) & 0xFFFF) ^ t[((crc >>> 8) ^ buffer.get(offset++)) & 0xFF];
+			}
+		}
+		return crc;
+	}
+
+	/**
+	 * Processes a single byte.
+	 *
+	 * @param crc the current register value.
+	 * @param b   the byte to process.
+	 * @return The new register value.
+	 */
+	int update(final int crc, final byte b) {
+		if (reflected)
+			return (crc >>> 8) ^ table[(crc ^ b) & 0xFF];
+		return ((crc << 8) & 0xFFFF) ^ table[((crc >>> 8) ^ b) & 0xFF];
+	}
+
+	/**
+	 * Converts the register value into the final CRC value.
+	 *
+	 * @param crc    the register value.
+	 * @param refout true if the output data should be reversed.
+	 * @param xorout the value to XOR the output with.
+	 * @return The CRC.
+	 */
+	int finish(final int crc, final boolean refout, final int xorout) {
+		// The register of a reflected table is already reversed
+		if (refout == reflected) {
+			return reflected ? crc ^ xorout : (crc ^ xorout) & 0xFFFF;
+		} else {
+			return reflected ? (reflect(crc) ^ xorout) & 0xFFFF : reflect(crc) ^ xorout;
+		}
+	}
+
+	private static int reflect(final int value) {
+		return Integer.reverse(value) >>> 16;
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.capture;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.ble.common.dispatch.NotificationDispatcher;
+import no.nordicsemi.android.ble.common.dispatch.NotificationSink;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+import static org.junit.Assert.*;
+
+public class CaptureReaderTest {
+
+	private static final class Recorder implements CaptureReader.Visitor {
+		private final List<String> devices = new ArrayList<>();
+		private final List<long[]> headers = new ArrayList<>();
+		private final List<byte[]> values = new ArrayList<>();
+
+		@Override
+		public void onDevice(final int device, @NonNull final String address) {
+			devices.add(device + "=" + address);
+		}
+
+		@Override
+		public void onValue(final long timestamp, final int device, final int characteristic,
+							@NonNull final ByteBuffer buffer, final int offset, final int length) {
+			headers.add(new long[] { timestamp, device, characteristic });
+			final byte[] value = new byte[length];
+			for (int i = 0; i < length; i++)
+				value[i] = buffer.get(offset + i);
+			values.add(value);
+		}
+	}
+
+	@Test
+	public void replay_roundTrip() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			try (CaptureWriter writer = new CaptureWriter(file)) {
+				writer.addDevice(7, "AA:BB:CC:DD:EE:FF");
+				writer.append(100, 7, Characteristics.HEART_RATE_MEASUREMENT, new byte[] { 0, 60 });
+				writer.append(200, 65535, Characteristics.BATTERY_LEVEL, ByteBuffer.wrap(new byte[] { 1, 2, 55, 3 }), 2, 1);
+				writer.append(300, 0, Characteristics.CGM_MEASUREMENT, null);
+			}
+
+			final Recorder recorder = new Recorder();
+			try (CaptureReader reader = new CaptureReader(file)) {
+				assertEquals(3, reader.replay(recorder));
+			}
+			assertEquals(1, recorder.devices.size());
+			assertEquals("7=AA:BB:CC:DD:EE:FF", recorder.devices.get(0));
+			assertArrayEquals(new long[] { 100, 7, Characteristics.HEART_RATE_MEASUREMENT }, recorder.headers.get(0));
+			assertArrayEquals(new byte[] { 0, 60 }, recorder.values.get(0));
+			assertArrayEquals(new long[] { 200, 65535, Characteristics.BATTERY_LEVEL }, recorder.headers.get(1));
+			assertArrayEquals(new byte[] { 55 }, recorder.values.get(1));
+			assertEquals(0, recorder.values.get(2).length);
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void replay_acrossBufferFlushes() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			final byte[] value = new byte[1000];
+			try (CaptureWriter writer = new CaptureWriter(file)) {
+				for (int i = 0; i < 1000; i++) {
+					value[0] = (byte) i;
+					writer.append(i, i % 3, Characteristics.CSC_MEASUREMENT, value);
+				}
+			}
+
+			final Recorder recorder = new Recorder();
+			try (CaptureReader reader = new CaptureReader(file)) {
+				assertEquals(1000, reader.replay(recorder));
+			}
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(i, recorder.headers.get(i)[0]);
+				assertEquals((byte) i, recorder.values.get(i)[0]);
+			}
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void replay_truncatedRecord() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			try (CaptureWriter writer = new CaptureWriter(file)) {
+				writer.append(1, 0, Characteristics.BATTERY_LEVEL, new byte[] { 50 });
+				writer.append(2, 0, Characteristics.HEART_RATE_MEASUREMENT, new byte[] { 0, 60 });
+			}
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.setLength(raf.length() - 1);
+			}
+
+			try (CaptureReader reader = new CaptureReader(file)) {
+				assertEquals(1, reader.replay(new Recorder()));
+			}
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void replay_paced() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			try (CaptureWriter writer = new CaptureWriter(file)) {
+				writer.append(0, 0, Characteristics.BATTERY_LEVEL, new byte[] { 50 });
+				writer.append(40_000_000L, 0, Characteristics.BATTERY_LEVEL, new byte[] { 51 });
+			}
+
+			try (CaptureReader reader = new CaptureReader(file)) {
+				final long start = System.nanoTime();
+				assertEquals(2, reader.replay(new Recorder(), 2.0));
+				assertTrue(System.nanoTime() - start >= 20_000_000L);
+			}
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void replay_toDispatcher() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			try (CaptureWriter writer = new CaptureWriter(file)) {
+				writer.addDevice(1000, "00:00:00:00:00:01");
+				writer.append(1, 1000, Characteristics.BATTERY_LEVEL, new byte[] { 50 });
+				writer.append(2, 2000, Characteristics.BATTERY_LEVEL, new byte[] { 60 });
+			}
+
+			final int[] levels = new int[2];
+			final NotificationDispatcher dispatcher = new NotificationDispatcher(1, new NotificationSink() {
+				@Override
+				public void onBatteryLevel(final int device, final int batteryLevel) {
+					levels[device] = batteryLevel;
+					levels[1]++;
+				}
+			});
+			try (CaptureReader reader = new CaptureReader(file)) {
+				assertEquals(2, reader.replay(dispatcher));
+			}
+			assertEquals(0, dispatcher.getDevice("00:00:00:00:00:01"));
+			assertEquals(50, levels[0]);
+			assertEquals(1, levels[1]);
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void open_notCapture() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+			}
+			new CaptureReader(file).close();
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void append_invalidArguments_nothingWritten() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			try (CaptureWriter writer = new CaptureWriter(file)) {
+				writer.append(1, 0, Characteristics.BATTERY_LEVEL, new byte[] { 50 });
+				try {
+					writer.append(2, 0, Characteristics.HEART_RATE_MEASUREMENT, new byte[] { 0, 60 }, 1, 2);
+					fail();
+				} catch (final IndexOutOfBoundsException e) {
+					// expected
+				}
+				try {
+					writer.append(3, 0, Characteristics.HEART_RATE_MEASUREMENT, ByteBuffer.wrap(new byte[] { 0, 60 }), -1, 1);
+					fail();
+				} catch (final IndexOutOfBoundsException e) {
+					// expected
+				}
+				try {
+					writer.append(4, 0, 0, new byte[] { 'A' });
+					fail();
+				} catch (final IllegalArgumentException e) {
+					// expected
+				}
+				writer.append(5, 0, Characteristics.BATTERY_LEVEL, new byte[] { 49 });
+			}
+
+			final Recorder recorder = new Recorder();
+			try (CaptureReader reader = new CaptureReader(file)) {
+				assertEquals(2, reader.replay(recorder));
+			}
+			assertTrue(recorder.devices.isEmpty());
+			assertEquals(5, recorder.headers.get(1)[0]);
+			assertArrayEquals(new byte[] { 49 }, recorder.values.get(1));
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void append_afterClose() throws IOException {
+		final File file = File.createTempFile("capture", ".bin");
+		try {
+			final CaptureWriter writer = new CaptureWriter(file);
+			writer.close();
+			writer.append(1, 0, Characteristics.BATTERY_LEVEL, new byte[] { 50 });
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+}
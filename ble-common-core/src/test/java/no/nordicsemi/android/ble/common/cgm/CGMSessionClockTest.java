@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.cgm;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+import static org.junit.Assert.*;
+
+public class CGMSessionClockTest {
+
+	@Test
+	public void setSessionStartTime_value() {
+		final byte[] value = new byte[] {
+				(byte) 0xE2, 0x07, 4, 24, 13, 8, 24, // 2018-04-24 13:08:24
+				8, // UTC+2h
+				4  // DST +1h
+		};
+		final CGMSessionClock clock = new CGMSessionClock();
+		assertFalse(clock.isSessionStartTimeKnown());
+		assertTrue(clock.setSessionStartTime(ByteBuffer.wrap(value), 0, value.length));
+		assertEquals(utc(2018, 4, 24, 10, 8, 24), clock.getSessionStartMillis());
+		assertEquals(120, clock.getTimeZoneOffset());
+		assertEquals(60, clock.getDstOffset());
+	}
+
+	@Test
+	public void setSessionStartTime_crcError() {
+		final byte[] value = new byte[] { (byte) 0xE2, 0x07, 4, 24, 13, 8, 24, 8, 4, 0, 0 };
+		final CGMSessionClock clock = new CGMSessionClock();
+		assertFalse(clock.setSessionStartTime(ByteBuffer.wrap(value), 0, value.length));
+		assertFalse(clock.isSessionStartTimeKnown());
+
+		final int crc = CRC16.MCRF4XX(value, 0, 9);
+		value[9] = (byte) crc;
+		value[10] = (byte) (crc >> 8);
+		assertTrue(clock.setSessionStartTime(ByteBuffer.wrap(value), 0, value.length));
+		assertTrue(clock.isSessionStartTimeKnown());
+	}
+
+	@Test
+	public void setSessionStartTime_unknownZone() {
+		final CGMSessionClock clock = new CGMSessionClock();
+		clock.setSessionStartTime(2000, 2, 29, 23, 59, 59, -128, 255);
+		assertEquals(utc(2000, 2, 29, 23, 59, 59), clock.getSessionStartMillis());
+		assertEquals(0, clock.getTimeZoneOffset());
+		assertEquals(0, clock.getDstOffset());
+	}
+
+	@Test
+	public void toEpochMillis_unknownStart() {
+		final CGMSessionClock clock = new CGMSessionClock();
+		assertEquals(CGMSessionClock.UNKNOWN, clock.toEpochMillis(5));
+	}
+
+	@Test
+	public void toEpochMillis_wrap() {
+		final long start = utc(2018, 1, 1, 0, 0, 0);
+		final CGMSessionClock clock = new CGMSessionClock();
+		clock.setSessionStartTime(start, 0, 0);
+
+		assertEquals(start + 5 * 60_000L, clock.toEpochMillis(5));
+		assertEquals(start + 65530 * 60_000L, clock.toEpochMillis(65530));
+		// Wrapped around
+		assertEquals(start + 65541 * 60_000L, clock.toEpochMillis(5));
+		// Backfill of a record from before the wrap
+		assertEquals(start + 65000 * 60_000L, clock.toEpochMillis(65000));
+		assertEquals(start + 65551 * 60_000L, clock.toEpochMillis(15));
+	}
+
+	@Test
+	public void toEpochMillis_newSession() {
+		final long start = utc(2018, 1, 1, 0, 0, 0);
+		final CGMSessionClock clock = new CGMSessionClock();
+		clock.setSessionStartTime(start, 0, 0);
+		clock.toEpochMillis(40000);
+		clock.toEpochMillis(65000);
+
+		// Reading the same start time again keeps the session
+		clock.setSessionStartTime(start, 0, 0);
+		assertEquals(start + 65541 * 60_000L, clock.toEpochMillis(5));
+
+		// A new session starts from offset 0 again
+		final long newStart = start + 50 * 86_400_000L;
+		clock.setSessionStartTime(newStart, 0, 0);
+		assertEquals(newStart + 5 * 60_000L, clock.toEpochMillis(5));
+
+		clock.reset();
+		assertFalse(clock.isSessionStartTimeKnown());
+	}
+
+	private static long utc(final int year, final int month, final int day,
+							final int hours, final int minutes, final int seconds) {
+		final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		calendar.clear();
+		calendar.set(year, month - 1, day, hours, minutes, seconds);
+		return calendar.getTimeInMillis();
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.csc;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class CyclingSpeedAndCadenceEngineTest {
+
+	@Test
+	public void wheel_speedAndDistance() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 1);
+		final int sensor = engine.addSensor(2000);
+		assertFalse(engine.onWheelMeasurement(sensor, 10, 0));
+		assertTrue(engine.onWheelMeasurement(sensor, 15, 1024));
+		assertEquals(10.0f, engine.getSpeed(sensor), 0.001f);
+		assertEquals(300.0f, engine.getWheelCadence(sensor), 0.001f);
+		assertEquals(10.0f, engine.getDistance(sensor), 0.001f);
+		assertEquals(30.0f, engine.getTotalDistance(sensor), 0.001f);
+	}
+
+	@Test
+	public void wheel_eventTimeWraparound() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 1);
+		final int sensor = engine.addSensor(1024);
+		engine.onWheelMeasurement(sensor, 0, 65535);
+		// 65535 -> 1 is 2 ticks
+		assertTrue(engine.onWheelMeasurement(sensor, 1, 1));
+		assertEquals(1.024f * 1024 / 2, engine.getSpeed(sensor), 0.01f);
+	}
+
+	@Test
+	public void wheel_revolutionsWraparound() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 1);
+		final int sensor = engine.addSensor(1000);
+		engine.onWheelMeasurement(sensor, 0xFFFFFFFEL, 0);
+		assertTrue(engine.onWheelMeasurement(sensor, 2, 1024));
+		assertEquals(4.0f, engine.getSpeed(sensor), 0.001f);
+		assertEquals(4.0f, engine.getDistance(sensor), 0.001f);
+		assertEquals(2.0f, engine.getTotalDistance(sensor), 0.001f);
+	}
+
+	@Test
+	public void wheel_revolutionsDecremented() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 2);
+		final int sensor = engine.addSensor(2340);
+		engine.onWheelMeasurement(sensor, 100, 1024);
+		assertTrue(engine.onWheelMeasurement(sensor, 101, 2048));
+		assertTrue(engine.onWheelMeasurement(sensor, 100, 3072));
+		assertEquals(0.0f, engine.getSpeed(sensor), 0.001f);
+		assertEquals(0.0f, engine.getDistance(sensor), 0.001f);
+		assertEquals(234.0f, engine.getTotalDistance(sensor), 0.001f);
+
+		// Rolled backwards through 0
+		assertTrue(engine.onWheelMeasurement(sensor, 0, 4096));
+		assertTrue(engine.onWheelMeasurement(sensor, 0xFFFFFFFFL, 5120));
+		assertEquals(-236.34f, engine.getDistance(sensor), 0.001f);
+		assertEquals(-118.17f, engine.getSpeed(sensor), 0.001f);
+	}
+
+	@Test
+	public void wheel_sameEventTime_ignored() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 1);
+		final int sensor = engine.addSensor(1000);
+		engine.onWheelMeasurement(sensor, 0, 0);
+		engine.onWheelMeasurement(sensor, 1, 1024);
+		assertFalse(engine.onWheelMeasurement(sensor, 1, 1024));
+		assertEquals(1.0f, engine.getSpeed(sensor), 0.001f);
+	}
+
+	@Test
+	public void crank_cadenceWraparound() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 1);
+		final int sensor = engine.addSensor(1000);
+		assertFalse(engine.onCrankMeasurement(sensor, 65534, 65024));
+		assertTrue(engine.onCrankMeasurement(sensor, 1, 512));
+		// 3 revolutions in 1 second
+		assertEquals(180.0f, engine.getCrankCadence(sensor), 0.001f);
+		assertEquals(0.0f, engine.getGearRatio(sensor), 0.0f);
+
+		engine.onWheelMeasurement(sensor, 0, 0);
+		engine.onWheelMeasurement(sensor, 6, 1024);
+		assertEquals(2.0f, engine.getGearRatio(sensor), 0.001f);
+	}
+
+	@Test
+	public void window_averagesOverEvents() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 3);
+		final int sensor = engine.addSensor(1000);
+		engine.onWheelMeasurement(sensor, 0, 0);
+		engine.onWheelMeasurement(sensor, 2, 1024);
+		engine.onWheelMeasurement(sensor, 6, 2048);
+		assertEquals(3.0f, engine.getSpeed(sensor), 0.001f);
+		engine.onWheelMeasurement(sensor, 12, 3072);
+		assertEquals(4.0f, engine.getSpeed(sensor), 0.001f);
+		// The first event leaves the window
+		engine.onWheelMeasurement(sensor, 12, 4096);
+		assertEquals(10.0f / 3, engine.getSpeed(sensor), 0.001f);
+		assertEquals(12.0f, engine.getDistance(sensor), 0.001f);
+	}
+
+	@Test
+	public void sensors_independent() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(2, 2);
+		final int first = engine.addSensor(1000);
+		final int second = engine.addSensor(2000);
+		assertNotEquals(first, second);
+		assertEquals(-1, engine.addSensor(1000));
+		assertEquals(2, engine.getSensorCount());
+
+		engine.onWheelMeasurement(first, 0, 0);
+		engine.onWheelMeasurement(second, 100, 0);
+		engine.onWheelMeasurement(first, 1, 1024);
+		engine.onWheelMeasurement(second, 101, 1024);
+		assertEquals(1.0f, engine.getSpeed(first), 0.001f);
+		assertEquals(2.0f, engine.getSpeed(second), 0.001f);
+
+		engine.removeSensor(first);
+		assertEquals(first, engine.addSensor(1500));
+		assertEquals(0.0f, engine.getSpeed(first), 0.0f);
+		assertEquals(2.0f, engine.getSpeed(second), 0.001f);
+	}
+
+	@Test
+	public void process() {
+		final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 1);
+		final int sensor = engine.addSensor(1000);
+		final ByteBuffer buffer = ByteBuffer.allocate(11).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put((byte) 0x03).putInt(10).putShort((short) 0).putShort((short) 5).putShort((short) 0);
+		assertEquals(0, engine.process(sensor, buffer, 0, 11));
+		buffer.clear();
+		buffer.put((byte) 0x03).putInt(12).putShort((short) 2048).putShort((short) 6).putShort((short) 1024);
+		assertEquals(CyclingSpeedAndCadenceEngine.WHEEL_DATA_CHANGED | CyclingSpeedAndCadenceEngine.CRANK_DATA_CHANGED,
+				engine.process(sensor, buffer, 0, 11));
+		assertEquals(1.0f, engine.getSpeed(sensor), 0.001f);
+		assertEquals(60.0f, engine.getCrankCadence(sensor), 0.001f);
+		assertEquals(-1, engine.process(sensor, buffer, 0, 5));
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CharacteristicSchemaTest {
+
+	@Test
+	public void layout_matchesFieldLayout() {
+		final CharacteristicSchema schema = BloodPressureMeasurementDecoder.SCHEMA;
+		final byte[] expected = FieldLayout.create(7, 0x02, 7, 0x04, 2, 0x08, 1, 0x10, 2);
+		assertEquals(FieldLayout.stride(0x02, 7, 0x04, 2, 0x08, 1, 0x10, 2) + 3, schema.getStride());
+
+		for (int flags = 0; flags < 256; flags++) {
+			final int entry = flags * schema.getStride();
+			final int expectedEntry = flags * (schema.getStride() - 3);
+			assertEquals(expected[expectedEntry + FieldLayout.LENGTH], schema.getLength(flags));
+			assertEquals(1, schema.getLayout()[entry + schema.slotOf("systolic")]);
+			assertEquals(5, schema.getLayout()[entry + schema.slotOf("meanArterialPressure")]);
+			for (int field = 1; field <= 4; field++)
+				assertEquals(expected[expectedEntry + field], schema.getLayout()[entry + 3 + field]);
+		}
+	}
+
+	@Test
+	public void length_matchesPreviousLayouts() {
+		final int[] contextFields = { 0x80, 1, 0x01, 3, 0x02, 1, 0x04, 1, 0x08, 3, 0x10, 3, 0x40, 2 };
+		final byte[] context = FieldLayout.create(3, contextFields);
+		final int contextStride = FieldLayout.stride(contextFields);
+		for (int flags = 0; flags < 256; flags++) {
+			assertEquals(context[flags * contextStride + FieldLayout.LENGTH],
+					GlucoseMeasurementContextDecoder.SCHEMA.getLength(flags));
+			assertEquals(1 + ((flags & 0x01) != 0 ? 6 : 0) + ((flags & 0x02) != 0 ? 4 : 0),
+					CyclingSpeedAndCadenceMeasurementDecoder.SCHEMA.getLength(flags));
+		}
+	}
+
+	@Test
+	public void decode_matchesGlucoseMeasurementDecoder() {
+		final CharacteristicSchema schema = GlucoseMeasurementDecoder.SCHEMA;
+		final CharacteristicValues values = schema.newValues();
+		final int timeOffset = schema.indexOf("timeOffset");
+		final int concentration = schema.indexOf("glucoseConcentration");
+		final int status = schema.indexOf("status");
+		final Random random = new Random(1);
+		final byte[] data = new byte[20];
+
+		for (int flags = 0; flags < 256; flags++) {
+			random.nextBytes(data);
+			data[0] = (byte) flags;
+			final ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+			final int length = schema.getLength(flags);
+			final long[] decoded = new long[4];
+			assertTrue(GlucoseMeasurementDecoder.decode(buffer, 0, length,
+					(sequenceNumber, baseTime, offset, glucoseDataPresent, glucoseConcentration, unitMolL,
+					 type, sampleLocation, statusPresent, sensorStatus, contextInformationFollows) -> {
+						decoded[0] = baseTime;
+						decoded[1] = offset;
+						decoded[2] = Float.floatToIntBits(glucoseConcentration);
+						decoded[3] = sensorStatus;
+					}));
+			assertFalse(GlucoseMeasurementDecoder.decode(buffer, 0, length - 1, (a, b, c, d, e, f, g, h, i, j, k) -> fail()));
+
+			assertTrue(schema.decode(buffer, 0, length, values));
+			assertFalse(schema.decode(buffer, 0, length - 1, values));
+			assertEquals(flags, values.getFlags());
+			assertEquals(decoded[0], values.getLong(schema.indexOf("baseTime")));
+			assertEquals((flags & 0x01) != 0, values.isPresent(timeOffset));
+			assertEquals(decoded[1], values.getInt(timeOffset));
+			if (values.isPresent(concentration))
+				assertEquals(decoded[2], Float.floatToIntBits(values.getFloat(concentration)));
+			assertEquals(decoded[3], values.getInt(status));
+		}
+	}
+
+	@Test
+	public void encode_roundTrip() {
+		final CharacteristicSchema schema = TemperatureMeasurementDecoder.SCHEMA;
+		final CharacteristicValues values = schema.newValues();
+		values.setFlags(0x07);
+		values.setFloat(schema.indexOf("temperature"), 98.6f);
+		values.setLong(schema.indexOf("timestamp"), DateTime.pack(2026, 10, 18, 12, 30, 45));
+		values.setInt(schema.indexOf("type"), 2);
+
+		final byte[] out = new byte[16];
+		assertEquals(13, schema.encode(values, out, 1));
+		assertEquals(0x07, out[1]);
+
+		final ByteBuffer buffer = ByteBuffer.wrap(out).order(ByteOrder.LITTLE_ENDIAN);
+		assertTrue(TemperatureMeasurementDecoder.decode(buffer, 1, 13,
+				(temperature, fahrenheit, timestampPresent, timestamp, typePresent, type) -> {
+					assertEquals(98.6f, temperature, 0.0f);
+					assertTrue(fahrenheit);
+					assertEquals(2026, DateTime.getYear(timestamp));
+					assertEquals(45, DateTime.getSeconds(timestamp));
+					assertEquals(2, type);
+				}));
+
+		final CharacteristicValues decoded = schema.newValues();
+		assertTrue(schema.decode(buffer, 1, 13, decoded));
+		assertEquals(values.getLong(0), decoded.getLong(0));
+		assertEquals(98.6f, decoded.getFloat(0), 0.0f);
+	}
+
+	@Test
+	public void encode_absentFieldsSkipped() {
+		final CharacteristicSchema schema = TemperatureMeasurementDecoder.SCHEMA;
+		final CharacteristicValues values = schema.newValues();
+		values.setFloat(0, -1.5f);
+		values.setInt(schema.indexOf("type"), 2);
+
+		final byte[] out = new byte[6];
+		assertEquals(5, schema.encode(values, out, 0));
+		assertEquals(0x00, out[0]);
+		assertEquals(-1.5f, ValueReader.float32(ByteBuffer.wrap(out).order(ByteOrder.LITTLE_ENDIAN), 1), 0.0f);
+		assertEquals(0x00, out[5]);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void encode_tooShort() {
+		final CharacteristicSchema schema = RunningSpeedAndCadenceMeasurementDecoder.SCHEMA;
+		final CharacteristicValues values = schema.newValues();
+		values.setFlags(0x03);
+		schema.encode(values, new byte[9], 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void decode_valuesOfAnotherSchema() {
+		final byte[] data = new byte[20];
+		BloodPressureMeasurementDecoder.SCHEMA.decode(ByteBuffer.wrap(data), 0, data.length,
+				TemperatureMeasurementDecoder.SCHEMA.newValues());
+	}
+
+	@Test
+	public void builder_invalidFields() {
+		final CharacteristicSchema.Builder builder = new CharacteristicSchema.Builder()
+				.field("value", CharacteristicSchema.FORMAT_UINT8);
+		for (final Runnable invalid : Arrays.<Runnable>asList(
+				() -> builder.field("value", CharacteristicSchema.FORMAT_UINT16),
+				() -> builder.field("other", 0x15),
+				() -> builder.optional("other", 0x100, CharacteristicSchema.FORMAT_UINT8),
+				() -> builder.build().slotOf("other"))) {
+			try {
+				invalid.run();
+				fail();
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+}
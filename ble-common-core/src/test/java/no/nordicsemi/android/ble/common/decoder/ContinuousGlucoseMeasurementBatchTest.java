@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ContinuousGlucoseMeasurementBatchTest {
+	private static final byte[] FULL_RECORD = new byte[] {
+			15, (byte) 0b11100011,
+			(byte) 0xD2, (byte) 0xE4, // Glucose concentration: 12.34 mg/dL
+			0x05, 0x00, // Time offset: 5 minutes
+			0x02, 0x14, (byte) 0xFF, // Sensor Status Annunciation
+			0x02, (byte) 0xF0, // Trend: 0.2 (mg/dL)/min
+			(byte) 0xE5, (byte) 0xF3, // Quality: 99.7 %
+			(byte) 0x8E, 0x3F // E2E-CRC
+	};
+	private static final byte[] SHORT_RECORD = new byte[] {
+			6, 0,
+			120, 0, // Glucose concentration: 120 mg/dL
+			0x06, 0x00 // Time offset: 6 minutes
+	};
+
+	@Test
+	public void decode_manyRecords() {
+		final int count = 10;
+		final ByteBuffer buffer = ByteBuffer.allocate(count * (FULL_RECORD.length + SHORT_RECORD.length));
+		for (int i = 0; i < count; i++) {
+			buffer.put(FULL_RECORD).put(SHORT_RECORD);
+		}
+
+		final ContinuousGlucoseMeasurementBatch batch = new ContinuousGlucoseMeasurementBatch();
+		assertTrue(batch.decode(buffer, 0, buffer.limit()));
+		assertEquals(2 * count, batch.size());
+		assertFalse(batch.hasCrcError());
+
+		for (int i = 0; i < 2 * count; i += 2) {
+			assertEquals(12.34f, batch.glucoseConcentration(i), 0.01f);
+			assertTrue(batch.isTrendPresent(i));
+			assertEquals(0.2f, batch.trend(i), 0.01f);
+			assertTrue(batch.isQualityPresent(i));
+			assertEquals(99.7f, batch.quality(i), 0.01f);
+			assertTrue(batch.isStatusPresent(i));
+			assertEquals(0x02, batch.warningStatus(i));
+			assertEquals(0x14, batch.calibrationTempStatus(i));
+			assertEquals(0xFF, batch.sensorStatus(i));
+			assertEquals(5, batch.timeOffset(i));
+			assertTrue(batch.isSecured(i));
+
+			assertEquals(120f, batch.glucoseConcentration(i + 1), 0.01f);
+			assertFalse(batch.isTrendPresent(i + 1));
+			assertTrue(Float.isNaN(batch.trend(i + 1)));
+			assertFalse(batch.isQualityPresent(i + 1));
+			assertFalse(batch.isStatusPresent(i + 1));
+			assertEquals(0, batch.sensorStatus(i + 1));
+			assertEquals(6, batch.timeOffset(i + 1));
+			assertFalse(batch.isSecured(i + 1));
+		}
+	}
+
+	@Test
+	public void decode_reusesBatch() {
+		final ContinuousGlucoseMeasurementBatch batch = new ContinuousGlucoseMeasurementBatch();
+		assertTrue(batch.decode(ByteBuffer.wrap(FULL_RECORD), 0, FULL_RECORD.length));
+		assertEquals(1, batch.size());
+		assertTrue(batch.decode(ByteBuffer.wrap(SHORT_RECORD), 0, SHORT_RECORD.length));
+		assertEquals(1, batch.size());
+		assertEquals(6, batch.timeOffset(0));
+	}
+
+	@Test
+	public void decode_crcError() {
+		final ByteBuffer buffer = ByteBuffer.allocate(SHORT_RECORD.length + FULL_RECORD.length);
+		buffer.put(SHORT_RECORD).put(FULL_RECORD);
+		buffer.put(buffer.limit() - 1, (byte) 0);
+
+		final ContinuousGlucoseMeasurementBatch batch = new ContinuousGlucoseMeasurementBatch();
+		assertTrue(batch.decode(buffer, 0, buffer.limit()));
+		assertTrue(batch.hasCrcError());
+		assertEquals(1, batch.size());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void glucoseConcentration_outOfBounds() {
+		final ContinuousGlucoseMeasurementBatch batch = new ContinuousGlucoseMeasurementBatch();
+		batch.decode(ByteBuffer.wrap(SHORT_RECORD), 0, SHORT_RECORD.length);
+		batch.glucoseConcentration(1);
+	}
+}
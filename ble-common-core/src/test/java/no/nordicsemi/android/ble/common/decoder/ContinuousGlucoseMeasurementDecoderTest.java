@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ContinuousGlucoseMeasurementDecoderTest {
+	private static final byte[] RECORD = new byte[] {
+			15, (byte) 0b11100011,
+			(byte) 0xD2, (byte) 0xE4, // Glucose concentration: 12.34 mg/dL
+			0x05, 0x00, // Time offset: 5 minutes
+			0x02, 0x14, (byte) 0xFF, // Sensor Status Annunciation
+			0x02, (byte) 0xF0, // Trend: 0.2 (mg/dL)/min
+			(byte) 0xE5, (byte) 0xF3, // Quality: 99.7 %
+			(byte) 0x8E, 0x3F // E2E-CRC
+	};
+
+	private static final class Counter implements ContinuousGlucoseMeasurementDecoder.Callback {
+		private int records;
+		private int crcErrors;
+
+		@Override
+		public void onContinuousGlucoseMeasurement(final float glucoseConcentration,
+												   final boolean trendPresent, final float trend,
+												   final boolean qualityPresent, final float quality,
+												   final boolean statusPresent, final int warningStatus,
+												   final int calibrationTempStatus, final int sensorStatus,
+												   final int timeOffset, final boolean secured) {
+			assertEquals("Glucose", 12.34f, glucoseConcentration, 0.01f);
+			assertTrue(trendPresent);
+			assertEquals("Trend", 0.2f, trend, 0.01f);
+			assertTrue(qualityPresent);
+			assertEquals("Quality", 99.7f, quality, 0.01f);
+			assertTrue(statusPresent);
+			assertEquals(0x02, warningStatus);
+			assertEquals(0x14, calibrationTempStatus);
+			assertEquals(0xFF, sensorStatus);
+			assertEquals("Time offset", 5, timeOffset);
+			assertTrue(secured);
+			records++;
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurementCrcError() {
+			crcErrors++;
+		}
+	}
+
+	@Test
+	public void decode_multipleRecordsWithOffset() {
+		final byte[] value = new byte[3 + 2 * RECORD.length];
+		System.arraycopy(RECORD, 0, value, 3, RECORD.length);
+		System.arraycopy(RECORD, 0, value, 3 + RECORD.length, RECORD.length);
+
+		final Counter counter = new Counter();
+		assertTrue(ContinuousGlucoseMeasurementDecoder.decode(ByteBuffer.wrap(value), 3, 2 * RECORD.length, counter));
+		assertEquals(2, counter.records);
+		assertEquals(0, counter.crcErrors);
+	}
+
+	@Test
+	public void decode_directBuffer() {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD.length);
+		buffer.put(RECORD);
+
+		final Counter counter = new Counter();
+		assertTrue(ContinuousGlucoseMeasurementDecoder.decode(buffer, 0, RECORD.length, counter));
+		assertEquals(1, counter.records);
+		assertEquals(RECORD.length, buffer.position());
+	}
+
+	@Test
+	public void decode_crcError() {
+		final byte[] value = RECORD.clone();
+		value[14] = 0;
+
+		final Counter counter = new Counter();
+		assertTrue(ContinuousGlucoseMeasurementDecoder.decode(ByteBuffer.wrap(value), 0, value.length, counter));
+		assertEquals(0, counter.records);
+		assertEquals(1, counter.crcErrors);
+	}
+
+	@Test
+	public void decode_invalidSize() {
+		final byte[] value = RECORD.clone();
+		value[0] = 14;
+
+		final Counter counter = new Counter();
+		assertFalse(ContinuousGlucoseMeasurementDecoder.decode(ByteBuffer.wrap(value), 0, value.length, counter));
+		assertEquals(0, counter.records);
+	}
+}
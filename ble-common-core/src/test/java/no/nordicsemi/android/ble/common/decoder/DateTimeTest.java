@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DateTimeTest {
+	private final TimeZone defaultTimeZone = TimeZone.getDefault();
+
+	@After
+	public void restoreTimeZone() {
+		TimeZone.setDefault(defaultTimeZone);
+		DateTime.resetTimeZone();
+	}
+
+	@Test
+	public void read() {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 0, (byte) 0xE2, 0x07, 4, 24, 13, 8, 24 });
+		final long dateTime = DateTime.read(buffer, 1);
+		assertEquals(2018, DateTime.getYear(dateTime));
+		assertEquals(4, DateTime.getMonth(dateTime));
+		assertEquals(24, DateTime.getDay(dateTime));
+		assertEquals(13, DateTime.getHours(dateTime));
+		assertEquals(8, DateTime.getMinutes(dateTime));
+		assertEquals(24, DateTime.getSeconds(dateTime));
+		assertEquals(DateTime.pack(2018, 4, 24, 13, 8, 24), dateTime);
+	}
+
+	@Test
+	public void pack_dayAbove127() {
+		final long dateTime = DateTime.pack(2020, 5, 200, 1, 2, 3);
+		assertEquals(2020, DateTime.getYear(dateTime));
+		assertEquals(5, DateTime.getMonth(dateTime));
+		assertEquals(200, DateTime.getDay(dateTime));
+		assertEquals(1, DateTime.getHours(dateTime));
+
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { (byte) 0xE4, 0x07, 5, (byte) 0xFF, 1, 2, 3 });
+		final long read = DateTime.read(buffer, 0);
+		assertEquals(2020, DateTime.getYear(read));
+		assertEquals(5, DateTime.getMonth(read));
+		assertEquals(255, DateTime.getDay(read));
+	}
+
+	@Test
+	public void toLocalMillis() {
+		assertEquals(0, DateTime.toLocalMillis(DateTime.pack(1970, 1, 1, 0, 0, 0)));
+		assertEquals(1524575304000L, DateTime.toLocalMillis(DateTime.pack(2018, 4, 24, 13, 8, 24)));
+		assertEquals(951782400000L, DateTime.toLocalMillis(DateTime.pack(2000, 2, 29, 0, 0, 0)));
+		// Unknown date
+		assertEquals(45296000L, DateTime.toLocalMillis(DateTime.pack(0, 0, 0, 12, 34, 56)));
+	}
+
+	@Test
+	public void toEpochMillis_utc() {
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		DateTime.resetTimeZone();
+		assertEquals(1524575304000L, DateTime.toEpochMillis(DateTime.pack(2018, 4, 24, 13, 8, 24)));
+	}
+
+	@Test
+	public void toEpochMillis_defaultTimeZoneChanged() {
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+		DateTime.resetTimeZone();
+		assertEquals(1524575304000L, DateTime.toEpochMillis(DateTime.pack(2018, 4, 24, 13, 8, 24)));
+
+		// No reset, the new default time zone is used for a value from another day
+		TimeZone.setDefault(TimeZone.getTimeZone("GMT+02:00"));
+		assertEquals(1524661704000L - 2 * 3_600_000L, DateTime.toEpochMillis(DateTime.pack(2018, 4, 25, 13, 8, 24)));
+		assertEquals(1524575304000L - 2 * 3_600_000L, DateTime.toEpochMillis(DateTime.pack(2018, 4, 24, 13, 8, 24)));
+	}
+
+	@Test
+	public void toEpochMillis_sameAsCalendar() {
+		for (final String id : new String[] { "Europe/Oslo", "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata" }) {
+			TimeZone.setDefault(TimeZone.getTimeZone(id));
+			DateTime.resetTimeZone();
+			// Every 37 minutes during a year, crossing both DST transitions
+			for (long local = DateTime.toLocalMillis(DateTime.pack(2018, 1, 1, 0, 0, 0)),
+				 end = local + 366 * 86_400_000L; local < end; local += 37 * 60_000L) {
+				final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+				utc.setTimeInMillis(local);
+				final long dateTime = DateTime.pack(utc.get(Calendar.YEAR), utc.get(Calendar.MONTH) + 1,
+						utc.get(Calendar.DATE), utc.get(Calendar.HOUR_OF_DAY),
+						utc.get(Calendar.MINUTE), utc.get(Calendar.SECOND));
+				final long expected = DateTime.toCalendar(dateTime).getTimeInMillis();
+				// Local times skipped or repeated by a DST transition are ambiguous
+				if (isTransition(TimeZone.getDefault(), expected))
+					continue;
+				assertEquals(id + " " + utc.getTime(), expected, DateTime.toEpochMillis(dateTime));
+			}
+		}
+	}
+
+	@Test
+	public void toCalendar_unknownDate() {
+		final Calendar calendar = DateTime.toCalendar(DateTime.pack(0, 0, 0, 12, 34, 56));
+		assertFalse(calendar.isSet(Calendar.YEAR));
+		assertFalse(calendar.isSet(Calendar.MONTH));
+		assertFalse(calendar.isSet(Calendar.DATE));
+		assertEquals(12, calendar.get(Calendar.HOUR_OF_DAY));
+		assertEquals(34, calendar.get(Calendar.MINUTE));
+		assertEquals(56, calendar.get(Calendar.SECOND));
+	}
+
+	private static boolean isTransition(final TimeZone timeZone, final long millis) {
+		final long hours = 3 * 3_600_000L;
+		return timeZone.getOffset(millis - hours) != timeZone.getOffset(millis + hours);
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FieldLayoutTest {
+
+	@Test
+	public void create_bloodPressureMeasurement() {
+		final int[] fields = { 0x02, 7, 0x04, 2, 0x08, 1, 0x10, 2 };
+		final int stride = FieldLayout.stride(fields);
+		final byte[] layout = FieldLayout.create(7, fields);
+		assertEquals(5, stride);
+		assertEquals(256 * stride, layout.length);
+
+		for (int flags = 0; flags < 256; flags++) {
+			final int entry = flags * stride;
+			final int expectedLength = 7 + ((flags & 0x02) != 0 ? 7 : 0) + ((flags & 0x04) != 0 ? 2 : 0)
+					+ ((flags & 0x08) != 0 ? 1 : 0) + ((flags & 0x10) != 0 ? 2 : 0);
+			assertEquals(expectedLength, layout[entry + FieldLayout.LENGTH]);
+		}
+
+		// Time stamp and user ID present
+		final int entry = 0x0A * stride;
+		assertEquals(7, layout[entry + 1]);
+		assertEquals(0, layout[entry + 2]);
+		assertEquals(14, layout[entry + 3]);
+		assertEquals(0, layout[entry + 4]);
+	}
+
+	@Test
+	public void create_unusedBitsIgnored() {
+		final byte[] layout = FieldLayout.create(4, 0x01, 2, 0x02, 4);
+		final int stride = FieldLayout.stride(0x01, 2, 0x02, 4);
+		assertArrayEquals(new byte[] { 10, 4, 6 }, Arrays.copyOfRange(layout, 0x03 * stride, 0x04 * stride));
+		assertArrayEquals(new byte[] { 10, 4, 6 }, Arrays.copyOfRange(layout, 0xFF * stride, 0x100 * stride));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_oddFields() {
+		FieldLayout.create(1, 0x01);
+	}
+}
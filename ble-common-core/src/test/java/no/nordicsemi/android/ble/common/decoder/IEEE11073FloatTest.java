@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IEEE11073FloatTest {
+
+	@Test
+	public void sfloat_specialValues() {
+		assertEquals(Float.POSITIVE_INFINITY, IEEE11073Float.sfloat(0x07FE), 0.0f);
+		assertTrue(Float.isNaN(IEEE11073Float.sfloat(0x07FF)));
+		assertTrue(Float.isNaN(IEEE11073Float.sfloat(0x0800)));
+		assertTrue(Float.isNaN(IEEE11073Float.sfloat(0x0801)));
+		assertEquals(Float.NEGATIVE_INFINITY, IEEE11073Float.sfloat(0x0802), 0.0f);
+		// The same mantissas with a non-zero exponent are regular values
+		assertEquals(20460.0f, IEEE11073Float.sfloat(0x17FE), 0.0f);
+	}
+
+	@Test
+	public void sfloat_decimal() {
+		assertEquals(12.34f, IEEE11073Float.sfloat(0xE4D2), 0.0f);
+		assertEquals(-0.2f, IEEE11073Float.sfloat(0xFFFE), 0.0f);
+		assertEquals(0.0000655f, IEEE11073Float.sfloat(0x928F), 0.0f);
+		assertEquals(1.0e7f, IEEE11073Float.sfloat(0x7001), 0.0f);
+	}
+
+	@Test
+	public void sfloat_table_matchesDecoder() {
+		for (int raw = 0; raw <= 0xFFFF; raw++)
+			assertEquals(Float.floatToIntBits(IEEE11073Float.sfloat(raw)),
+					Float.floatToIntBits(IEEE11073Float.sfloatFromTable(raw)));
+	}
+
+	@Test
+	public void toSfloat_roundTrip_allValues() {
+		for (int raw = 0; raw <= 0xFFFF; raw++) {
+			final float value = IEEE11073Float.sfloat(raw);
+			final float decoded = IEEE11073Float.sfloat(IEEE11073Float.toSfloat(value));
+			if (Float.isNaN(value))
+				assertTrue(Float.isNaN(decoded));
+			else
+				assertEquals("raw " + Integer.toHexString(raw), value, decoded, 0.0f);
+		}
+	}
+
+	@Test
+	public void toSfloat() {
+		assertEquals(0x0000, IEEE11073Float.toSfloat(0.0f));
+		assertEquals(IEEE11073Float.SFLOAT_NAN, IEEE11073Float.toSfloat(Float.NaN));
+		assertEquals(IEEE11073Float.SFLOAT_POSITIVE_INFINITY, IEEE11073Float.toSfloat(1e12f));
+		assertEquals(IEEE11073Float.SFLOAT_NEGATIVE_INFINITY, IEEE11073Float.toSfloat(Float.NEGATIVE_INFINITY));
+		// 12.3 is encoded with the highest precision: 1230 * 10^-2
+		assertEquals(IEEE11073Float.sfloat(1230, -2), IEEE11073Float.toSfloat(12.3f));
+		assertEquals(IEEE11073Float.sfloat(-1800, -1), IEEE11073Float.toSfloat(-180.0f));
+		assertEquals(IEEE11073Float.sfloat(2045, 0), IEEE11073Float.toSfloat(2045.0f));
+		assertEquals(IEEE11073Float.sfloat(205, 1), IEEE11073Float.toSfloat(2046.0f));
+	}
+
+	@Test
+	public void float32() {
+		assertEquals(36.75f, IEEE11073Float.float32(0xFE000E5B), 0.0f);
+		assertEquals(-1.0f, IEEE11073Float.float32(0x00FFFFFF), 0.0f);
+		assertEquals(Float.POSITIVE_INFINITY, IEEE11073Float.float32(0x007FFFFE), 0.0f);
+		assertTrue(Float.isNaN(IEEE11073Float.float32(0x007FFFFF)));
+		assertTrue(Float.isNaN(IEEE11073Float.float32(0x00800000)));
+		assertTrue(Float.isNaN(IEEE11073Float.float32(0x00800001)));
+		assertEquals(Float.NEGATIVE_INFINITY, IEEE11073Float.float32(0x00800002), 0.0f);
+		assertEquals(1.0e-30f, IEEE11073Float.float32(0xE2000001), 0.0f);
+	}
+
+	@Test
+	public void toFloat32() {
+		assertEquals(0, IEEE11073Float.toFloat32(0.0f));
+		assertEquals(IEEE11073Float.FLOAT_NAN, IEEE11073Float.toFloat32(Float.NaN));
+		assertEquals(IEEE11073Float.FLOAT_POSITIVE_INFINITY, IEEE11073Float.toFloat32(Float.POSITIVE_INFINITY));
+		assertEquals(IEEE11073Float.FLOAT_NEGATIVE_INFINITY, IEEE11073Float.toFloat32(Float.NEGATIVE_INFINITY));
+		assertEquals(36.75f, IEEE11073Float.float32(IEEE11073Float.toFloat32(36.75f)), 0.0f);
+		assertEquals(-1.0f, IEEE11073Float.float32(IEEE11073Float.toFloat32(-1.0f)), 0.0f);
+		assertEquals(Float.MIN_VALUE, IEEE11073Float.float32(IEEE11073Float.toFloat32(Float.MIN_VALUE)), 0.0f);
+	}
+
+	@Test
+	public void toFloat32_roundTrip_randomValues() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 1_000_000; i++) {
+			final int raw = random.nextInt();
+			final float value = IEEE11073Float.float32(raw);
+			if (Float.isNaN(value) || Float.isInfinite(value))
+				continue;
+			assertEquals("raw: 0x" + Integer.toHexString(raw), value,
+					IEEE11073Float.float32(IEEE11073Float.toFloat32(value)), 0.0f);
+		}
+	}
+}
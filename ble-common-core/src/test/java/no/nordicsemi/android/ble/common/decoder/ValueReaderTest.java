@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.decoder;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+public class ValueReaderTest {
+
+	@Test
+	public void wrap_null() {
+		final ByteBuffer buffer = ValueReader.wrap(null);
+		assertEquals(0, buffer.limit());
+	}
+
+	@Test
+	public void integers() {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {
+				(byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF
+		});
+		assertEquals(0xFE, ValueReader.uint8(buffer, 0));
+		assertEquals(-2, ValueReader.sint8(buffer, 0));
+		assertEquals(0xFFFE, ValueReader.uint16(buffer, 0));
+		assertEquals(-2, ValueReader.sint16(buffer, 0));
+		assertEquals(0xFFFFFE, ValueReader.uint24(buffer, 0));
+		assertEquals(0xFFFFFFFEL, ValueReader.uint32(buffer, 0));
+		assertEquals(-2, ValueReader.sint32(buffer, 0));
+		assertEquals(0, buffer.position());
+	}
+
+	@Test
+	public void integers_array() {
+		final byte[] value = new byte[] { 0x00, (byte) 0xFE, (byte) 0xFF };
+		assertEquals(0xFE, ValueReader.uint8(value, 1));
+		assertEquals(0xFFFE, ValueReader.uint16(value, 1));
+		assertEquals(0xFE00, ValueReader.uint16(value, 0));
+	}
+
+	@Test
+	public void sfloat() {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {
+				(byte) 0xD2, (byte) 0xE4, // 1234 * 10^-2
+				(byte) 0xFE, 0x07, // +INFINITY
+				(byte) 0xFF, 0x07, // NaN
+				0x02, 0x08 // -INFINITY
+		});
+		assertEquals(12.34f, ValueReader.sfloat(buffer, 0), 0.001f);
+		assertEquals(Float.POSITIVE_INFINITY, ValueReader.sfloat(buffer, 2), 0.0f);
+		assertTrue(Float.isNaN(ValueReader.sfloat(buffer, 4)));
+		assertEquals(Float.NEGATIVE_INFINITY, ValueReader.sfloat(buffer, 6), 0.0f);
+	}
+
+	@Test
+	public void float32() {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {
+				(byte) 0x9C, (byte) 0xFF, (byte) 0xFF, (byte) 0xFE, // -100 * 10^-2
+				(byte) 0xFF, (byte) 0xFF, 0x7F, 0x00 // NaN
+		});
+		assertEquals(-1.0f, ValueReader.float32(buffer, 0), 0.001f);
+		assertTrue(Float.isNaN(ValueReader.float32(buffer, 4)));
+	}
+
+	@Test
+	public void dateTime_directBuffer() {
+		final byte[] value = new byte[] { 0x55, (byte) 0xE2, 0x07, 4, 24, 13, 8, 24 };
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(value.length);
+		buffer.put(value);
+		final Calendar calendar = ValueReader.dateTime(buffer, 1, buffer.limit());
+		assertNotNull(calendar);
+		assertEquals(2018, calendar.get(Calendar.YEAR));
+		assertEquals(Calendar.APRIL, calendar.get(Calendar.MONTH));
+		assertEquals(24, calendar.get(Calendar.DATE));
+		assertEquals(13, calendar.get(Calendar.HOUR_OF_DAY));
+		assertEquals(8, calendar.get(Calendar.MINUTE));
+		assertEquals(24, calendar.get(Calendar.SECOND));
+	}
+
+	@Test
+	public void dateTime_tooShort() {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { (byte) 0xE2, 0x07, 4, 24, 13, 8 });
+		assertNull(ValueReader.dateTime(buffer, 0, buffer.limit()));
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.dispatch;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import no.nordicsemi.android.ble.common.csc.CyclingSpeedAndCadenceEngine;
+import no.nordicsemi.android.ble.common.decoder.HeartRateMeasurementDecoder;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+import static org.junit.Assert.*;
+
+public class NotificationDispatcherTest {
+	private static final UUID HEART_RATE_MEASUREMENT = Characteristics.toUuid(Characteristics.HEART_RATE_MEASUREMENT);
+	private static final UUID CSC_MEASUREMENT = Characteristics.toUuid(Characteristics.CSC_MEASUREMENT);
+
+	private static final class RecordingSink implements NotificationSink {
+		private int device = -1;
+		private int heartRate;
+		private int rrInterval;
+		private int changed;
+		private int batteryLevel;
+		private int contextSequenceNumber = -1;
+		private int meal;
+		private int invalidCharacteristic;
+
+		@Override
+		public void onHeartRateMeasurement(final int device, final int heartRate,
+										   final boolean contactSupported, final boolean contactDetected,
+										   final boolean energyExpandedPresent, final int energyExpanded,
+										   @NonNull final ByteBuffer buffer,
+										   final int rrIntervalsOffset, final int rrIntervalsCount) {
+			this.device = device;
+			this.heartRate = heartRate;
+			this.rrInterval = rrIntervalsCount > 0 ? HeartRateMeasurementDecoder.rrInterval(buffer, rrIntervalsOffset, 0) : -1;
+		}
+
+		@Override
+		public void onCyclingSpeedAndCadenceMeasurement(final int device,
+														@NonNull final CyclingSpeedAndCadenceEngine engine,
+														final int changed) {
+			this.device = device;
+			this.changed = changed;
+		}
+
+		@Override
+		public void onGlucoseMeasurementContext(final int device, final int sequenceNumber, final int flags,
+												final int carbohydrateId, final float carbohydrateAmount,
+												final int meal, final int tester, final int health,
+												final int exerciseDuration, final int exerciseIntensity,
+												final int medicationId, final float medicationAmount,
+												final float HbA1c) {
+			this.device = device;
+			this.contextSequenceNumber = sequenceNumber;
+			this.meal = meal;
+		}
+
+		@Override
+		public void onBatteryLevel(final int device, final int batteryLevel) {
+			this.device = device;
+			this.batteryLevel = batteryLevel;
+		}
+
+		@Override
+		public void onInvalidData(final int device, final int characteristic,
+								  @NonNull final ByteBuffer buffer, final int offset, final int length) {
+			this.device = device;
+			this.invalidCharacteristic = characteristic;
+		}
+	}
+
+	@Test
+	public void dispatch_heartRate() {
+		final RecordingSink sink = new RecordingSink();
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(2, sink);
+		dispatcher.addDevice("00:00:00:00:00:01");
+		final int device = dispatcher.addDevice("00:00:00:00:00:02");
+
+		assertTrue(dispatcher.dispatch("00:00:00:00:00:02", HEART_RATE_MEASUREMENT,
+				new byte[] { 0x10, 60, 0x00, 0x04 }));
+		assertEquals(device, sink.device);
+		assertEquals(60, sink.heartRate);
+		assertEquals(1024, sink.rrInterval);
+	}
+
+	@Test
+	public void dispatch_cscStatePerDevice() {
+		final RecordingSink sink = new RecordingSink();
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(2, sink);
+		final int first = dispatcher.addDevice("00:00:00:00:00:01");
+		final int second = dispatcher.addDevice("00:00:00:00:00:02");
+
+		dispatcher.dispatch(first, CSC_MEASUREMENT, new byte[] { 0x01, 10, 0, 0, 0, 0x00, 0x04 });
+		assertEquals(0, sink.changed);
+		dispatcher.dispatch(second, CSC_MEASUREMENT, new byte[] { 0x01, 50, 0, 0, 0, 0x00, 0x08 });
+		assertEquals(0, sink.changed);
+		dispatcher.dispatch(first, CSC_MEASUREMENT, new byte[] { 0x01, 11, 0, 0, 0, 0x00, 0x08 });
+		assertEquals(CyclingSpeedAndCadenceEngine.WHEEL_DATA_CHANGED, sink.changed);
+		assertEquals(first, sink.device);
+
+		final CyclingSpeedAndCadenceEngine engine = dispatcher.getCyclingSpeedAndCadenceEngine();
+		assertEquals(2.34f, engine.getSpeed(first), 0.001f);
+		assertEquals(0.0f, engine.getSpeed(second), 0.0f);
+	}
+
+	@Test
+	public void dispatch_glucoseContext() {
+		final RecordingSink sink = new RecordingSink();
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(1, sink);
+		final int device = dispatcher.addDevice("00:00:00:00:00:01");
+
+		// Flags: meal present, sequence number 261, meal 3
+		assertTrue(dispatcher.dispatch(device, Characteristics.toUuid(Characteristics.GLUCOSE_MEASUREMENT_CONTEXT),
+				new byte[] { 0x02, 0x05, 0x01, 0x03 }));
+		assertEquals(device, sink.device);
+		assertEquals(261, sink.contextSequenceNumber);
+		assertEquals(3, sink.meal);
+	}
+
+	@Test
+	public void dispatch_invalid() {
+		final RecordingSink sink = new RecordingSink();
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(1, sink);
+		final int device = dispatcher.addDevice("00:00:00:00:00:01");
+
+		assertFalse(dispatcher.dispatch(device, Characteristics.toUuid(Characteristics.BATTERY_LEVEL), new byte[] { 101 }));
+		assertEquals(Characteristics.BATTERY_LEVEL, sink.invalidCharacteristic);
+		assertTrue(dispatcher.dispatch(device, Characteristics.toUuid(Characteristics.BATTERY_LEVEL), new byte[] { 100 }));
+		assertEquals(100, sink.batteryLevel);
+	}
+
+	@Test
+	public void dispatch_unknown() {
+		final RecordingSink sink = new RecordingSink();
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(1, sink);
+		final int device = dispatcher.addDevice("00:00:00:00:00:01");
+
+		assertFalse(dispatcher.dispatch(device, Characteristics.toUuid(Characteristics.DATE_TIME), new byte[7]));
+		assertFalse(dispatcher.dispatch(device, UUID.randomUUID(), new byte[1]));
+		assertFalse(dispatcher.dispatch("00:00:00:00:00:02", HEART_RATE_MEASUREMENT, new byte[] { 0, 60 }));
+		assertEquals(-1, sink.device);
+	}
+
+	@Test
+	public void register_customParser() {
+		final RecordingSink sink = new RecordingSink();
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(1, sink);
+		final int device = dispatcher.addDevice("00:00:00:00:00:01");
+		final int[] lengths = new int[1];
+		dispatcher.register(Characteristics.DATE_TIME, (d, buffer, offset, length) -> {
+			lengths[0] = length;
+			return true;
+		});
+		dispatcher.register(Characteristics.HEART_RATE_MEASUREMENT, null);
+
+		assertTrue(dispatcher.dispatch(device, Characteristics.toUuid(Characteristics.DATE_TIME), new byte[7]));
+		assertEquals(7, lengths[0]);
+		assertFalse(dispatcher.dispatch(device, HEART_RATE_MEASUREMENT, new byte[] { 0, 60 }));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void register_outOfRange() {
+		new NotificationDispatcher(1, new RecordingSink()).register(0x1800, null);
+	}
+
+	@Test
+	public void addDevice_limit() {
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(2, new RecordingSink());
+		assertEquals(0, dispatcher.addDevice("00:00:00:00:00:01"));
+		assertEquals(1, dispatcher.addDevice("00:00:00:00:00:02"));
+		assertEquals(-1, dispatcher.addDevice("00:00:00:00:00:03"));
+		assertEquals(0, dispatcher.addDevice("00:00:00:00:00:01"));
+
+		dispatcher.removeDevice(0);
+		assertEquals(-1, dispatcher.getDevice("00:00:00:00:00:01"));
+		assertNull(dispatcher.getAddress(0));
+		assertEquals(0, dispatcher.addDevice("00:00:00:00:00:03"));
+		assertEquals("00:00:00:00:00:03", dispatcher.getAddress(0));
+	}
+
+	@Test
+	public void addDevice_cscSensors() {
+		final NotificationDispatcher dispatcher = new NotificationDispatcher(2, new RecordingSink());
+		final CyclingSpeedAndCadenceEngine engine = dispatcher.getCyclingSpeedAndCadenceEngine();
+		assertEquals(0, engine.getSensorCount());
+
+		final int device = dispatcher.addDevice("00:00:00:00:00:01");
+		dispatcher.addDevice("00:00:00:00:00:02");
+		assertEquals(2, engine.getSensorCount());
+		assertEquals(CyclingSpeedAndCadenceEngine.WHEEL_CIRCUMFERENCE_DEFAULT, engine.getWheelCircumference(device), 0.0f);
+
+		dispatcher.removeDevice(device);
+		assertEquals(1, engine.getSensorCount());
+		assertEquals(device, dispatcher.addDevice("00:00:00:00:00:03"));
+		assertEquals(2, engine.getSensorCount());
+	}
+}
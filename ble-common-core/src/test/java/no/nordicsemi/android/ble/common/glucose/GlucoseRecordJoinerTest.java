@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.glucose;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GlucoseRecordJoinerTest {
+	private final List<Integer> sequenceNumbers = new ArrayList<>();
+	private final List<Boolean> contexts = new ArrayList<>();
+	private long now;
+
+	private GlucoseRecordJoiner joiner(final int capacity) {
+		return new GlucoseRecordJoiner(capacity, 1000, new GlucoseRecordJoiner.Listener() {
+			@Override
+			public void onGlucoseRecord(@NonNull final GlucoseRecord record) {
+				sequenceNumbers.add(record.getSequenceNumber());
+				contexts.add(record.isContextPresent());
+			}
+		}, new GlucoseRecordJoiner.TimeSource() {
+			@Override
+			public long nanoTime() {
+				return now;
+			}
+		});
+	}
+
+	private static void measurement(final GlucoseRecordJoiner joiner, final int sequenceNumber,
+									final boolean contextFollows) {
+		joiner.addMeasurement(sequenceNumber, 1_500_000_000_000L + sequenceNumber,
+				true, 0.1f, false, 1, 1, false, 0, contextFollows);
+	}
+
+	private static void context(final GlucoseRecordJoiner joiner, final int sequenceNumber) {
+		joiner.onGlucoseMeasurementContext(sequenceNumber, 0x02, 0, 0, 3, 0, 0,
+				0, 0, 0, 0, 0);
+	}
+
+	@Test
+	public void join_value() {
+		final byte[] measurement = new byte[] {
+				0x1A, // Flags: concentration and type, status, context follows
+				0x05, 0x01, // Sequence number: 261
+				(byte) 0xE2, 0x07, 4, 24, 13, 8, 24, // Base time
+				(byte) 0xC1, (byte) 0xD0, // Concentration: 193 * 10^-3 kg/L
+				0x12, // Type: 2, Sample Location: 1
+				0x03, 0x00 // Status
+		};
+		final byte[] context = new byte[] {
+				0x03, // Flags: carbohydrate, meal
+				0x05, 0x01, // Sequence number: 261
+				0x02, 0x0A, (byte) 0xF0, // Carbohydrate: 2, 1.0 g
+				0x03 // Meal: 3
+		};
+		final GlucoseRecord[] result = new GlucoseRecord[1];
+		final GlucoseRecordJoiner joiner = new GlucoseRecordJoiner(10, 1000, new GlucoseRecordJoiner.Listener() {
+			@Override
+			public void onGlucoseRecord(@NonNull final GlucoseRecord record) {
+				assertNull(result[0]);
+				result[0] = record;
+				assertEquals(261, record.getSequenceNumber());
+				assertEquals(0.193f, record.getGlucoseConcentration(), 0.0001f);
+				assertEquals(2, record.getType());
+				assertEquals(1, record.getSampleLocation());
+				assertTrue(record.isStatusPresent());
+				assertEquals(3, record.getStatus());
+				assertTrue(record.contextInformationFollows());
+				assertTrue(record.isContextPresent());
+				assertEquals(2, record.getCarbohydrateId());
+				assertEquals(1.0f, record.getCarbohydrateAmount(), 0.0001f);
+				assertEquals(3, record.getMeal());
+			}
+		});
+		assertTrue(joiner.addMeasurement(ByteBuffer.wrap(measurement), 0, measurement.length));
+		assertNull(result[0]);
+		assertEquals(1, joiner.getPendingCount());
+		assertTrue(joiner.addContext(ByteBuffer.wrap(context), 0, context.length));
+		assertNotNull(result[0]);
+		assertEquals(0, joiner.getPendingCount());
+	}
+
+	@Test
+	public void measurementWithoutContext_emittedImmediately() {
+		final GlucoseRecordJoiner joiner = joiner(4);
+		measurement(joiner, 1, false);
+		assertEquals(1, sequenceNumbers.size());
+		assertFalse(contexts.get(0));
+		assertEquals(0, joiner.getPendingCount());
+	}
+
+	@Test
+	public void outOfOrderContexts() {
+		final GlucoseRecordJoiner joiner = joiner(4);
+		measurement(joiner, 1, true);
+		measurement(joiner, 2, true);
+		measurement(joiner, 3, true);
+		context(joiner, 2);
+		context(joiner, 3);
+		context(joiner, 1);
+		assertEquals(3, sequenceNumbers.size());
+		assertEquals(Integer.valueOf(2), sequenceNumbers.get(0));
+		assertEquals(Integer.valueOf(3), sequenceNumbers.get(1));
+		assertEquals(Integer.valueOf(1), sequenceNumbers.get(2));
+		assertFalse(contexts.contains(false));
+		assertEquals(0, joiner.getPendingCount());
+	}
+
+	@Test
+	public void orphanContext_ignored() {
+		final GlucoseRecordJoiner joiner = joiner(4);
+		context(joiner, 7);
+		assertTrue(sequenceNumbers.isEmpty());
+	}
+
+	@Test
+	public void timeout_emitsWithoutContext() {
+		final GlucoseRecordJoiner joiner = joiner(4);
+		measurement(joiner, 1, true);
+		now = 500_000_000L;
+		measurement(joiner, 2, true);
+		now = 1_000_000_000L;
+		joiner.evictExpired();
+		assertEquals(1, sequenceNumbers.size());
+		assertEquals(Integer.valueOf(1), sequenceNumbers.get(0));
+		assertFalse(contexts.get(0));
+
+		// A late context is ignored
+		context(joiner, 1);
+		assertEquals(1, sequenceNumbers.size());
+		context(joiner, 2);
+		assertEquals(2, sequenceNumbers.size());
+		assertTrue(contexts.get(1));
+	}
+
+	@Test
+	public void capacity_evictsOldest() {
+		final GlucoseRecordJoiner joiner = joiner(2);
+		measurement(joiner, 1, true);
+		measurement(joiner, 2, true);
+		measurement(joiner, 3, true);
+		assertEquals(1, sequenceNumbers.size());
+		assertEquals(Integer.valueOf(1), sequenceNumbers.get(0));
+		assertEquals(2, joiner.getPendingCount());
+
+		// The slot of a measurement joined out of order is reused
+		context(joiner, 3);
+		measurement(joiner, 4, true);
+		assertEquals(2, joiner.getPendingCount());
+		assertEquals(2, sequenceNumbers.size());
+		measurement(joiner, 5, true);
+		assertEquals(Integer.valueOf(2), sequenceNumbers.get(2));
+		assertFalse(contexts.get(2));
+		context(joiner, 4);
+		context(joiner, 5);
+		assertEquals(Integer.valueOf(4), sequenceNumbers.get(3));
+		assertEquals(Integer.valueOf(5), sequenceNumbers.get(4));
+		assertTrue(contexts.get(4));
+	}
+
+	@Test
+	public void duplicateSequenceNumber_replacesPending() {
+		final GlucoseRecordJoiner joiner = joiner(4);
+		measurement(joiner, 1, true);
+		measurement(joiner, 1, true);
+		assertEquals(1, sequenceNumbers.size());
+		assertFalse(contexts.get(0));
+		assertEquals(1, joiner.getPendingCount());
+	}
+
+	@Test
+	public void flush_emitsAllInOrder() {
+		final GlucoseRecordJoiner joiner = joiner(8);
+		for (int i = 0; i < 5; ++i)
+			measurement(joiner, 0xFFFE + i & 0xFFFF, true);
+		context(joiner, 0);
+		joiner.flush();
+		assertEquals(5, sequenceNumbers.size());
+		assertEquals(Integer.valueOf(0), sequenceNumbers.get(0));
+		assertEquals(Integer.valueOf(0xFFFE), sequenceNumbers.get(1));
+		assertEquals(Integer.valueOf(0xFFFF), sequenceNumbers.get(2));
+		assertEquals(Integer.valueOf(1), sequenceNumbers.get(3));
+		assertEquals(Integer.valueOf(2), sequenceNumbers.get(4));
+		assertEquals(0, joiner.getPendingCount());
+	}
+}
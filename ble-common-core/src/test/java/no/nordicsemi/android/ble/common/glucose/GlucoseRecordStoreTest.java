@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.glucose;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+
+import static org.junit.Assert.*;
+
+public class GlucoseRecordStoreTest {
+
+	@Test
+	public void addMeasurement_value() {
+		final byte[] value = new byte[] {
+				0x1A, // Flags: concentration and type, status, context follows
+				0x05, 0x01, // Sequence number: 261
+				(byte) 0xE2, 0x07, 4, 24, 13, 8, 24, // Base time
+				(byte) 0xC1, (byte) 0xD0, // Concentration: 193 * 10^-3 kg/L
+				0x12, // Type: 2, Sample Location: 1
+				0x03, 0x00 // Status
+		};
+		final GlucoseRecordStore store = new GlucoseRecordStore(10);
+		assertTrue(store.addMeasurement(ByteBuffer.wrap(value), 0, value.length));
+		assertEquals(1, store.size());
+
+		final int index = store.indexOf(261);
+		assertTrue(index >= 0);
+		assertEquals(261, store.sequenceNumber(index));
+		assertTrue(store.isGlucoseDataPresent(index));
+		assertEquals(0.193f, store.glucoseConcentration(index), 0.0001f);
+		assertFalse(store.isUnitMolL(index));
+		assertEquals(2, store.type(index));
+		assertEquals(1, store.sampleLocation(index));
+		assertTrue(store.isStatusPresent(index));
+		assertEquals(3, store.status(index));
+		assertTrue(store.contextInformationFollows(index));
+		assertFalse(store.isContextPresent(index));
+		assertEquals(-1, store.indexOf(260));
+	}
+
+	@Test
+	public void addContext_value() {
+		final byte[] value = new byte[] {
+				0x03, // Flags: carbohydrate, meal
+				0x05, 0x01, // Sequence number: 261
+				0x02, 0x0A, (byte) 0xF0, // Carbohydrate: 2, 1.0 g
+				0x03 // Meal: 3
+		};
+		final GlucoseRecordStore store = new GlucoseRecordStore(10);
+		// No measurement with that sequence number yet
+		assertTrue(store.addContext(ByteBuffer.wrap(value), 0, value.length));
+		assertEquals(0, store.size());
+
+		final int index = store.addMeasurement(261, 0L, true, 5.5f, true, 1, 1, false, 0, true);
+		assertTrue(store.addContext(ByteBuffer.wrap(value), 0, value.length));
+		assertTrue(store.isContextPresent(index));
+		assertEquals(GlucoseMeasurementContextDecoder.FLAG_CARBOHYDRATE_PRESENT
+				| GlucoseMeasurementContextDecoder.FLAG_MEAL_PRESENT, store.contextFlags(index));
+		assertEquals(2, store.carbohydrateId(index));
+		assertEquals(1.0f, store.carbohydrateAmount(index), 0.001f);
+		assertEquals(3, store.meal(index));
+
+		// Replacing the measurement clears the context
+		assertEquals(index, store.addMeasurement(261, 0L, true, 6.0f, true, 1, 1, false, 0, false));
+		assertFalse(store.isContextPresent(index));
+		assertEquals(0, store.contextFlags(index));
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	public void addMeasurement_reusedSlot_noStaleContext() {
+		final byte[] value = new byte[] {
+				0x03, // Flags: carbohydrate, meal
+				0x01, 0x00, // Sequence number: 1
+				0x02, 0x0A, (byte) 0xF0, // Carbohydrate: 2, 1.0 g
+				0x03 // Meal: 3
+		};
+		final GlucoseRecordStore store = new GlucoseRecordStore(1);
+		final int index = store.addMeasurement(1, 0L, true, 5.5f, true, 1, 1, false, 0, true);
+		assertTrue(store.addContext(ByteBuffer.wrap(value), 0, value.length));
+		assertEquals(3, store.meal(index));
+
+		// The only slot is reused by a record without context
+		assertEquals(index, store.addMeasurement(2, 0L, true, 6.0f, true, 1, 1, false, 0, false));
+		assertEquals(-1, store.indexOf(1));
+		assertFalse(store.isContextPresent(index));
+		assertEquals(0, store.carbohydrateId(index));
+		assertEquals(0f, store.carbohydrateAmount(index), 0f);
+		assertEquals(0, store.meal(index));
+	}
+
+	@Test
+	public void addMeasurement_evictsOldest() {
+		final int capacity = 100;
+		final GlucoseRecordStore store = new GlucoseRecordStore(capacity);
+		final Random random = new Random(1);
+		final List<Integer> order = new ArrayList<>();
+		final Map<Integer, Long> expected = new HashMap<>();
+
+		for (int i = 0; i < 10000; ++i) {
+			final int sequenceNumber = random.nextInt(400);
+			store.addMeasurement(sequenceNumber, i, false, 0, false, 0, 0, false, 0, false);
+			if (expected.put(sequenceNumber, (long) i) == null) {
+				order.add(sequenceNumber);
+				if (order.size() > capacity)
+					expected.remove(order.remove(0));
+			}
+			assertEquals(expected.size(), store.size());
+		}
+		for (int sequenceNumber = 0; sequenceNumber < 400; ++sequenceNumber) {
+			final int index = store.indexOf(sequenceNumber);
+			if (expected.containsKey(sequenceNumber)) {
+				assertTrue(index >= 0);
+				assertEquals((long) expected.get(sequenceNumber), store.time(index));
+			} else {
+				assertEquals(-1, index);
+			}
+		}
+	}
+
+	@Test
+	public void forEach_range() {
+		final GlucoseRecordStore store = new GlucoseRecordStore(16);
+		for (int sequenceNumber = 30; sequenceNumber >= 0; sequenceNumber -= 2) {
+			store.addMeasurement(sequenceNumber, sequenceNumber, false, 0, false, 0, 0, false, 0, false);
+		}
+		final List<Integer> visited = new ArrayList<>();
+		store.forEach(5, 11, index -> visited.add(store.sequenceNumber(index)));
+		assertEquals(3, visited.size());
+		assertEquals(6, (int) visited.get(0));
+		assertEquals(8, (int) visited.get(1));
+		assertEquals(10, (int) visited.get(2));
+
+		visited.clear();
+		store.forEach(index -> visited.add(store.sequenceNumber(index)));
+		assertEquals(16, visited.size());
+		assertEquals(30, (int) visited.get(0));
+
+		store.clear();
+		assertEquals(0, store.size());
+		assertEquals(-1, store.indexOf(30));
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.hrv;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class HeartRateVariabilityEngineTest {
+
+	/** Reference RMSSD over the last intervals, in ms. */
+	private static double rmssd(final int[] rr, final int from, final int to) {
+		double sum = 0;
+		for (int i = from + 1; i < to; i++)
+			sum += (double) (rr[i] - rr[i - 1]) * (rr[i] - rr[i - 1]);
+		return Math.sqrt(sum / (to - from - 1)) * 1000 / 1024;
+	}
+
+	/** Reference SDNN over the last intervals, in ms. */
+	private static double sdnn(final int[] rr, final int from, final int to) {
+		double mean = 0;
+		for (int i = from; i < to; i++)
+			mean += rr[i];
+		mean /= to - from;
+		double sum = 0;
+		for (int i = from; i < to; i++)
+			sum += (rr[i] - mean) * (rr[i] - mean);
+		return Math.sqrt(sum / (to - from - 1)) * 1000 / 1024;
+	}
+
+	@Test
+	public void slidingWindow_matchesReference() {
+		final HeartRateVariabilityEngine engine = new HeartRateVariabilityEngine(1, 8);
+		final int subject = engine.addSubject();
+		final int[] rr = new int[100];
+		for (int i = 0; i < rr.length; i++) {
+			rr[i] = 820 + (i % 5) * 20 - (i % 3) * 15;
+			assertTrue(engine.addInterval(subject, rr[i]));
+			final int from = Math.max(0, i + 1 - 8);
+			assertEquals(i + 1 - from, engine.getIntervalCount(subject));
+			if (i > 0) {
+				assertEquals(rmssd(rr, from, i + 1), engine.getRmssd(subject), 0.01);
+				assertEquals(sdnn(rr, from, i + 1), engine.getSdnn(subject), 0.01);
+			}
+		}
+		assertEquals(0, engine.getArtifactCount(subject));
+	}
+
+	@Test
+	public void pnn50_andMeanHeartRate() {
+		final HeartRateVariabilityEngine engine = new HeartRateVariabilityEngine(1, 4);
+		final int subject = engine.addSubject();
+		// Differences: +60 (58.6 ms), -50 (48.8 ms), +52 (50.8 ms)
+		engine.addInterval(subject, 1024);
+		engine.addInterval(subject, 1084);
+		engine.addInterval(subject, 1034);
+		engine.addInterval(subject, 1086);
+		assertEquals(200.0f / 3, engine.getPnn50(subject), 0.01f);
+		assertEquals(60.0f * 1024 * 4 / (1024 + 1084 + 1034 + 1086), engine.getMeanHeartRate(subject), 0.01f);
+		// The first difference leaves the window
+		engine.addInterval(subject, 1080);
+		assertEquals(100.0f / 3, engine.getPnn50(subject), 0.01f);
+	}
+
+	@Test
+	public void artifacts_rejected() {
+		final HeartRateVariabilityEngine engine = new HeartRateVariabilityEngine(1, 16);
+		final int subject = engine.addSubject();
+		// Out of physiological range
+		assertFalse(engine.addInterval(subject, 100));
+		assertFalse(engine.addInterval(subject, 3000));
+		for (int i = 0; i < 5; i++)
+			assertTrue(engine.addInterval(subject, 1000));
+		// A missed beat
+		assertFalse(engine.addInterval(subject, 2000));
+		assertEquals(3, engine.getArtifactCount(subject));
+		// The chain of differences is broken by the artifact
+		assertTrue(engine.addInterval(subject, 1100));
+		assertEquals(0.0f, engine.getRmssd(subject), 0.0f);
+		assertEquals(6, engine.getIntervalCount(subject));
+	}
+
+	@Test
+	public void artifacts_consecutive_restartWindow() {
+		final HeartRateVariabilityEngine engine = new HeartRateVariabilityEngine(1, 16);
+		final int subject = engine.addSubject();
+		for (int i = 0; i < 8; i++)
+			engine.addInterval(subject, 1000);
+		for (int i = 0; i < HeartRateVariabilityEngine.MAX_CONSECUTIVE_ARTIFACTS; i++)
+			assertFalse(engine.addInterval(subject, 512));
+		assertEquals(0, engine.getIntervalCount(subject));
+		assertTrue(engine.addInterval(subject, 512));
+		assertEquals(120.0f, engine.getMeanHeartRate(subject), 0.01f);
+	}
+
+	@Test
+	public void subjects_independent() {
+		final HeartRateVariabilityEngine engine = new HeartRateVariabilityEngine(2, 4);
+		final int first = engine.addSubject();
+		final int second = engine.addSubject();
+		assertEquals(-1, engine.addSubject());
+		engine.addInterval(first, 1024);
+		engine.addInterval(second, 512);
+		assertEquals(1000.0f, engine.getMeanInterval(first), 0.01f);
+		assertEquals(500.0f, engine.getMeanInterval(second), 0.01f);
+		engine.removeSubject(first);
+		assertEquals(first, engine.addSubject());
+		assertEquals(0, engine.getIntervalCount(first));
+	}
+
+	@Test
+	public void process() {
+		final HeartRateVariabilityEngine engine = new HeartRateVariabilityEngine(1, 4);
+		final int subject = engine.addSubject();
+		final ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put((byte) 0x10).put((byte) 60).putShort((short) 1024).putShort((short) 1000).putShort((short) 10);
+		assertEquals(2, engine.process(subject, buffer, 0, 8));
+		assertEquals(1, engine.getArtifactCount(subject));
+		assertEquals(-1, engine.process(subject, buffer, 0, 1));
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import org.junit.Test;
+
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+import static org.junit.Assert.*;
+
+public class CompositeDecodeMetricsTest {
+
+	@Test
+	public void forwardsToAll() {
+		final StripedDecodeMetrics counters = new StripedDecodeMetrics(4);
+		final HistogramDecodeMetrics histograms = new HistogramDecodeMetrics();
+		final DecodeMetrics metrics = new CompositeDecodeMetrics(counters, histograms);
+
+		metrics.onDecoded(Characteristics.HEART_RATE_MEASUREMENT, null, DecodeMetrics.OUTCOME_VALID, 2, 1000);
+		metrics.onDecoded(Characteristics.HEART_RATE_MEASUREMENT, null, DecodeMetrics.OUTCOME_INVALID, 1, 500);
+		metrics.onDispatched(Characteristics.HEART_RATE_MEASUREMENT, null, 3000);
+
+		assertEquals(2, counters.getTotal().getCount());
+		assertEquals(1, counters.getTotal().getInvalid());
+		final LatencyHistogram decode = histograms.getDecodeHistogram(Characteristics.HEART_RATE_MEASUREMENT);
+		final LatencyHistogram dispatch = histograms.getDispatchHistogram(Characteristics.HEART_RATE_MEASUREMENT);
+		assertNotNull(decode);
+		assertNotNull(dispatch);
+		assertEquals(2, decode.snapshot().getTotalCount());
+		assertEquals(1, dispatch.snapshot().getTotalCount());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullMetrics() {
+		new CompositeDecodeMetrics(DecodeMetrics.NONE, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void histogram_invalidArguments() {
+		new HistogramDecodeMetrics(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, 17);
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void indexOf_bucketBounds() {
+		for (int precision = 1; precision <= 16; precision++) {
+			final int last = LatencyHistogram.indexOf(Long.MAX_VALUE / 2, precision);
+			for (int index = 0; index < last; index++) {
+				final long low = LatencyHistogram.lowestValueAt(index, precision);
+				final long high = LatencyHistogram.highestValueAt(index, precision);
+				assertEquals(index, LatencyHistogram.indexOf(low, precision));
+				assertEquals(index, LatencyHistogram.indexOf(high, precision));
+				assertEquals(low, LatencyHistogram.highestValueAt(index - 1, precision) + 1);
+			}
+		}
+	}
+
+	@Test
+	public void record_relativeError() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			final long value = random.nextLong() >>> (2 + random.nextInt(62));
+			final int index = LatencyHistogram.indexOf(value, 6);
+			final long low = LatencyHistogram.lowestValueAt(index, 6);
+			final long high = LatencyHistogram.highestValueAt(index, 6);
+			assertTrue(low <= value && value <= high);
+			assertTrue(high - low <= low / 32);
+		}
+	}
+
+	@Test
+	public void snapshot_percentiles() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++)
+			histogram.record(i * 1000L);
+
+		final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(1000, snapshot.getTotalCount());
+		assertEquals(500_000, snapshot.getValueAtPercentile(50), 500_000 / 32);
+		assertEquals(990_000, snapshot.getValueAtPercentile(99), 990_000 / 32);
+		assertEquals(1_000_000, snapshot.getValueAtPercentile(100), 1_000_000 / 32);
+		assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100));
+		assertEquals(1000, snapshot.getMin(), 1000 / 32);
+		assertEquals(500_500, snapshot.getMean(), 500_500 / 32.0);
+	}
+
+	@Test
+	public void record_outOfRange() {
+		final LatencyHistogram histogram = new LatencyHistogram(1000, 4);
+		histogram.record(-5);
+		histogram.record(1_000_000);
+
+		final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(0, snapshot.getMin());
+		assertEquals(LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(1000, 4), 4), snapshot.getMax());
+	}
+
+	@Test
+	public void snapshotAndReset() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(100);
+		histogram.record(200);
+
+		assertEquals(2, histogram.snapshotAndReset().getTotalCount());
+		final LatencyHistogram.Snapshot empty = histogram.snapshot();
+		assertEquals(0, empty.getTotalCount());
+		assertEquals(0, empty.getValueAtPercentile(99));
+		assertEquals(0, empty.getMax());
+	}
+
+	@Test
+	public void record_concurrent() throws InterruptedException {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 10000; i++)
+					histogram.record(i);
+			});
+			threads[t].start();
+		}
+		for (final Thread thread : threads)
+			thread.join();
+		assertEquals(40000, histogram.snapshot().getTotalCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_invalidPrecision() {
+		new LatencyHistogram(1000, 17);
+	}
+
+	@Test
+	public void histogramDecodeMetrics() {
+		final HistogramDecodeMetrics metrics = new HistogramDecodeMetrics();
+		metrics.onDecoded(Characteristics.HEART_RATE_MEASUREMENT, null, DecodeMetrics.OUTCOME_VALID, 2, 300);
+		metrics.onDispatched(Characteristics.HEART_RATE_MEASUREMENT, null, 5000);
+
+		final LatencyHistogram decode = metrics.getDecodeHistogram(Characteristics.HEART_RATE_MEASUREMENT);
+		final LatencyHistogram dispatch = metrics.getDispatchHistogram(Characteristics.HEART_RATE_MEASUREMENT);
+		assertNotNull(decode);
+		assertNotNull(dispatch);
+		assertEquals(300, decode.snapshot().getMax(), 300 / 32);
+		assertEquals(5000, dispatch.snapshot().getMax(), 5000 / 32);
+		assertNull(metrics.getDecodeHistogram(Characteristics.BATTERY_LEVEL));
+
+		final int[] visited = new int[1];
+		metrics.forEachCharacteristic((characteristic, decodeHistogram, dispatchHistogram) -> {
+			assertEquals(Characteristics.HEART_RATE_MEASUREMENT, characteristic);
+			visited[0]++;
+		});
+		assertEquals(1, visited[0]);
+
+		metrics.reset();
+		assertEquals(0, decode.snapshot().getTotalCount());
+		assertEquals(0, dispatch.snapshot().getTotalCount());
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.metrics;
+
+import org.junit.Test;
+
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+import static org.junit.Assert.*;
+
+public class StripedDecodeMetricsTest {
+
+	@Test
+	public void onDecoded_outcomes() {
+		final StripedDecodeMetrics metrics = new StripedDecodeMetrics(4);
+		metrics.onDecoded(Characteristics.BATTERY_LEVEL, "AA:BB:CC:DD:EE:FF", DecodeMetrics.OUTCOME_VALID, 1, 100);
+		metrics.onDecoded(Characteristics.BATTERY_LEVEL, "AA:BB:CC:DD:EE:FF", DecodeMetrics.OUTCOME_INVALID, 0, 50);
+		metrics.onDecoded(Characteristics.CGM_MEASUREMENT, "AA:BB:CC:DD:EE:FF", DecodeMetrics.OUTCOME_CRC_ERROR, 15, 200);
+
+		final StripedDecodeMetrics.Counters total = metrics.getTotal();
+		assertEquals(1, total.getValid());
+		assertEquals(1, total.getInvalid());
+		assertEquals(1, total.getCrcErrors());
+		assertEquals(3, total.getCount());
+		assertEquals(16, total.getBytes());
+		assertEquals(350, total.getNanos());
+
+		final StripedDecodeMetrics.Counters battery = metrics.getCharacteristic(Characteristics.BATTERY_LEVEL);
+		assertNotNull(battery);
+		assertEquals(2, battery.getCount());
+		assertEquals(150, battery.getNanos());
+		assertNull(metrics.getCharacteristic(Characteristics.HEART_RATE_MEASUREMENT));
+
+		final StripedDecodeMetrics.Counters device = metrics.getDevice("AA:BB:CC:DD:EE:FF");
+		assertNotNull(device);
+		assertEquals(3, device.getCount());
+	}
+
+	@Test
+	public void onDecoded_otherCharacteristics() {
+		final StripedDecodeMetrics metrics = new StripedDecodeMetrics(4);
+		metrics.onDecoded(0x2B00, null, DecodeMetrics.OUTCOME_VALID, 1, 1);
+		metrics.onDecoded(-1, null, DecodeMetrics.OUTCOME_VALID, 1, 1);
+
+		final StripedDecodeMetrics.Counters other = metrics.getCharacteristic(0x1234);
+		assertNotNull(other);
+		assertEquals(2, other.getCount());
+		assertEquals(2, metrics.getUnknownDevice().getCount());
+
+		final int[] visited = new int[1];
+		metrics.forEachCharacteristic((characteristic, counters) -> {
+			assertEquals(-1, characteristic);
+			visited[0]++;
+		});
+		assertEquals(1, visited[0]);
+	}
+
+	@Test
+	public void onDecoded_deviceLimit() {
+		final StripedDecodeMetrics metrics = new StripedDecodeMetrics(2);
+		metrics.onDecoded(Characteristics.BATTERY_LEVEL, "00:00:00:00:00:01", DecodeMetrics.OUTCOME_VALID, 1, 1);
+		metrics.onDecoded(Characteristics.BATTERY_LEVEL, "00:00:00:00:00:02", DecodeMetrics.OUTCOME_VALID, 1, 1);
+		metrics.onDecoded(Characteristics.BATTERY_LEVEL, "00:00:00:00:00:03", DecodeMetrics.OUTCOME_VALID, 1, 1);
+		metrics.onDecoded(Characteristics.BATTERY_LEVEL, "00:00:00:00:00:01", DecodeMetrics.OUTCOME_VALID, 1, 1);
+
+		assertEquals(2, metrics.getDevice("00:00:00:00:00:01").getCount());
+		assertNotNull(metrics.getDevice("00:00:00:00:00:02"));
+		assertNull(metrics.getDevice("00:00:00:00:00:03"));
+		assertEquals(1, metrics.getOtherDevices().getCount());
+	}
+
+	@Test
+	public void reset() {
+		final StripedDecodeMetrics metrics = new StripedDecodeMetrics(2);
+		metrics.onDecoded(Characteristics.BATTERY_LEVEL, "00:00:00:00:00:01", DecodeMetrics.OUTCOME_VALID, 1, 1);
+		metrics.reset();
+
+		assertEquals(0, metrics.getTotal().getCount());
+		assertEquals(0, metrics.getCharacteristic(Characteristics.BATTERY_LEVEL).getCount());
+		assertNull(metrics.getDevice("00:00:00:00:00:01"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_negativeLimit() {
+		new StripedDecodeMetrics(-1);
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class CRC16AccumulatorTest {
+
+	@Test
+	public void MCRF4XX_123456789() {
+		final byte[] data = "123456789".getBytes();
+		final CRC16Accumulator crc = CRC16Accumulator.MCRF4XX();
+		crc.update(data, 0, 9);
+		assertEquals(0x6F91, crc.value());
+	}
+
+	@Test
+	public void MCRF4XX_chunked() {
+		final byte[] data = "123456789".getBytes();
+		final CRC16Accumulator crc = CRC16Accumulator.MCRF4XX();
+		crc.update(data, 0, 2).update(data, 2, 5).update(data[7]).update(data, 8, 1);
+		assertEquals(0x6F91, crc.value());
+	}
+
+	@Test
+	public void MCRF4XX_reset() {
+		final byte[] data = "123456789".getBytes();
+		final CRC16Accumulator crc = CRC16Accumulator.MCRF4XX();
+		crc.update(data, 0, 4);
+		crc.reset();
+		assertEquals(0xFFFF, crc.value());
+		crc.update(data, 0, 9);
+		assertEquals(0x6F91, crc.value());
+	}
+
+	@Test
+	public void MCRF4XX_directByteBuffer() {
+		final byte[] data = "SPACE123456789".getBytes();
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data);
+		final CRC16Accumulator crc = CRC16Accumulator.MCRF4XX();
+		crc.update(buffer, 5, 3).update(buffer, 8, 6);
+		assertEquals(0x6F91, crc.value());
+		assertEquals(data.length, buffer.position());
+	}
+
+	@Test
+	public void MCRF4XX_slicedByteBuffer() {
+		final byte[] data = "SPACE123456789".getBytes();
+		final ByteBuffer buffer = ByteBuffer.wrap(data, 5, 9).slice();
+		final CRC16Accumulator crc = CRC16Accumulator.MCRF4XX();
+		crc.update(buffer, 0, 9);
+		assertEquals(0x6F91, crc.value());
+	}
+
+	@Test
+	public void allVariants_matchOneShot() {
+		final byte[] data = "The quick brown fox jumps over the lazy dog".getBytes();
+		assertChunked(CRC16.CCITT_Kermit(data, 0, data.length), CRC16Accumulator.CCITT_Kermit(), data);
+		assertChunked(CRC16.CCITT_FALSE(data, 0, data.length), CRC16Accumulator.CCITT_FALSE(), data);
+		assertChunked(CRC16.MCRF4XX(data, 0, data.length), CRC16Accumulator.MCRF4XX(), data);
+		assertChunked(CRC16.AUG_CCITT(data, 0, data.length), CRC16Accumulator.AUG_CCITT(), data);
+		assertChunked(CRC16.ARC(data, 0, data.length), CRC16Accumulator.ARC(), data);
+		assertChunked(CRC16.MAXIM(data, 0, data.length), CRC16Accumulator.MAXIM(), data);
+	}
+
+	private static void assertChunked(final int expected, final CRC16Accumulator crc, final byte[] data) {
+		for (int split = 0; split <= data.length; split++) {
+			crc.reset();
+			crc.update(data, 0, split).update(ByteBuffer.wrap(data), split, data.length - split);
+			assertEquals(expected, crc.value());
+		}
+	}
+}
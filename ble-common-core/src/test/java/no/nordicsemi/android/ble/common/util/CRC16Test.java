@@ -24,6 +24,8 @@ package no.nordicsemi.android.ble.common.util;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 public class CRC16Test {
@@ -156,4 +158,66 @@ public class CRC16Test {
 		final byte[] data = new byte[0];
 		assertEquals(0xFFFF, CRC16.MAXIM(data, 0, 0));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void MCRF4XX_long() {
+		final byte[] data = "123456789123456789123456789".getBytes();
+		assertEquals(bitwise(0x1021, 0xFFFF, data, 0, data.length, true, true, 0x0000),
+				CRC16.MCRF4XX(data, 0, data.length));
+	}
+
+	@Test
+	public void CRC_lengthBeyondData() {
+		final byte[] data = "SPACE123456789".getBytes();
+		assertEquals(0x2189, CRC16.CCITT_Kermit(data, 5, 100));
+	}
+
+	@Test
+	public void CRC_matchesBitwise() {
+		final Random random = new Random(0x1021);
+		final byte[] data = new byte[64];
+		random.nextBytes(data);
+
+		final int[] polys = { 0x1021, 0x8005, 0x3D65 };
+		final int[] inits = { 0x0000, 0xFFFF, 0x1D0F };
+		for (final int poly : polys) {
+			for (final int init : inits) {
+				for (int combination = 0; combination < 4; combination++) {
+					final boolean refin = (combination & 1) != 0;
+					final boolean refout = (combination & 2) != 0;
+					for (int offset = 0; offset < 3; offset++) {
+						for (int length = 0; length <= data.length - offset; length++) {
+							assertEquals(bitwise(poly, init, data, offset, length, refin, refout, 0xFFFF),
+									CRC16.CRC(poly, init, data, offset, length, refin, refout, 0xFFFF));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reference bit-by-bit implementation.
+	 */
+	private static int bitwise(final int poly, final int init, final byte[] data, final int offset, final int length,
+							   final boolean refin, final boolean refout, final int xorout) {
+		int crc = init;
+
+		for (int i = offset; i < offset + length && i < data.length; ++i) {
+			final byte b = data[i];
+			for (int j = 0; j < 8; j++) {
+				final int k = refin ? 7 - j : j;
+				final boolean bit = ((b >> (7 - k) & 1) == 1);
+				final boolean c15 = ((crc >> 15 & 1) == 1);
+				crc <<= 1;
+				if (c15 ^ bit) crc ^= poly;
+			}
+		}
+
+		if (refout) {
+			return (Integer.reverse(crc) >>> 16) ^ xorout;
+		} else {
+			return (crc ^ xorout) & 0xFFFF;
+		}
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.simulator;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.ble.common.decoder.IEEE11073Float;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+/**
+ * A simulated Continuous Glucose Monitoring server. Records are packed into CGM Measurement
+ * notifications, as many as fit in the MTU. The RACP filter uses the Time Offset.
+ * <p>
+ * The CGM Specific Ops Control Point supports the Communication Interval, calibration values,
+ * alert levels and session start and stop procedures. When E2E-CRC is enabled, records and
+ * control point responses are sent with the CRC, and control point requests must contain
+ * a valid CRC.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class CGMServerSimulator extends RecordAccessServer {
+	/** The control point request did not contain the E2E-CRC. */
+	public static final int ATT_ERROR_MISSING_CRC = 0x80;
+	/** The control point request contained an invalid E2E-CRC. */
+	public static final int ATT_ERROR_INVALID_CRC = 0x81;
+
+	public static final int SOCP_SUCCESS = 1;
+	public static final int SOCP_ERROR_OP_CODE_NOT_SUPPORTED = 2;
+	public static final int SOCP_ERROR_INVALID_OPERAND = 3;
+	public static final int SOCP_ERROR_PROCEDURE_NOT_COMPLETED = 4;
+	public static final int SOCP_ERROR_PARAMETER_OUT_OF_RANGE = 5;
+
+	private static final int OP_CODE_SET_COMMUNICATION_INTERVAL = 1;
+	private static final int OP_CODE_GET_COMMUNICATION_INTERVAL = 2;
+	private static final int OP_CODE_COMMUNICATION_INTERVAL_RESPONSE = 3;
+	private static final int OP_CODE_SET_CALIBRATION_VALUE = 4;
+	private static final int OP_CODE_GET_CALIBRATION_VALUE = 5;
+	private static final int OP_CODE_CALIBRATION_VALUE_RESPONSE = 6;
+	/** Set, get and response Op Codes of the 6 alert levels follow in groups of 3. */
+	private static final int OP_CODE_SET_FIRST_ALERT_LEVEL = 7;
+	private static final int OP_CODE_LAST_ALERT_LEVEL_RESPONSE = 24;
+	private static final int OP_CODE_RESET_DEVICE_SPECIFIC_ALERT = 25;
+	private static final int OP_CODE_START_SESSION = 26;
+	private static final int OP_CODE_STOP_SESSION = 27;
+	private static final int OP_CODE_RESPONSE_CODE = 28;
+
+	private static final int CALIBRATION_SIZE = 10;
+	private static final int LAST_CALIBRATION = 0xFFFF;
+
+	private final List<byte[]> calibrations = new ArrayList<>();
+	private final int[] alertLevels = new int[6];
+	private boolean e2eCrc;
+	private boolean sessionRunning = true;
+	private int communicationInterval = 1;
+
+	public CGMServerSimulator(@NonNull final Transport transport) {
+		super(Characteristics.CGM_MEASUREMENT, transport);
+	}
+
+	/**
+	 * Enables or disables E2E-CRC of records and control point values.
+	 */
+	public void setE2eCrc(final boolean enabled) {
+		this.e2eCrc = enabled;
+	}
+
+	public boolean isSessionRunning() {
+		return sessionRunning;
+	}
+
+	public int getCommunicationInterval() {
+		return communicationInterval;
+	}
+
+	/**
+	 * Adds a record without Sensor Status Annunciation.
+	 *
+	 * @see #addRecord(int, float, float, float, int, int, int)
+	 */
+	public void addRecord(@IntRange(from = 0, to = 0xFFFF) final int timeOffset,
+						  final float concentration, final float trend, final float quality) {
+		addRecord(timeOffset, concentration, trend, quality, -1, -1, -1);
+	}
+
+	/**
+	 * Adds a record. Records must be added in increasing time offset order.
+	 *
+	 * @param timeOffset    the time offset in minutes since Session Start Time.
+	 * @param concentration the glucose concentration in mg/dL.
+	 * @param trend         the CGM Trend information in (mg/dL)/min, or NaN if not present.
+	 * @param quality       the CGM Quality in percent, or NaN if not present.
+	 * @param warning       the Sensor Status Annunciation warning octet, or -1 if not present.
+	 * @param calTemp       the Sensor Status Annunciation Cal/Temp octet, or -1 if not present.
+	 * @param status        the Sensor Status Annunciation status octet, or -1 if not present.
+	 */
+	public void addRecord(@IntRange(from = 0, to = 0xFFFF) final int timeOffset,
+						  final float concentration, final float trend, final float quality,
+						  final int warning, final int calTemp, final int status) {
+		if (timeOffset < 0 || timeOffset > 0xFFFF)
+			throw new IllegalArgumentException("Time offset must be in range 0-65535");
+		final int flags = (Float.isNaN(trend) ? 0 : 0x01) | (Float.isNaN(quality) ? 0 : 0x02)
+				| (warning >= 0 ? 0x20 : 0) | (calTemp >= 0 ? 0x40 : 0) | (status >= 0 ? 0x80 : 0);
+		final byte[] record = new byte[6 + Integer.bitCount(flags & 0xE0) + 2 * Integer.bitCount(flags & 0x03)];
+		record[0] = (byte) record.length;
+		record[1] = (byte) flags;
+		int position = putUint16(record, 2, IEEE11073Float.toSfloat(concentration));
+		position = putUint16(record, position, timeOffset);
+		if (warning >= 0)
+			record[position++] = (byte) warning;
+		if (calTemp >= 0)
+			record[position++] = (byte) calTemp;
+		if (status >= 0)
+			record[position++] = (byte) status;
+		if (!Float.isNaN(trend))
+			position = putUint16(record, position, IEEE11073Float.toSfloat(trend));
+		if (!Float.isNaN(quality))
+			putUint16(record, position, IEEE11073Float.toSfloat(quality));
+		addRecord(timeOffset, record);
+	}
+
+	@Override
+	protected boolean isMultiRecord() {
+		return true;
+	}
+
+	@Override
+	protected int getRecordSize(final int index) {
+		return getRecord(index).length + (e2eCrc ? 2 : 0);
+	}
+
+	@Override
+	protected int writeRecord(final int index, @NonNull final byte[] out, final int offset) {
+		final byte[] record = getRecord(index);
+		System.arraycopy(record, 0, out, offset, record.length);
+		if (!e2eCrc)
+			return record.length;
+		out[offset] = (byte) (record.length + 2);
+		putUint16(out, offset + record.length, CRC16.MCRF4XX(out, offset, record.length));
+		return record.length + 2;
+	}
+
+	@Override
+	protected int onWrite(final int characteristic, @NonNull final byte[] value) {
+		if (characteristic != Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT)
+			return super.onWrite(characteristic, value);
+
+		int length = value.length;
+		if (e2eCrc) {
+			if (length < 3)
+				return ATT_ERROR_MISSING_CRC;
+			length -= 2;
+			if (uint16(value, length) != CRC16.MCRF4XX(value, 0, length))
+				return ATT_ERROR_INVALID_CRC;
+		}
+		if (length < 1) {
+			respond(0, SOCP_ERROR_OP_CODE_NOT_SUPPORTED);
+			return ATT_SUCCESS;
+		}
+
+		final int opCode = value[0] & 0xFF;
+		final int operandLength = length - 1;
+		final int expectedLength;
+		switch (opCode) {
+			case OP_CODE_SET_COMMUNICATION_INTERVAL:
+				expectedLength = 1;
+				break;
+			case OP_CODE_SET_CALIBRATION_VALUE:
+				expectedLength = CALIBRATION_SIZE;
+				break;
+			case OP_CODE_GET_CALIBRATION_VALUE:
+				expectedLength = 2;
+				break;
+			case OP_CODE_GET_COMMUNICATION_INTERVAL:
+			case OP_CODE_RESET_DEVICE_SPECIFIC_ALERT:
+			case OP_CODE_START_SESSION:
+			case OP_CODE_STOP_SESSION:
+				expectedLength = 0;
+				break;
+			default:
+				if (opCode < OP_CODE_SET_FIRST_ALERT_LEVEL || opCode > OP_CODE_LAST_ALERT_LEVEL_RESPONSE
+						|| (opCode - OP_CODE_SET_FIRST_ALERT_LEVEL) % 3 == 2) {
+					respond(opCode, SOCP_ERROR_OP_CODE_NOT_SUPPORTED);
+					return ATT_SUCCESS;
+				}
+				// Set alert level requests have an SFLOAT operand, get requests have none
+				expectedLength = (opCode - OP_CODE_SET_FIRST_ALERT_LEVEL) % 3 == 0 ? 2 : 0;
+				break;
+		}
+		if (operandLength != expectedLength) {
+			respond(opCode, SOCP_ERROR_INVALID_OPERAND);
+			return ATT_SUCCESS;
+		}
+
+		switch (opCode) {
+			case OP_CODE_SET_COMMUNICATION_INTERVAL:
+				communicationInterval = value[1] & 0xFF;
+				respond(opCode, SOCP_SUCCESS);
+				break;
+			case OP_CODE_GET_COMMUNICATION_INTERVAL:
+				sendSecured(new byte[] { OP_CODE_COMMUNICATION_INTERVAL_RESPONSE, (byte) communicationInterval });
+				break;
+			case OP_CODE_SET_CALIBRATION_VALUE: {
+				final byte[] calibration = new byte[CALIBRATION_SIZE];
+				System.arraycopy(value, 1, calibration, 0, CALIBRATION_SIZE);
+				putUint16(calibration, 7, calibrations.size());
+				calibrations.add(calibration);
+				respond(opCode, SOCP_SUCCESS);
+				break;
+			}
+			case OP_CODE_GET_CALIBRATION_VALUE: {
+				int recordNumber = uint16(value, 1);
+				if (recordNumber == LAST_CALIBRATION)
+					recordNumber = calibrations.size() - 1;
+				if (recordNumber < 0 || recordNumber >= calibrations.size()) {
+					respond(opCode, SOCP_ERROR_PARAMETER_OUT_OF_RANGE);
+					break;
+				}
+				final byte[] response = new byte[1 + CALIBRATION_SIZE];
+				response[0] = OP_CODE_CALIBRATION_VALUE_RESPONSE;
+				System.arraycopy(calibrations.get(recordNumber), 0, response, 1, CALIBRATION_SIZE);
+				sendSecured(response);
+				break;
+			}
+			case OP_CODE_RESET_DEVICE_SPECIFIC_ALERT:
+				respond(opCode, SOCP_SUCCESS);
+				break;
+			case OP_CODE_START_SESSION:
+				sessionRunning = true;
+				respond(opCode, SOCP_SUCCESS);
+				break;
+			case OP_CODE_STOP_SESSION:
+				sessionRunning = false;
+				respond(opCode, SOCP_SUCCESS);
+				break;
+			default: {
+				final int alert = (opCode - OP_CODE_SET_FIRST_ALERT_LEVEL) / 3;
+				if (expectedLength > 0) {
+					alertLevels[alert] = uint16(value, 1);
+					respond(opCode, SOCP_SUCCESS);
+				} else {
+					final int level = alertLevels[alert];
+					sendSecured(new byte[] { (byte) (opCode + 1), (byte) level, (byte) (level >> 8) });
+				}
+				break;
+			}
+		}
+		return ATT_SUCCESS;
+	}
+
+	private void respond(final int requestCode, final int responseCode) {
+		sendSecured(new byte[] { OP_CODE_RESPONSE_CODE, (byte) requestCode, (byte) responseCode });
+	}
+
+	private void sendSecured(@NonNull final byte[] value) {
+		if (!e2eCrc) {
+			send(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, value);
+			return;
+		}
+		final byte[] secured = new byte[value.length + 2];
+		System.arraycopy(value, 0, secured, 0, value.length);
+		putUint16(secured, value.length, CRC16.MCRF4XX(value, 0, value.length));
+		send(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, secured);
+	}
+
+	private static int putUint16(@NonNull final byte[] out, final int offset, final int value) {
+		out[offset] = (byte) value;
+		out[offset + 1] = (byte) (value >> 8);
+		return offset + 2;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.simulator;
+
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.ble.common.decoder.CharacteristicValues;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+import static no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementDecoder.SCHEMA;
+
+/**
+ * A simulated Glucose server. Each record is sent in a separate Glucose Measurement
+ * notification, without a Glucose Measurement Context.
+ * <p>
+ * Records are numbered with consecutive sequence numbers, starting from 0.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class GlucoseServerSimulator extends RecordAccessServer {
+	private static final int SEQUENCE_NUMBER = SCHEMA.indexOf("sequenceNumber");
+	private static final int BASE_TIME = SCHEMA.indexOf("baseTime");
+	private static final int TIME_OFFSET = SCHEMA.indexOf("timeOffset");
+	private static final int CONCENTRATION = SCHEMA.indexOf("glucoseConcentration");
+	private static final int TYPE_AND_LOCATION = SCHEMA.indexOf("typeAndSampleLocation");
+	private static final int STATUS = SCHEMA.indexOf("status");
+
+	private final CharacteristicValues values = SCHEMA.newValues();
+	private final byte[] buffer = new byte[SCHEMA.getLength(0xFF)];
+
+	public GlucoseServerSimulator(@NonNull final Transport transport) {
+		super(Characteristics.GLUCOSE_MEASUREMENT, transport);
+	}
+
+	/**
+	 * Adds a record with the glucose concentration, type and sample location.
+	 *
+	 * @param baseTime       the base time, packed, see {@link DateTime}.
+	 * @param timeOffset     the time offset in minutes.
+	 * @param concentration  the glucose concentration in kg/L or mol/L.
+	 * @param unitMolL       true if the concentration is in mol/L, false if in kg/L.
+	 * @param type           the sample type.
+	 * @param sampleLocation the sample location.
+	 * @param status         the Sensor Status Annunciation, or -1 if not present.
+	 * @return The sequence number of the record.
+	 */
+	public int addRecord(final long baseTime, final int timeOffset,
+						 final float concentration, final boolean unitMolL,
+						 final int type, final int sampleLocation, final int status) {
+		final int sequenceNumber = getLastKey() + 1;
+		if (sequenceNumber > 0xFFFF)
+			throw new IllegalStateException("Sequence numbers exhausted");
+
+		values.clear();
+		values.setFlags(0x01 | 0x02 | (unitMolL ? 0x04 : 0) | (status >= 0 ? 0x08 : 0));
+		values.setInt(SEQUENCE_NUMBER, sequenceNumber);
+		values.setLong(BASE_TIME, baseTime);
+		values.setInt(TIME_OFFSET, timeOffset);
+		values.setFloat(CONCENTRATION, concentration);
+		values.setInt(TYPE_AND_LOCATION, (type & 0x0F) | ((sampleLocation & 0x0F) << 4));
+		if (status >= 0)
+			values.setInt(STATUS, status);
+		final int length = SCHEMA.encode(values, buffer, 0);
+
+		final byte[] record = new byte[length];
+		System.arraycopy(buffer, 0, record, 0, length);
+		addRecord(sequenceNumber, record);
+		return sequenceNumber;
+	}
+
+	@Override
+	protected boolean isMultiRecord() {
+		return false;
+	}
+}
@@ -0,0 +1,582 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.simulator;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+/**
+ * Base class of simulated servers with stored records accessed using the Record Access
+ * Control Point, like Glucose and Continuous Glucose Monitoring servers.
+ * <p>
+ * The server runs in virtual time: values written by the client are handled immediately,
+ * but notifications and indications are queued and sent to the {@link Transport} when the
+ * time is advanced with {@link #advance(long)}, at most the configured number of packets
+ * in each connection interval. Records are sent in packets limited by the MTU. Use
+ * {@link #drain()} to send all queued packets at once.
+ * <p>
+ * Faults may be injected: measurement packets can be lost or corrupted with given
+ * probabilities, and the next RACP request can be failed with a given response code.
+ * Random faults are deterministic for a given seed.
+ * <p>
+ * Instances are not thread safe.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public abstract class RecordAccessServer {
+	/** The write was accepted. */
+	public static final int ATT_SUCCESS = 0;
+	/** The characteristic can't be written. */
+	public static final int ATT_ERROR_WRITE_NOT_PERMITTED = 0x03;
+	/** A RACP procedure other than abort was requested while another one is in progress. */
+	public static final int ATT_ERROR_PROCEDURE_ALREADY_IN_PROGRESS = 0x80;
+
+	public static final int RACP_SUCCESS = 1;
+	public static final int RACP_ERROR_OP_CODE_NOT_SUPPORTED = 2;
+	public static final int RACP_ERROR_INVALID_OPERATOR = 3;
+	public static final int RACP_ERROR_OPERATOR_NOT_SUPPORTED = 4;
+	public static final int RACP_ERROR_INVALID_OPERAND = 5;
+	public static final int RACP_ERROR_NO_RECORDS_FOUND = 6;
+	public static final int RACP_ERROR_ABORT_UNSUCCESSFUL = 7;
+	public static final int RACP_ERROR_PROCEDURE_NOT_COMPLETED = 8;
+	public static final int RACP_ERROR_OPERAND_NOT_SUPPORTED = 9;
+
+	public static final int DEFAULT_MTU = 23;
+	public static final int MAX_MTU = 517;
+	/** The default connection interval, 7.5 ms. */
+	public static final long DEFAULT_CONNECTION_INTERVAL_NANOS = 7_500_000L;
+	public static final int DEFAULT_PACKETS_PER_INTERVAL = 4;
+
+	private static final int OP_CODE_REPORT_STORED_RECORDS = 1;
+	private static final int OP_CODE_DELETE_STORED_RECORDS = 2;
+	private static final int OP_CODE_ABORT_OPERATION = 3;
+	private static final int OP_CODE_REPORT_NUMBER_OF_RECORDS = 4;
+	private static final int OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE = 5;
+	private static final int OP_CODE_RESPONSE_CODE = 6;
+
+	private static final int OPERATOR_NULL = 0;
+	private static final int OPERATOR_ALL_RECORDS = 1;
+	private static final int OPERATOR_LESS_THEN_OR_EQUAL = 2;
+	private static final int OPERATOR_GREATER_THEN_OR_EQUAL = 3;
+	private static final int OPERATOR_WITHIN_RANGE = 4;
+	private static final int OPERATOR_FIRST_RECORD = 5;
+	private static final int OPERATOR_LAST_RECORD = 6;
+
+	/** Sequence number in GLS, Time Offset in CGMS. */
+	private static final int FILTER_TYPE_KEY = 1;
+
+	public interface Transport {
+
+		/**
+		 * Called when the server sends a notification or an indication.
+		 *
+		 * @param characteristic the 16-bit UUID of the characteristic.
+		 * @param value          the array with the value, valid only until this method returns.
+		 * @param offset         index of the first byte of the value.
+		 * @param length         length of the value in bytes.
+		 */
+		void onValue(int characteristic, @NonNull byte[] value, int offset, int length);
+	}
+
+	private static final class Packet {
+		private final int characteristic;
+		private final byte[] value;
+
+		Packet(final int characteristic, final byte[] value) {
+			this.characteristic = characteristic;
+			this.value = value;
+		}
+	}
+
+	private final int measurementCharacteristic;
+	private final Transport transport;
+	private final ArrayDeque<Packet> controlPackets = new ArrayDeque<>();
+	private final byte[] packet = new byte[MAX_MTU - 3];
+	private final Random random = new Random(0);
+
+	// Stored records, sorted by the key
+	private int[] keys = new int[16];
+	private byte[][] records = new byte[16][];
+	private int count;
+
+	// The Report Stored Records procedure in progress
+	private boolean transferring;
+	private int cursor;
+	private int end;
+
+	private int mtu = DEFAULT_MTU;
+	private long connectionInterval = DEFAULT_CONNECTION_INTERVAL_NANOS;
+	private int packetsPerInterval = DEFAULT_PACKETS_PER_INTERVAL;
+	private long time;
+	private long lastConnectionEvent;
+
+	private double lossRate;
+	private double corruptionRate;
+	private int injectedResponseCode;
+
+	private long packetsSent;
+	private long packetsLost;
+	private long recordsSent;
+	private long bytesSent;
+
+	/**
+	 * @param measurementCharacteristic the 16-bit UUID of the characteristic records are sent with.
+	 * @param transport                 the transport receiving notifications and indications.
+	 */
+	protected RecordAccessServer(final int measurementCharacteristic, @NonNull final Transport transport) {
+		this.measurementCharacteristic = measurementCharacteristic;
+		this.transport = transport;
+	}
+
+	/**
+	 * Handles the value written by the client.
+	 *
+	 * @param characteristic the 16-bit UUID of the characteristic.
+	 * @param value          the value.
+	 * @return {@link #ATT_SUCCESS} if the value was accepted, or an ATT error code.
+	 */
+	public int write(final int characteristic, @NonNull final byte[] value) {
+		if (characteristic == Characteristics.RECORD_ACCESS_CONTROL_POINT)
+			return onRecordAccessControlPoint(value);
+		return onWrite(characteristic, value);
+	}
+
+	/**
+	 * Handles the value written to a characteristic other than the Record Access Control Point.
+	 *
+	 * @return {@link #ATT_SUCCESS} if the value was accepted, or an ATT error code.
+	 */
+	protected int onWrite(final int characteristic, @NonNull final byte[] value) {
+		return ATT_ERROR_WRITE_NOT_PERMITTED;
+	}
+
+	// Records
+
+	/**
+	 * Adds the encoded record. Records must be added in increasing key order.
+	 *
+	 * @param key    the sequence number or time offset used by RACP filters.
+	 * @param record the encoded record.
+	 */
+	protected final void addRecord(final int key, @NonNull final byte[] record) {
+		if (count > 0 && key <= keys[count - 1])
+			throw new IllegalArgumentException("Records must be added in increasing key order");
+		if (count == keys.length) {
+			final int capacity = count * 2;
+			final int[] newKeys = new int[capacity];
+			final byte[][] newRecords = new byte[capacity][];
+			System.arraycopy(keys, 0, newKeys, 0, count);
+			System.arraycopy(records, 0, newRecords, 0, count);
+			keys = newKeys;
+			records = newRecords;
+		}
+		keys[count] = key;
+		records[count] = record;
+		count++;
+	}
+
+	@NonNull
+	protected final byte[] getRecord(final int index) {
+		return records[index];
+	}
+
+	/** Returns the key of the last record, or -1 if there are no records. */
+	protected final int getLastKey() {
+		return count > 0 ? keys[count - 1] : -1;
+	}
+
+	/**
+	 * Returns the size of the record when sent.
+	 */
+	protected int getRecordSize(final int index) {
+		return records[index].length;
+	}
+
+	/**
+	 * Writes the record to the packet.
+	 *
+	 * @return The number of bytes written, equal to {@link #getRecordSize(int)}.
+	 */
+	protected int writeRecord(final int index, @NonNull final byte[] out, final int offset) {
+		final byte[] record = records[index];
+		System.arraycopy(record, 0, out, offset, record.length);
+		return record.length;
+	}
+
+	/**
+	 * Returns true if multiple records may be sent in a single packet.
+	 */
+	protected abstract boolean isMultiRecord();
+
+	public int getRecordCount() {
+		return count;
+	}
+
+	/**
+	 * Removes all records. A transfer in progress is stopped without a response.
+	 */
+	public void clearRecords() {
+		for (int i = 0; i < count; i++)
+			records[i] = null;
+		count = 0;
+		transferring = false;
+	}
+
+	// Link
+
+	/**
+	 * Sets the MTU. Packets are limited to MTU - 3 bytes.
+	 */
+	public void setMtu(@IntRange(from = DEFAULT_MTU, to = MAX_MTU) final int mtu) {
+		if (mtu < DEFAULT_MTU || mtu > MAX_MTU)
+			throw new IllegalArgumentException("MTU must be in range 23-517");
+		this.mtu = mtu;
+	}
+
+	public int getMtu() {
+		return mtu;
+	}
+
+	/**
+	 * Sets the connection interval and the number of packets sent in each connection event.
+	 */
+	public void setConnectionInterval(@IntRange(from = 1) final long intervalNanos,
+									  @IntRange(from = 1) final int packetsPerInterval) {
+		if (intervalNanos < 1 || packetsPerInterval < 1)
+			throw new IllegalArgumentException("Interval and packets per interval must be positive");
+		this.connectionInterval = intervalNanos;
+		this.packetsPerInterval = packetsPerInterval;
+	}
+
+	// Faults
+
+	/**
+	 * Sets the seed of the random faults.
+	 */
+	public void setRandomSeed(final long seed) {
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Sets the probability of a measurement packet being lost.
+	 */
+	public void setPacketLossRate(final double rate) {
+		this.lossRate = rate;
+	}
+
+	/**
+	 * Sets the probability of a bit being flipped in a measurement packet.
+	 */
+	public void setCorruptionRate(final double rate) {
+		this.corruptionRate = rate;
+	}
+
+	/**
+	 * Fails the next Report, Delete or Report Number of Stored Records request
+	 * with the given response code.
+	 */
+	public void injectRecordAccessError(final int responseCode) {
+		this.injectedResponseCode = responseCode;
+	}
+
+	// Running
+
+	/**
+	 * Advances the virtual time and sends the packets allowed in the connection events passed.
+	 *
+	 * @param nanos the time to advance, in nanoseconds.
+	 * @return The number of packets sent, including lost ones.
+	 */
+	public int advance(@IntRange(from = 0) final long nanos) {
+		if (nanos < 0)
+			throw new IllegalArgumentException("Time must not go back");
+		time += nanos;
+		final long events = (time - lastConnectionEvent) / connectionInterval;
+		lastConnectionEvent += events * connectionInterval;
+		long budget = events * packetsPerInterval;
+		int sent = 0;
+		while (budget-- > 0 && sendNext())
+			sent++;
+		return sent;
+	}
+
+	/**
+	 * Advances the virtual time until all queued packets have been sent.
+	 *
+	 * @return The virtual time it took, in nanoseconds.
+	 */
+	public long runUntilIdle() {
+		final long start = time;
+		while (!isIdle())
+			advance(connectionInterval);
+		return time - start;
+	}
+
+	/**
+	 * Sends all queued packets at once, without advancing the virtual time.
+	 *
+	 * @return The number of packets sent, including lost ones.
+	 */
+	public int drain() {
+		int sent = 0;
+		while (sendNext())
+			sent++;
+		return sent;
+	}
+
+	/** Returns true if no packets are queued. */
+	public boolean isIdle() {
+		return controlPackets.isEmpty() && !transferring;
+	}
+
+	/** Returns the virtual time, in nanoseconds. */
+	public long getTime() {
+		return time;
+	}
+
+	public long getPacketsSent() {
+		return packetsSent;
+	}
+
+	public long getPacketsLost() {
+		return packetsLost;
+	}
+
+	public long getRecordsSent() {
+		return recordsSent;
+	}
+
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * Queues the notification or indication, to be sent before the following records.
+	 */
+	protected final void send(final int characteristic, @NonNull final byte[] value) {
+		controlPackets.add(new Packet(characteristic, value));
+	}
+
+	private boolean sendNext() {
+		final Packet control = controlPackets.poll();
+		if (control != null) {
+			packetsSent++;
+			bytesSent += control.value.length;
+			transport.onValue(control.characteristic, control.value, 0, control.value.length);
+			return true;
+		}
+		if (!transferring)
+			return false;
+		if (cursor >= end) {
+			transferring = false;
+			respond(OP_CODE_REPORT_STORED_RECORDS, RACP_SUCCESS);
+			return sendNext();
+		}
+
+		final int max = mtu - 3;
+		int length = 0;
+		int recordCount = 0;
+		do {
+			if (length > 0 && length + getRecordSize(cursor) > max)
+				break;
+			length += writeRecord(cursor++, packet, length);
+			recordCount++;
+		} while (isMultiRecord() && cursor < end);
+
+		packetsSent++;
+		recordsSent += recordCount;
+		bytesSent += length;
+		if (lossRate > 0 && random.nextDouble() < lossRate) {
+			packetsLost++;
+			return true;
+		}
+		if (corruptionRate > 0 && random.nextDouble() < corruptionRate)
+			packet[random.nextInt(length)] ^= 1 << random.nextInt(8);
+		transport.onValue(measurementCharacteristic, packet, 0, length);
+		return true;
+	}
+
+	private int onRecordAccessControlPoint(@NonNull final byte[] value) {
+		if (value.length < 2) {
+			respond(value.length > 0 ? value[0] & 0xFF : 0, RACP_ERROR_INVALID_OPERATOR);
+			return ATT_SUCCESS;
+		}
+		final int opCode = value[0] & 0xFF;
+		final int operator = value[1] & 0xFF;
+
+		if (opCode == OP_CODE_ABORT_OPERATION) {
+			if (operator != OPERATOR_NULL) {
+				respond(opCode, RACP_ERROR_INVALID_OPERATOR);
+			} else if (value.length != 2) {
+				respond(opCode, RACP_ERROR_INVALID_OPERAND);
+			} else {
+				transferring = false;
+				respond(opCode, RACP_SUCCESS);
+			}
+			return ATT_SUCCESS;
+		}
+		if (transferring)
+			return ATT_ERROR_PROCEDURE_ALREADY_IN_PROGRESS;
+		if (opCode != OP_CODE_REPORT_STORED_RECORDS && opCode != OP_CODE_DELETE_STORED_RECORDS
+				&& opCode != OP_CODE_REPORT_NUMBER_OF_RECORDS) {
+			respond(opCode, RACP_ERROR_OP_CODE_NOT_SUPPORTED);
+			return ATT_SUCCESS;
+		}
+		if (injectedResponseCode != 0) {
+			respond(opCode, injectedResponseCode);
+			injectedResponseCode = 0;
+			return ATT_SUCCESS;
+		}
+
+		final int result = select(operator, value);
+		if (result != RACP_SUCCESS) {
+			respond(opCode, result);
+			return ATT_SUCCESS;
+		}
+		switch (opCode) {
+			case OP_CODE_REPORT_STORED_RECORDS:
+				if (cursor < end) {
+					transferring = true;
+				} else {
+					respond(opCode, RACP_ERROR_NO_RECORDS_FOUND);
+				}
+				break;
+			case OP_CODE_DELETE_STORED_RECORDS:
+				if (cursor < end) {
+					delete(cursor, end);
+					respond(opCode, RACP_SUCCESS);
+				} else {
+					respond(opCode, RACP_ERROR_NO_RECORDS_FOUND);
+				}
+				break;
+			default:
+				final int number = end - cursor;
+				send(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] {
+						OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE, OPERATOR_NULL,
+						(byte) number, (byte) (number >> 8)
+				});
+				break;
+		}
+		return ATT_SUCCESS;
+	}
+
+	/**
+	 * Sets {@link #cursor} and {@link #end} to the range of records selected by the operator.
+	 *
+	 * @return {@link #RACP_SUCCESS} or the response code of the error.
+	 */
+	private int select(final int operator, @NonNull final byte[] value) {
+		final int operandLength;
+		switch (operator) {
+			case OPERATOR_ALL_RECORDS:
+			case OPERATOR_FIRST_RECORD:
+			case OPERATOR_LAST_RECORD:
+				operandLength = 0;
+				break;
+			case OPERATOR_LESS_THEN_OR_EQUAL:
+			case OPERATOR_GREATER_THEN_OR_EQUAL:
+				operandLength = 3;
+				break;
+			case OPERATOR_WITHIN_RANGE:
+				operandLength = 5;
+				break;
+			case OPERATOR_NULL:
+				return RACP_ERROR_INVALID_OPERATOR;
+			default:
+				return RACP_ERROR_OPERATOR_NOT_SUPPORTED;
+		}
+		if (value.length != 2 + operandLength)
+			return RACP_ERROR_INVALID_OPERAND;
+		if (operandLength > 0 && value[2] != FILTER_TYPE_KEY)
+			return RACP_ERROR_OPERAND_NOT_SUPPORTED;
+
+		switch (operator) {
+			case OPERATOR_ALL_RECORDS:
+				cursor = 0;
+				end = count;
+				break;
+			case OPERATOR_FIRST_RECORD:
+				cursor = 0;
+				end = Math.min(1, count);
+				break;
+			case OPERATOR_LAST_RECORD:
+				cursor = Math.max(0, count - 1);
+				end = count;
+				break;
+			case OPERATOR_LESS_THEN_OR_EQUAL:
+				cursor = 0;
+				end = lowerBound(uint16(value, 3) + 1);
+				break;
+			case OPERATOR_GREATER_THEN_OR_EQUAL:
+				cursor = lowerBound(uint16(value, 3));
+				end = count;
+				break;
+			default:
+				final int from = uint16(value, 3);
+				final int to = uint16(value, 5);
+				if (from > to)
+					return RACP_ERROR_INVALID_OPERAND;
+				cursor = lowerBound(from);
+				end = lowerBound(to + 1);
+				break;
+		}
+		return RACP_SUCCESS;
+	}
+
+	/** Returns the index of the first record with key greater than or equal to the given one. */
+	private int lowerBound(final int key) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (keys[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void delete(final int from, final int to) {
+		System.arraycopy(keys, to, keys, from, count - to);
+		System.arraycopy(records, to, records, from, count - to);
+		for (int i = count - (to - from); i < count; i++)
+			records[i] = null;
+		count -= to - from;
+	}
+
+	private void respond(final int requestCode, final int responseCode) {
+		send(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] {
+				OP_CODE_RESPONSE_CODE, OPERATOR_NULL, (byte) requestCode, (byte) responseCode
+		});
+	}
+
+	static int uint16(@NonNull final byte[] value, final int offset) {
+		return (value[offset] & 0xFF) | ((value[offset + 1] & 0xFF) << 8);
+	}
+}
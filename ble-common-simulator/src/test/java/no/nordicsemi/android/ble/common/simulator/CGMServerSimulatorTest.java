@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.simulator;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import no.nordicsemi.android.ble.common.decoder.CGMSpecificOpsControlPointDecoder;
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+import no.nordicsemi.android.ble.common.util.CRC16;
+
+import static org.junit.Assert.*;
+
+public class CGMServerSimulatorTest {
+
+	private static final class RecordingTransport implements RecordAccessServer.Transport,
+			ContinuousGlucoseMeasurementDecoder.Callback, CGMSpecificOpsControlPointDecoder.Callback {
+		private final List<Integer> timeOffsets = new ArrayList<>();
+		private final List<byte[]> responses = new ArrayList<>();
+		private int packets;
+		private int invalidPackets;
+		private int crcErrors;
+		private int secured;
+		private int requestCode;
+		private int errorCode;
+		private int interval;
+		private int calibrationRecordNumber;
+		private float alertLevel;
+
+		@Override
+		public void onValue(final int characteristic, @NonNull final byte[] value, final int offset, final int length) {
+			final ByteBuffer buffer = ByteBuffer.wrap(value);
+			switch (characteristic) {
+				case Characteristics.CGM_MEASUREMENT:
+					packets++;
+					if (!ContinuousGlucoseMeasurementDecoder.decode(buffer, offset, length, this))
+						invalidPackets++;
+					break;
+				case Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT:
+					assertTrue(CGMSpecificOpsControlPointDecoder.decode(buffer, offset, length, this));
+					break;
+				default:
+					responses.add(Arrays.copyOfRange(value, offset, offset + length));
+					break;
+			}
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurement(final float glucoseConcentration,
+												   final boolean trendPresent, final float trend,
+												   final boolean qualityPresent, final float quality,
+												   final boolean statusPresent, final int warningStatus,
+												   final int calibrationTempStatus, final int sensorStatus,
+												   final int timeOffset, final boolean secured) {
+			assertEquals(100 + timeOffset % 50, glucoseConcentration, 0.01f);
+			assertTrue(trendPresent);
+			assertEquals(-0.5f, trend, 0.01f);
+			assertFalse(qualityPresent);
+			assertEquals(timeOffset % 2 == 0, statusPresent);
+			if (statusPresent) {
+				assertEquals(0, warningStatus);
+				assertEquals(0, calibrationTempStatus);
+				assertEquals(0x11, sensorStatus);
+			}
+			if (secured)
+				this.secured++;
+			timeOffsets.add(timeOffset);
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurementCrcError() {
+			crcErrors++;
+		}
+
+		@Override
+		public void onCommunicationInterval(final int interval, final boolean secured) {
+			this.interval = interval;
+			if (secured)
+				this.secured++;
+		}
+
+		@Override
+		public void onCalibrationValue(final float glucoseConcentrationOfCalibration,
+									   final int calibrationTime, final int nextCalibrationTime,
+									   final int type, final int sampleLocation,
+									   final int calibrationDataRecordNumber, final int calibrationStatus,
+									   final boolean secured) {
+			assertEquals(120f, glucoseConcentrationOfCalibration, 0.01f);
+			assertEquals(10, calibrationTime);
+			assertEquals(20, nextCalibrationTime);
+			assertEquals(3, type);
+			assertEquals(5, sampleLocation);
+			calibrationRecordNumber = calibrationDataRecordNumber;
+		}
+
+		@Override
+		public void onAlertLevel(final int opCode, final float level, final boolean secured) {
+			requestCode = opCode;
+			alertLevel = level;
+		}
+
+		@Override
+		public void onOperationCompleted(final int requestCode, final boolean secured) {
+			this.requestCode = requestCode;
+			this.errorCode = 0;
+			if (secured)
+				this.secured++;
+		}
+
+		@Override
+		public void onOperationError(final int requestCode, final int errorCode, final boolean secured) {
+			this.requestCode = requestCode;
+			this.errorCode = errorCode;
+		}
+
+		@Override
+		public void onCrcError() {
+			fail("CRC error");
+		}
+	}
+
+	private static CGMServerSimulator create(final RecordingTransport transport, final int records) {
+		final CGMServerSimulator server = new CGMServerSimulator(transport);
+		for (int i = 0; i < records; i++)
+			server.addRecord(i, 100 + i % 50, -0.5f, Float.NaN, -1, -1, i % 2 == 0 ? 0x11 : -1);
+		return server;
+	}
+
+	private static byte[] secure(final byte... value) {
+		final byte[] secured = Arrays.copyOf(value, value.length + 2);
+		final int crc = CRC16.MCRF4XX(value, 0, value.length);
+		secured[value.length] = (byte) crc;
+		secured[value.length + 1] = (byte) (crc >> 8);
+		return secured;
+	}
+
+	@Test
+	public void reportAll_packsRecords() {
+		final RecordingTransport transport = new RecordingTransport();
+		final CGMServerSimulator server = create(transport, 1000);
+		server.setMtu(247);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 1 });
+		server.runUntilIdle();
+
+		assertEquals(1000, transport.timeOffsets.size());
+		for (int i = 0; i < 1000; i++)
+			assertEquals(i, (int) transport.timeOffsets.get(i));
+		// Records take 8 or 9 bytes, so 27 to 30 fit in 244 bytes
+		assertTrue(transport.packets <= 1000 / 27 + 1);
+		assertEquals(0, transport.invalidPackets);
+		assertEquals(0, transport.secured);
+		assertArrayEquals(new byte[] { 6, 0, 1, 1 }, transport.responses.get(0));
+		assertEquals(1000, server.getRecordsSent());
+	}
+
+	@Test
+	public void reportGreaterThanOrEqual_withCrc() {
+		final RecordingTransport transport = new RecordingTransport();
+		final CGMServerSimulator server = create(transport, 100);
+		server.setE2eCrc(true);
+		server.setMtu(26);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 3, 1, 90, 0 });
+		server.drain();
+
+		assertEquals(10, transport.timeOffsets.size());
+		assertEquals(90, (int) transport.timeOffsets.get(0));
+		assertEquals(10, transport.secured);
+		// Records with the CRC take 10 or 11 bytes, so 2 fit in 23 bytes
+		assertEquals(5, transport.packets);
+	}
+
+	@Test
+	public void corruption() {
+		final RecordingTransport transport = new RecordingTransport();
+		final CGMServerSimulator server = create(transport, 200);
+		server.setE2eCrc(true);
+		server.setMtu(100);
+		server.setRandomSeed(42);
+		server.setCorruptionRate(1.0);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 1 });
+		server.drain();
+
+		// Every packet has a flipped bit, detected either by the CRC or as invalid size or flags
+		assertEquals(transport.packets, transport.crcErrors + transport.invalidPackets);
+		assertTrue(transport.crcErrors > 0);
+		assertTrue(transport.timeOffsets.size() < 200);
+		assertArrayEquals(new byte[] { 6, 0, 1, 1 }, transport.responses.get(0));
+	}
+
+	@Test
+	public void specificOpsControlPoint() {
+		final RecordingTransport transport = new RecordingTransport();
+		final CGMServerSimulator server = create(transport, 0);
+
+		assertEquals(RecordAccessServer.ATT_SUCCESS,
+				server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 1, 5 }));
+		assertEquals(RecordAccessServer.ATT_SUCCESS,
+				server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 2 }));
+		server.drain();
+		assertEquals(5, transport.interval);
+		assertEquals(5, server.getCommunicationInterval());
+
+		// Calibration: 120 mg/dL, time 10, type 3, location 5, next 20, record 0, status 0
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 4, 120, 0, 10, 0, 0x53, 20, 0, 0, 0, 0 });
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 4, 120, 0, 10, 0, 0x53, 20, 0, 0, 0, 0 });
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 5, (byte) 0xFF, (byte) 0xFF });
+		server.drain();
+		assertEquals(1, transport.calibrationRecordNumber);
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 5, 2, 0 });
+		server.drain();
+		assertEquals(5, transport.requestCode);
+		assertEquals(CGMServerSimulator.SOCP_ERROR_PARAMETER_OUT_OF_RANGE, transport.errorCode);
+
+		// Hypo alert level, 70 mg/dL
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 13, 70, 0 });
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 14 });
+		server.drain();
+		assertEquals(CGMSpecificOpsControlPointDecoder.OP_CODE_HYPO_ALERT_LEVEL_RESPONSE, transport.requestCode);
+		assertEquals(70f, transport.alertLevel, 0.01f);
+
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 27 });
+		server.drain();
+		assertFalse(server.isSessionRunning());
+
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 9 });
+		server.drain();
+		assertEquals(CGMServerSimulator.SOCP_ERROR_OP_CODE_NOT_SUPPORTED, transport.errorCode);
+		server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 26, 0 });
+		server.drain();
+		assertEquals(CGMServerSimulator.SOCP_ERROR_INVALID_OPERAND, transport.errorCode);
+	}
+
+	@Test
+	public void specificOpsControlPoint_withCrc() {
+		final RecordingTransport transport = new RecordingTransport();
+		final CGMServerSimulator server = create(transport, 0);
+		server.setE2eCrc(true);
+
+		assertEquals(CGMServerSimulator.ATT_ERROR_MISSING_CRC,
+				server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, new byte[] { 26 }));
+		final byte[] invalid = secure((byte) 26);
+		invalid[1] ^= 1;
+		assertEquals(CGMServerSimulator.ATT_ERROR_INVALID_CRC,
+				server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, invalid));
+		assertEquals(RecordAccessServer.ATT_SUCCESS,
+				server.write(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT, secure((byte) 27)));
+		assertEquals(1, server.drain());
+		assertEquals(27, transport.requestCode);
+		assertEquals(0, transport.errorCode);
+		assertEquals(1, transport.secured);
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.simulator;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+
+import static org.junit.Assert.*;
+
+public class GlucoseServerSimulatorTest {
+	private static final long BASE_TIME = DateTime.pack(2026, 3, 14, 9, 26, 53);
+
+	private static final class RecordingTransport implements RecordAccessServer.Transport,
+			GlucoseMeasurementDecoder.Callback {
+		private final List<Integer> sequenceNumbers = new ArrayList<>();
+		private final List<byte[]> responses = new ArrayList<>();
+
+		@Override
+		public void onValue(final int characteristic, @NonNull final byte[] value, final int offset, final int length) {
+			if (characteristic == Characteristics.GLUCOSE_MEASUREMENT) {
+				assertTrue(GlucoseMeasurementDecoder.decode(ByteBuffer.wrap(value), offset, length, this));
+			} else {
+				assertEquals(Characteristics.RECORD_ACCESS_CONTROL_POINT, characteristic);
+				responses.add(Arrays.copyOfRange(value, offset, offset + length));
+			}
+		}
+
+		@Override
+		public void onGlucoseMeasurement(final int sequenceNumber, final long baseTime, final int timeOffset,
+										 final boolean glucoseDataPresent, final float glucoseConcentration,
+										 final boolean unitMolL, final int type, final int sampleLocation,
+										 final boolean statusPresent, final int status,
+										 final boolean contextInformationFollows) {
+			assertEquals(BASE_TIME, baseTime);
+			assertEquals(sequenceNumber, timeOffset);
+			assertTrue(glucoseDataPresent);
+			assertEquals(0.0005f * (sequenceNumber + 1), glucoseConcentration, 0.00001f);
+			assertFalse(unitMolL);
+			assertEquals(1, type);
+			assertEquals(2, sampleLocation);
+			assertFalse(contextInformationFollows);
+			sequenceNumbers.add(sequenceNumber);
+		}
+
+		byte[] lastResponse() {
+			return responses.get(responses.size() - 1);
+		}
+	}
+
+	private static GlucoseServerSimulator create(final RecordingTransport transport, final int records) {
+		final GlucoseServerSimulator server = new GlucoseServerSimulator(transport);
+		for (int i = 0; i < records; i++)
+			assertEquals(i, server.addRecord(BASE_TIME, i, 0.0005f * (i + 1), false, 1, 2, -1));
+		return server;
+	}
+
+	@Test
+	public void reportAll_paced() {
+		final RecordingTransport transport = new RecordingTransport();
+		final GlucoseServerSimulator server = create(transport, 5);
+
+		assertEquals(RecordAccessServer.ATT_SUCCESS, server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 1 }));
+		assertFalse(server.isIdle());
+		assertEquals(0, server.advance(RecordAccessServer.DEFAULT_CONNECTION_INTERVAL_NANOS - 1));
+		assertEquals(4, server.advance(1));
+		assertEquals(Arrays.asList(0, 1, 2, 3), transport.sequenceNumbers);
+		assertTrue(transport.responses.isEmpty());
+
+		// The last record and the response
+		assertEquals(RecordAccessServer.DEFAULT_CONNECTION_INTERVAL_NANOS, server.runUntilIdle());
+		assertEquals(5, transport.sequenceNumbers.size());
+		assertArrayEquals(new byte[] { 6, 0, 1, 1 }, transport.lastResponse());
+		assertEquals(6, server.getPacketsSent());
+		assertEquals(5, server.getRecordsSent());
+	}
+
+	@Test
+	public void reportWithinRange() {
+		final RecordingTransport transport = new RecordingTransport();
+		final GlucoseServerSimulator server = create(transport, 5);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 4, 1, 1, 0, 3, 0 });
+		assertEquals(4, server.drain());
+		assertEquals(Arrays.asList(1, 2, 3), transport.sequenceNumbers);
+		assertArrayEquals(new byte[] { 6, 0, 1, 1 }, transport.lastResponse());
+	}
+
+	@Test
+	public void reportNumberAndDelete() {
+		final RecordingTransport transport = new RecordingTransport();
+		final GlucoseServerSimulator server = create(transport, 5);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 4, 3, 1, 2, 0 });
+		server.drain();
+		assertArrayEquals(new byte[] { 5, 0, 3, 0 }, transport.lastResponse());
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 2, 2, 1, 1, 0 });
+		server.drain();
+		assertArrayEquals(new byte[] { 6, 0, 2, 1 }, transport.lastResponse());
+		assertEquals(3, server.getRecordCount());
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 5 });
+		server.drain();
+		assertEquals(Collections.singletonList(2), transport.sequenceNumbers);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 2, 1 });
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 6 });
+		server.drain();
+		assertArrayEquals(new byte[] { 6, 0, 1, 6 }, transport.lastResponse());
+	}
+
+	@Test
+	public void abort() {
+		final RecordingTransport transport = new RecordingTransport();
+		final GlucoseServerSimulator server = create(transport, 100);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 1 });
+		server.advance(RecordAccessServer.DEFAULT_CONNECTION_INTERVAL_NANOS);
+		assertEquals(RecordAccessServer.ATT_ERROR_PROCEDURE_ALREADY_IN_PROGRESS,
+				server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 4, 1 }));
+		assertEquals(RecordAccessServer.ATT_SUCCESS,
+				server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 3, 0 }));
+		assertEquals(1, server.drain());
+		assertEquals(4, transport.sequenceNumbers.size());
+		assertArrayEquals(new byte[] { 6, 0, 3, 1 }, transport.lastResponse());
+		assertTrue(server.isIdle());
+	}
+
+	@Test
+	public void errors() {
+		final RecordingTransport transport = new RecordingTransport();
+		final GlucoseServerSimulator server = create(transport, 5);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 0 });
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 7 });
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 3, 2, 0, 0, 0, 0, 0, 0, 0 });
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 3, 1, 0 });
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 4, 1, 3, 0, 1, 0 });
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 9, 1 });
+		server.injectRecordAccessError(RecordAccessServer.RACP_ERROR_PROCEDURE_NOT_COMPLETED);
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 1 });
+		assertEquals(7, server.drain());
+
+		assertEquals(RecordAccessServer.RACP_ERROR_INVALID_OPERATOR, transport.responses.get(0)[3]);
+		assertEquals(RecordAccessServer.RACP_ERROR_OPERATOR_NOT_SUPPORTED, transport.responses.get(1)[3]);
+		assertEquals(RecordAccessServer.RACP_ERROR_INVALID_OPERAND, transport.responses.get(2)[3]);
+		assertEquals(RecordAccessServer.RACP_ERROR_INVALID_OPERAND, transport.responses.get(3)[3]);
+		assertEquals(RecordAccessServer.RACP_ERROR_INVALID_OPERAND, transport.responses.get(4)[3]);
+		assertEquals(RecordAccessServer.RACP_ERROR_OP_CODE_NOT_SUPPORTED, transport.responses.get(5)[3]);
+		assertEquals(RecordAccessServer.RACP_ERROR_PROCEDURE_NOT_COMPLETED, transport.responses.get(6)[3]);
+		assertTrue(transport.sequenceNumbers.isEmpty());
+
+		// Filter type other than the sequence number
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 3, 2, 0, 0 });
+		server.drain();
+		assertEquals(RecordAccessServer.RACP_ERROR_OPERAND_NOT_SUPPORTED, transport.lastResponse()[3]);
+		assertEquals(RecordAccessServer.ATT_ERROR_WRITE_NOT_PERMITTED,
+				server.write(Characteristics.GLUCOSE_MEASUREMENT, new byte[] { 1 }));
+	}
+
+	@Test
+	public void packetLoss() {
+		final RecordingTransport transport = new RecordingTransport();
+		final GlucoseServerSimulator server = create(transport, 10);
+		server.setPacketLossRate(1.0);
+
+		server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, new byte[] { 1, 1 });
+		server.runUntilIdle();
+		assertTrue(transport.sequenceNumbers.isEmpty());
+		assertEquals(10, server.getPacketsLost());
+		assertArrayEquals(new byte[] { 6, 0, 1, 1 }, transport.lastResponse());
+	}
+}
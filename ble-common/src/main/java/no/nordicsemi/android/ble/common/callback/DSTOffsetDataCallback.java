@@ -28,6 +28,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.DSTOffsetCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +40,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class DSTOffsetDataCallback extends ProfileReadResponse implements DSTOffsetCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.DST_OFFSET);
 
 	public DSTOffsetDataCallback() {
 		// empty
@@ -51,13 +53,19 @@ public abstract class DSTOffsetDataCallback extends ProfileReadResponse implemen
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		final DSTOffset offset = readDSTOffset(data, 0);
-		if (offset == null) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final DSTOffset offset = readDSTOffset(data, 0);
+			if (offset == null) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
+			probe.valid();
+			onDSTOffsetReceived(device, offset);
+		} finally {
+			probe.finish();
 		}
-		onDSTOffsetReceived(device, offset);
 	}
 
 	/**
@@ -69,28 +69,28 @@ public final class DSTOffsetResponse extends DSTOffsetDataCallback implements Pa
 	// Parcelable
 	private DSTOffsetResponse(final Parcel in) {
 		super(in);
-		if (in.readByte() == 0) {
-			offset = null;
-		} else {
-			offset = DSTOffset.values()[in.readInt()];
-		}
+	}
+
+	private void readFields(final Parcel in) {
+		final int ordinal = in.readInt();
+		offset = ordinal >= 0 ? DSTOffset.values()[ordinal] : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		if (offset == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(offset.ordinal());
-		}
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt(offset != null ? offset.ordinal() : -1);
 	}
 
 	public static final Creator<DSTOffsetResponse> CREATOR = new Creator<DSTOffsetResponse>() {
 		@Override
 		public DSTOffsetResponse createFromParcel(final Parcel in) {
-			return new DSTOffsetResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final DSTOffsetResponse response = ResponseParcel.hasRawData(header)
+					? new DSTOffsetResponse(in) : ResponseParcel.restore(new DSTOffsetResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -30,6 +30,9 @@ import androidx.annotation.Nullable;
 import java.util.Calendar;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.DateTimeCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -41,6 +44,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class DateTimeDataCallback extends ProfileReadResponse implements DateTimeCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.DATE_TIME);
 
 	public DateTimeDataCallback() {
 		// empty
@@ -53,13 +57,19 @@ public abstract class DateTimeDataCallback extends ProfileReadResponse implement
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		final Calendar calendar = readDateTime(data, 0);
-		if (calendar == null) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final Calendar calendar = readDateTime(data, 0);
+			if (calendar == null) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
+			probe.valid();
+			onDateTimeReceived(device, calendar);
+		} finally {
+			probe.finish();
 		}
-		onDateTimeReceived(device, calendar);
 	}
 
 	/**
@@ -70,6 +80,7 @@ public abstract class DateTimeDataCallback extends ProfileReadResponse implement
 	 * If YEAR, MONTH or DATE are set to 0 in the data, the corresponding fields in the calendar are 'unset',
 	 * that is {@code calendar.isSet(Calendar.YEAR)} returns false.
 	 * </p>
+	 * Use {@link DateTime} to obtain the time in milliseconds without creating a Calendar.
 	 *
 	 * @param data input data (7 bytes required).
 	 * @param offset offset to read from.
@@ -80,26 +91,6 @@ public abstract class DateTimeDataCallback extends ProfileReadResponse implement
 		if (data.size() < offset + 7)
 			return null;
 
-		final Calendar calendar = Calendar.getInstance();
-		final int year = data.getIntValue(Data.FORMAT_UINT16, offset);
-		final int month = data.getIntValue(Data.FORMAT_UINT8, offset + 2);
-		final int day = data.getIntValue(Data.FORMAT_UINT8, offset + 3);
-		if (year > 0)
-			calendar.set(Calendar.YEAR, year);
-		else
-			calendar.clear(Calendar.YEAR);
-		if (month > 0)
-			calendar.set(Calendar.MONTH, month - 1); // months are 1-based in Date Time characteristic
-		else
-			calendar.clear(Calendar.MONTH);
-		if (day > 0)
-			calendar.set(Calendar.DATE, day);
-		else
-			calendar.clear(Calendar.DATE);
-		calendar.set(Calendar.HOUR_OF_DAY, data.getIntValue(Data.FORMAT_UINT8, offset + 4));
-		calendar.set(Calendar.MINUTE, data.getIntValue(Data.FORMAT_UINT8, offset + 5));
-		calendar.set(Calendar.SECOND, data.getIntValue(Data.FORMAT_UINT8, offset + 6));
-		calendar.set(Calendar.MILLISECOND, 0);
-		return calendar;
+		return DateTime.toCalendar(DateTime.read(ValueReader.wrap(data.getValue()), offset));
 	}
 }
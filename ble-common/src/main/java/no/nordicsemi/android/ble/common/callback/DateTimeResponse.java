@@ -71,29 +71,29 @@ public final class DateTimeResponse extends DateTimeDataCallback implements Parc
 	// Parcelable
 	private DateTimeResponse(final Parcel in) {
 		super(in);
-		if (in.readByte() == 0) {
-			calendar = null;
-		} else {
-			calendar = Calendar.getInstance();
-			calendar.setTimeInMillis(in.readLong());
-		}
+	}
+
+	private void readFields(final Parcel in) {
+		calendar = in.readInt() != 0 ? ResponseParcel.readCalendar(in) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		if (calendar == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeLong(calendar.getTimeInMillis());
-		}
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt(calendar != null ? 1 : 0);
+		if (calendar != null)
+			ResponseParcel.writeCalendar(dest, calendar);
 	}
 
 	public static final Creator<DateTimeResponse> CREATOR = new Creator<DateTimeResponse>() {
 		@Override
 		public DateTimeResponse createFromParcel(final Parcel in) {
-			return new DateTimeResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final DateTimeResponse response = ResponseParcel.hasRawData(header)
+					? new DateTimeResponse(in) : ResponseParcel.restore(new DateTimeResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
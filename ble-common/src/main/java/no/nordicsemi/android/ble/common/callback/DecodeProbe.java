@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import no.nordicsemi.android.ble.common.metrics.DecodeMetrics;
+import no.nordicsemi.android.ble.common.metrics.Metrics;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Reports the outcome of each value received by a data callback to {@link Metrics}.
+ * <p>
+ * The callback calls {@link #start(BluetoothDevice, Data)} when a value is received and one of
+ * the outcome methods just before the value is reported to the listener, so the time spent in
+ * the listener is not counted. Only the first outcome of each value is reported.
+ * {@link #finish()} is called when the listener has returned.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class DecodeProbe {
+	private final int characteristic;
+	@Nullable
+	private String deviceAddress;
+	private int length;
+	private long start;
+	private boolean reported;
+
+	/**
+	 * @param characteristic the 16-bit UUID of the characteristic, see
+	 *                       {@link no.nordicsemi.android.ble.common.profile.Characteristics}.
+	 */
+	public DecodeProbe(final int characteristic) {
+		this.characteristic = characteristic;
+	}
+
+	/**
+	 * Called when a value has been received, before decoding.
+	 */
+	public void start(@Nullable final BluetoothDevice device, @NonNull final Data data) {
+		start = Metrics.start();
+		deviceAddress = device != null ? device.getAddress() : null;
+		length = data.size();
+		reported = false;
+	}
+
+	public void valid() {
+		report(DecodeMetrics.OUTCOME_VALID);
+	}
+
+	public void invalid() {
+		report(DecodeMetrics.OUTCOME_INVALID);
+	}
+
+	public void crcError() {
+		report(DecodeMetrics.OUTCOME_CRC_ERROR);
+	}
+
+	/**
+	 * Called when the value has been handled, also if the listener has thrown.
+	 */
+	public void finish() {
+		Metrics.reportDispatch(characteristic, deviceAddress, start);
+	}
+
+	private void report(final int outcome) {
+		if (reported)
+			return;
+		reported = true;
+		Metrics.report(characteristic, deviceAddress, outcome, length, start);
+	}
+}
@@ -26,7 +26,12 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.decoder.RecordAccessControlPointDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.RecordAccessControlPointCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -38,11 +43,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class RecordAccessControlPointDataCallback extends ProfileReadResponse implements RecordAccessControlPointCallback {
-	private final static int OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE = 5;
-	private final static int OP_CODE_RESPONSE_CODE = 6;
-	private final static int OPERATOR_NULL = 0;
-	private final static int RACP_RESPONSE_SUCCESS = 1;
-	private final static int RACP_ERROR_NO_RECORDS_FOUND = 6;
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.RECORD_ACCESS_CONTROL_POINT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public RecordAccessControlPointDataCallback() {
 		// empty
@@ -55,64 +57,49 @@ public abstract class RecordAccessControlPointDataCallback extends ProfileReadRe
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 3) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			try {
+				if (!RecordAccessControlPointDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		final int opCode = data.getIntValue(Data.FORMAT_UINT8, 0);
-		if (opCode != OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE && opCode != OP_CODE_RESPONSE_CODE) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
+	/** Reused by all values; the device is set only while decoding. */
+	private final class DecoderCallback implements RecordAccessControlPointDecoder.Callback {
+		private BluetoothDevice device;
 
-		final int operator = data.getIntValue(Data.FORMAT_UINT8, 1);
-		if (operator != OPERATOR_NULL) {
-			onInvalidDataReceived(device, data);
-			return;
+		@Override
+		public void onNumberOfRecords(final int numberOfRecords) {
+			probe.valid();
+			onNumberOfRecordsReceived(device, numberOfRecords);
 		}
 
-		switch (opCode) {
-			case OP_CODE_NUMBER_OF_STORED_RECORDS_RESPONSE: {
-				// Field size is defined per service
-				int numberOfRecords;
+		@Override
+		public void onOperationCompleted(final int requestCode) {
+			probe.valid();
+			onRecordAccessOperationCompleted(device, requestCode);
+		}
 
-				switch (data.size() - 2) {
-					case 1:
-						numberOfRecords = data.getIntValue(Data.FORMAT_UINT8, 2);
-						break;
-					case 2:
-						numberOfRecords = data.getIntValue(Data.FORMAT_UINT16, 2);
-						break;
-					case 4:
-						numberOfRecords = data.getIntValue(Data.FORMAT_UINT32, 2);
-						break;
-					default:
-						// Other field sizes are not supported
-						onInvalidDataReceived(device, data);
-						return;
-				}
-				onNumberOfRecordsReceived(device, numberOfRecords);
-				break;
-			}
-			case OP_CODE_RESPONSE_CODE: {
-				if (data.size() != 4) {
-					onInvalidDataReceived(device, data);
-					return;
-				}
+		@Override
+		public void onOperationCompletedWithNoRecordsFound(final int requestCode) {
+			probe.valid();
+			onRecordAccessOperationCompletedWithNoRecordsFound(device, requestCode);
+		}
 
-				final int requestCode = data.getIntValue(Data.FORMAT_UINT8, 2);
-				final int responseCode = data.getIntValue(Data.FORMAT_UINT8, 3);
-				if (responseCode == RACP_RESPONSE_SUCCESS) {
-					onRecordAccessOperationCompleted(device, requestCode);
-				} else if (responseCode == RACP_ERROR_NO_RECORDS_FOUND) {
-					onRecordAccessOperationCompletedWithNoRecordsFound(device, requestCode);
-				} else {
-					onRecordAccessOperationError(device, requestCode, responseCode);
-				}
-				break;
-			}
+		@Override
+		public void onOperationError(final int requestCode, final int errorCode) {
+			probe.valid();
+			onRecordAccessOperationError(device, requestCode, errorCode);
 		}
 	}
 }
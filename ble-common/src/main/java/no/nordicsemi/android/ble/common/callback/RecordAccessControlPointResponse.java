@@ -147,27 +147,34 @@ public final class RecordAccessControlPointResponse extends RecordAccessControlP
 	// Parcelable
 	private RecordAccessControlPointResponse(final Parcel in) {
 		super(in);
-		operationCompleted = in.readByte() != 0;
-		recordsFound = in.readByte() != 0;
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		operationCompleted = (packed & 0x01) != 0;
+		recordsFound = (packed & 0x02) != 0;
+		requestCode = (packed >> 8) & 0xFF;
+		errorCode = (packed >> 16) & 0xFF;
 		numberOfRecords = in.readInt();
-		errorCode = in.readInt();
-		requestCode = in.readInt();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeByte((byte) (operationCompleted ? 1 : 0));
-		dest.writeByte((byte) (recordsFound ? 1 : 0));
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((operationCompleted ? 0x01 : 0) | (recordsFound ? 0x02 : 0)
+				| ((requestCode & 0xFF) << 8) | ((errorCode & 0xFF) << 16));
 		dest.writeInt(numberOfRecords);
-		dest.writeInt(errorCode);
-		dest.writeInt(requestCode);
 	}
 
 	public static final Creator<RecordAccessControlPointResponse> CREATOR = new Creator<RecordAccessControlPointResponse>() {
 		@Override
 		public RecordAccessControlPointResponse createFromParcel(final Parcel in) {
-			return new RecordAccessControlPointResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final RecordAccessControlPointResponse response = ResponseParcel.hasRawData(header)
+					? new RecordAccessControlPointResponse(in) : ResponseParcel.restore(new RecordAccessControlPointResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
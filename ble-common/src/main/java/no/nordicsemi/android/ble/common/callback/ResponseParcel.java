@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback;
+
+import android.os.BadParcelableException;
+import android.os.Parcel;
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+
+import java.util.Calendar;
+
+import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * The compact, versioned Parcel format of the Response classes.
+ * <p>
+ * Each response starts with a header int. The header holds a magic number, the format version,
+ * and flags: whether the response is valid and whether the raw data are included.
+ * If they are, the header is followed by the state of the {@link ProfileReadResponse},
+ * written by the library. Then the response writes its own fields. Booleans, small values
+ * and the presence of nullable fields are packed into bit fields of a single int, and only
+ * the values that are present follow it.
+ * <p>
+ * The raw data are included by default, so {@code getRawData()} of an unparcelled response
+ * returns the received value. Add {@link #PARCELABLE_OMIT_RAW_DATA} to the flags passed to
+ * {@link Parcelable#writeToParcel(Parcel, int)} to omit them, e.g. when many measurements
+ * are sent to another process.
+ * <p>
+ * Arrays of responses may be written with {@link Parcel#writeTypedArray(Parcelable[], int)},
+ * or with {@link #writeArray(Parcel, Parcelable[], int)}, which skips the null markers.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class ResponseParcel {
+	/** The current version of the format. */
+	public static final int VERSION = 1;
+	/**
+	 * Flag for {@link Parcelable#writeToParcel(Parcel, int)} to omit the raw data.
+	 * It does not overlap the {@code PARCELABLE_*} flags defined by Android.
+	 */
+	public static final int PARCELABLE_OMIT_RAW_DATA = 0x10000;
+
+	private static final int MAGIC = 0x52500000; // "RP"
+	private static final int MAGIC_MASK = 0xFFFF0000;
+	private static final int FLAG_RAW_DATA = 0x01;
+	private static final int FLAG_VALID = 0x02;
+
+	private ResponseParcel() {
+		// empty private constructor
+	}
+
+	/**
+	 * Writes the header of the response.
+	 *
+	 * @param dest     the parcel.
+	 * @param response the response being written.
+	 * @param flags    the flags passed to {@link Parcelable#writeToParcel(Parcel, int)}.
+	 * @return True if the raw data are included. The caller must then write the state of
+	 * the {@link ProfileReadResponse} by calling {@code super.writeToParcel(dest, flags)}.
+	 */
+	public static boolean writeHeader(@NonNull final Parcel dest, @NonNull final ProfileReadResponse response,
+									  final int flags) {
+		final boolean raw = (flags & PARCELABLE_OMIT_RAW_DATA) == 0;
+		dest.writeInt(MAGIC | (VERSION << 8)
+				| (raw ? FLAG_RAW_DATA : 0) | (response.isValid() ? FLAG_VALID : 0));
+		return raw;
+	}
+
+	/**
+	 * Reads the header of a response.
+	 *
+	 * @param in the parcel.
+	 * @return The header.
+	 * @throws BadParcelableException if the parcel does not contain a response in a supported version.
+	 */
+	public static int readHeader(@NonNull final Parcel in) {
+		final int header = in.readInt();
+		if ((header & MAGIC_MASK) != MAGIC || ((header >> 8) & 0xFF) != VERSION)
+			throw new BadParcelableException("Unsupported response format: 0x" + Integer.toHexString(header));
+		return header;
+	}
+
+	/**
+	 * Returns true if the raw data follow the header. The response must then be created with
+	 * its Parcel constructor, otherwise with the default one and
+	 * {@link #restore(ProfileReadResponse, int)}.
+	 *
+	 * @param header the header.
+	 * @return True if the raw data are included.
+	 */
+	public static boolean hasRawData(final int header) {
+		return (header & FLAG_RAW_DATA) != 0;
+	}
+
+	/**
+	 * Restores the validity of a response created without the raw data.
+	 *
+	 * @param response the new response.
+	 * @param header   the header.
+	 * @return The response.
+	 */
+	@SuppressWarnings("ConstantConditions")
+	@NonNull
+	public static <T extends ProfileReadResponse> T restore(@NonNull final T response, final int header) {
+		if ((header & FLAG_VALID) == 0)
+			response.onInvalidDataReceived(null, new Data());
+		return response;
+	}
+
+	public static void writeCalendar(@NonNull final Parcel dest, @NonNull final Calendar calendar) {
+		dest.writeLong(calendar.getTimeInMillis());
+	}
+
+	@NonNull
+	public static Calendar readCalendar(@NonNull final Parcel in) {
+		final Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(in.readLong());
+		return calendar;
+	}
+
+	/**
+	 * Writes the responses preceded by their number. Unlike
+	 * {@link Parcel#writeTypedArray(Parcelable[], int)} no null markers are written,
+	 * so the array must not contain nulls.
+	 *
+	 * @param dest      the parcel.
+	 * @param responses the responses.
+	 * @param flags     the flags passed to {@link Parcelable#writeToParcel(Parcel, int)},
+	 *                  optionally with {@link #PARCELABLE_OMIT_RAW_DATA}.
+	 */
+	public static <T extends Parcelable> void writeArray(@NonNull final Parcel dest,
+														 @NonNull final T[] responses, final int flags) {
+		dest.writeInt(responses.length);
+		for (final T response : responses) {
+			response.writeToParcel(dest, flags);
+		}
+	}
+
+	/**
+	 * Reads the responses written with {@link #writeArray(Parcel, Parcelable[], int)}.
+	 *
+	 * @param in      the parcel.
+	 * @param creator the creator of the response type.
+	 * @return The responses.
+	 */
+	@NonNull
+	public static <T> T[] createArray(@NonNull final Parcel in, @NonNull final Parcelable.Creator<T> creator) {
+		final int count = in.readInt();
+		final T[] responses = creator.newArray(count);
+		for (int i = 0; i < count; ++i) {
+			responses[i] = creator.createFromParcel(in);
+		}
+		return responses;
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+
+/**
+ * A small pool of reusable responses, for loops receiving notifications with
+ * synchronous requests, where a new response would otherwise be allocated for each packet.
+ * <p>
+ * Usage example:
+ * <pre>
+ * final ResponsePool&lt;HeartRateMeasurementResponse&gt; pool =
+ *         new ResponsePool&lt;&gt;(HeartRateMeasurementResponse::new);
+ * while (connected) {
+ *     final HeartRateMeasurementResponse response = pool.acquire();
+ *     try {
+ *         waitForNotification(characteristic).awaitValid(response);
+ *         ...
+ *     } finally {
+ *         pool.release(response);
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * The pool is confined to the thread that created it and throws
+ * {@link IllegalStateException} if used from another thread. A response must not be used
+ * after it was released. Responses that received invalid data are not returned to the pool,
+ * as the validity flag of {@link ProfileReadResponse} can't be cleared.
+ *
+ * @param <T> the response type.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class ResponsePool<T extends ProfileReadResponse & RecyclableResponse> {
+	private static final int DEFAULT_CAPACITY = 4;
+
+	public interface Factory<T> {
+
+		/**
+		 * Creates a new response.
+		 */
+		@NonNull
+		T create();
+	}
+
+	@NonNull
+	private final Factory<T> factory;
+	@NonNull
+	private final Thread owner;
+	@NonNull
+	private final Object[] responses;
+	private int size;
+
+	/**
+	 * Creates a pool of up to 4 responses.
+	 *
+	 * @param factory the factory creating new responses when the pool is empty.
+	 */
+	public ResponsePool(@NonNull final Factory<T> factory) {
+		this(factory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a pool.
+	 *
+	 * @param factory  the factory creating new responses when the pool is empty.
+	 * @param capacity the maximum number of responses kept in the pool.
+	 */
+	public ResponsePool(@NonNull final Factory<T> factory, @IntRange(from = 1) final int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		this.factory = factory;
+		this.owner = Thread.currentThread();
+		this.responses = new Object[capacity];
+	}
+
+	/**
+	 * Returns a response from the pool, or a new one if the pool is empty.
+	 *
+	 * @return The response, with no values set.
+	 */
+	@SuppressWarnings("unchecked")
+	@NonNull
+	public T acquire() {
+		checkThread();
+		if (size == 0)
+			return factory.create();
+		final T response = (T) responses[--size];
+		responses[size] = null;
+		return response;
+	}
+
+	/**
+	 * Resets the response and returns it to the pool. If the pool is full, or the response
+	 * received invalid data, it is left for the garbage collector.
+	 *
+	 * @param response the response, obtained from {@link #acquire()}.
+	 */
+	public void release(@NonNull final T response) {
+		checkThread();
+		if (size == responses.length || !response.isValid())
+			return;
+		response.reset();
+		responses[size++] = response;
+	}
+
+	/**
+	 * Returns the number of responses in the pool.
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void checkThread() {
+		if (Thread.currentThread() != owner)
+			throw new IllegalStateException("ResponsePool used outside of its thread");
+	}
+}
@@ -28,6 +28,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.TimeZoneCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +40,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings("WeakerAccess")
 public abstract class TimeZoneDataCallback extends ProfileReadResponse implements TimeZoneCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.TIME_ZONE);
+
 	public TimeZoneDataCallback() {
 		// empty
 	}
@@ -50,19 +53,27 @@ public abstract class TimeZoneDataCallback extends ProfileReadResponse implement
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			final Integer offset = readTimeZone(data, 0);
+			if (offset == null) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		final Integer offset = readTimeZone(data, 0);
-		if (offset == null) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		if (offset == -128) {
-			onUnknownTimeZoneReceived(device);
-		} else if (offset < -48 || offset > 56) {
-			onInvalidDataReceived(device, data);
-		} else {
-			onTimeZoneReceived(device, offset * 15);
+			if (offset == -128) {
+				probe.valid();
+				onUnknownTimeZoneReceived(device);
+			} else if (offset < -48 || offset > 56) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+			} else {
+				probe.valid();
+				onTimeZoneReceived(device, offset * 15);
+			}
+		} finally {
+			probe.finish();
 		}
 	}
 
@@ -83,21 +83,29 @@ public final class TimeZoneResponse extends TimeZoneDataCallback implements Parc
 	// Parcelable
 	private TimeZoneResponse(final Parcel in) {
 		super(in);
-		timeZoneOffset = in.readInt();
-		timeZoneOffsetKnown = in.readByte() != 0;
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		timeZoneOffsetKnown = (packed & 0x01) != 0;
+		timeZoneOffset = packed >> 1;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeInt(timeZoneOffset);
-		dest.writeByte((byte) (timeZoneOffsetKnown ? 1 : 0));
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((timeZoneOffset << 1) | (timeZoneOffsetKnown ? 0x01 : 0));
 	}
 
 	public static final Creator<TimeZoneResponse> CREATOR = new Creator<TimeZoneResponse>() {
 		@Override
 		public TimeZoneResponse createFromParcel(final Parcel in) {
-			return new TimeZoneResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final TimeZoneResponse response = ResponseParcel.hasRawData(header)
+					? new TimeZoneResponse(in) : ResponseParcel.restore(new TimeZoneResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
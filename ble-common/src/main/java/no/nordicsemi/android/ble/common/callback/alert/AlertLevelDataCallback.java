@@ -5,10 +5,13 @@ import android.os.Parcel;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.alert.AlertLevelCallback;
 import no.nordicsemi.android.ble.data.Data;
 
 public abstract class AlertLevelDataCallback extends ProfileReadResponse implements AlertLevelCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.ALERT_LEVEL);
 
 	public AlertLevelDataCallback() {
 		// empty
@@ -21,14 +24,20 @@ public abstract class AlertLevelDataCallback extends ProfileReadResponse impleme
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() == 1) {
-			final Integer level = data.getIntValue(Data.FORMAT_UINT8, 0);
-			if (level != null && level <= AlertLevelCallback.ALERT_HIGH) {
-				onAlertLevelChanged(device, level);
-				return;
+		probe.start(device, data);
+		try {
+			if (data.size() == 1) {
+				final Integer level = data.getIntValue(Data.FORMAT_UINT8, 0);
+				if (level != null && level <= AlertLevelCallback.ALERT_HIGH) {
+					probe.valid();
+					onAlertLevelChanged(device, level);
+					return;
+				}
 			}
+			probe.invalid();
+			onInvalidDataReceived(device, data);
+		} finally {
+			probe.finish();
 		}
-		onInvalidDataReceived(device, data);
 	}
 }
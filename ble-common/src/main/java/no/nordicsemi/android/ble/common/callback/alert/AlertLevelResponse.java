@@ -5,6 +5,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 
 import androidx.annotation.NonNull;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.common.profile.alert.AlertLevel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -53,19 +54,27 @@ public final class AlertLevelResponse extends AlertLevelDataCallback implements
 	// Parcelable
 	private AlertLevelResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
 		level = in.readInt();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
 		dest.writeInt(level);
 	}
 
 	public static final Creator<AlertLevelResponse> CREATOR = new Creator<AlertLevelResponse>() {
 		@Override
 		public AlertLevelResponse createFromParcel(final Parcel in) {
-			return new AlertLevelResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final AlertLevelResponse response = ResponseParcel.hasRawData(header)
+					? new AlertLevelResponse(in) : ResponseParcel.restore(new AlertLevelResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
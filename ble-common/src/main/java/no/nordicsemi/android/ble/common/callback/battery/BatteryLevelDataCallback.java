@@ -27,6 +27,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.battery.BatteryLevelCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -38,6 +40,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings("WeakerAccess")
 public abstract class BatteryLevelDataCallback extends ProfileReadResponse implements BatteryLevelCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.BATTERY_LEVEL);
 
 	public BatteryLevelDataCallback() {
 		// empty
@@ -51,14 +54,20 @@ public abstract class BatteryLevelDataCallback extends ProfileReadResponse imple
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() == 1) {
-			final int batteryLevel = data.getIntValue(Data.FORMAT_UINT8, 0);
-			if (batteryLevel >= 0 && batteryLevel <= 100) {
-				onBatteryLevelChanged(device, batteryLevel);
-				return;
+		probe.start(device, data);
+		try {
+			if (data.size() == 1) {
+				final int batteryLevel = data.getIntValue(Data.FORMAT_UINT8, 0);
+				if (batteryLevel >= 0 && batteryLevel <= 100) {
+					probe.valid();
+					onBatteryLevelChanged(device, batteryLevel);
+					return;
+				}
 			}
+			probe.invalid();
+			onInvalidDataReceived(device, data);
+		} finally {
+			probe.finish();
 		}
-		onInvalidDataReceived(device, data);
 	}
 }
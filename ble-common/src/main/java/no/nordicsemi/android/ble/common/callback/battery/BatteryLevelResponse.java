@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -74,19 +75,27 @@ public final class BatteryLevelResponse extends BatteryLevelDataCallback impleme
 	// Parcelable
 	private BatteryLevelResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
 		mBatteryLevel = in.readInt();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
 		dest.writeInt(mBatteryLevel);
 	}
 
 	public static final Creator<BatteryLevelResponse> CREATOR = new Creator<BatteryLevelResponse>() {
 		@Override
 		public BatteryLevelResponse createFromParcel(final Parcel in) {
-			return new BatteryLevelResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final BatteryLevelResponse response = ResponseParcel.hasRawData(header)
+					? new BatteryLevelResponse(in) : ResponseParcel.restore(new BatteryLevelResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
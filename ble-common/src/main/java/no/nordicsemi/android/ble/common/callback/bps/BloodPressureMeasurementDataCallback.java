@@ -26,10 +26,14 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
-import java.util.Calendar;
+import java.nio.ByteBuffer;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
-import no.nordicsemi.android.ble.common.callback.DateTimeDataCallback;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.BloodPressureMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.bp.BloodPressureMeasurementCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -41,6 +45,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class BloodPressureMeasurementDataCallback extends ProfileReadResponse implements BloodPressureMeasurementCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.BLOOD_PRESSURE_MEASUREMENT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public BloodPressureMeasurementDataCallback() {
 		// empty
@@ -53,64 +59,41 @@ public abstract class BloodPressureMeasurementDataCallback extends ProfileReadRe
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 7) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-		// First byte: flags
-		int offset = 0;
-		final int flags = data.getIntValue(Data.FORMAT_UINT8, offset++);
-
-		// See UNIT_* for unit options
-		final int unit = (flags & 0x01) == UNIT_mmHg ? UNIT_mmHg : UNIT_kPa;
-		final boolean timestampPresent         = (flags & 0x02) != 0;
-		final boolean pulseRatePresent         = (flags & 0x04) != 0;
-		final boolean userIdPresent            = (flags & 0x08) != 0;
-		final boolean measurementStatusPresent = (flags & 0x10) != 0;
-
-		if (data.size() < 7
-				+ (timestampPresent ? 7 : 0) + (pulseRatePresent ? 2 : 0)
-				+ (userIdPresent ? 1 : 0) + (measurementStatusPresent ? 2 : 0)) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		// Following bytes - systolic, diastolic and mean arterial pressure
-		final float systolic = data.getFloatValue(Data.FORMAT_SFLOAT, offset);
-		final float diastolic = data.getFloatValue(Data.FORMAT_SFLOAT, offset + 2);
-		final float meanArterialPressure = data.getFloatValue(Data.FORMAT_SFLOAT, offset + 4);
-		offset += 6;
-
-		// Parse timestamp if present
-		Calendar calendar = null;
-		if (timestampPresent) {
-			calendar = DateTimeDataCallback.readDateTime(data, offset);
-			offset += 7;
-		}
-
-		// Parse pulse rate if present
-		Float pulseRate = null;
-		if (pulseRatePresent) {
-			pulseRate = data.getFloatValue(Data.FORMAT_SFLOAT, offset);
-			offset += 2;
-		}
-
-		// Read user id if present
-		Integer userId = null;
-		if (userIdPresent) {
-			userId = data.getIntValue(Data.FORMAT_UINT8, offset);
-			offset += 1;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			try {
+				if (!BloodPressureMeasurementDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		// Read measurement status if present
-		BPMStatus status = null;
-		if (measurementStatusPresent) {
-			final int measurementStatus = data.getIntValue(Data.FORMAT_UINT16, offset);
-			// offset += 2;
-			status = new BPMStatus(measurementStatus);
+	/** Reused by all values; the device is set only while decoding. */
+	private final class DecoderCallback implements BloodPressureMeasurementDecoder.Callback {
+		private BluetoothDevice device;
+
+		@Override
+		public void onBloodPressureMeasurement(final float systolic, final float diastolic,
+											   final float meanArterialPressure, final boolean unitKPa,
+											   final boolean timestampPresent, final long timestamp,
+											   final boolean pulseRatePresent, final float pulseRate,
+											   final boolean userIdPresent, final int userId,
+											   final boolean statusPresent, final int status) {
+			probe.valid();
+			onBloodPressureMeasurementReceived(device, systolic, diastolic, meanArterialPressure,
+					unitKPa ? UNIT_kPa : UNIT_mmHg,
+					pulseRatePresent ? pulseRate : null,
+					userIdPresent ? userId : null,
+					statusPresent ? new BPMStatus(status) : null,
+					timestampPresent ? DateTime.toCalendar(timestamp) : null);
 		}
-
-		onBloodPressureMeasurementReceived(device, systolic, diastolic, meanArterialPressure, unit, pulseRate, userId, status, calendar);
 	}
 }
@@ -30,6 +30,8 @@ import androidx.annotation.Nullable;
 
 import java.util.Calendar;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -53,7 +55,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  * </p>
  */
 @SuppressWarnings("unused")
-public final class IntermediateCuffPressureResponse extends IntermediateCuffPressureDataCallback implements Parcelable {
+public final class IntermediateCuffPressureResponse extends IntermediateCuffPressureDataCallback implements RecyclableResponse, Parcelable {
 	private float cuffPressure;
 	private int unit;
 	private Float pulseRate;
@@ -119,69 +121,56 @@ public final class IntermediateCuffPressureResponse extends IntermediateCuffPres
 		return calendar;
 	}
 
+	@Override
+	public void reset() {
+		cuffPressure = 0;
+		unit = 0;
+		pulseRate = null;
+		userID = null;
+		status = null;
+		calendar = null;
+	}
+
 	// Parcelable
 	private IntermediateCuffPressureResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
+		// Presence of optional fields, unit, user ID and status
+		final int packed = in.readInt();
+		unit = (packed >> 4) & 0x0F;
+		userID = (packed & 0x02) != 0 ? (packed >> 8) & 0xFF : null;
+		status = (packed & 0x04) != 0 ? new BPMStatus(packed >>> 16) : null;
 		cuffPressure = in.readFloat();
-		unit = in.readInt();
-		if (in.readByte() == 0) {
-			pulseRate = null;
-		} else {
-			pulseRate = in.readFloat();
-		}
-		if (in.readByte() == 0) {
-			userID = null;
-		} else {
-			userID = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			status = null;
-		} else {
-			status = new BPMStatus(in.readInt());
-		}
-		if (in.readByte() == 0) {
-			calendar = null;
-		} else {
-			calendar = Calendar.getInstance();
-			calendar.setTimeInMillis(in.readLong());
-		}
+		pulseRate = (packed & 0x01) != 0 ? in.readFloat() : null;
+		calendar = (packed & 0x08) != 0 ? ResponseParcel.readCalendar(in) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((pulseRate != null ? 0x01 : 0) | (userID != null ? 0x02 : 0)
+				| (status != null ? 0x04 : 0) | (calendar != null ? 0x08 : 0)
+				| ((unit & 0x0F) << 4)
+				| (userID != null ? (userID & 0xFF) << 8 : 0)
+				| (status != null ? status.value << 16 : 0));
 		dest.writeFloat(cuffPressure);
-		dest.writeInt(unit);
-		if (pulseRate == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (pulseRate != null)
 			dest.writeFloat(pulseRate);
-		}
-		if (userID == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(userID);
-		}
-		if (status == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(status.value);
-		}
-		if (calendar == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeLong(calendar.getTimeInMillis());
-		}
+		if (calendar != null)
+			ResponseParcel.writeCalendar(dest, calendar);
 	}
 
-	public static final Parcelable.Creator<IntermediateCuffPressureResponse> CREATOR = new Parcelable.Creator<IntermediateCuffPressureResponse>() {
+	public static final Creator<IntermediateCuffPressureResponse> CREATOR = new Creator<IntermediateCuffPressureResponse>() {
 		@Override
 		public IntermediateCuffPressureResponse createFromParcel(final Parcel in) {
-			return new IntermediateCuffPressureResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final IntermediateCuffPressureResponse response = ResponseParcel.hasRawData(header)
+					? new IntermediateCuffPressureResponse(in) : ResponseParcel.restore(new IntermediateCuffPressureResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
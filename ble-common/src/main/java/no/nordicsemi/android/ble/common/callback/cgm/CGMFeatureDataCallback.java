@@ -28,6 +28,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.cgm.CGMFeatureCallback;
 import no.nordicsemi.android.ble.common.util.CRC16;
 import no.nordicsemi.android.ble.data.Data;
@@ -43,6 +45,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class CGMFeatureDataCallback extends ProfileReadResponse implements CGMFeatureCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CGM_FEATURE);
 
 	public CGMFeatureDataCallback() {
 		// empty
@@ -55,35 +58,43 @@ public abstract class CGMFeatureDataCallback extends ProfileReadResponse impleme
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() != 6) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		final int featuresValue = data.getIntValue(Data.FORMAT_UINT24, 0);
-		final int typeAndSampleLocation = data.getIntValue(Data.FORMAT_UINT8, 3);
-		final int expectedCrc = data.getIntValue(Data.FORMAT_UINT16, 4);
-
-		final CGMFeatures features = new CGMFeatures(featuresValue);
-		if (features.e2eCrcSupported) {
-			final int actualCrc = CRC16.MCRF4XX(data.getValue(), 0, 4);
-			if (actualCrc != expectedCrc) {
-				onContinuousGlucoseMonitorFeaturesReceivedWithCrcError(device, data);
-				return;
-			}
-		} else {
-			// If the device doesn't support E2E-safety the value of the field shall be set to 0xFFFF.
-			if (expectedCrc != 0xFFFF) {
+		probe.start(device, data);
+		try {
+			if (data.size() != 6) {
+				probe.invalid();
 				onInvalidDataReceived(device, data);
 				return;
 			}
-		}
 
-		@SuppressLint("WrongConstant")
-		final int type = typeAndSampleLocation & 0x0F; // least significant nibble
-		final int sampleLocation = typeAndSampleLocation >> 4; // most significant nibble
+			final int featuresValue = data.getIntValue(Data.FORMAT_UINT24, 0);
+			final int typeAndSampleLocation = data.getIntValue(Data.FORMAT_UINT8, 3);
+			final int expectedCrc = data.getIntValue(Data.FORMAT_UINT16, 4);
+
+			final CGMFeatures features = new CGMFeatures(featuresValue);
+			if (features.e2eCrcSupported) {
+				final int actualCrc = CRC16.MCRF4XX(data.getValue(), 0, 4);
+				if (actualCrc != expectedCrc) {
+					probe.crcError();
+					onContinuousGlucoseMonitorFeaturesReceivedWithCrcError(device, data);
+					return;
+				}
+			} else {
+				// If the device doesn't support E2E-safety the value of the field shall be set to 0xFFFF.
+				if (expectedCrc != 0xFFFF) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+					return;
+				}
+			}
 
-		onContinuousGlucoseMonitorFeaturesReceived(device, features, type, sampleLocation, features.e2eCrcSupported);
+			@SuppressLint("WrongConstant")
+			final int type = typeAndSampleLocation & 0x0F; // least significant nibble
+			final int sampleLocation = typeAndSampleLocation >> 4; // most significant nibble
+
+			probe.valid();
+			onContinuousGlucoseMonitorFeaturesReceived(device, features, type, sampleLocation, features.e2eCrcSupported);
+		} finally {
+			probe.finish();
+		}
 	}
 }
@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.data.Data;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -109,36 +110,35 @@ public final class CGMFeatureResponse extends CGMFeatureDataCallback implements
 	// Parcelable
 	private CGMFeatureResponse(final Parcel in) {
 		super(in);
-		if (in.readByte() == 0) {
-			features = null;
-		} else {
-			features = new CGMFeatures(in.readInt());
-		}
-		type = in.readInt();
-		sampleLocation = in.readInt();
-		secured = in.readByte() != 0;
-		crcValid = in.readByte() != 0;
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		secured = (packed & 0x01) != 0;
+		crcValid = (packed & 0x02) != 0;
+		type = (packed >> 4) & 0x0F;
+		sampleLocation = (packed >> 8) & 0x0F;
+		final int value = in.readInt();
+		features = value >= 0 ? new CGMFeatures(value) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		if (features == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(features.value);
-		}
-		dest.writeInt(type);
-		dest.writeInt(sampleLocation);
-		dest.writeByte((byte) (secured ? 1 : 0));
-		dest.writeByte((byte) (crcValid ? 1 : 0));
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((secured ? 0x01 : 0) | (crcValid ? 0x02 : 0)
+				| ((type & 0x0F) << 4) | ((sampleLocation & 0x0F) << 8));
+		dest.writeInt(features != null ? features.value : -1);
 	}
 
 	public static final Creator<CGMFeatureResponse> CREATOR = new Creator<CGMFeatureResponse>() {
 		@Override
 		public CGMFeatureResponse createFromParcel(final Parcel in) {
-			return new CGMFeatureResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final CGMFeatureResponse response = ResponseParcel.hasRawData(header)
+					? new CGMFeatureResponse(in) : ResponseParcel.restore(new CGMFeatureResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
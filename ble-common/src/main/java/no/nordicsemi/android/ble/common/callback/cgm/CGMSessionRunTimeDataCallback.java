@@ -26,9 +26,14 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.CGMSessionRunTimeDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.cgm.CGMSessionRunTimeCallback;
-import no.nordicsemi.android.ble.common.util.CRC16;
 import no.nordicsemi.android.ble.data.Data;
 
 /**
@@ -42,6 +47,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class CGMSessionRunTimeDataCallback extends ProfileReadResponse implements CGMSessionRunTimeCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CGM_SESSION_RUN_TIME);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public CGMSessionRunTimeDataCallback() {
 		// empty
@@ -54,24 +61,40 @@ public abstract class CGMSessionRunTimeDataCallback extends ProfileReadResponse
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() != 2 && data.size() != 4) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			decoderCallback.data = data;
+			try {
+				if (!CGMSessionRunTimeDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+				decoderCallback.data = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		final int sessionRunTime = data.getIntValue(Data.FORMAT_UINT16, 0);
+	/** Reused by all values; the device and data are set only while decoding. */
+	private final class DecoderCallback implements CGMSessionRunTimeDecoder.Callback {
+		private BluetoothDevice device;
+		private Data data;
 
-		final boolean crcPresent = data.size() == 4;
-		if (crcPresent) {
-			final int actualCrc = CRC16.MCRF4XX(data.getValue(), 0, 2);
-			final int expectedCrc = data.getIntValue(Data.FORMAT_UINT16, 2);
-			if (actualCrc != expectedCrc) {
-				onContinuousGlucoseMonitorSessionRunTimeReceivedWithCrcError(device, data);
-				return;
-			}
+		@Override
+		public void onContinuousGlucoseMonitorSessionRunTime(final int sessionRunTime, final boolean secured) {
+			probe.valid();
+			onContinuousGlucoseMonitorSessionRunTimeReceived(device, sessionRunTime, secured);
 		}
 
-		onContinuousGlucoseMonitorSessionRunTimeReceived(device, sessionRunTime, crcPresent);
+		@Override
+		public void onContinuousGlucoseMonitorSessionRunTimeCrcError() {
+			probe.crcError();
+			onContinuousGlucoseMonitorSessionRunTimeReceivedWithCrcError(device, data);
+		}
 	}
 }
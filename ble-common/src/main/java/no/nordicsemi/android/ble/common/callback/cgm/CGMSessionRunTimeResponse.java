@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.data.Data;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -99,23 +100,30 @@ public final class CGMSessionRunTimeResponse extends CGMSessionRunTimeDataCallba
 	// Parcelable
 	private CGMSessionRunTimeResponse(final Parcel in) {
 		super(in);
-		sessionRunTime = in.readInt();
-		secured = in.readByte() != 0;
-		crcValid = in.readByte() != 0;
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		secured = (packed & 0x01) != 0;
+		crcValid = (packed & 0x02) != 0;
+		sessionRunTime = packed >>> 16;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeInt(sessionRunTime);
-		dest.writeByte((byte) (secured ? 1 : 0));
-		dest.writeByte((byte) (crcValid ? 1 : 0));
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((secured ? 0x01 : 0) | (crcValid ? 0x02 : 0) | ((sessionRunTime & 0xFFFF) << 16));
 	}
 
 	public static final Creator<CGMSessionRunTimeResponse> CREATOR = new Creator<CGMSessionRunTimeResponse>() {
 		@Override
 		public CGMSessionRunTimeResponse createFromParcel(final Parcel in) {
-			return new CGMSessionRunTimeResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final CGMSessionRunTimeResponse response = ResponseParcel.hasRawData(header)
+					? new CGMSessionRunTimeResponse(in) : ResponseParcel.restore(new CGMSessionRunTimeResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
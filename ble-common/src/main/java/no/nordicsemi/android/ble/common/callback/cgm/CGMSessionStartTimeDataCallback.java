@@ -26,17 +26,19 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
-import no.nordicsemi.android.ble.common.callback.DSTOffsetDataCallback;
-import no.nordicsemi.android.ble.common.callback.DateTimeDataCallback;
-import no.nordicsemi.android.ble.common.callback.TimeZoneDataCallback;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.CGMSessionStartTimeDecoder;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.cgm.CGMSessionStartTimeCallback;
 import no.nordicsemi.android.ble.common.profile.DSTOffsetCallback;
-import no.nordicsemi.android.ble.common.util.CRC16;
 import no.nordicsemi.android.ble.data.Data;
 
 /**
@@ -50,6 +52,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class CGMSessionStartTimeDataCallback extends ProfileReadResponse implements CGMSessionStartTimeCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CGM_SESSION_START_TIME);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public CGMSessionStartTimeDataCallback() {
 		// empty
@@ -62,72 +66,86 @@ public abstract class CGMSessionStartTimeDataCallback extends ProfileReadRespons
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() != 9 && data.size() != 11) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		final boolean crcPresent = data.size() == 11;
-		if (crcPresent) {
-			final int actualCrc = CRC16.MCRF4XX(data.getValue(), 0, 9);
-			final int expectedCrc = data.getIntValue(Data.FORMAT_UINT16, 9);
-			if (actualCrc != expectedCrc) {
-				onContinuousGlucoseMonitorSessionStartTimeReceivedWithCrcError(device, data);
-				return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			decoderCallback.data = data;
+			try {
+				if (!CGMSessionStartTimeDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+				decoderCallback.data = null;
 			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		final Calendar calendar = DateTimeDataCallback.readDateTime(data, 0);
-		final Integer timeZoneOffset = TimeZoneDataCallback.readTimeZone(data, 7); // [minutes]
-		final DSTOffsetCallback.DSTOffset dstOffset = DSTOffsetDataCallback.readDSTOffset(data, 8);
-
-		if (calendar == null || timeZoneOffset == null || dstOffset == null) {
-			onInvalidDataReceived(device, data);
-			return;
+	/** Reused by all values; the device and data are set only while decoding. */
+	private final class DecoderCallback implements CGMSessionStartTimeDecoder.Callback {
+		private BluetoothDevice device;
+		private Data data;
+
+		@Override
+		public void onContinuousGlucoseMonitorSessionStartTime(final long dateTime,
+															   final int timeZoneOffset, final int dstOffsetCode,
+															   final boolean secured) {
+			final DSTOffsetCallback.DSTOffset dstOffset = DSTOffsetCallback.DSTOffset.from(dstOffsetCode);
+
+			final TimeZone timeZone = new TimeZone() {
+				@Override
+				public int getOffset(final int era, final int year, final int month, final int day, final int dayOfWeek, final int milliseconds) {
+					return (timeZoneOffset + dstOffset.offset) * 60000; // convert minutes to milliseconds
+				}
+
+				@Override
+				public void setRawOffset(final int offsetMillis) {
+					throw new UnsupportedOperationException("Can't set raw offset for this TimeZone");
+				}
+
+				@Override
+				public int getRawOffset() {
+					return timeZoneOffset * 60000;
+				}
+
+				@Override
+				public boolean useDaylightTime() {
+					return true;
+				}
+
+				@Override
+				public boolean inDaylightTime(final Date date) {
+					// Use of DST is dependent on the input data only
+					return dstOffset.offset > 0;
+				}
+
+				@Override
+				public int getDSTSavings() {
+					return dstOffset.offset * 60000;
+				}
+
+				// TODO add TimeZone ID
+	//			@Override
+	//			public String getID() {
+	//				return super.getID();
+	//			}
+			};
+
+			final Calendar calendar = DateTime.toCalendar(dateTime);
+			calendar.setTimeZone(timeZone);
+
+			probe.valid();
+			onContinuousGlucoseMonitorSessionStartTimeReceived(device, calendar, secured);
 		}
 
-		final TimeZone timeZone = new TimeZone() {
-			@Override
-			public int getOffset(final int era, final int year, final int month, final int day, final int dayOfWeek, final int milliseconds) {
-				return (timeZoneOffset + dstOffset.offset) * 60000; // convert minutes to milliseconds
-			}
-
-			@Override
-			public void setRawOffset(final int offsetMillis) {
-				throw new UnsupportedOperationException("Can't set raw offset for this TimeZone");
-			}
-
-			@Override
-			public int getRawOffset() {
-				return timeZoneOffset * 60000;
-			}
-
-			@Override
-			public boolean useDaylightTime() {
-				return true;
-			}
-
-			@Override
-			public boolean inDaylightTime(final Date date) {
-				// Use of DST is dependent on the input data only
-				return dstOffset.offset > 0;
-			}
-
-			@Override
-			public int getDSTSavings() {
-				return dstOffset.offset * 60000;
-			}
-
-			// TODO add TimeZone ID
-//			@Override
-//			public String getID() {
-//				return super.getID();
-//			}
-		};
-
-		calendar.setTimeZone(timeZone);
-
-		onContinuousGlucoseMonitorSessionStartTimeReceived(device, calendar, crcPresent);
+		@Override
+		public void onContinuousGlucoseMonitorSessionStartTimeCrcError() {
+			probe.crcError();
+			onContinuousGlucoseMonitorSessionStartTimeReceivedWithCrcError(device, data);
+		}
 	}
 }
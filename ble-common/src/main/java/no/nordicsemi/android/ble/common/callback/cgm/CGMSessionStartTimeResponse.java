@@ -29,6 +29,7 @@ import androidx.annotation.NonNull;
 
 import java.util.Calendar;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.data.Data;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -95,33 +96,32 @@ public final class CGMSessionStartTimeResponse extends CGMSessionStartTimeDataCa
 	// Parcelable
 	private CGMSessionStartTimeResponse(final Parcel in) {
 		super(in);
-		if (in.readByte() == 0) {
-			startTime = null;
-		} else {
-			startTime = Calendar.getInstance();
-			startTime.setTimeInMillis(in.readLong());
-		}
-		secured = in.readByte() != 0;
-		crcValid = in.readByte() != 0;
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		secured = (packed & 0x01) != 0;
+		crcValid = (packed & 0x02) != 0;
+		startTime = (packed & 0x04) != 0 ? ResponseParcel.readCalendar(in) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		if (startTime == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeLong(startTime.getTimeInMillis());
-		}
-		dest.writeByte((byte) (secured ? 1 : 0));
-		dest.writeByte((byte) (crcValid ? 1 : 0));
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((secured ? 0x01 : 0) | (crcValid ? 0x02 : 0) | (startTime != null ? 0x04 : 0));
+		if (startTime != null)
+			ResponseParcel.writeCalendar(dest, startTime);
 	}
 
 	public static final Creator<CGMSessionStartTimeResponse> CREATOR = new Creator<CGMSessionStartTimeResponse>() {
 		@Override
 		public CGMSessionStartTimeResponse createFromParcel(final Parcel in) {
-			return new CGMSessionStartTimeResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final CGMSessionStartTimeResponse response = ResponseParcel.hasRawData(header)
+					? new CGMSessionStartTimeResponse(in) : ResponseParcel.restore(new CGMSessionStartTimeResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
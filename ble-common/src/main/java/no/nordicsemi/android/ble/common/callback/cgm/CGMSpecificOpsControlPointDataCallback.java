@@ -27,9 +27,14 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.CGMSpecificOpsControlPointDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.cgm.CGMSpecificOpsControlPointCallback;
-import no.nordicsemi.android.ble.common.util.CRC16;
 import no.nordicsemi.android.ble.data.Data;
 
 /**
@@ -41,18 +46,10 @@ import no.nordicsemi.android.ble.data.Data;
  * will be called.
  * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.cgm_specific_ops_control_point.xml
  */
-@SuppressWarnings({"ConstantConditions", "UnnecessaryReturnStatement", "WeakerAccess"})
+@SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class CGMSpecificOpsControlPointDataCallback extends ProfileReadResponse implements CGMSpecificOpsControlPointCallback {
-	private final static int OP_CODE_COMMUNICATION_INTERVAL_RESPONSE = 3;
-	private final static int OP_CODE_CALIBRATION_VALUE_RESPONSE = 6;
-	private final static int OP_CODE_PATIENT_HIGH_ALERT_LEVEL_RESPONSE = 9;
-	private final static int OP_CODE_PATIENT_LOW_ALERT_LEVEL_RESPONSE = 12;
-	private final static int OP_CODE_HYPO_ALERT_LEVEL_RESPONSE = 15;
-	private final static int OP_CODE_HYPER_ALERT_LEVEL_RESPONSE = 18;
-	private final static int OP_CODE_RATE_OF_DECREASE_ALERT_LEVEL_RESPONSE = 21;
-	private final static int OP_CODE_RATE_OF_INCREASE_ALERT_LEVEL_RESPONSE = 24;
-	private final static int OP_CODE_RESPONSE_CODE = 28;
-	private final static int CGM_RESPONSE_SUCCESS = 1;
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CGM_SPECIFIC_OPS_CONTROL_POINT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public CGMSpecificOpsControlPointDataCallback() {
 		// empty
@@ -65,112 +62,95 @@ public abstract class CGMSpecificOpsControlPointDataCallback extends ProfileRead
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 2) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			decoderCallback.data = data;
+			try {
+				if (!CGMSpecificOpsControlPointDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+				decoderCallback.data = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		// Read the Op Code
-		final int opCode = data.getIntValue(Data.FORMAT_UINT8, 0);
+	/** Reused by all values; the device and data are set only while decoding. */
+	private final class DecoderCallback implements CGMSpecificOpsControlPointDecoder.Callback {
+		private BluetoothDevice device;
+		private Data data;
 
-		// Estimate the expected operand size based on the Op Code
-		int expectedOperandSize;
-		switch (opCode) {
-			case OP_CODE_COMMUNICATION_INTERVAL_RESPONSE:
-				// UINT8
-				expectedOperandSize = 1;
-				break;
-			case OP_CODE_CALIBRATION_VALUE_RESPONSE:
-				// Calibration Value
-				expectedOperandSize = 10;
-				break;
-			case OP_CODE_PATIENT_HIGH_ALERT_LEVEL_RESPONSE:
-			case OP_CODE_PATIENT_LOW_ALERT_LEVEL_RESPONSE:
-			case OP_CODE_HYPO_ALERT_LEVEL_RESPONSE:
-			case OP_CODE_HYPER_ALERT_LEVEL_RESPONSE:
-			case OP_CODE_RATE_OF_DECREASE_ALERT_LEVEL_RESPONSE:
-			case OP_CODE_RATE_OF_INCREASE_ALERT_LEVEL_RESPONSE:
-				// SFLOAT
-				expectedOperandSize = 2;
-				break;
-			case OP_CODE_RESPONSE_CODE:
-				// Request Op Code (UINT8), Response Code Value (UINT8)
-				expectedOperandSize = 2;
-				break;
-			default:
-				onInvalidDataReceived(device, data);
-				return;
+		@Override
+		public void onCommunicationInterval(final int interval, final boolean secured) {
+			probe.valid();
+			onContinuousGlucoseCommunicationIntervalReceived(device, interval, secured);
 		}
 
-		// Verify packet length
-		if (data.size() != 1 + expectedOperandSize && data.size() != 1 + expectedOperandSize + 2) {
-			onInvalidDataReceived(device, data);
-			return;
+		@SuppressLint("WrongConstant")
+		@Override
+		public void onCalibrationValue(final float glucoseConcentrationOfCalibration,
+									   final int calibrationTime, final int nextCalibrationTime,
+									   final int type, final int sampleLocation,
+									   final int calibrationDataRecordNumber, final int calibrationStatus,
+									   final boolean secured) {
+			probe.valid();
+			onContinuousGlucoseCalibrationValueReceived(device, glucoseConcentrationOfCalibration,
+					calibrationTime, nextCalibrationTime, type, sampleLocation,
+					calibrationDataRecordNumber, new CGMCalibrationStatus(calibrationStatus), secured);
 		}
 
-		// Verify CRC if present
-		final boolean crcPresent = data.size() == 1 + expectedOperandSize + 2; // opCode + expected operand + CRC
-		if (crcPresent) {
-			final int expectedCrc = data.getIntValue(Data.FORMAT_UINT16, 1 + expectedOperandSize);
-			final int actualCrc   = CRC16.MCRF4XX(data.getValue(), 0, 1 + expectedOperandSize);
-			if (expectedCrc != actualCrc) {
-				onCGMSpecificOpsResponseReceivedWithCrcError(device, data);
-				return;
+		@Override
+		public void onAlertLevel(final int opCode, final float level, final boolean secured) {
+			switch (opCode) {
+				case CGMSpecificOpsControlPointDecoder.OP_CODE_PATIENT_HIGH_ALERT_LEVEL_RESPONSE:
+					probe.valid();
+					onContinuousGlucosePatientHighAlertReceived(device, level, secured);
+					break;
+				case CGMSpecificOpsControlPointDecoder.OP_CODE_PATIENT_LOW_ALERT_LEVEL_RESPONSE:
+					probe.valid();
+					onContinuousGlucosePatientLowAlertReceived(device, level, secured);
+					break;
+				case CGMSpecificOpsControlPointDecoder.OP_CODE_HYPO_ALERT_LEVEL_RESPONSE:
+					probe.valid();
+					onContinuousGlucoseHypoAlertReceived(device, level, secured);
+					break;
+				case CGMSpecificOpsControlPointDecoder.OP_CODE_HYPER_ALERT_LEVEL_RESPONSE:
+					probe.valid();
+					onContinuousGlucoseHyperAlertReceived(device, level, secured);
+					break;
+				case CGMSpecificOpsControlPointDecoder.OP_CODE_RATE_OF_DECREASE_ALERT_LEVEL_RESPONSE:
+					probe.valid();
+					onContinuousGlucoseRateOfDecreaseAlertReceived(device, level, secured);
+					break;
+				case CGMSpecificOpsControlPointDecoder.OP_CODE_RATE_OF_INCREASE_ALERT_LEVEL_RESPONSE:
+					probe.valid();
+					onContinuousGlucoseRateOfIncreaseAlertReceived(device, level, secured);
+					break;
 			}
 		}
 
-		switch (opCode) {
-			case OP_CODE_COMMUNICATION_INTERVAL_RESPONSE:
-				final int interval = data.getIntValue(Data.FORMAT_UINT8, 1);
-				onContinuousGlucoseCommunicationIntervalReceived(device, interval, crcPresent);
-				return;
-			case OP_CODE_CALIBRATION_VALUE_RESPONSE:
-				final float glucoseConcentrationOfCalibration = data.getFloatValue(Data.FORMAT_SFLOAT, 1);
-				final int calibrationTime = data.getIntValue(Data.FORMAT_UINT16, 3);
-				final int calibrationTypeAndSampleLocation = data.getIntValue(Data.FORMAT_UINT8, 5);
-				@SuppressLint("WrongConstant")
-				final int calibrationType = calibrationTypeAndSampleLocation & 0x0F;
-				final int calibrationSampleLocation = calibrationTypeAndSampleLocation >> 4;
-				final int nextCalibrationTime = data.getIntValue(Data.FORMAT_UINT16, 6);
-				final int calibrationDataRecordNumber = data.getIntValue(Data.FORMAT_UINT16, 8);
-				final int calibrationStatus = data.getIntValue(Data.FORMAT_UINT8, 10);
-				onContinuousGlucoseCalibrationValueReceived(device, glucoseConcentrationOfCalibration,
-						calibrationTime, nextCalibrationTime, calibrationType, calibrationSampleLocation,
-						calibrationDataRecordNumber, new CGMCalibrationStatus(calibrationStatus), crcPresent);
-				return;
-			case OP_CODE_RESPONSE_CODE:
-				final int requestCode = data.getIntValue(Data.FORMAT_UINT8, 1); // ignore
-				final int responseCode = data.getIntValue(Data.FORMAT_UINT8, 2);
-				if (responseCode == CGM_RESPONSE_SUCCESS) {
-					onCGMSpecificOpsOperationCompleted(device, requestCode, crcPresent);
-				} else {
-					onCGMSpecificOpsOperationError(device, requestCode, responseCode, crcPresent);
-				}
-				return;
+		@Override
+		public void onOperationCompleted(final int requestCode, final boolean secured) {
+			probe.valid();
+			onCGMSpecificOpsOperationCompleted(device, requestCode, secured);
+		}
+
+		@Override
+		public void onOperationError(final int requestCode, final int errorCode, final boolean secured) {
+			probe.valid();
+			onCGMSpecificOpsOperationError(device, requestCode, errorCode, secured);
 		}
 
-		// Read SFLOAT value
-		final float value = data.getFloatValue(Data.FORMAT_SFLOAT, 1);
-		switch (opCode) {
-			case OP_CODE_PATIENT_HIGH_ALERT_LEVEL_RESPONSE:
-				onContinuousGlucosePatientHighAlertReceived(device, value, crcPresent);
-				return;
-			case OP_CODE_PATIENT_LOW_ALERT_LEVEL_RESPONSE:
-				onContinuousGlucosePatientLowAlertReceived(device, value, crcPresent);
-				return;
-			case OP_CODE_HYPO_ALERT_LEVEL_RESPONSE:
-				onContinuousGlucoseHypoAlertReceived(device, value, crcPresent);
-				return;
-			case OP_CODE_HYPER_ALERT_LEVEL_RESPONSE:
-				onContinuousGlucoseHyperAlertReceived(device, value, crcPresent);
-				return;
-			case OP_CODE_RATE_OF_DECREASE_ALERT_LEVEL_RESPONSE:
-				onContinuousGlucoseRateOfDecreaseAlertReceived(device, value, crcPresent);
-				return;
-			case OP_CODE_RATE_OF_INCREASE_ALERT_LEVEL_RESPONSE:
-				onContinuousGlucoseRateOfIncreaseAlertReceived(device, value, crcPresent);
-				return;
+		@Override
+		public void onCrcError() {
+			probe.crcError();
+			onCGMSpecificOpsResponseReceivedWithCrcError(device, data);
 		}
 	}
 }
@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.data.Data;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -241,54 +242,55 @@ public final class CGMSpecificOpsControlPointResponse extends CGMSpecificOpsCont
 	// Parcelable
 	private CGMSpecificOpsControlPointResponse(final Parcel in) {
 		super(in);
-		operationCompleted = in.readByte() != 0;
-		secured = in.readByte() != 0;
-		crcValid = in.readByte() != 0;
-		requestCode = in.readInt();
-		errorCode = in.readInt();
-		glucoseCommunicationInterval = in.readInt();
+	}
+
+	private void readFields(final Parcel in) {
+		// Flags, type, sample location, request and error codes
+		final int packed = in.readInt();
+		operationCompleted = (packed & 0x01) != 0;
+		secured = (packed & 0x02) != 0;
+		crcValid = (packed & 0x04) != 0;
+		type = (packed >> 4) & 0x0F;
+		sampleLocation = (packed >> 8) & 0x0F;
+		requestCode = (packed >> 16) & 0xFF;
+		errorCode = packed >>> 24;
+		// Communication interval, calibration status and calibration record number
+		final int calibration = in.readInt();
+		glucoseCommunicationInterval = calibration & 0xFF;
+		calibrationStatus = (packed & 0x08) != 0 ? new CGMCalibrationStatus((calibration >> 8) & 0xFF) : null;
+		calibrationDataRecordNumber = calibration >>> 16;
+		// Calibration times
+		final int times = in.readInt();
+		calibrationTime = times & 0xFFFF;
+		nextCalibrationTime = times >>> 16;
 		glucoseConcentrationOfCalibration = in.readFloat();
-		calibrationTime = in.readInt();
-		nextCalibrationTime = in.readInt();
-		type = in.readInt();
-		sampleLocation = in.readInt();
-		calibrationDataRecordNumber = in.readInt();
-		if (in.readByte() == 0) {
-			calibrationStatus = null;
-		} else {
-			calibrationStatus = new CGMCalibrationStatus(in.readInt());
-		}
 		alertLevel = in.readFloat();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeByte((byte) (operationCompleted ? 1 : 0));
-		dest.writeByte((byte) (secured ? 1 : 0));
-		dest.writeByte((byte) (crcValid ? 1 : 0));
-		dest.writeInt(requestCode);
-		dest.writeInt(errorCode);
-		dest.writeInt(glucoseCommunicationInterval);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((operationCompleted ? 0x01 : 0) | (secured ? 0x02 : 0) | (crcValid ? 0x04 : 0)
+				| (calibrationStatus != null ? 0x08 : 0)
+				| ((type & 0x0F) << 4) | ((sampleLocation & 0x0F) << 8)
+				| ((requestCode & 0xFF) << 16) | ((errorCode & 0xFF) << 24));
+		dest.writeInt((glucoseCommunicationInterval & 0xFF)
+				| (calibrationStatus != null ? (calibrationStatus.value & 0xFF) << 8 : 0)
+				| ((calibrationDataRecordNumber & 0xFFFF) << 16));
+		dest.writeInt((calibrationTime & 0xFFFF) | ((nextCalibrationTime & 0xFFFF) << 16));
 		dest.writeFloat(glucoseConcentrationOfCalibration);
-		dest.writeInt(calibrationTime);
-		dest.writeInt(nextCalibrationTime);
-		dest.writeInt(type);
-		dest.writeInt(sampleLocation);
-		dest.writeInt(calibrationDataRecordNumber);
-		if (calibrationStatus == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(calibrationStatus.value);
-		}
 		dest.writeFloat(alertLevel);
 	}
 
 	public static final Creator<CGMSpecificOpsControlPointResponse> CREATOR = new Creator<CGMSpecificOpsControlPointResponse>() {
 		@Override
 		public CGMSpecificOpsControlPointResponse createFromParcel(final Parcel in) {
-			return new CGMSpecificOpsControlPointResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final CGMSpecificOpsControlPointResponse response = ResponseParcel.hasRawData(header)
+					? new CGMSpecificOpsControlPointResponse(in) : ResponseParcel.restore(new CGMSpecificOpsControlPointResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -26,9 +26,14 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.CGMStatusDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.cgm.CGMStatusCallback;
-import no.nordicsemi.android.ble.common.util.CRC16;
 import no.nordicsemi.android.ble.data.Data;
 
 /**
@@ -42,6 +47,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class CGMStatusDataCallback extends ProfileReadResponse implements CGMStatusCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CGM_STATUS);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public CGMStatusDataCallback() {
 		// empty
@@ -54,28 +61,43 @@ public abstract class CGMStatusDataCallback extends ProfileReadResponse implemen
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-		
-		if (data.size() != 5 && data.size() != 7) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			decoderCallback.data = data;
+			try {
+				if (!CGMStatusDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+				decoderCallback.data = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		final int timeOffset = data.getIntValue(Data.FORMAT_UINT16, 0);
-		final int warningStatus = data.getIntValue(Data.FORMAT_UINT8, 2);
-		final int calibrationTempStatus = data.getIntValue(Data.FORMAT_UINT8, 3);
-		final int sensorStatus = data.getIntValue(Data.FORMAT_UINT8, 4);
+	/** Reused by all values; the device and data are set only while decoding. */
+	private final class DecoderCallback implements CGMStatusDecoder.Callback {
+		private BluetoothDevice device;
+		private Data data;
 
-		final boolean crcPresent = data.size() == 7;
-		if (crcPresent) {
-			final int actualCrc = CRC16.MCRF4XX(data.getValue(), 0, 5);
-			final int expectedCrc = data.getIntValue(Data.FORMAT_UINT16, 5);
-			if (actualCrc != expectedCrc) {
-				onContinuousGlucoseMonitorStatusReceivedWithCrcError(device, data);
-				return;
-			}
+		@Override
+		public void onContinuousGlucoseMonitorStatus(final int timeOffset, final int warningStatus,
+													 final int calibrationTempStatus, final int sensorStatus,
+													 final boolean secured) {
+			final CGMStatus status = new CGMStatus(warningStatus, calibrationTempStatus, sensorStatus);
+			probe.valid();
+			onContinuousGlucoseMonitorStatusChanged(device, status, timeOffset, secured);
 		}
 
-		final CGMStatus status = new CGMStatus(warningStatus, calibrationTempStatus, sensorStatus);
-		onContinuousGlucoseMonitorStatusChanged(device, status, timeOffset, crcPresent);
+		@Override
+		public void onContinuousGlucoseMonitorStatusCrcError() {
+			probe.crcError();
+			onContinuousGlucoseMonitorStatusReceivedWithCrcError(device, data);
+		}
 	}
 }
@@ -28,6 +28,7 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.data.Data;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -103,39 +104,39 @@ public final class CGMStatusResponse extends CGMStatusDataCallback implements CR
 	// Parcelable
 	private CGMStatusResponse(final Parcel in) {
 		super(in);
-		timeOffset = in.readInt();
-		if (in.readByte() == 0) {
-			status = null;
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		secured = (packed & 0x01) != 0;
+		crcValid = (packed & 0x02) != 0;
+		timeOffset = packed >>> 16;
+		if ((packed & 0x04) != 0) {
+			final int value = in.readInt();
+			status = new CGMStatus(value & 0xFF, (value >> 8) & 0xFF, (value >> 16) & 0xFF);
 		} else {
-			final int warningStatus = in.readInt();
-			final int calibrationTempStatus = in.readInt();
-			final int sensorStatus = in.readInt();
-			status = new CGMStatus(warningStatus, calibrationTempStatus, sensorStatus);
+			status = null;
 		}
-		secured = in.readByte() != 0;
-		crcValid = in.readByte() != 0;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeInt(timeOffset);
-		if (status == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(status.warningStatus);
-			dest.writeInt(status.calibrationTempStatus);
-			dest.writeInt(status.sensorStatus);
-		}
-		dest.writeByte((byte) (secured ? 1 : 0));
-		dest.writeByte((byte) (crcValid ? 1 : 0));
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((secured ? 0x01 : 0) | (crcValid ? 0x02 : 0) | (status != null ? 0x04 : 0)
+				| ((timeOffset & 0xFFFF) << 16));
+		if (status != null)
+			dest.writeInt(status.warningStatus | (status.calibrationTempStatus << 8) | (status.sensorStatus << 16));
 	}
 
 	public static final Creator<CGMStatusResponse> CREATOR = new Creator<CGMStatusResponse>() {
 		@Override
 		public CGMStatusResponse createFromParcel(final Parcel in) {
-			return new CGMStatusResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final CGMStatusResponse response = ResponseParcel.hasRawData(header)
+					? new CGMStatusResponse(in) : ResponseParcel.restore(new CGMStatusResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
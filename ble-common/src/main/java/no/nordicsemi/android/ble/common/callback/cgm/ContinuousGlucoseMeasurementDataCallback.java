@@ -26,9 +26,14 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.cgm.ContinuousGlucoseMeasurementCallback;
-import no.nordicsemi.android.ble.common.util.CRC16;
 import no.nordicsemi.android.ble.data.Data;
 
 /**
@@ -42,6 +47,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class ContinuousGlucoseMeasurementDataCallback extends ProfileReadResponse implements ContinuousGlucoseMeasurementCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CGM_MEASUREMENT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public ContinuousGlucoseMeasurementDataCallback() {
 		// empty
@@ -54,99 +61,51 @@ public abstract class ContinuousGlucoseMeasurementDataCallback extends ProfileRe
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 1) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		int offset = 0;
-
-		while (offset < data.size()) {
-			// Packet size
-			final int size = data.getIntValue(Data.FORMAT_UINT8, offset);
-
-			if (size < 6 || offset + size > data.size()) {
-				onInvalidDataReceived(device, data);
-				return;
-			}
-
-			// Flags
-			final int flags = data.getIntValue(Data.FORMAT_UINT8, offset + 1);
-
-			final boolean cgmTrendInformationPresent   = (flags & 0x01) != 0;
-			final boolean cgmQualityInformationPresent = (flags & 0x02) != 0;
-			final boolean sensorWarningOctetPresent    = (flags & 0x20) != 0;
-			final boolean sensorCalTempOctetPresent    = (flags & 0x40) != 0;
-			final boolean sensorStatusOctetPresent     = (flags & 0x80) != 0;
-
-			final int dataSize = 6 + (cgmTrendInformationPresent ? 2 : 0) + (cgmQualityInformationPresent ? 2 : 0)
-					+ (sensorWarningOctetPresent ? 1 : 0) + (sensorCalTempOctetPresent ? 1 : 0)
-					+ (sensorStatusOctetPresent ? 1 : 0);
-
-			if (size != dataSize && size != dataSize + 2) {
-				onInvalidDataReceived(device, data);
-				return;
-			}
-
-			final boolean crcPresent = size == dataSize + 2;
-			if (crcPresent) {
-				final int expectedCrc = data.getIntValue(Data.FORMAT_UINT16, offset + dataSize);
-				final int actualCrc = CRC16.MCRF4XX(data.getValue(), offset, dataSize);
-				if (expectedCrc != actualCrc) {
-					onContinuousGlucoseMeasurementReceivedWithCrcError(device, data);
-					return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			decoderCallback.data = data;
+			try {
+				if (!ContinuousGlucoseMeasurementDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				} else {
+					// The value is valid only if all records were, so the time includes the record callbacks
+					probe.valid();
 				}
+			} finally {
+				decoderCallback.device = null;
+				decoderCallback.data = null;
 			}
+		} finally {
+			probe.finish();
+		}
+	}
 
-			offset += 2;
-			// Glucose concentration
-			final float glucoseConcentration = data.getFloatValue(Data.FORMAT_SFLOAT, offset);
-			offset += 2;
-
-			// Time offset (in minutes since Session Start)
-			final int timeOffset = data.getIntValue(Data.FORMAT_UINT16, offset);
-			offset += 2;
-
-			// Sensor Status Annunciation
-			int warningStatus = 0;
-			int calibrationTempStatus = 0;
-			int sensorStatus = 0;
-			CGMStatus status = null;
-
-			if (sensorWarningOctetPresent) {
-				warningStatus = data.getIntValue(Data.FORMAT_UINT8, offset++);
-			}
-			if (sensorCalTempOctetPresent) {
-				calibrationTempStatus = data.getIntValue(Data.FORMAT_UINT8, offset++);
-			}
-			if (sensorStatusOctetPresent) {
-				sensorStatus = data.getIntValue(Data.FORMAT_UINT8, offset++);
-			}
-			if (sensorWarningOctetPresent || sensorCalTempOctetPresent || sensorStatusOctetPresent) {
-				status = new CGMStatus(warningStatus, calibrationTempStatus, sensorStatus);
-			}
-
-			// CGM Trend Information
-			Float trend = null;
-			if (cgmTrendInformationPresent) {
-				trend = data.getFloatValue(Data.FORMAT_SFLOAT, offset);
-				offset += 2;
-			}
-
-			// CGM Quality Information
-			Float quality = null;
-			if (cgmQualityInformationPresent) {
-				quality = data.getFloatValue(Data.FORMAT_SFLOAT, offset);
-				offset += 2;
-			}
-
-			// E2E-CRC
-			if (crcPresent) {
-				offset += 2;
-			}
+	/** Reused by all values; the device and data are set only while decoding. */
+	private final class DecoderCallback implements ContinuousGlucoseMeasurementDecoder.Callback {
+		private BluetoothDevice device;
+		private Data data;
+
+		@Override
+		public void onContinuousGlucoseMeasurement(final float glucoseConcentration,
+												   final boolean trendPresent, final float trend,
+												   final boolean qualityPresent, final float quality,
+												   final boolean statusPresent, final int warningStatus,
+												   final int calibrationTempStatus, final int sensorStatus,
+												   final int timeOffset, final boolean secured) {
+			final CGMStatus status = statusPresent ?
+					new CGMStatus(warningStatus, calibrationTempStatus, sensorStatus) : null;
+			onContinuousGlucoseMeasurementReceived(device, glucoseConcentration,
+					trendPresent ? trend : null, qualityPresent ? quality : null,
+					status, timeOffset, secured);
+		}
 
-			onContinuousGlucoseMeasurementReceived(device, glucoseConcentration, trend, quality, status, timeOffset, crcPresent);
+		@Override
+		public void onContinuousGlucoseMeasurementCrcError() {
+			probe.crcError();
+			onContinuousGlucoseMeasurementReceivedWithCrcError(device, data);
 		}
 	}
 }
@@ -28,6 +28,8 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.data.Data;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -52,7 +54,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  * </p>
  */
 @SuppressWarnings("unused")
-public final class ContinuousGlucoseMeasurementResponse extends ContinuousGlucoseMeasurementDataCallback implements CRCSecuredResponse, Parcelable {
+public final class ContinuousGlucoseMeasurementResponse extends ContinuousGlucoseMeasurementDataCallback implements RecyclableResponse, CRCSecuredResponse, Parcelable {
 	private float glucoseConcentration;
 	@Nullable
 	private Float trend;
@@ -121,66 +123,62 @@ public final class ContinuousGlucoseMeasurementResponse extends ContinuousGlucos
 		return crcValid;
 	}
 
+	@Override
+	public void reset() {
+		glucoseConcentration = 0;
+		trend = null;
+		quality = null;
+		status = null;
+		timeOffset = 0;
+		secured = false;
+		crcValid = false;
+	}
+
 	// Parcelable
 	private ContinuousGlucoseMeasurementResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		secured = (packed & 0x01) != 0;
+		crcValid = (packed & 0x02) != 0;
+		timeOffset = packed >>> 16;
 		glucoseConcentration = in.readFloat();
-		if (in.readByte() == 0) {
-			trend = null;
-		} else {
-			trend = in.readFloat();
-		}
-		if (in.readByte() == 0) {
-			quality = null;
+		trend = (packed & 0x04) != 0 ? in.readFloat() : null;
+		quality = (packed & 0x08) != 0 ? in.readFloat() : null;
+		if ((packed & 0x10) != 0) {
+			final int value = in.readInt();
+			status = new CGMStatus(value & 0xFF, (value >> 8) & 0xFF, (value >> 16) & 0xFF);
 		} else {
-			quality = in.readFloat();
-		}
-		if (in.readByte() == 0) {
 			status = null;
-		} else {
-			final int warningStatus = in.readInt();
-			final int calibrationTempStatus = in.readInt();
-			final int sensorStatus = in.readInt();
-			status = new CGMStatus(warningStatus, calibrationTempStatus, sensorStatus);
 		}
-		timeOffset = in.readInt();
-		secured = in.readByte() != 0;
-		crcValid = in.readByte() != 0;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((secured ? 0x01 : 0) | (crcValid ? 0x02 : 0)
+				| (trend != null ? 0x04 : 0) | (quality != null ? 0x08 : 0) | (status != null ? 0x10 : 0)
+				| ((timeOffset & 0xFFFF) << 16));
 		dest.writeFloat(glucoseConcentration);
-		if (trend == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (trend != null)
 			dest.writeFloat(trend);
-		}
-		if (quality == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (quality != null)
 			dest.writeFloat(quality);
-		}
-		if (status == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(status.warningStatus);
-			dest.writeInt(status.calibrationTempStatus);
-			dest.writeInt(status.sensorStatus);
-		}
-		dest.writeInt(timeOffset);
-		dest.writeByte((byte) (secured ? 1 : 0));
-		dest.writeByte((byte) (crcValid ? 1 : 0));
+		if (status != null)
+			dest.writeInt(status.warningStatus | (status.calibrationTempStatus << 8) | (status.sensorStatus << 16));
 	}
 
 	public static final Creator<ContinuousGlucoseMeasurementResponse> CREATOR = new Creator<ContinuousGlucoseMeasurementResponse>() {
 		@Override
 		public ContinuousGlucoseMeasurementResponse createFromParcel(final Parcel in) {
-			return new ContinuousGlucoseMeasurementResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final ContinuousGlucoseMeasurementResponse response = ResponseParcel.hasRawData(header)
+					? new ContinuousGlucoseMeasurementResponse(in) : ResponseParcel.restore(new ContinuousGlucoseMeasurementResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -27,6 +27,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.csc.CyclingSpeedAndCadenceFeatureCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +41,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"WeakerAccess", "ConstantConditions"})
 public abstract class CyclingSpeedAndCadenceFeatureDataCallback extends ProfileReadResponse implements CyclingSpeedAndCadenceFeatureCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CSC_FEATURE);
 
 	public CyclingSpeedAndCadenceFeatureDataCallback() {
 		// empty
@@ -51,14 +54,20 @@ public abstract class CyclingSpeedAndCadenceFeatureDataCallback extends ProfileR
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			if (data.size() != 2) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		if (data.size() != 2) {
-			onInvalidDataReceived(device, data);
-			return;
+			final int value = data.getIntValue(Data.FORMAT_UINT16, 0);
+			final CSCFeatures features = new CSCFeatures(value);
+			probe.valid();
+			onCyclingSpeedAndCadenceFeaturesReceived(device, features);
+		} finally {
+			probe.finish();
 		}
-
-		final int value = data.getIntValue(Data.FORMAT_UINT16, 0);
-		final CSCFeatures features = new CSCFeatures(value);
-		onCyclingSpeedAndCadenceFeaturesReceived(device, features);
 	}
 }
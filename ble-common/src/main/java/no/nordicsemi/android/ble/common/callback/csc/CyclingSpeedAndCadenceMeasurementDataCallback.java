@@ -26,7 +26,14 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.csc.CyclingSpeedAndCadenceEngine;
+import no.nordicsemi.android.ble.common.decoder.CyclingSpeedAndCadenceMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.csc.CyclingSpeedAndCadenceCallback;
 import no.nordicsemi.android.ble.common.profile.csc.CyclingSpeedAndCadenceMeasurementCallback;
 import no.nordicsemi.android.ble.data.Data;
@@ -41,12 +48,10 @@ import no.nordicsemi.android.ble.data.Data;
 @SuppressWarnings({"WeakerAccess", "unused", "ConstantConditions"})
 public abstract class CyclingSpeedAndCadenceMeasurementDataCallback extends ProfileReadResponse
 		implements CyclingSpeedAndCadenceMeasurementCallback, CyclingSpeedAndCadenceCallback {
-	private long mInitialWheelRevolutions = -1;
-	private long mLastWheelRevolutions = -1;
-	private int mLastWheelEventTime = -1;
-	private int mLastCrankRevolutions = -1;
-	private int mLastCrankEventTime = -1;
-	private float mWheelCadence = -1;
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.CSC_MEASUREMENT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
+	private final CyclingSpeedAndCadenceEngine engine = new CyclingSpeedAndCadenceEngine(1, 1);
+	private final int sensor = engine.addSensor(WHEEL_CIRCUMFERENCE_DEFAULT);
 
 	public CyclingSpeedAndCadenceMeasurementDataCallback() {
 		// empty
@@ -59,102 +64,62 @@ public abstract class CyclingSpeedAndCadenceMeasurementDataCallback extends Prof
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 1) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		// Decode the new data
-		int offset = 0;
-		final int flags = data.getByte(offset);
-		offset += 1;
-
-		final boolean wheelRevPresent = (flags & 0x01) != 0;
-		final boolean crankRevPreset = (flags & 0x02) != 0;
-
-		if (data.size() < 1 + (wheelRevPresent ? 6 : 0) + (crankRevPreset ? 4 : 0)) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		if (wheelRevPresent) {
-			final long wheelRevolutions = data.getIntValue(Data.FORMAT_UINT32, offset) & 0xFFFFFFFFL;
-			offset += 4;
-
-			final int lastWheelEventTime = data.getIntValue(Data.FORMAT_UINT16, offset); // 1/1024 s
-			offset += 2;
-
-			if (mInitialWheelRevolutions < 0)
-				mInitialWheelRevolutions = wheelRevolutions;
-
-			// Notify listener about the new measurement
-			onWheelMeasurementReceived(device, wheelRevolutions, lastWheelEventTime);
-		}
-
-		if (crankRevPreset) {
-			final int crankRevolutions = data.getIntValue(Data.FORMAT_UINT16, offset);
-			offset += 2;
-
-			final int lastCrankEventTime = data.getIntValue(Data.FORMAT_UINT16, offset);
-			// offset += 2;
-
-			// Notify listener about the new measurement
-			onCrankMeasurementReceived(device, crankRevolutions, lastCrankEventTime);
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			try {
+				if (!CyclingSpeedAndCadenceMeasurementDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				} else {
+					// No-op if already reported before the wheel or crank data was dispatched
+					probe.valid();
+				}
+			} finally {
+				decoderCallback.device = null;
+			}
+		} finally {
+			probe.finish();
 		}
 	}
 
 	@Override
 	public void onWheelMeasurementReceived(@NonNull final BluetoothDevice device, final long wheelRevolutions, final int lastWheelEventTime) {
-		if (mLastWheelEventTime == lastWheelEventTime)
-			return;
-
-		if (mLastWheelRevolutions >= 0) {
-			final float circumference = getWheelCircumference();
-
-			float timeDifference;
-			if (lastWheelEventTime < mLastWheelEventTime)
-				timeDifference = (65535 + lastWheelEventTime - mLastWheelEventTime) / 1024.0f; // [s]
-			else
-				timeDifference = (lastWheelEventTime - mLastWheelEventTime) / 1024.0f; // [s]
-			final float distanceDifference = (wheelRevolutions - mLastWheelRevolutions) * circumference / 1000.0f; // [m]
-			final float totalDistance = (float) wheelRevolutions * circumference / 1000.0f; // [m]
-			final float distance = (float) (wheelRevolutions - mInitialWheelRevolutions) * circumference / 1000.0f; // [m]
-			final float speed = distanceDifference / timeDifference; // [m/s]
-			mWheelCadence = (wheelRevolutions - mLastWheelRevolutions) * 60.0f / timeDifference; // [revolutions/minute]
-
+		engine.setWheelCircumference(sensor, getWheelCircumference());
+		if (engine.onWheelMeasurement(sensor, wheelRevolutions, lastWheelEventTime)) {
 			// Notify listener about the new measurement
-			onDistanceChanged(device, totalDistance, distance, speed);
+			onDistanceChanged(device, engine.getTotalDistance(sensor), engine.getDistance(sensor), engine.getSpeed(sensor));
 		}
-		mLastWheelRevolutions = wheelRevolutions;
-		mLastWheelEventTime = lastWheelEventTime;
 	}
 
-	@SuppressWarnings("StatementWithEmptyBody")
 	@Override
 	public void onCrankMeasurementReceived(@NonNull final BluetoothDevice device, final int crankRevolutions, final int lastCrankEventTime) {
-		if (mLastCrankEventTime == lastCrankEventTime)
-			return;
-
-		if (mLastCrankRevolutions >= 0) {
-			float timeDifference;
-			if (lastCrankEventTime < mLastCrankEventTime)
-				timeDifference = (65535 + lastCrankEventTime - mLastCrankEventTime) / 1024.0f; // [s]
-			else
-				timeDifference = (lastCrankEventTime - mLastCrankEventTime) / 1024.0f; // [s]
-
-			final float crankCadence = (crankRevolutions - mLastCrankRevolutions) * 60.0f / timeDifference; // [revolutions/minute]
+		if (engine.onCrankMeasurement(sensor, crankRevolutions, lastCrankEventTime)) {
+			final float crankCadence = engine.getCrankCadence(sensor);
 			if (crankCadence > 0) {
-				final float gearRatio = mWheelCadence >= 0 ? mWheelCadence / crankCadence : 0.0f;
-
 				// Notify listener about the new measurement
-				onCrankDataChanged(device, crankCadence, gearRatio);
-			} else {
-				// Notify listener about the new measurement
-				// onCrankDataChanged(device, 0, 0);
+				onCrankDataChanged(device, crankCadence, engine.getGearRatio(sensor));
 			}
 		}
-		mLastCrankRevolutions = crankRevolutions;
-		mLastCrankEventTime = lastCrankEventTime;
+	}
+
+	/** Reused by all values; the device is set only while decoding. */
+	private final class DecoderCallback implements CyclingSpeedAndCadenceMeasurementDecoder.Callback {
+		private BluetoothDevice device;
+
+		@Override
+		public void onWheelMeasurement(final long wheelRevolutions, final int lastWheelEventTime) {
+			probe.valid();
+			// Notify listener about the new measurement
+			onWheelMeasurementReceived(device, wheelRevolutions, lastWheelEventTime);
+		}
+
+		@Override
+		public void onCrankMeasurement(final int crankRevolutions, final int lastCrankEventTime) {
+			probe.valid();
+			// Notify listener about the new measurement
+			onCrankMeasurementReceived(device, crankRevolutions, lastCrankEventTime);
+		}
 	}
 }
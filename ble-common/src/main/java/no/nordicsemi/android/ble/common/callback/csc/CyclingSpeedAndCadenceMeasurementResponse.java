@@ -27,6 +27,8 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -50,7 +52,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  * </p>
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
-public final class CyclingSpeedAndCadenceMeasurementResponse extends CyclingSpeedAndCadenceMeasurementDataCallback implements Parcelable {
+public final class CyclingSpeedAndCadenceMeasurementResponse extends CyclingSpeedAndCadenceMeasurementDataCallback implements RecyclableResponse, Parcelable {
 	private long wheelRevolutions;
 	private long crankRevolutions;
 	private int lastWheelEventTime;
@@ -117,7 +119,7 @@ public final class CyclingSpeedAndCadenceMeasurementResponse extends CyclingSpee
 	 */
 	public float getDistance(final float wheelCircumference,
 							 final CyclingSpeedAndCadenceMeasurementResponse previous) {
-		return (float) (wheelRevolutions - previous.wheelRevolutions) * wheelCircumference / 1000.0f; // [m]
+		return (float) wheelRevolutionsDifference(previous) * wheelCircumference / 1000.0f; // [m]
 	}
 
 	/**
@@ -129,11 +131,7 @@ public final class CyclingSpeedAndCadenceMeasurementResponse extends CyclingSpee
 	 */
 	public float getSpeed(final float wheelCircumference,
 						  final CyclingSpeedAndCadenceMeasurementResponse previous) {
-		float timeDifference;
-		if (lastWheelEventTime < previous.lastWheelEventTime)
-			timeDifference = (65535 + lastWheelEventTime - previous.lastWheelEventTime) / 1024.0f; // [s]
-		else
-			timeDifference = (lastWheelEventTime - previous.lastWheelEventTime) / 1024.0f; // [s]
+		final float timeDifference = timeDifference(lastWheelEventTime, previous.lastWheelEventTime); // [s]
 
 		return getDistance(wheelCircumference, previous) / timeDifference; // [m/s]
 	}
@@ -145,16 +143,12 @@ public final class CyclingSpeedAndCadenceMeasurementResponse extends CyclingSpee
 	 * @return wheel cadence in revolutions per minute.
 	 */
 	public float getWheelCadence(final CyclingSpeedAndCadenceMeasurementResponse previous) {
-		float timeDifference;
-		if (lastWheelEventTime < previous.lastWheelEventTime)
-			timeDifference = (65535 + lastWheelEventTime - previous.lastWheelEventTime) / 1024.0f; // [s]
-		else
-			timeDifference = (lastWheelEventTime - previous.lastWheelEventTime) / 1024.0f; // [s]
+		final float timeDifference = timeDifference(lastWheelEventTime, previous.lastWheelEventTime); // [s]
 
 		if (timeDifference == 0)
 			return 0.0f;
 
-		return (wheelRevolutions - previous.wheelRevolutions) * 60.0f / timeDifference; // [revolutions/minute];
+		return wheelRevolutionsDifference(previous) * 60.0f / timeDifference; // [revolutions/minute];
 	}
 
 	/**
@@ -164,16 +158,13 @@ public final class CyclingSpeedAndCadenceMeasurementResponse extends CyclingSpee
 	 * @return crank cadence in revolutions per minute.
 	 */
 	public float getCrankCadence(final CyclingSpeedAndCadenceMeasurementResponse previous) {
-		float timeDifference;
-		if (lastCrankEventTime < previous.lastCrankEventTime)
-			timeDifference = (65535 + lastCrankEventTime - previous.lastCrankEventTime) / 1024.0f; // [s]
-		else
-			timeDifference = (lastCrankEventTime - previous.lastCrankEventTime) / 1024.0f; // [s]
+		final float timeDifference = timeDifference(lastCrankEventTime, previous.lastCrankEventTime); // [s]
 
 		if (timeDifference == 0)
 			return 0.0f;
 
-		return (crankRevolutions - previous.crankRevolutions) * 60.0f / timeDifference; // [revolutions/minute];
+		// Crank revolutions are uint16 and roll over
+		return ((crankRevolutions - previous.crankRevolutions) & 0xFFFF) * 60.0f / timeDifference; // [revolutions/minute];
 	}
 
 	/**
@@ -190,28 +181,61 @@ public final class CyclingSpeedAndCadenceMeasurementResponse extends CyclingSpee
 		}
 	}
 
+	/**
+	 * Returns the wheel revolutions since the previous response. Wheel revolutions are uint32
+	 * and roll over; a decrement (e.g. when reversing) gives a negative difference.
+	 */
+	private int wheelRevolutionsDifference(final CyclingSpeedAndCadenceMeasurementResponse previous) {
+		return (int) (wheelRevolutions - previous.wheelRevolutions);
+	}
+
+	/**
+	 * Returns the time between the event times in seconds. Event times are uint16 in 1/1024 s
+	 * and roll over every 64 seconds.
+	 */
+	private static float timeDifference(final int eventTime, final int previousEventTime) {
+		return ((eventTime - previousEventTime) & 0xFFFF) / 1024.0f;
+	}
+
+	@Override
+	public void reset() {
+		wheelRevolutions = 0;
+		crankRevolutions = 0;
+		lastWheelEventTime = 0;
+		lastCrankEventTime = 0;
+	}
+
 	// Parcelable
 	private CyclingSpeedAndCadenceMeasurementResponse(final Parcel in) {
 		super(in);
-		wheelRevolutions = in.readLong();
-		crankRevolutions = in.readLong();
-		lastWheelEventTime = in.readInt();
-		lastCrankEventTime = in.readInt();
+	}
+
+	private void readFields(final Parcel in) {
+		wheelRevolutions = in.readInt() & 0xFFFFFFFFL;
+		crankRevolutions = in.readInt() & 0xFFFFFFFFL;
+		final int times = in.readInt();
+		lastWheelEventTime = times & 0xFFFF;
+		lastCrankEventTime = times >>> 16;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeLong(wheelRevolutions);
-		dest.writeLong(crankRevolutions);
-		dest.writeInt(lastWheelEventTime);
-		dest.writeInt(lastCrankEventTime);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		// Revolutions are uint32 and uint16, event times are uint16
+		dest.writeInt((int) wheelRevolutions);
+		dest.writeInt((int) crankRevolutions);
+		dest.writeInt((lastWheelEventTime & 0xFFFF) | ((lastCrankEventTime & 0xFFFF) << 16));
 	}
 
 	public static final Creator<CyclingSpeedAndCadenceMeasurementResponse> CREATOR = new Creator<CyclingSpeedAndCadenceMeasurementResponse>() {
 		@Override
 		public CyclingSpeedAndCadenceMeasurementResponse createFromParcel(final Parcel in) {
-			return new CyclingSpeedAndCadenceMeasurementResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final CyclingSpeedAndCadenceMeasurementResponse response = ResponseParcel.hasRawData(header)
+					? new CyclingSpeedAndCadenceMeasurementResponse(in) : ResponseParcel.restore(new CyclingSpeedAndCadenceMeasurementResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -27,6 +27,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.glucose.GlucoseFeatureCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +41,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class GlucoseFeatureDataCallback extends ProfileReadResponse implements GlucoseFeatureCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.GLUCOSE_FEATURE);
 
 	public GlucoseFeatureDataCallback() {
 		// empty
@@ -51,14 +54,20 @@ public abstract class GlucoseFeatureDataCallback extends ProfileReadResponse imp
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			if (data.size() != 2) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		if (data.size() != 2) {
-			onInvalidDataReceived(device, data);
-			return;
+			final int value = data.getIntValue(Data.FORMAT_UINT16, 0);
+			final GlucoseFeatures features = new GlucoseFeatures(value);
+			probe.valid();
+			onGlucoseFeaturesReceived(device, features);
+		} finally {
+			probe.finish();
 		}
-
-		final int value = data.getIntValue(Data.FORMAT_UINT16, 0);
-		final GlucoseFeatures features = new GlucoseFeatures(value);
-		onGlucoseFeaturesReceived(device, features);
 	}
 }
@@ -28,6 +28,7 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -72,28 +73,28 @@ public final class GlucoseFeatureResponse extends GlucoseFeatureDataCallback imp
 	// Parcelable
 	private GlucoseFeatureResponse(final Parcel in) {
 		super(in);
-		if (in.readByte() == 0) {
-			features = null;
-		} else {
-			features = new GlucoseFeatures(in.readInt());
-		}
+	}
+
+	private void readFields(final Parcel in) {
+		final int value = in.readInt();
+		features = value >= 0 ? new GlucoseFeatures(value) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		if (features == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(features.value);
-		}
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt(features != null ? features.value : -1);
 	}
 
 	public static final Creator<GlucoseFeatureResponse> CREATOR = new Creator<GlucoseFeatureResponse>() {
 		@Override
 		public GlucoseFeatureResponse createFromParcel(final Parcel in) {
-			return new GlucoseFeatureResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final GlucoseFeatureResponse response = ResponseParcel.hasRawData(header)
+					? new GlucoseFeatureResponse(in) : ResponseParcel.restore(new GlucoseFeatureResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -26,7 +26,13 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementContextDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.glucose.GlucoseMeasurementContextCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +45,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class GlucoseMeasurementContextDataCallback extends ProfileReadResponse implements GlucoseMeasurementContextCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.GLUCOSE_MEASUREMENT_CONTEXT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public GlucoseMeasurementContextDataCallback() {
 		// empty
@@ -51,92 +59,55 @@ public abstract class GlucoseMeasurementContextDataCallback extends ProfileReadR
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-		
-		if (data.size() < 3) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		int offset = 0;
-
-		final int flags = data.getIntValue(Data.FORMAT_UINT8, offset++);
-		final boolean carbohydratePresent = (flags & 0x01) != 0;
-		final boolean mealPresent = (flags & 0x02) != 0;
-		final boolean testerHealthPresent = (flags & 0x04) != 0;
-		final boolean exercisePresent = (flags & 0x08) != 0;
-		final boolean medicationPresent = (flags & 0x10) != 0;
-		final boolean medicationUnitLiter = (flags & 0x20) != 0;
-		final boolean HbA1cPresent = (flags & 0x40) != 0;
-		final boolean extendedFlagsPresent = (flags & 0x80) != 0;
-
-		if (data.size() < 3 + (carbohydratePresent ? 3 : 0) + (mealPresent ? 1 : 0) + (testerHealthPresent ? 1 : 0)
-				+ (exercisePresent ? 3 : 0) + (medicationPresent ? 3 : 0) + (HbA1cPresent ? 2 : 0)
-				+ (extendedFlagsPresent ? 1 : 0)) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		final int sequenceNumber = data.getIntValue(Data.FORMAT_UINT16, offset);
-		offset += 2;
-
-		// Optional fields
-		if (extendedFlagsPresent) {
-			// ignore extended flags
-			offset += 1;
-		}
-
-		Carbohydrate carbohydrate = null;
-		Float carbohydrateAmount = null;
-		if (carbohydratePresent) {
-			final int carbohydrateId = data.getIntValue(Data.FORMAT_UINT8, offset);
-			carbohydrate = Carbohydrate.from(carbohydrateId);
-			carbohydrateAmount = data.getFloatValue(Data.FORMAT_SFLOAT, offset + 1); // in grams
-			offset += 3;
-		}
-
-		Meal meal = null;
-		if (mealPresent) {
-			final int mealId = data.getIntValue(Data.FORMAT_UINT8, offset);
-			meal = Meal.from(mealId);
-			offset += 1;
-		}
-
-		Tester tester = null;
-		Health health = null;
-		if (testerHealthPresent) {
-			final int testerAndHealth = data.getIntValue(Data.FORMAT_UINT8, offset);
-			tester = Tester.from(testerAndHealth & 0x0F);
-			health = Health.from(testerAndHealth >> 4);
-			offset += 1;
-		}
-
-		Integer exerciseDuration = null;
-		Integer exerciseIntensity = null;
-		if (exercisePresent) {
-			exerciseDuration = data.getIntValue(Data.FORMAT_UINT16, offset); // in seconds
-			exerciseIntensity = data.getIntValue(Data.FORMAT_UINT8, offset + 2); // in percentage
-			offset += 3;
-		}
-
-		Medication medication = null;
-		Float medicationAmount = null;
-		Integer medicationUnit = null;
-		if (medicationPresent) {
-			final int medicationId = data.getIntValue(Data.FORMAT_UINT8, offset);
-			medication = Medication.from(medicationId);
-			medicationAmount = data.getFloatValue(Data.FORMAT_SFLOAT, offset + 1); // mg or ml
-			medicationUnit = medicationUnitLiter ? UNIT_ml : UNIT_mg;
-			offset += 3;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			try {
+				if (!GlucoseMeasurementContextDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		Float HbA1c = null;
-		if (HbA1cPresent) {
-			HbA1c = data.getFloatValue(Data.FORMAT_SFLOAT, offset);
-			// offset += 2;
+	/** Reused by all values; the device is set only while decoding. */
+	private final class DecoderCallback implements GlucoseMeasurementContextDecoder.Callback {
+		private BluetoothDevice device;
+
+		@Override
+		public void onGlucoseMeasurementContext(final int sequenceNumber, final int flags,
+												final int carbohydrateId, final float carbohydrateAmount,
+												final int meal, final int tester, final int health,
+												final int exerciseDuration, final int exerciseIntensity,
+												final int medicationId, final float medicationAmount,
+												final float HbA1c) {
+			final boolean carbohydratePresent = (flags & GlucoseMeasurementContextDecoder.FLAG_CARBOHYDRATE_PRESENT) != 0;
+			final boolean mealPresent = (flags & GlucoseMeasurementContextDecoder.FLAG_MEAL_PRESENT) != 0;
+			final boolean testerHealthPresent = (flags & GlucoseMeasurementContextDecoder.FLAG_TESTER_HEALTH_PRESENT) != 0;
+			final boolean exercisePresent = (flags & GlucoseMeasurementContextDecoder.FLAG_EXERCISE_PRESENT) != 0;
+			final boolean medicationPresent = (flags & GlucoseMeasurementContextDecoder.FLAG_MEDICATION_PRESENT) != 0;
+			final boolean medicationUnitLiter = (flags & GlucoseMeasurementContextDecoder.FLAG_MEDICATION_UNIT_LITER) != 0;
+			final boolean HbA1cPresent = (flags & GlucoseMeasurementContextDecoder.FLAG_HBA1C_PRESENT) != 0;
+
+			probe.valid();
+			onGlucoseMeasurementContextReceived(device, sequenceNumber,
+					carbohydratePresent ? Carbohydrate.from(carbohydrateId) : null,
+					carbohydratePresent ? carbohydrateAmount : null,
+					mealPresent ? Meal.from(meal) : null,
+					testerHealthPresent ? Tester.from(tester) : null,
+					testerHealthPresent ? Health.from(health) : null,
+					exercisePresent ? exerciseDuration : null,
+					exercisePresent ? exerciseIntensity : null,
+					medicationPresent ? Medication.from(medicationId) : null,
+					medicationPresent ? medicationAmount : null,
+					medicationPresent ? (medicationUnitLiter ? UNIT_ml : UNIT_mg) : null,
+					HbA1cPresent ? HbA1c : null);
 		}
-
-		onGlucoseMeasurementContextReceived(device, sequenceNumber, carbohydrate, carbohydrateAmount,
-				meal, tester, health, exerciseDuration, exerciseIntensity,
-				medication, medicationAmount, medicationUnit, HbA1c);
 	}
 }
@@ -28,6 +28,8 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -54,7 +56,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  * </p>
  */
 @SuppressWarnings("unused")
-public final class GlucoseMeasurementContextResponse extends GlucoseMeasurementContextDataCallback implements Parcelable {
+public final class GlucoseMeasurementContextResponse extends GlucoseMeasurementContextDataCallback implements RecyclableResponse, Parcelable {
 	private int sequenceNumber;
 	@Nullable
 	private Carbohydrate carbohydrate;
@@ -170,88 +172,80 @@ public final class GlucoseMeasurementContextResponse extends GlucoseMeasurementC
 		return HbA1c;
 	}
 
+	@Override
+	public void reset() {
+		sequenceNumber = 0;
+		carbohydrate = null;
+		carbohydrateAmount = null;
+		meal = null;
+		tester = null;
+		health = null;
+		exerciseDuration = null;
+		exerciseIntensity = null;
+		medication = null;
+		medicationAmount = null;
+		medicationUnit = null;
+		HbA1c = null;
+	}
+
 	// Parcelable
 	private GlucoseMeasurementContextResponse(final Parcel in) {
 		super(in);
-		sequenceNumber = in.readInt();
-		if (in.readByte() == 0) {
-			carbohydrateAmount = null;
-		} else {
-			carbohydrateAmount = in.readFloat();
-		}
-		if (in.readByte() == 0) {
-			exerciseDuration = null;
-		} else {
-			exerciseDuration = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			exerciseIntensity = null;
-		} else {
-			exerciseIntensity = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			medicationAmount = null;
-		} else {
-			medicationAmount = in.readFloat();
-		}
-		if (in.readByte() == 0) {
-			medicationUnit = null;
-		} else {
-			medicationUnit = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			HbA1c = null;
-		} else {
-			HbA1c = in.readFloat();
-		}
+	}
+
+	private void readFields(final Parcel in) {
+		// Sequence number and presence of optional values
+		final int packed = in.readInt();
+		sequenceNumber = packed & 0xFFFF;
+		medicationUnit = (packed & 0x100000) != 0 ? (packed >> 21) & 0x01 : null;
+		// Enum values, 5 bits each: presence and value
+		final int values = in.readInt();
+		carbohydrate = (values & 0x10) != 0 ? Carbohydrate.from(values & 0x0F) : null;
+		meal = (values & (0x10 << 5)) != 0 ? Meal.from((values >> 5) & 0x0F) : null;
+		tester = (values & (0x10 << 10)) != 0 ? Tester.from((values >> 10) & 0x0F) : null;
+		health = (values & (0x10 << 15)) != 0 ? Health.from((values >> 15) & 0x0F) : null;
+		medication = (values & (0x10 << 20)) != 0 ? Medication.from((values >> 20) & 0x0F) : null;
+		final int exercise = (packed & 0x30000) != 0 ? in.readInt() : 0;
+		exerciseDuration = (packed & 0x10000) != 0 ? exercise & 0xFFFF : null;
+		exerciseIntensity = (packed & 0x20000) != 0 ? exercise >>> 16 : null;
+		carbohydrateAmount = (packed & 0x40000) != 0 ? in.readFloat() : null;
+		medicationAmount = (packed & 0x80000) != 0 ? in.readFloat() : null;
+		HbA1c = (packed & 0x400000) != 0 ? in.readFloat() : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeInt(sequenceNumber);
-		if (carbohydrateAmount == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((sequenceNumber & 0xFFFF)
+				| (exerciseDuration != null ? 0x10000 : 0) | (exerciseIntensity != null ? 0x20000 : 0)
+				| (carbohydrateAmount != null ? 0x40000 : 0) | (medicationAmount != null ? 0x80000 : 0)
+				| (medicationUnit != null ? 0x100000 | ((medicationUnit & 0x01) << 21) : 0)
+				| (HbA1c != null ? 0x400000 : 0));
+		dest.writeInt((carbohydrate != null ? 0x10 | (carbohydrate.value & 0x0F) : 0)
+				| ((meal != null ? 0x10 | (meal.value & 0x0F) : 0) << 5)
+				| ((tester != null ? 0x10 | (tester.value & 0x0F) : 0) << 10)
+				| ((health != null ? 0x10 | (health.value & 0x0F) : 0) << 15)
+				| ((medication != null ? 0x10 | (medication.value & 0x0F) : 0) << 20));
+		if (exerciseDuration != null || exerciseIntensity != null)
+			dest.writeInt((exerciseDuration != null ? exerciseDuration & 0xFFFF : 0)
+					| (exerciseIntensity != null ? exerciseIntensity << 16 : 0));
+		if (carbohydrateAmount != null)
 			dest.writeFloat(carbohydrateAmount);
-		}
-		if (exerciseDuration == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(exerciseDuration);
-		}
-		if (exerciseIntensity == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(exerciseIntensity);
-		}
-		if (medicationAmount == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (medicationAmount != null)
 			dest.writeFloat(medicationAmount);
-		}
-		if (medicationUnit == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(medicationUnit);
-		}
-		if (HbA1c == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (HbA1c != null)
 			dest.writeFloat(HbA1c);
-		}
 	}
 
 	public static final Creator<GlucoseMeasurementContextResponse> CREATOR = new Creator<GlucoseMeasurementContextResponse>() {
 		@Override
 		public GlucoseMeasurementContextResponse createFromParcel(final Parcel in) {
-			return new GlucoseMeasurementContextResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final GlucoseMeasurementContextResponse response = ResponseParcel.hasRawData(header)
+					? new GlucoseMeasurementContextResponse(in) : ResponseParcel.restore(new GlucoseMeasurementContextResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -26,10 +26,15 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
 import java.util.Calendar;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
-import no.nordicsemi.android.ble.common.callback.DateTimeDataCallback;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.GlucoseMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.glucose.GlucoseMeasurementCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -42,6 +47,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"ConstantConditions", "WeakerAccess"})
 public abstract class GlucoseMeasurementDataCallback extends ProfileReadResponse implements GlucoseMeasurementCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.GLUCOSE_MEASUREMENT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public GlucoseMeasurementDataCallback() {
 		// empty
@@ -54,69 +61,44 @@ public abstract class GlucoseMeasurementDataCallback extends ProfileReadResponse
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 10) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		int offset = 0;
-
-		final int flags = data.getIntValue(Data.FORMAT_UINT8, offset++);
-		final boolean timeOffsetPresent = (flags & 0x01) != 0;
-		final boolean glucoseDataPresent = (flags & 0x02) != 0;
-		final boolean unitMolL = (flags & 0x04) != 0;
-		final boolean sensorStatusAnnunciationPresent = (flags & 0x08) != 0;
-		final boolean contextInformationFollows = (flags & 0x10) != 0;
-
-		if (data.size() < 10 + (timeOffsetPresent ? 2 : 0) + (glucoseDataPresent ? 3 : 0)
-			+ (sensorStatusAnnunciationPresent ? 2 : 0)) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			try {
+				if (!GlucoseMeasurementDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		// Required fields
-		final int sequenceNumber = data.getIntValue(Data.FORMAT_UINT16, offset);
-		offset += 2;
-		final Calendar baseTime = DateTimeDataCallback.readDateTime(data, 3);
-		offset += 7;
-
-		if (baseTime == null) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		// Optional fields
-		if (timeOffsetPresent) {
-			final int timeOffset = data.getIntValue(Data.FORMAT_SINT16, offset);
-			offset += 2;
-
-			baseTime.add(Calendar.MINUTE, timeOffset);
-		}
-
-		Float glucoseConcentration = null;
-		Integer unit = null;
-		Integer type = null;
-		Integer sampleLocation = null;
-		if (glucoseDataPresent) {
-			glucoseConcentration = data.getFloatValue(Data.FORMAT_SFLOAT, offset);
-			final int typeAndSampleLocation = data.getIntValue(Data.FORMAT_UINT8, offset + 2);
-			offset += 3;
-
-			type = typeAndSampleLocation & 0x0F;
-			sampleLocation = typeAndSampleLocation >> 4;
-			unit = unitMolL ? UNIT_mol_L : UNIT_kg_L;
-		}
-
-		GlucoseStatus status = null;
-		if (sensorStatusAnnunciationPresent) {
-			final int value = data.getIntValue(Data.FORMAT_UINT16, offset);
-			// offset += 2;
-
-			status = new GlucoseStatus(value);
+	/** Reused by all values; the device is set only while decoding. */
+	private final class DecoderCallback implements GlucoseMeasurementDecoder.Callback {
+		private BluetoothDevice device;
+
+		@Override
+		public void onGlucoseMeasurement(final int sequenceNumber, final long baseTime, final int timeOffset,
+										 final boolean glucoseDataPresent, final float glucoseConcentration,
+										 final boolean unitMolL, final int type, final int sampleLocation,
+										 final boolean statusPresent, final int status,
+										 final boolean contextInformationFollows) {
+			final Calendar time = DateTime.toCalendar(baseTime);
+			if (timeOffset != 0)
+				time.add(Calendar.MINUTE, timeOffset);
+			probe.valid();
+			onGlucoseMeasurementReceived(device, sequenceNumber, time,
+					glucoseDataPresent ? glucoseConcentration : null,
+					glucoseDataPresent ? (unitMolL ? UNIT_mol_L : UNIT_kg_L) : null,
+					glucoseDataPresent ? type : null,
+					glucoseDataPresent ? sampleLocation : null,
+					statusPresent ? new GlucoseStatus(status) : null,
+					contextInformationFollows);
 		}
-
-		onGlucoseMeasurementReceived(device, sequenceNumber, baseTime /* with offset */,
-				glucoseConcentration, unit, type, sampleLocation, status, contextInformationFollows);
 	}
 }
@@ -30,6 +30,8 @@ import androidx.annotation.Nullable;
 
 import java.util.Calendar;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -55,7 +57,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  * </p>
  */
 @SuppressWarnings("unused")
-public final class GlucoseMeasurementResponse extends GlucoseMeasurementDataCallback implements Parcelable {
+public final class GlucoseMeasurementResponse extends GlucoseMeasurementDataCallback implements RecyclableResponse, Parcelable {
 	private int sequenceNumber;
 	@Nullable
 	private Calendar time;
@@ -71,6 +73,10 @@ public final class GlucoseMeasurementResponse extends GlucoseMeasurementDataCall
 	private GlucoseStatus status;
 	private boolean contextInformationFollows;
 
+	public GlucoseMeasurementResponse() {
+		// empty
+	}
+
 	@Override
 	public void onGlucoseMeasurementReceived(@NonNull final BluetoothDevice device,
 											 final int sequenceNumber,
@@ -129,93 +135,62 @@ public final class GlucoseMeasurementResponse extends GlucoseMeasurementDataCall
 		return contextInformationFollows;
 	}
 
+	@Override
+	public void reset() {
+		sequenceNumber = 0;
+		time = null;
+		glucoseConcentration = null;
+		unit = null;
+		type = null;
+		sampleLocation = null;
+		status = null;
+		contextInformationFollows = false;
+	}
+
 	// Parcelable
-	@SuppressWarnings("ConstantConditions")
 	private GlucoseMeasurementResponse(final Parcel in) {
 		super(in);
-		sequenceNumber = in.readInt();
-		if (in.readByte() == 0) {
-			time = null;
-		} else {
-			time = Calendar.getInstance();
-			time.setTimeInMillis(in.readLong());
-		}
-		if (in.readByte() == 0) {
-			glucoseConcentration = null;
-		} else {
-			glucoseConcentration = in.readFloat();
-		}
-		if (in.readByte() == 0) {
-			unit = null;
-		} else {
-			unit = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			type = null;
-		} else {
-			type = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			sampleLocation = null;
-		} else {
-			sampleLocation = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			status = null;
-		} else {
-			status = new GlucoseStatus(in.readInt());
-		}
-		contextInformationFollows = in.readByte() != 0;
+	}
+
+	private void readFields(final Parcel in) {
+		// Sequence number, flags, type and sample location
+		final int packed = in.readInt();
+		sequenceNumber = packed & 0xFFFF;
+		unit = (packed & 0x40000) != 0 ? (packed >> 19) & 0x01 : null;
+		type = (packed & 0x100000) != 0 ? (packed >> 24) & 0x0F : null;
+		sampleLocation = (packed & 0x200000) != 0 ? packed >>> 28 : null;
+		contextInformationFollows = (packed & 0x800000) != 0;
+		time = (packed & 0x10000) != 0 ? ResponseParcel.readCalendar(in) : null;
+		glucoseConcentration = (packed & 0x20000) != 0 ? in.readFloat() : null;
+		status = (packed & 0x400000) != 0 ? new GlucoseStatus(in.readInt()) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeInt(sequenceNumber);
-		if (time == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeLong(time.getTimeInMillis());
-		}
-		if (glucoseConcentration == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((sequenceNumber & 0xFFFF)
+				| (time != null ? 0x10000 : 0) | (glucoseConcentration != null ? 0x20000 : 0)
+				| (unit != null ? 0x40000 | ((unit & 0x01) << 19) : 0)
+				| (type != null ? 0x100000 | ((type & 0x0F) << 24) : 0)
+				| (sampleLocation != null ? 0x200000 | ((sampleLocation & 0x0F) << 28) : 0)
+				| (status != null ? 0x400000 : 0) | (contextInformationFollows ? 0x800000 : 0));
+		if (time != null)
+			ResponseParcel.writeCalendar(dest, time);
+		if (glucoseConcentration != null)
 			dest.writeFloat(glucoseConcentration);
-		}
-		if (unit == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(unit);
-		}
-		if (type == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(type);
-		}
-		if (sampleLocation == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(sampleLocation);
-		}
-		super.writeToParcel(dest, flags);
-		if (status == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (status != null)
 			dest.writeInt(status.value);
-		}
-		dest.writeByte((byte) (contextInformationFollows ? 1 : 0));
 	}
 
 	public static final Creator<GlucoseMeasurementResponse> CREATOR = new Creator<GlucoseMeasurementResponse>() {
 		@Override
 		public GlucoseMeasurementResponse createFromParcel(final Parcel in) {
-			return new GlucoseMeasurementResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final GlucoseMeasurementResponse response = ResponseParcel.hasRawData(header)
+					? new GlucoseMeasurementResponse(in) : ResponseParcel.restore(new GlucoseMeasurementResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
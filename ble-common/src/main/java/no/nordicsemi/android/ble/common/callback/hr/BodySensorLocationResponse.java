@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -69,19 +70,27 @@ public final class BodySensorLocationResponse extends BodySensorLocationDataCall
 	// Parcelable
 	private BodySensorLocationResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
 		sensorLocation = in.readInt();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
 		dest.writeInt(sensorLocation);
 	}
 
 	public static final Creator<BodySensorLocationResponse> CREATOR = new Creator<BodySensorLocationResponse>() {
 		@Override
 		public BodySensorLocationResponse createFromParcel(final Parcel in) {
-			return new BodySensorLocationResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final BodySensorLocationResponse response = ResponseParcel.hasRawData(header)
+					? new BodySensorLocationResponse(in) : ResponseParcel.restore(new BodySensorLocationResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
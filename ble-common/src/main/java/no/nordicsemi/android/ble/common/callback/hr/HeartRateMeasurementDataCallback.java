@@ -30,7 +30,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
 import no.nordicsemi.android.ble.common.profile.hr.HeartRateMeasurementCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -38,11 +37,13 @@ import no.nordicsemi.android.ble.data.Data;
  * Data callback that parses value into Heart Rate Measurement data.
  * If the value received do not match required syntax
  * {@link #onInvalidDataReceived(BluetoothDevice, Data)} callback will be called.
- * will be called.
+ * <p>
+ * This class boxes the optional values and copies RR intervals into a new list for each
+ * notification. Use {@link HeartRateMeasurementPrimitiveDataCallback} to avoid allocations.
  * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.heart_rate_measurement.xml
  */
 @SuppressWarnings({"WeakerAccess", "ConstantConditions"})
-public abstract class HeartRateMeasurementDataCallback extends ProfileReadResponse implements HeartRateMeasurementCallback {
+public abstract class HeartRateMeasurementDataCallback extends HeartRateMeasurementPrimitiveDataCallback implements HeartRateMeasurementCallback {
 
 	public HeartRateMeasurementDataCallback() {
 		// empty
@@ -53,56 +54,26 @@ public abstract class HeartRateMeasurementDataCallback extends ProfileReadRespon
 	}
 
 	@Override
-	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
-		super.onDataReceived(device, data);
-
-		if (data.size() < 2) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		// Read flags
-		int offset = 0;
-		final int flags = data.getIntValue(Data.FORMAT_UINT8, offset);
-		final int hearRateType = (flags & 0x01) == 0 ? Data.FORMAT_UINT8 : Data.FORMAT_UINT16;
-		final int sensorContactStatus = (flags & 0x06) >> 1;
-		final boolean sensorContactSupported = sensorContactStatus == 2 || sensorContactStatus == 3;
-		final boolean sensorContactDetected = sensorContactStatus == 3;
-		final boolean energyExpandedPresent = (flags & 0x08) != 0;
-		final boolean rrIntervalsPresent = (flags & 0x10) != 0;
-		offset += 1;
-
-		// Validate packet length
-		if (data.size() < 1 + (hearRateType & 0x0F)
-				+ (energyExpandedPresent ? 2 : 0)
-				+ (rrIntervalsPresent ? 2 : 0)) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		// Prepare data
-		final Boolean sensorContact = sensorContactSupported ? sensorContactDetected : null;
-
-		final int heartRate = data.getIntValue(hearRateType, offset);
-		offset += hearRateType & 0xF;
-
-		Integer energyExpanded = null;
-		if (energyExpandedPresent) {
-			energyExpanded = data.getIntValue(Data.FORMAT_UINT16, offset);
-			offset += 2;
-		}
-
-		List<Integer> rrIntervals = null;
-		if (rrIntervalsPresent) {
-			final int count = (data.size() - offset) / 2;
-			final List<Integer> intervals = new ArrayList<>(count);
-			for (int i = 0; i < count; ++i) {
-				intervals.add(data.getIntValue(Data.FORMAT_UINT16, offset));
-				offset += 2;
+	public void onHeartRateMeasurementReceived(@NonNull final BluetoothDevice device,
+											   final int heartRate,
+											   final boolean contactSupported,
+											   final boolean contactDetected,
+											   final boolean energyExpandedPresent,
+											   final int energyExpanded,
+											   @NonNull final int[] rrIntervals,
+											   final int rrIntervalsCount) {
+		List<Integer> intervals = null;
+		if (rrIntervalsCount > 0) {
+			final List<Integer> list = new ArrayList<>(rrIntervalsCount);
+			for (int i = 0; i < rrIntervalsCount; ++i) {
+				list.add(rrIntervals[i]);
 			}
-			rrIntervals = Collections.unmodifiableList(intervals);
+			intervals = Collections.unmodifiableList(list);
 		}
 
-		onHeartRateMeasurementReceived(device, heartRate, sensorContact, energyExpanded, rrIntervals);
+		onHeartRateMeasurementReceived(device, heartRate,
+				contactSupported ? contactDetected : null,
+				energyExpandedPresent ? energyExpanded : null,
+				intervals);
 	}
 }
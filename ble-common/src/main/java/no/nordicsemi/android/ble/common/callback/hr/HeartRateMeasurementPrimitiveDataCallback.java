@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback.hr;
+
+import android.bluetooth.BluetoothDevice;
+import android.os.Parcel;
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.HeartRateMeasurementDecoder;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+import no.nordicsemi.android.ble.common.profile.hr.HeartRateMeasurementPrimitiveCallback;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Data callback that parses value into Heart Rate Measurement data without boxing values
+ * or allocating a list for each notification. RR intervals are stored in a primitive buffer that is
+ * reused by subsequent notifications. The received array is decoded directly, so no objects
+ * are allocated per value.
+ * If the value received do not match required syntax
+ * {@link #onInvalidDataReceived(BluetoothDevice, Data)} callback will be called.
+ * See: https://www.bluetooth.com/specifications/gatt/viewer?attributeXmlFile=org.bluetooth.characteristic.heart_rate_measurement.xml
+ */
+@SuppressWarnings({"WeakerAccess", "ConstantConditions"})
+public abstract class HeartRateMeasurementPrimitiveDataCallback extends ProfileReadResponse implements HeartRateMeasurementPrimitiveCallback {
+	/** Number of RR intervals that fit into a notification with the default MTU. */
+	private static final int DEFAULT_RR_INTERVALS_CAPACITY = 9;
+	private static final byte[] EMPTY = new byte[0];
+
+	@NonNull
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.HEART_RATE_MEASUREMENT);
+	@NonNull
+	private int[] rrIntervals = new int[DEFAULT_RR_INTERVALS_CAPACITY];
+	@NonNull
+	private final DecoderCallback decoderCallback = new DecoderCallback();
+
+	public HeartRateMeasurementPrimitiveDataCallback() {
+		// empty
+	}
+
+	protected HeartRateMeasurementPrimitiveDataCallback(final Parcel in) {
+		super(in);
+	}
+
+	@Override
+	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			final byte[] received = data.getValue();
+			final byte[] value = received != null ? received : EMPTY;
+			decoderCallback.device = device;
+			decoderCallback.value = value;
+			try {
+				if (!HeartRateMeasurementDecoder.decode(value, 0, value.length, decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+				decoderCallback.value = null;
+			}
+		} finally {
+			probe.finish();
+		}
+	}
+
+	/**
+	 * Decoder callback reused by all notifications. It copies RR intervals into
+	 * the primitive buffer and notifies the primitive callback.
+	 */
+	private final class DecoderCallback implements HeartRateMeasurementDecoder.Callback {
+		private BluetoothDevice device;
+		private byte[] value;
+
+		@Override
+		public void onHeartRateMeasurement(final int heartRate,
+										   final boolean contactSupported, final boolean contactDetected,
+										   final boolean energyExpandedPresent, final int energyExpanded,
+										   final int rrIntervalsOffset, final int rrIntervalsCount) {
+			if (rrIntervals.length < rrIntervalsCount)
+				rrIntervals = new int[rrIntervalsCount];
+			for (int i = 0; i < rrIntervalsCount; ++i) {
+				rrIntervals[i] = HeartRateMeasurementDecoder.rrInterval(value, rrIntervalsOffset, i);
+			}
+			probe.valid();
+			onHeartRateMeasurementReceived(device, heartRate, contactSupported, contactDetected,
+					energyExpandedPresent, energyExpanded, rrIntervals, rrIntervalsCount);
+		}
+	}
+}
@@ -32,6 +32,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -55,7 +57,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  * </p>
  */
 @SuppressWarnings("unused")
-public final class HeartRateMeasurementResponse extends HeartRateMeasurementDataCallback implements Parcelable {
+public final class HeartRateMeasurementResponse extends HeartRateMeasurementDataCallback implements RecyclableResponse, Parcelable {
 	private int heartRate;
 	@Nullable
 	private Boolean contactDetected;
@@ -104,50 +106,67 @@ public final class HeartRateMeasurementResponse extends HeartRateMeasurementData
 		return rrIntervals;
 	}
 
+	@Override
+	public void reset() {
+		heartRate = 0;
+		contactDetected = null;
+		energyExpanded = null;
+		rrIntervals = null;
+	}
+
 	// Parcelable
 	private HeartRateMeasurementResponse(final Parcel in) {
 		super(in);
-		heartRate = in.readInt();
-		byte tmpContactDetected = in.readByte();
-		contactDetected = tmpContactDetected == 0 ? null : tmpContactDetected == 1;
-		if (in.readByte() == 0) {
-			energyExpanded = null;
-		} else {
-			energyExpanded = in.readInt();
-		}
-		final int count = in.readInt();
-		if (count == 0) {
-			rrIntervals = null;
-		} else {
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		heartRate = packed & 0xFFFF;
+		contactDetected = (packed & 0x10000) != 0 ? (packed & 0x20000) != 0 : null;
+		energyExpanded = (packed & 0x40000) != 0 ? in.readInt() : null;
+		if ((packed & 0x80000) != 0) {
+			// RR-Intervals are uint16, two in each int
+			final int count = in.readInt();
 			final ArrayList<Integer> intervals = new ArrayList<>(count);
-			in.readList(intervals, Integer.class.getClassLoader());
+			for (int i = 0; i < count; i += 2) {
+				final int pair = in.readInt();
+				intervals.add(pair & 0xFFFF);
+				if (i + 1 < count)
+					intervals.add(pair >>> 16);
+			}
 			rrIntervals = Collections.unmodifiableList(intervals);
+		} else {
+			rrIntervals = null;
 		}
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeInt(heartRate);
-		dest.writeByte((byte) (contactDetected == null ? 0 : contactDetected ? 1 : 2));
-		if (energyExpanded == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((heartRate & 0xFFFF)
+				| (contactDetected != null ? 0x10000 | (contactDetected ? 0x20000 : 0) : 0)
+				| (energyExpanded != null ? 0x40000 : 0) | (rrIntervals != null ? 0x80000 : 0));
+		if (energyExpanded != null)
 			dest.writeInt(energyExpanded);
-		}
-		if (rrIntervals == null) {
-			dest.writeInt(0);
-		} else {
-			dest.writeInt(rrIntervals.size());
-			dest.writeList(rrIntervals);
+		if (rrIntervals != null) {
+			final int count = rrIntervals.size();
+			dest.writeInt(count);
+			for (int i = 0; i < count; i += 2) {
+				final int second = i + 1 < count ? rrIntervals.get(i + 1) : 0;
+				dest.writeInt((rrIntervals.get(i) & 0xFFFF) | (second << 16));
+			}
 		}
 	}
 
 	public static final Creator<HeartRateMeasurementResponse> CREATOR = new Creator<HeartRateMeasurementResponse>() {
 		@Override
 		public HeartRateMeasurementResponse createFromParcel(final Parcel in) {
-			return new HeartRateMeasurementResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final HeartRateMeasurementResponse response = ResponseParcel.hasRawData(header)
+					? new HeartRateMeasurementResponse(in) : ResponseParcel.restore(new HeartRateMeasurementResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -27,6 +27,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.ht.MeasurementIntervalCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +41,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"WeakerAccess", "ConstantConditions"})
 public abstract class MeasurementIntervalDataCallback extends ProfileReadResponse implements MeasurementIntervalCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.MEASUREMENT_INTERVAL);
 
 	public MeasurementIntervalDataCallback() {
 		// empty
@@ -51,13 +54,19 @@ public abstract class MeasurementIntervalDataCallback extends ProfileReadRespons
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			if (data.size() != 2) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		if (data.size() != 2) {
-			onInvalidDataReceived(device, data);
-			return;
+			final int interval = data.getIntValue(Data.FORMAT_UINT16, 0);
+			probe.valid();
+			onMeasurementIntervalReceived(device, interval);
+		} finally {
+			probe.finish();
 		}
-
-		final int interval = data.getIntValue(Data.FORMAT_UINT16, 0);
-		onMeasurementIntervalReceived(device, interval);
 	}
 }
@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -75,19 +76,27 @@ public final class MeasurementIntervalResponse extends MeasurementIntervalDataCa
 	// Parcelable
 	private MeasurementIntervalResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
 		interval = in.readInt();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
 		dest.writeInt(interval);
 	}
 
 	public static final Creator<MeasurementIntervalResponse> CREATOR = new Creator<MeasurementIntervalResponse>() {
 		@Override
 		public MeasurementIntervalResponse createFromParcel(final Parcel in) {
-			return new MeasurementIntervalResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final MeasurementIntervalResponse response = ResponseParcel.hasRawData(header)
+					? new MeasurementIntervalResponse(in) : ResponseParcel.restore(new MeasurementIntervalResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
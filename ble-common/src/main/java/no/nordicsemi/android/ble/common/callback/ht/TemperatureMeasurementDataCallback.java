@@ -26,10 +26,14 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
-import java.util.Calendar;
+import java.nio.ByteBuffer;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
-import no.nordicsemi.android.ble.common.callback.DateTimeDataCallback;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.decoder.TemperatureMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.ht.TemperatureMeasurementCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -42,6 +46,8 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"unused", "WeakerAccess", "ConstantConditions"})
 public abstract class TemperatureMeasurementDataCallback extends ProfileReadResponse implements TemperatureMeasurementCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.TEMPERATURE_MEASUREMENT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public TemperatureMeasurementDataCallback() {
 		// empty
@@ -54,39 +60,35 @@ public abstract class TemperatureMeasurementDataCallback extends ProfileReadResp
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 5) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		int offset = 0;
-		final int flags = data.getIntValue(Data.FORMAT_UINT8, offset);
-		final int unit = (flags & 0x01) == UNIT_C ? UNIT_C : UNIT_F;
-		final boolean timestampPresent = (flags & 0x02) != 0;
-		final boolean temperatureTypePresent = (flags & 0x04) != 0;
-		offset += 1;
-
-		if (data.size() < 5 + (timestampPresent ? 7 : 0) + (temperatureTypePresent ? 1 : 0)) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			try {
+				if (!TemperatureMeasurementDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		final float temperature = data.getFloatValue(Data.FORMAT_FLOAT, 1);
-		offset += 4;
-
-		Calendar calendar = null;
-		if (timestampPresent) {
-			calendar = DateTimeDataCallback.readDateTime(data, offset);
-			offset += 7;
-		}
+	/** Reused by all values; the device is set only while decoding. */
+	private final class DecoderCallback implements TemperatureMeasurementDecoder.Callback {
+		private BluetoothDevice device;
 
-		Integer type = null;
-		if (temperatureTypePresent) {
-			type = data.getIntValue(Data.FORMAT_UINT8, offset);
-			// offset += 1;
+		@Override
+		public void onTemperatureMeasurement(final float temperature, final boolean fahrenheit,
+											 final boolean timestampPresent, final long timestamp,
+											 final boolean typePresent, final int type) {
+			probe.valid();
+			onTemperatureMeasurementReceived(device, temperature, fahrenheit ? UNIT_F : UNIT_C,
+					timestampPresent ? DateTime.toCalendar(timestamp) : null,
+					typePresent ? type : null);
 		}
-
-		onTemperatureMeasurementReceived(device, temperature, unit, calendar, type);
 	}
 }
@@ -30,6 +30,8 @@ import androidx.annotation.Nullable;
 
 import java.util.Calendar;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.common.profile.ht.TemperatureMeasurementCallback;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
@@ -54,7 +56,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  * </p>
  */
 @SuppressWarnings("unused")
-public final class TemperatureMeasurementResponse extends TemperatureMeasurementDataCallback implements Parcelable {
+public final class TemperatureMeasurementResponse extends TemperatureMeasurementDataCallback implements RecyclableResponse, Parcelable {
 	private float temperature;
 	private int unit;
 	@Nullable
@@ -103,48 +105,46 @@ public final class TemperatureMeasurementResponse extends TemperatureMeasurement
 		return type;
 	}
 
+	@Override
+	public void reset() {
+		temperature = 0;
+		unit = 0;
+		timestamp = null;
+		type = null;
+	}
+
 	// Parcelable
-	@SuppressWarnings("ConstantConditions")
 	private TemperatureMeasurementResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		unit = packed & 0x0F;
+		type = (packed & 0x20) != 0 ? (packed >> 8) & 0xFF : null;
 		temperature = in.readFloat();
-		unit = in.readInt();
-		if (in.readByte() == 0) {
-			timestamp = null;
-		} else {
-			timestamp = Calendar.getInstance();
-			timestamp.setTimeInMillis(in.readLong());
-		}
-		if (in.readByte() == 0) {
-			type = null;
-		} else {
-			type = in.readInt();
-		}
+		timestamp = (packed & 0x10) != 0 ? ResponseParcel.readCalendar(in) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((unit & 0x0F) | (timestamp != null ? 0x10 : 0)
+				| (type != null ? 0x20 | ((type & 0xFF) << 8) : 0));
 		dest.writeFloat(temperature);
-		dest.writeInt(unit);
-		if (timestamp == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeLong(timestamp.getTimeInMillis());
-		}
-		if (type == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(type);
-		}
+		if (timestamp != null)
+			ResponseParcel.writeCalendar(dest, timestamp);
 	}
 
 	public static final Creator<TemperatureMeasurementResponse> CREATOR = new Creator<TemperatureMeasurementResponse>() {
 		@Override
 		public TemperatureMeasurementResponse createFromParcel(final Parcel in) {
-			return new TemperatureMeasurementResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final TemperatureMeasurementResponse response = ResponseParcel.hasRawData(header)
+					? new TemperatureMeasurementResponse(in) : ResponseParcel.restore(new TemperatureMeasurementResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
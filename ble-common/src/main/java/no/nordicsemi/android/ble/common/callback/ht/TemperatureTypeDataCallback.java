@@ -27,6 +27,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.ht.TemperatureTypeCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +41,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"WeakerAccess", "ConstantConditions"})
 public abstract class TemperatureTypeDataCallback extends ProfileReadResponse implements TemperatureTypeCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.TEMPERATURE_TYPE);
 
 	public TemperatureTypeDataCallback() {
 		// empty
@@ -51,13 +54,19 @@ public abstract class TemperatureTypeDataCallback extends ProfileReadResponse im
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			if (data.size() != 1) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		if (data.size() != 1) {
-			onInvalidDataReceived(device, data);
-			return;
+			final int type = data.getIntValue(Data.FORMAT_UINT8, 0);
+			probe.valid();
+			onTemperatureTypeReceived(device, type);
+		} finally {
+			probe.finish();
 		}
-
-		final int type = data.getIntValue(Data.FORMAT_UINT8, 0);
-		onTemperatureTypeReceived(device, type);
 	}
 }
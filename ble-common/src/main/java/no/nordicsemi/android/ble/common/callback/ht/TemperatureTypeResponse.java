@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -69,19 +70,27 @@ public final class TemperatureTypeResponse extends TemperatureTypeDataCallback i
 	// Parcelable
 	private TemperatureTypeResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
 		type = in.readInt();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
 		dest.writeInt(type);
 	}
 
 	public static final Creator<TemperatureTypeResponse> CREATOR = new Creator<TemperatureTypeResponse>() {
 		@Override
 		public TemperatureTypeResponse createFromParcel(final Parcel in) {
-			return new TemperatureTypeResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final TemperatureTypeResponse response = ResponseParcel.hasRawData(header)
+					? new TemperatureTypeResponse(in) : ResponseParcel.restore(new TemperatureTypeResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -28,6 +28,7 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -73,28 +74,28 @@ public class RunningSpeedAndCadenceFeatureResponse extends RunningSpeedAndCadenc
 	// Parcelable
 	private RunningSpeedAndCadenceFeatureResponse(final Parcel in) {
 		super(in);
-		if (in.readByte() == 0) {
-			features = null;
-		} else {
-			features = new RSCFeatures(in.readInt());
-		}
+	}
+
+	private void readFields(final Parcel in) {
+		final int value = in.readInt();
+		features = value >= 0 ? new RSCFeatures(value) : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		if (features == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(features.value);
-		}
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt(features != null ? features.value : -1);
 	}
 
 	public static final Creator<RunningSpeedAndCadenceFeatureResponse> CREATOR = new Creator<RunningSpeedAndCadenceFeatureResponse>() {
 		@Override
 		public RunningSpeedAndCadenceFeatureResponse createFromParcel(final Parcel in) {
-			return new RunningSpeedAndCadenceFeatureResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final RunningSpeedAndCadenceFeatureResponse response = ResponseParcel.hasRawData(header)
+					? new RunningSpeedAndCadenceFeatureResponse(in) : ResponseParcel.restore(new RunningSpeedAndCadenceFeatureResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -26,7 +26,13 @@ import android.bluetooth.BluetoothDevice;
 import android.os.Parcel;
 import androidx.annotation.NonNull;
 
+import java.nio.ByteBuffer;
+
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.decoder.RunningSpeedAndCadenceMeasurementDecoder;
+import no.nordicsemi.android.ble.common.decoder.ValueReader;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.rsc.RunningSpeedAndCadenceMeasurementCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -40,6 +46,8 @@ import no.nordicsemi.android.ble.data.Data;
 @SuppressWarnings({"WeakerAccess", "ConstantConditions"})
 public abstract class RunningSpeedAndCadenceMeasurementDataCallback extends ProfileReadResponse
 		implements RunningSpeedAndCadenceMeasurementCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.RSC_MEASUREMENT);
+	private final DecoderCallback decoderCallback = new DecoderCallback();
 
 	public RunningSpeedAndCadenceMeasurementDataCallback() {
 		// empty
@@ -52,43 +60,36 @@ public abstract class RunningSpeedAndCadenceMeasurementDataCallback extends Prof
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
-
-		if (data.size() < 4) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		int offset = 0;
-		final int flags = data.getIntValue(Data.FORMAT_UINT8, offset);
-		final boolean instantaneousStrideLengthPresent = (flags & 0x01) != 0;
-		final boolean totalDistancePresent = (flags & 0x02) != 0;
-		final boolean statusRunning = (flags & 0x04) != 0;
-		offset += 1;
-
-		final float speed = data.getIntValue(Data.FORMAT_UINT16, offset) / 256.f; // [m/s]
-		offset += 2;
-		final int cadence = data.getIntValue(Data.FORMAT_UINT8, offset);
-		offset += 1;
-
-		if (data.size() < 4
-				+ (instantaneousStrideLengthPresent ? 2 : 0)
-				+ (totalDistancePresent ? 4 : 0)) {
-			onInvalidDataReceived(device, data);
-			return;
+		probe.start(device, data);
+		try {
+			final ByteBuffer buffer = ValueReader.wrap(data.getValue());
+			decoderCallback.device = device;
+			try {
+				if (!RunningSpeedAndCadenceMeasurementDecoder.decode(buffer, 0, buffer.limit(), decoderCallback)) {
+					probe.invalid();
+					onInvalidDataReceived(device, data);
+				}
+			} finally {
+				decoderCallback.device = null;
+			}
+		} finally {
+			probe.finish();
 		}
+	}
 
-		Integer strideLength = null;
-		if (instantaneousStrideLengthPresent) {
-			strideLength = data.getIntValue(Data.FORMAT_UINT16, offset);
-			offset += 2;
-		}
+	/** Reused by all values; the device is set only while decoding. */
+	private final class DecoderCallback implements RunningSpeedAndCadenceMeasurementDecoder.Callback {
+		private BluetoothDevice device;
 
-		Long totalDistance = null;
-		if (totalDistancePresent) {
-			totalDistance = data.getLongValue(Data.FORMAT_UINT32, offset);
-			// offset += 4;
+		@Override
+		public void onRSCMeasurement(final boolean running, final float instantaneousSpeed,
+									 final int instantaneousCadence,
+									 final boolean strideLengthPresent, final int strideLength,
+									 final boolean totalDistancePresent, final long totalDistance) {
+			probe.valid();
+			onRSCMeasurementReceived(device, running, instantaneousSpeed, instantaneousCadence,
+					strideLengthPresent ? strideLength : null,
+					totalDistancePresent ? totalDistance : null);
 		}
-
-		onRSCMeasurementReceived(device, statusRunning, speed, cadence, strideLength, totalDistance);
 	}
 }
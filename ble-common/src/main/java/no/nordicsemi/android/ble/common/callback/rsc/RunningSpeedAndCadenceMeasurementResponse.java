@@ -28,6 +28,8 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import no.nordicsemi.android.ble.common.callback.RecyclableResponse;
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -52,7 +54,7 @@ import no.nordicsemi.android.ble.exception.RequestFailedException;
  */
 @SuppressWarnings("unused")
 public final class RunningSpeedAndCadenceMeasurementResponse extends RunningSpeedAndCadenceMeasurementDataCallback
-		implements Parcelable {
+		implements RecyclableResponse, Parcelable {
 	private boolean running;
 	private float instantaneousSpeed;
 	private int instantaneousCadence;
@@ -123,42 +125,40 @@ public final class RunningSpeedAndCadenceMeasurementResponse extends RunningSpee
 		return totalDistance;
 	}
 
+	@Override
+	public void reset() {
+		running = false;
+		instantaneousSpeed = 0;
+		instantaneousCadence = 0;
+		strideLength = null;
+		totalDistance = null;
+	}
+
 	// Parcelable
 	private RunningSpeedAndCadenceMeasurementResponse(final Parcel in) {
 		super(in);
-		running = in.readByte() != 0;
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		running = (packed & 0x01) != 0;
+		instantaneousCadence = (packed >> 8) & 0xFF;
+		strideLength = (packed & 0x02) != 0 ? packed >>> 16 : null;
 		instantaneousSpeed = in.readFloat();
-		instantaneousCadence = in.readInt();
-		if (in.readByte() == 0) {
-			strideLength = null;
-		} else {
-			strideLength = in.readInt();
-		}
-		if (in.readByte() == 0) {
-			totalDistance = null;
-		} else {
-			totalDistance = in.readLong();
-		}
+		totalDistance = (packed & 0x04) != 0 ? in.readInt() & 0xFFFFFFFFL : null;
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeByte((byte) (running ? 1 : 0));
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		// Cadence is uint8, stride length uint16 and total distance uint32
+		dest.writeInt((running ? 0x01 : 0) | (strideLength != null ? 0x02 : 0) | (totalDistance != null ? 0x04 : 0)
+				| ((instantaneousCadence & 0xFF) << 8)
+				| (strideLength != null ? strideLength << 16 : 0));
 		dest.writeFloat(instantaneousSpeed);
-		dest.writeInt(instantaneousCadence);
-		if (strideLength == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeInt(strideLength);
-		}
-		if (totalDistance == null) {
-			dest.writeByte((byte) 0);
-		} else {
-			dest.writeByte((byte) 1);
-			dest.writeLong(totalDistance);
-		}
+		if (totalDistance != null)
+			dest.writeInt(totalDistance.intValue());
 	}
 
 	@Override
@@ -169,7 +169,11 @@ public final class RunningSpeedAndCadenceMeasurementResponse extends RunningSpee
 	public static final Creator<RunningSpeedAndCadenceMeasurementResponse> CREATOR = new Creator<RunningSpeedAndCadenceMeasurementResponse>() {
 		@Override
 		public RunningSpeedAndCadenceMeasurementResponse createFromParcel(final Parcel in) {
-			return new RunningSpeedAndCadenceMeasurementResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final RunningSpeedAndCadenceMeasurementResponse response = ResponseParcel.hasRawData(header)
+					? new RunningSpeedAndCadenceMeasurementResponse(in) : ResponseParcel.restore(new RunningSpeedAndCadenceMeasurementResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
@@ -27,6 +27,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.sc.SensorLocationCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +41,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"WeakerAccess", "ConstantConditions"})
 public abstract class SensorLocationDataCallback extends ProfileReadResponse implements SensorLocationCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.SENSOR_LOCATION);
 
 	public SensorLocationDataCallback() {
 		// empty
@@ -51,13 +54,19 @@ public abstract class SensorLocationDataCallback extends ProfileReadResponse imp
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			if (data.size() != 1) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		if (data.size() != 1) {
-			onInvalidDataReceived(device, data);
-			return;
+			final int location = data.getIntValue(Data.FORMAT_UINT8, 0);
+			probe.valid();
+			onSensorLocationReceived(device, location);
+		} finally {
+			probe.finish();
 		}
-
-		final int location = data.getIntValue(Data.FORMAT_UINT8, 0);
-		onSensorLocationReceived(device, location);
 	}
 }
@@ -27,6 +27,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -69,19 +70,27 @@ public final class SensorLocationResponse extends SensorLocationDataCallback imp
 	// Parcelable
 	private SensorLocationResponse(final Parcel in) {
 		super(in);
+	}
+
+	private void readFields(final Parcel in) {
 		location = in.readInt();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
 		dest.writeInt(location);
 	}
 
 	public static final Creator<SensorLocationResponse> CREATOR = new Creator<SensorLocationResponse>() {
 		@Override
 		public SensorLocationResponse createFromParcel(final Parcel in) {
-			return new SensorLocationResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final SensorLocationResponse response = ResponseParcel.hasRawData(header)
+					? new SensorLocationResponse(in) : ResponseParcel.restore(new SensorLocationResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
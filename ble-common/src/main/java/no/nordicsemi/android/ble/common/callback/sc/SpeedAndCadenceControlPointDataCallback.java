@@ -27,6 +27,8 @@ import android.os.Parcel;
 import androidx.annotation.NonNull;
 
 import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.callback.DecodeProbe;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
 import no.nordicsemi.android.ble.common.profile.sc.SpeedAndCadenceControlPointCallback;
 import no.nordicsemi.android.ble.data.Data;
 
@@ -39,6 +41,7 @@ import no.nordicsemi.android.ble.data.Data;
  */
 @SuppressWarnings({"WeakerAccess", "ConstantConditions"})
 public abstract class SpeedAndCadenceControlPointDataCallback extends ProfileReadResponse implements SpeedAndCadenceControlPointCallback {
+	private final DecodeProbe probe = new DecodeProbe(Characteristics.SC_CONTROL_POINT);
 	private final static int SC_OP_CODE_RESPONSE_CODE = 16;
 	private final static int SC_RESPONSE_SUCCESS = 1;
 
@@ -53,40 +56,49 @@ public abstract class SpeedAndCadenceControlPointDataCallback extends ProfileRea
 	@Override
 	public void onDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
 		super.onDataReceived(device, data);
+		probe.start(device, data);
+		try {
+			if (data.size() < 3) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		if (data.size() < 3) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
-
-		final int responseCode = data.getIntValue(Data.FORMAT_UINT8, 0);
-		final int requestCode = data.getIntValue(Data.FORMAT_UINT8, 1);
-		final int status = data.getIntValue(Data.FORMAT_UINT8, 2);
+			final int responseCode = data.getIntValue(Data.FORMAT_UINT8, 0);
+			final int requestCode = data.getIntValue(Data.FORMAT_UINT8, 1);
+			final int status = data.getIntValue(Data.FORMAT_UINT8, 2);
 
-		if (responseCode != SC_OP_CODE_RESPONSE_CODE) {
-			onInvalidDataReceived(device, data);
-			return;
-		}
+			if (responseCode != SC_OP_CODE_RESPONSE_CODE) {
+				probe.invalid();
+				onInvalidDataReceived(device, data);
+				return;
+			}
 
-		if (status != SC_RESPONSE_SUCCESS) {
-			onSCOperationError(device, requestCode, status);
-			return;
-		}
+			if (status != SC_RESPONSE_SUCCESS) {
+				probe.valid();
+				onSCOperationError(device, requestCode, status);
+				return;
+			}
 
-		switch (requestCode) {
-			case SC_OP_CODE_REQUEST_SUPPORTED_SENSOR_LOCATIONS: {
-				final int size = data.size() - 3;
-				final int[] locations = new int[size];
-				for (int i = 0; i < size; ++i) {
-					locations[i] = data.getIntValue(Data.FORMAT_UINT8, 3 + i);
+			switch (requestCode) {
+				case SC_OP_CODE_REQUEST_SUPPORTED_SENSOR_LOCATIONS: {
+					final int size = data.size() - 3;
+					final int[] locations = new int[size];
+					for (int i = 0; i < size; ++i) {
+						locations[i] = data.getIntValue(Data.FORMAT_UINT8, 3 + i);
+					}
+					probe.valid();
+					onSupportedSensorLocationsReceived(device, locations);
+					break;
+				}
+				default: {
+					probe.valid();
+					onSCOperationCompleted(device, requestCode);
+					break;
 				}
-				onSupportedSensorLocationsReceived(device, locations);
-				break;
-			}
-			default: {
-				onSCOperationCompleted(device, requestCode);
-				break;
 			}
+		} finally {
+			probe.finish();
 		}
 	}
 }
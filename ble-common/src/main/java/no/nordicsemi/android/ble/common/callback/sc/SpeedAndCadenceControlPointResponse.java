@@ -28,6 +28,7 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import no.nordicsemi.android.ble.common.callback.ResponseParcel;
 import no.nordicsemi.android.ble.exception.InvalidDataException;
 import no.nordicsemi.android.ble.exception.RequestFailedException;
 
@@ -105,25 +106,32 @@ public final class SpeedAndCadenceControlPointResponse extends SpeedAndCadenceCo
 	// Parcelable
 	private SpeedAndCadenceControlPointResponse(final Parcel in) {
 		super(in);
-		operationCompleted = in.readByte() != 0;
-		requestCode = in.readInt();
-		errorCode = in.readInt();
+	}
+
+	private void readFields(final Parcel in) {
+		final int packed = in.readInt();
+		operationCompleted = (packed & 0x01) != 0;
+		requestCode = (packed >> 8) & 0xFF;
+		errorCode = (packed >> 16) & 0xFF;
 		locations = in.createIntArray();
 	}
 
 	@Override
 	public void writeToParcel(final Parcel dest, final int flags) {
-		super.writeToParcel(dest, flags);
-		dest.writeByte((byte) (operationCompleted ? 1 : 0));
-		dest.writeInt(requestCode);
-		dest.writeInt(errorCode);
+		if (ResponseParcel.writeHeader(dest, this, flags))
+			super.writeToParcel(dest, flags);
+		dest.writeInt((operationCompleted ? 0x01 : 0) | ((requestCode & 0xFF) << 8) | ((errorCode & 0xFF) << 16));
 		dest.writeIntArray(locations);
 	}
 
 	public static final Creator<SpeedAndCadenceControlPointResponse> CREATOR = new Creator<SpeedAndCadenceControlPointResponse>() {
 		@Override
 		public SpeedAndCadenceControlPointResponse createFromParcel(final Parcel in) {
-			return new SpeedAndCadenceControlPointResponse(in);
+			final int header = ResponseParcel.readHeader(in);
+			final SpeedAndCadenceControlPointResponse response = ResponseParcel.hasRawData(header)
+					? new SpeedAndCadenceControlPointResponse(in) : ResponseParcel.restore(new SpeedAndCadenceControlPointResponse(), header);
+			response.readFields(in);
+			return response;
 		}
 
 		@Override
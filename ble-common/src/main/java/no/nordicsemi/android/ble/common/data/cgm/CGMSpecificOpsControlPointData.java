@@ -25,6 +25,7 @@ package no.nordicsemi.android.ble.common.data.cgm;
 import androidx.annotation.FloatRange;
 import androidx.annotation.IntRange;
 
+import no.nordicsemi.android.ble.common.decoder.IEEE11073Float;
 import no.nordicsemi.android.ble.common.profile.cgm.CGMTypes;
 import no.nordicsemi.android.ble.common.profile.glucose.GlucoseSampleLocation;
 import no.nordicsemi.android.ble.common.profile.glucose.GlucoseSampleType;
@@ -95,7 +96,7 @@ public final class CGMSpecificOpsControlPointData implements CGMTypes {
 										   final boolean secure) {
 		final MutableData data = new MutableData(new byte[11 + (secure ? 2 : 0)]);
 		data.setByte(OP_CODE_SET_CALIBRATION_VALUE, 0);
-		data.setValue(glucoseConcentrationOfCalibration, Data.FORMAT_SFLOAT, 1);
+		data.setValue(IEEE11073Float.toSfloat(glucoseConcentrationOfCalibration), Data.FORMAT_UINT16, 1);
 		data.setValue(calibrationTime, Data.FORMAT_UINT16, 3);
 		final int typeAndSampleLocation = ((sampleLocation & 0xF) << 8) | (sampleType & 0xF);
 		data.setValue(typeAndSampleLocation, Data.FORMAT_UINT8, 5);
@@ -183,7 +184,7 @@ public final class CGMSpecificOpsControlPointData implements CGMTypes {
 	private static Data create(final byte opCode, final float value, final boolean secure) {
 		final MutableData data = new MutableData(new byte[3 + (secure ? 2 : 0)]);
 		data.setByte(opCode, 0);
-		data.setValue(value, Data.FORMAT_SFLOAT, 1);
+		data.setValue(IEEE11073Float.toSfloat(value), Data.FORMAT_UINT16, 1);
 		return appendCrc(data, secure);
 	}
 
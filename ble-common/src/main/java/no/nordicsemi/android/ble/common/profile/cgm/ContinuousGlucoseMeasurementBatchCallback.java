@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.profile.cgm;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementBatch;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * CGM Measurement callback that receives all records of a notification in a single call,
+ * without boxing values or allocating objects for each record.
+ *
+ * @see ContinuousGlucoseMeasurementCallback
+ */
+public interface ContinuousGlucoseMeasurementBatchCallback extends CGMTypes {
+
+	/**
+	 * Callback called when a Continuous Glucose Measurement packet has been received.
+	 * <p>
+	 * If the E2E CRC field was present in a record, the record has been verified against it.
+	 * If CRC check has failed, records preceding the invalid one are reported in the batch
+	 * and {@link #onContinuousGlucoseMeasurementReceivedWithCrcError(BluetoothDevice, Data)}
+	 * is called afterwards.
+	 * <p>
+	 * The batch is reused for subsequent notifications and is valid only until this method
+	 * returns. Copy the values if they are needed later.
+	 *
+	 * @param device the target device.
+	 * @param batch  the records of the packet, at least one.
+	 */
+	void onContinuousGlucoseMeasurementsReceived(@NonNull final BluetoothDevice device,
+												 @NonNull final ContinuousGlucoseMeasurementBatch batch);
+
+	/**
+	 * Callback called when a CGM packet with E2E field was received but the CRC check has failed.
+	 *
+	 * @param device the target device.
+	 * @param data   the CGM packet data that was received, including the CRC field.
+	 */
+	default void onContinuousGlucoseMeasurementReceivedWithCrcError(
+			@NonNull final BluetoothDevice device,
+			@NonNull final Data data) {
+		// ignore
+	}
+}
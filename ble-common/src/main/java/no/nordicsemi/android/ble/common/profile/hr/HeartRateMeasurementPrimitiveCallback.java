@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.profile.hr;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+/**
+ * Heart Rate Measurement callback that does not require boxing or allocating a list
+ * for each notification. Optional values are described by presence flags.
+ *
+ * @see HeartRateMeasurementCallback
+ */
+public interface HeartRateMeasurementPrimitiveCallback {
+
+	/**
+	 * Callback called when Hear Rate notification has been received.
+	 * <p>
+	 * The RR intervals buffer is reused for subsequent notifications and is valid only until
+	 * this method returns. Copy the values if they are needed later.
+	 *
+	 * @param device                 the target device.
+	 * @param heartRate              the current heart rate in beats per minute.
+	 * @param contactSupported       true if the sensor supports contact detection.
+	 * @param contactDetected        information whether sensor contact has been detected, or not.
+	 *                               Always false if contact detection is not supported.
+	 * @param energyExpandedPresent  true if the energy expanded field was present.
+	 * @param energyExpanded         the energy expanded in kilo Joules, 0 if not present.
+	 * @param rrIntervals            the RR intervals buffer, each value in 1/1024 of a second unit.
+	 *                               The buffer may be longer than the number of values.
+	 * @param rrIntervalsCount       number of RR intervals in the buffer, 0 if not present.
+	 */
+	void onHeartRateMeasurementReceived(@NonNull final BluetoothDevice device,
+										@IntRange(from = 0) final int heartRate,
+										final boolean contactSupported,
+										final boolean contactDetected,
+										final boolean energyExpandedPresent,
+										@IntRange(from = 0) final int energyExpanded,
+										@NonNull final int[] rrIntervals,
+										@IntRange(from = 0) final int rrIntervalsCount);
+}
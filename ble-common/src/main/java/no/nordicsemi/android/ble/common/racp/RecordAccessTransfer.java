@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.racp;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import no.nordicsemi.android.ble.common.callback.RecordAccessControlPointDataCallback;
+import no.nordicsemi.android.ble.common.data.RecordAccessControlPointData;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Engine downloading stored records using the Record Access Control Point.
+ * <p>
+ * A transfer runs the whole sequence as a single operation: the number of matching records
+ * is requested first, then the records are requested, and the transfer completes when the
+ * device reports that all records have been sent. Each step is sent as soon as the previous
+ * one has finished, as RACP allows only one procedure at a time. Progress is reported
+ * against the expected number of records, and the throughput in records and bytes per second
+ * is measured from the first record received.
+ * <p>
+ * The engine does not access the device directly. Commands are written using the given
+ * {@link Transport}, RACP indications must be given to this object, as it extends
+ * {@link RecordAccessControlPointDataCallback}, and each record received must be reported
+ * with {@link #onRecordReceived(int)}.
+ * <p>
+ * Usage example, in a BLE manager:
+ * <pre>
+ * transfer = new RecordAccessTransfer(
+ *         command -&gt; writeCharacteristic(racpCharacteristic, command).enqueue(),
+ *         listener);
+ * setIndicationCallback(racpCharacteristic).with(transfer);
+ * setNotificationCallback(measurementCharacteristic).with((device, data) -&gt; {
+ *     ...
+ *     transfer.onRecordReceived(data.size());
+ * });
+ * transfer.startAll();
+ * // Periodically, e.g. every second:
+ * transfer.checkTimeout();
+ * </pre>
+ * Methods should be called from a single thread, e.g. the BLE manager callback thread.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class RecordAccessTransfer extends RecordAccessControlPointDataCallback {
+	/** The default time without any response or record after which the transfer is aborted. */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+
+	/** The transfer is not running. */
+	public static final int STATE_IDLE = 0;
+	/** The number of records has been requested. */
+	public static final int STATE_COUNTING = 1;
+	/** The records have been requested and are being received. */
+	public static final int STATE_TRANSFERRING = 2;
+	/** The abort operation has been requested. */
+	public static final int STATE_ABORTING = 3;
+
+	public interface Transport {
+
+		/**
+		 * Writes the command to the Record Access Control Point characteristic.
+		 *
+		 * @param command the command to be written.
+		 */
+		void writeCommand(@NonNull Data command);
+	}
+
+	public interface TimeSource {
+
+		/**
+		 * Returns the current value of a monotonic clock, in nanoseconds.
+		 */
+		long nanoTime();
+	}
+
+	public interface Listener {
+
+		/**
+		 * Called when the number of records to be transferred is known and the records have
+		 * been requested.
+		 *
+		 * @param expectedRecords the number of records reported by the device.
+		 */
+		void onTransferStarted(int expectedRecords);
+
+		/**
+		 * Called when a record has been received.
+		 *
+		 * @param receivedRecords the number of records received.
+		 * @param expectedRecords the number of records reported by the device. The device
+		 *                        may send more records than expected, if new ones were
+		 *                        stored during the transfer.
+		 */
+		void onTransferProgress(int receivedRecords, int expectedRecords);
+
+		/**
+		 * Called when the device has reported that all records have been sent.
+		 *
+		 * @param receivedRecords the number of records received, 0 if no records were found.
+		 */
+		void onTransferCompleted(int receivedRecords);
+
+		/**
+		 * Called when the transfer was aborted using {@link #abort()}, or because of
+		 * a timeout.
+		 *
+		 * @param receivedRecords the number of records received before the transfer was aborted.
+		 */
+		void onTransferAborted(int receivedRecords);
+
+		/**
+		 * Called when the device returned an error, or the abort operation failed.
+		 *
+		 * @param requestCode the request code that failed, one of RACP_OP_CODE_* constants.
+		 * @param errorCode   the error code, one of RACP_ERROR_* constants.
+		 */
+		void onTransferFailed(int requestCode, int errorCode);
+	}
+
+	@NonNull
+	private final Transport transport;
+	@NonNull
+	private final Listener listener;
+	@NonNull
+	private final TimeSource timeSource;
+	private long timeoutNanos = DEFAULT_TIMEOUT_MILLIS * 1_000_000L;
+
+	private int state = STATE_IDLE;
+	/** The first sequence number to be requested, or -1 for all records. */
+	private int firstSequenceNumber;
+	private int expectedRecords;
+	private int receivedRecords;
+	private long receivedBytes;
+	private long firstRecordNanos;
+	private long lastRecordNanos;
+	private long lastActivityNanos;
+
+	public RecordAccessTransfer(@NonNull final Transport transport, @NonNull final Listener listener) {
+		this(transport, listener, System::nanoTime);
+	}
+
+	public RecordAccessTransfer(@NonNull final Transport transport, @NonNull final Listener listener,
+								@NonNull final TimeSource timeSource) {
+		this.transport = transport;
+		this.listener = listener;
+		this.timeSource = timeSource;
+	}
+
+	/**
+	 * Sets the time without any response or record from the device after which the transfer
+	 * is aborted by {@link #checkTimeout()}.
+	 *
+	 * @param timeoutMillis the timeout in milliseconds.
+	 */
+	public void setTimeout(@IntRange(from = 1) final long timeoutMillis) {
+		this.timeoutNanos = timeoutMillis * 1_000_000L;
+	}
+
+	/**
+	 * Starts the transfer of all stored records.
+	 *
+	 * @throws IllegalStateException if a transfer is already running.
+	 */
+	public void startAll() {
+		start(-1);
+	}
+
+	/**
+	 * Starts the transfer of stored records with sequence number greater than or equal to
+	 * the given one. This is usually called with the sequence number following the last
+	 * record already downloaded.
+	 *
+	 * @param sequenceNumber the first sequence number.
+	 * @throws IllegalStateException if a transfer is already running.
+	 */
+	public void startFrom(@IntRange(from = 0, to = 0xFFFF) final int sequenceNumber) {
+		start(sequenceNumber);
+	}
+
+	private void start(final int sequenceNumber) {
+		if (state != STATE_IDLE)
+			throw new IllegalStateException("Transfer already in progress");
+		firstSequenceNumber = sequenceNumber;
+		expectedRecords = 0;
+		receivedRecords = 0;
+		receivedBytes = 0;
+		firstRecordNanos = 0;
+		lastRecordNanos = 0;
+		lastActivityNanos = timeSource.nanoTime();
+		state = STATE_COUNTING;
+		transport.writeCommand(sequenceNumber < 0 ?
+				RecordAccessControlPointData.reportNumberOfAllStoredRecords() :
+				RecordAccessControlPointData.reportNumberOfStoredRecordsGreaterThenOrEqualTo(sequenceNumber));
+	}
+
+	/**
+	 * Aborts the running transfer. The {@link Listener#onTransferAborted(int)} will be called
+	 * when the device confirms.
+	 */
+	public void abort() {
+		if (state == STATE_IDLE || state == STATE_ABORTING)
+			return;
+		lastActivityNanos = timeSource.nanoTime();
+		state = STATE_ABORTING;
+		transport.writeCommand(RecordAccessControlPointData.abortOperation());
+	}
+
+	/**
+	 * Aborts the transfer if nothing was received from the device for longer than the timeout.
+	 * If the abort operation itself times out, the transfer is finished as aborted without
+	 * the confirmation. This method should be called periodically during the transfer.
+	 *
+	 * @return True if the transfer has timed out, false otherwise.
+	 */
+	public boolean checkTimeout() {
+		if (state == STATE_IDLE || timeSource.nanoTime() - lastActivityNanos < timeoutNanos)
+			return false;
+		if (state == STATE_ABORTING) {
+			finish();
+			listener.onTransferAborted(receivedRecords);
+		} else {
+			abort();
+		}
+		return true;
+	}
+
+	/**
+	 * Reports that a record has been received.
+	 *
+	 * @param size the size of the record value in bytes, used to calculate the throughput.
+	 */
+	public void onRecordReceived(@IntRange(from = 0) final int size) {
+		if (state != STATE_TRANSFERRING)
+			return;
+		final long now = timeSource.nanoTime();
+		if (receivedRecords == 0)
+			firstRecordNanos = now;
+		lastRecordNanos = now;
+		lastActivityNanos = now;
+		receivedRecords++;
+		receivedBytes += size;
+		listener.onTransferProgress(receivedRecords, expectedRecords);
+	}
+
+	@Override
+	public void onNumberOfRecordsReceived(@NonNull final BluetoothDevice device, final int numberOfRecords) {
+		if (state != STATE_COUNTING)
+			return;
+		lastActivityNanos = timeSource.nanoTime();
+		if (numberOfRecords == 0) {
+			finish();
+			listener.onTransferCompleted(0);
+			return;
+		}
+		expectedRecords = numberOfRecords;
+		state = STATE_TRANSFERRING;
+		transport.writeCommand(firstSequenceNumber < 0 ?
+				RecordAccessControlPointData.reportAllStoredRecords() :
+				RecordAccessControlPointData.reportStoredRecordsGreaterThenOrEqualTo(firstSequenceNumber));
+		listener.onTransferStarted(numberOfRecords);
+	}
+
+	@Override
+	public void onRecordAccessOperationCompleted(@NonNull final BluetoothDevice device, final int requestCode) {
+		if (state == STATE_TRANSFERRING && requestCode == RACP_OP_CODE_REPORT_STORED_RECORDS) {
+			finish();
+			listener.onTransferCompleted(receivedRecords);
+		} else if (state == STATE_ABORTING && requestCode == RACP_OP_CODE_ABORT_OPERATION) {
+			finish();
+			listener.onTransferAborted(receivedRecords);
+		}
+	}
+
+	@Override
+	public void onRecordAccessOperationCompletedWithNoRecordsFound(@NonNull final BluetoothDevice device, final int requestCode) {
+		if ((state == STATE_TRANSFERRING && requestCode == RACP_OP_CODE_REPORT_STORED_RECORDS)
+				|| (state == STATE_COUNTING && requestCode == RACP_OP_CODE_REPORT_NUMBER_OF_RECORDS)) {
+			finish();
+			listener.onTransferCompleted(receivedRecords);
+		}
+	}
+
+	@Override
+	public void onRecordAccessOperationError(@NonNull final BluetoothDevice device, final int requestCode, final int errorCode) {
+		if (state == STATE_IDLE)
+			return;
+		// The interrupted report procedure may respond with Procedure Not Completed after the abort
+		if (state == STATE_ABORTING && requestCode != RACP_OP_CODE_ABORT_OPERATION)
+			return;
+		finish();
+		listener.onTransferFailed(requestCode, errorCode);
+	}
+
+	private void finish() {
+		state = STATE_IDLE;
+	}
+
+	/**
+	 * Returns the current state, one of STATE_* constants.
+	 */
+	public int getState() {
+		return state;
+	}
+
+	/**
+	 * Returns true if a transfer is running.
+	 */
+	public boolean isRunning() {
+		return state != STATE_IDLE;
+	}
+
+	/**
+	 * Returns the number of records reported by the device in the last transfer.
+	 */
+	public int getExpectedRecords() {
+		return expectedRecords;
+	}
+
+	/**
+	 * Returns the number of records received in the last transfer.
+	 */
+	public int getReceivedRecords() {
+		return receivedRecords;
+	}
+
+	/**
+	 * Returns the number of bytes received in the last transfer.
+	 */
+	public long getReceivedBytes() {
+		return receivedBytes;
+	}
+
+	/**
+	 * Returns the progress of the last transfer in percent, 0-100.
+	 */
+	public int getProgress() {
+		if (expectedRecords == 0)
+			return 0;
+		return (int) Math.min(100L, receivedRecords * 100L / expectedRecords);
+	}
+
+	/**
+	 * Returns the number of records received per second in the last transfer, measured
+	 * from the first to the last record received, or 0 if less than 2 records were received.
+	 */
+	public double getRecordsPerSecond() {
+		final long elapsed = lastRecordNanos - firstRecordNanos;
+		if (receivedRecords < 2 || elapsed <= 0)
+			return 0;
+		return (receivedRecords - 1) * 1e9 / elapsed;
+	}
+
+	/**
+	 * Returns the number of bytes received per second in the last transfer, measured
+	 * from the first to the last record received, or 0 if less than 2 records were received.
+	 */
+	public double getBytesPerSecond() {
+		if (receivedRecords == 0)
+			return 0;
+		return getRecordsPerSecond() * receivedBytes / receivedRecords;
+	}
+}
@@ -0,0 +1,756 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.List;
+
+import no.nordicsemi.android.ble.common.callback.alert.AlertLevelDataCallback;
+import no.nordicsemi.android.ble.common.callback.battery.BatteryLevelDataCallback;
+import no.nordicsemi.android.ble.common.callback.bps.BloodPressureMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.bps.IntermediateCuffPressureDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMFeatureDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMSessionRunTimeDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMSessionStartTimeDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMSpecificOpsControlPointDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.CGMStatusDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.ContinuousGlucoseMeasurementBatchDataCallback;
+import no.nordicsemi.android.ble.common.callback.cgm.ContinuousGlucoseMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.csc.CyclingSpeedAndCadenceFeatureDataCallback;
+import no.nordicsemi.android.ble.common.callback.csc.CyclingSpeedAndCadenceMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseFeatureDataCallback;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseMeasurementContextDataCallback;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.hr.BodySensorLocationDataCallback;
+import no.nordicsemi.android.ble.common.callback.hr.HeartRateMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.hr.HeartRateMeasurementPrimitiveDataCallback;
+import no.nordicsemi.android.ble.common.callback.ht.MeasurementIntervalDataCallback;
+import no.nordicsemi.android.ble.common.callback.ht.TemperatureMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.ht.TemperatureTypeDataCallback;
+import no.nordicsemi.android.ble.common.callback.rsc.RunningSpeedAndCadenceFeatureDataCallback;
+import no.nordicsemi.android.ble.common.callback.rsc.RunningSpeedAndCadenceMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.sc.SensorLocationDataCallback;
+import no.nordicsemi.android.ble.common.callback.sc.SpeedAndCadenceControlPointDataCallback;
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementBatch;
+import no.nordicsemi.android.ble.data.Data;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fuzzes every data callback with mutations of valid values, see {@link DataCallbackFuzzer}.
+ * <p>
+ * The number of mutated inputs per callback may be increased with the {@code fuzz.iterations}
+ * property, and the worst-case parse time per input length is printed if {@code fuzz.report}
+ * is set, for example:
+ * <pre>
+ * ./gradlew :ble-common:testDebugUnitTest --tests '*DataCallbackFuzzTest' -Pfuzz.iterations=1000000 -Pfuzz.report
+ * </pre>
+ */
+@SuppressWarnings("ConstantConditions")
+public class DataCallbackFuzzTest {
+	private static final int ITERATIONS = Integer.getInteger("fuzz.iterations", 20_000);
+	private static final boolean REPORT = System.getProperty("fuzz.report") != null;
+	private static final long SEED = Long.getLong("fuzz.seed", 0x5EED);
+
+	private static void fuzz(@NonNull final DataCallbackFuzzer fuzzer, @NonNull final byte[]... seeds) {
+		fuzzer.run(ITERATIONS, seeds);
+		if (REPORT)
+			System.out.print(fuzzer.report());
+		assertTrue("No valid values", fuzzer.getValidCount() > 0);
+		assertTrue("No invalid values", fuzzer.getInvalidCount() > 0);
+	}
+
+	private static DataCallbackFuzzer fuzzer(@NonNull final String name, @NonNull final DataCallbackFuzzer.Target target) {
+		return new DataCallbackFuzzer(name, target, SEED);
+	}
+
+	private static byte[] bytes(final int... values) {
+		final byte[] data = new byte[values.length];
+		for (int i = 0; i < values.length; i++)
+			data[i] = (byte) values[i];
+		return data;
+	}
+
+	@Test
+	public void dstOffset() {
+		fuzz(fuzzer("DST Offset", outcome -> new DSTOffsetDataCallback() {
+			@Override
+			public void onDSTOffsetReceived(@NonNull final BluetoothDevice device, @NonNull final DSTOffset offset) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0), bytes(2), bytes(8), bytes(255));
+	}
+
+	@Test
+	public void dateTime() {
+		fuzz(fuzzer("Date Time", outcome -> new DateTimeDataCallback() {
+			@Override
+			public void onDateTimeReceived(@NonNull final BluetoothDevice device, @Nullable final Calendar calendar) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0xE2, 0x07, 12, 31, 23, 59, 59), bytes(0, 0, 0, 0, 0, 0, 0));
+	}
+
+	@Test
+	public void recordAccessControlPoint() {
+		fuzz(fuzzer("RACP", outcome -> new RecordAccessControlPointDataCallback() {
+			@Override
+			public void onRecordAccessOperationCompleted(@NonNull final BluetoothDevice device, final int requestCode) {
+				outcome.result();
+			}
+
+			@Override
+			public void onRecordAccessOperationCompletedWithNoRecordsFound(@NonNull final BluetoothDevice device, final int requestCode) {
+				outcome.result();
+			}
+
+			@Override
+			public void onNumberOfRecordsReceived(@NonNull final BluetoothDevice device, final int numberOfRecords) {
+				outcome.result();
+			}
+
+			@Override
+			public void onRecordAccessOperationError(@NonNull final BluetoothDevice device, final int requestCode, final int errorCode) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(6, 0, 1, 1), bytes(6, 0, 1, 6), bytes(6, 0, 4, 2), bytes(5, 0, 10, 0));
+	}
+
+	@Test
+	public void timeZone() {
+		fuzz(fuzzer("Time Zone", outcome -> new TimeZoneDataCallback() {
+			@Override
+			public void onTimeZoneReceived(@NonNull final BluetoothDevice device, final int offset) {
+				outcome.result();
+			}
+
+			@Override
+			public void onUnknownTimeZoneReceived(@NonNull final BluetoothDevice device) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(4), bytes(0x80));
+	}
+
+	@Test
+	public void alertLevel() {
+		fuzz(fuzzer("Alert Level", outcome -> new AlertLevelDataCallback() {
+			@Override
+			public void onAlertLevelChanged(@NonNull final BluetoothDevice device, final int level) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0), bytes(2));
+	}
+
+	@Test
+	public void batteryLevel() {
+		fuzz(fuzzer("Battery Level", outcome -> new BatteryLevelDataCallback() {
+			@Override
+			public void onBatteryLevelChanged(@NonNull final BluetoothDevice device, final int batteryLevel) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(50), bytes(100));
+	}
+
+	@Test
+	public void bloodPressureMeasurement() {
+		fuzz(fuzzer("Blood Pressure Measurement", outcome -> new BloodPressureMeasurementDataCallback() {
+			@Override
+			public void onBloodPressureMeasurementReceived(@NonNull final BluetoothDevice device,
+														   final float systolic, final float diastolic, final float meanArterialPressure,
+														   final int unit, @Nullable final Float pulseRate,
+														   @Nullable final Integer userID, @Nullable final BPMStatus status,
+														   @Nullable final Calendar calendar) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x1E, 0x79, 0x00, 0x50, 0x00, 0x60, 0x00, 0xE2, 0x07, 1, 1, 12, 0, 0, 0x48, 0x00, 0x01, 0x3F, 0x00),
+				bytes(0x01, 0x79, 0x00, 0x50, 0x00, 0x60, 0x00));
+	}
+
+	@Test
+	public void intermediateCuffPressure() {
+		fuzz(fuzzer("Intermediate Cuff Pressure", outcome -> new IntermediateCuffPressureDataCallback() {
+			@Override
+			public void onIntermediateCuffPressureReceived(@NonNull final BluetoothDevice device,
+														   final float cuffPressure, final int unit,
+														   @Nullable final Float pulseRate, @Nullable final Integer userID,
+														   @Nullable final BPMStatus status, @Nullable final Calendar calendar) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x1E, 0x79, 0x00, 0xFF, 0x07, 0xFF, 0x07, 0xE2, 0x07, 1, 1, 12, 0, 0, 0x48, 0x00, 0x01, 0x3F, 0x00),
+				bytes(0x00, 0x79, 0x00, 0xFF, 0x07, 0xFF, 0x07));
+	}
+
+	@Test
+	public void cgmFeature() {
+		fuzz(fuzzer("CGM Feature", outcome -> new CGMFeatureDataCallback() {
+			@Override
+			public void onContinuousGlucoseMonitorFeaturesReceived(@NonNull final BluetoothDevice device,
+																   @NonNull final CGMFeatures features,
+																   final int type, final int sampleLocation, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseMonitorFeaturesReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																			   @NonNull final Data data) {
+				outcome.crcError();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).crcSecured(), bytes(0x00, 0x00, 0x00, 0x11, 0xFF, 0xFF), bytes(0x00, 0x10, 0x00, 0x11, 0x00, 0x00));
+	}
+
+	@Test
+	public void cgmSessionRunTime() {
+		fuzz(fuzzer("CGM Session Run Time", outcome -> new CGMSessionRunTimeDataCallback() {
+			@Override
+			public void onContinuousGlucoseMonitorSessionRunTimeReceived(@NonNull final BluetoothDevice device,
+																		 final int sessionRunTime, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseMonitorSessionRunTimeReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																					 @NonNull final Data data) {
+				outcome.crcError();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).crcSecured(), bytes(0x10, 0x00), bytes(0x10, 0x00, 0x00, 0x00));
+	}
+
+	@Test
+	public void cgmSessionStartTime() {
+		fuzz(fuzzer("CGM Session Start Time", outcome -> new CGMSessionStartTimeDataCallback() {
+			@Override
+			public void onContinuousGlucoseMonitorSessionStartTimeReceived(@NonNull final BluetoothDevice device,
+																		   @NonNull final Calendar calendar, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseMonitorSessionStartTimeReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																					   @NonNull final Data data) {
+				outcome.crcError();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).crcSecured(), bytes(0xE2, 0x07, 1, 1, 12, 0, 0, 4, 0), bytes(0xE2, 0x07, 1, 1, 12, 0, 0, 4, 0, 0, 0));
+	}
+
+	@Test
+	public void cgmSpecificOpsControlPoint() {
+		fuzz(fuzzer("CGM Specific Ops Control Point", outcome -> new CGMSpecificOpsControlPointDataCallback() {
+			@Override
+			public void onCGMSpecificOpsOperationCompleted(@NonNull final BluetoothDevice device,
+														   final int requestCode, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onCGMSpecificOpsOperationError(@NonNull final BluetoothDevice device,
+													   final int requestCode, final int errorCode, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onCGMSpecificOpsResponseReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																	 @NonNull final Data data) {
+				outcome.crcError();
+			}
+
+			@Override
+			public void onContinuousGlucoseCommunicationIntervalReceived(@NonNull final BluetoothDevice device,
+																		 final int interval, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseCalibrationValueReceived(@NonNull final BluetoothDevice device,
+																	final float glucoseConcentrationOfCalibration,
+																	final int calibrationTime, final int nextCalibrationTime,
+																	final int type, final int sampleLocation,
+																	final int calibrationDataRecordNumber,
+																	@NonNull final CGMCalibrationStatus status,
+																	final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucosePatientHighAlertReceived(@NonNull final BluetoothDevice device,
+																	final float alertLevel, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucosePatientLowAlertReceived(@NonNull final BluetoothDevice device,
+																   final float alertLevel, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseHypoAlertReceived(@NonNull final BluetoothDevice device,
+															 final float alertLevel, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseHyperAlertReceived(@NonNull final BluetoothDevice device,
+															  final float alertLevel, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseRateOfDecreaseAlertReceived(@NonNull final BluetoothDevice device,
+																	   final float alertLevel, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseRateOfIncreaseAlertReceived(@NonNull final BluetoothDevice device,
+																	   final float alertLevel, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).crcSecured(), bytes(0x1C, 0x01, 0x01), bytes(0x03, 0x05), bytes(0x09, 0x4E, 0x00),
+				bytes(0x06, 0x4E, 0x00, 0x0A, 0x00, 0x3C, 0x00, 0x11, 0x02, 0x00, 0x00),
+				bytes(0x1C, 0x1A, 0x01, 0x00, 0x00));
+	}
+
+	@Test
+	public void cgmStatus() {
+		fuzz(fuzzer("CGM Status", outcome -> new CGMStatusDataCallback() {
+			@Override
+			public void onContinuousGlucoseMonitorStatusChanged(@NonNull final BluetoothDevice device,
+																@NonNull final CGMStatus status,
+																final int timeOffset, final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseMonitorStatusReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																			 @NonNull final Data data) {
+				outcome.crcError();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).crcSecured(), bytes(0x05, 0x00, 0x01, 0x02, 0x03), bytes(0x05, 0x00, 0x01, 0x02, 0x03, 0x00, 0x00));
+	}
+
+	@Test
+	public void continuousGlucoseMeasurement() {
+		fuzz(fuzzer("CGM Measurement", outcome -> new ContinuousGlucoseMeasurementDataCallback() {
+			@Override
+			public void onContinuousGlucoseMeasurementReceived(@NonNull final BluetoothDevice device,
+															   final float glucoseConcentration,
+															   @Nullable final Float cgmTrend, @Nullable final Float cgmQuality,
+															   @Nullable final CGMStatus status, final int timeOffset,
+															   final boolean secured) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseMeasurementReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																		   @NonNull final Data data) {
+				outcome.crcError();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).crcSecured().allowPartial(), bytes(0x06, 0x00, 0x4E, 0x00, 0x05, 0x00),
+				bytes(0x0F, 0xE3, 0xD2, 0xE4, 0x05, 0x00, 0xFF, 0xFF, 0xFF, 0x02, 0xF0, 0xE5, 0xF3, 0x00, 0x00),
+				bytes(0x06, 0x00, 0x4E, 0x00, 0x05, 0x00, 0x06, 0x00, 0x4F, 0x00, 0x06, 0x00));
+	}
+
+	@Test
+	public void continuousGlucoseMeasurementBatch() {
+		fuzz(fuzzer("CGM Measurement Batch", outcome -> new ContinuousGlucoseMeasurementBatchDataCallback() {
+			@Override
+			public void onContinuousGlucoseMeasurementsReceived(@NonNull final BluetoothDevice device,
+																@NonNull final ContinuousGlucoseMeasurementBatch batch) {
+				outcome.result();
+			}
+
+			@Override
+			public void onContinuousGlucoseMeasurementReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																		   @NonNull final Data data) {
+				outcome.crcError();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).crcSecured().allowPartial(), bytes(0x06, 0x00, 0x4E, 0x00, 0x05, 0x00),
+				bytes(0x06, 0x00, 0x4E, 0x00, 0x05, 0x00, 0x06, 0x00, 0x4F, 0x00, 0x06, 0x00));
+	}
+
+	@Test
+	public void cscFeature() {
+		fuzz(fuzzer("CSC Feature", outcome -> new CyclingSpeedAndCadenceFeatureDataCallback() {
+			@Override
+			public void onCyclingSpeedAndCadenceFeaturesReceived(@NonNull final BluetoothDevice device,
+																 @NonNull final CSCFeatures features) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x07, 0x00));
+	}
+
+	@Test
+	public void cscMeasurement() {
+		// A measurement without wheel and crank data is valid, but there is nothing to report
+		fuzz(fuzzer("CSC Measurement", outcome -> new CyclingSpeedAndCadenceMeasurementDataCallback() {
+			@Override
+			public void onWheelMeasurementReceived(@NonNull final BluetoothDevice device,
+												   final long wheelRevolutions, final int lastWheelEventTime) {
+				outcome.result();
+				super.onWheelMeasurementReceived(device, wheelRevolutions, lastWheelEventTime);
+			}
+
+			@Override
+			public void onCrankMeasurementReceived(@NonNull final BluetoothDevice device,
+												   final int crankRevolutions, final int lastCrankEventTime) {
+				outcome.result();
+				super.onCrankMeasurementReceived(device, crankRevolutions, lastCrankEventTime);
+			}
+
+			@Override
+			public void onDistanceChanged(@NonNull final BluetoothDevice device,
+										  final float totalDistance, final float distance, final float speed) {
+				// counted as the wheel measurement
+			}
+
+			@Override
+			public void onCrankDataChanged(@NonNull final BluetoothDevice device,
+										   final float crankCadence, final float gearRatio) {
+				// counted as the crank measurement
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}).allowEmpty(), bytes(0x03, 0x10, 0x00, 0x00, 0x00, 0x00, 0x04, 0x08, 0x00, 0x00, 0x04),
+				bytes(0x01, 0x20, 0x00, 0x00, 0x00, 0x00, 0x08));
+	}
+
+	@Test
+	public void glucoseFeature() {
+		fuzz(fuzzer("Glucose Feature", outcome -> new GlucoseFeatureDataCallback() {
+			@Override
+			public void onGlucoseFeaturesReceived(@NonNull final BluetoothDevice device,
+												  @NonNull final GlucoseFeatures features) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0xFF, 0x07));
+	}
+
+	@Test
+	public void glucoseMeasurementContext() {
+		fuzz(fuzzer("Glucose Measurement Context", outcome -> new GlucoseMeasurementContextDataCallback() {
+			@Override
+			public void onGlucoseMeasurementContextReceived(@NonNull final BluetoothDevice device, final int sequenceNumber,
+															@Nullable final Carbohydrate carbohydrate, @Nullable final Float carbohydrateAmount,
+															@Nullable final Meal meal, @Nullable final Tester tester,
+															@Nullable final Health health, @Nullable final Integer exerciseDuration,
+															@Nullable final Integer exerciseIntensity, @Nullable final Medication medication,
+															@Nullable final Float medicationAmount, @Nullable final Integer medicationUnit,
+															@Nullable final Float HbA1c) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x00, 0x01, 0x00),
+				bytes(0xDF, 0x01, 0x00, 0x00, 0x03, 0x50, 0xB0, 0x04, 0x32, 0x10, 0x0E, 0x50,
+						0x04, 0x02, 0xFA, 0x00, 0xB0, 0x55, 0x00));
+	}
+
+	@Test
+	public void glucoseMeasurement() {
+		fuzz(fuzzer("Glucose Measurement", outcome -> new GlucoseMeasurementDataCallback() {
+			@Override
+			public void onGlucoseMeasurementReceived(@NonNull final BluetoothDevice device, final int sequenceNumber,
+													 @NonNull final Calendar time, @Nullable final Float glucoseConcentration,
+													 @Nullable final Integer unit, @Nullable final Integer type,
+													 @Nullable final Integer sampleLocation, @Nullable final GlucoseStatus status,
+													 final boolean contextInformationFollows) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x1B, 0x01, 0x00, 0xE2, 0x07, 1, 1, 12, 0, 0, 0x05, 0x00, 0x4E, 0xB0, 0x12, 0x00, 0x01),
+				bytes(0x00, 0x01, 0x00, 0xE2, 0x07, 1, 1, 12, 0, 0));
+	}
+
+	@Test
+	public void bodySensorLocation() {
+		fuzz(fuzzer("Body Sensor Location", outcome -> new BodySensorLocationDataCallback() {
+			@Override
+			public void onBodySensorLocationReceived(@NonNull final BluetoothDevice device, final int sensorLocation) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(1));
+	}
+
+	@Test
+	public void heartRateMeasurement() {
+		fuzz(fuzzer("Heart Rate Measurement", outcome -> new HeartRateMeasurementDataCallback() {
+			@Override
+			public void onHeartRateMeasurementReceived(@NonNull final BluetoothDevice device, final int heartRate,
+													   @Nullable final Boolean contactDetected,
+													   @Nullable final Integer energyExpanded,
+													   @Nullable final List<Integer> rrIntervals) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x00, 60), bytes(0x1F, 60, 0, 16, 0, 0, 4, 0, 4));
+	}
+
+	@Test
+	public void heartRateMeasurementPrimitive() {
+		fuzz(fuzzer("Heart Rate Measurement (primitive)", outcome -> new HeartRateMeasurementPrimitiveDataCallback() {
+			@Override
+			public void onHeartRateMeasurementReceived(@NonNull final BluetoothDevice device, final int heartRate,
+													   final boolean contactSupported, final boolean contactDetected,
+													   final boolean energyExpandedPresent, final int energyExpanded,
+													   @NonNull final int[] rrIntervals, final int rrIntervalsCount) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x00, 60), bytes(0x1F, 60, 0, 16, 0, 0, 4, 0, 4));
+	}
+
+	@Test
+	public void measurementInterval() {
+		fuzz(fuzzer("Measurement Interval", outcome -> new MeasurementIntervalDataCallback() {
+			@Override
+			public void onMeasurementIntervalReceived(@NonNull final BluetoothDevice device, final int interval) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x3C, 0x00));
+	}
+
+	@Test
+	public void temperatureMeasurement() {
+		fuzz(fuzzer("Temperature Measurement", outcome -> new TemperatureMeasurementDataCallback() {
+			@Override
+			public void onTemperatureMeasurementReceived(@NonNull final BluetoothDevice device, final float temperature,
+														 final int unit, @Nullable final Calendar calendar,
+														 @Nullable final Integer type) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x06, 0x5B, 0x0E, 0x00, 0xFE, 0xE2, 0x07, 1, 1, 12, 0, 0, 0x02),
+				bytes(0x01, 0x5B, 0x0E, 0x00, 0xFE));
+	}
+
+	@Test
+	public void temperatureType() {
+		fuzz(fuzzer("Temperature Type", outcome -> new TemperatureTypeDataCallback() {
+			@Override
+			public void onTemperatureTypeReceived(@NonNull final BluetoothDevice device, final int type) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(2));
+	}
+
+	@Test
+	public void rscFeature() {
+		fuzz(fuzzer("RSC Feature", outcome -> new RunningSpeedAndCadenceFeatureDataCallback() {
+			@Override
+			public void onRunningSpeedAndCadenceFeaturesReceived(@NonNull final BluetoothDevice device,
+																 @NonNull final RSCFeatures features) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x1F, 0x00));
+	}
+
+	@Test
+	public void rscMeasurement() {
+		fuzz(fuzzer("RSC Measurement", outcome -> new RunningSpeedAndCadenceMeasurementDataCallback() {
+			@Override
+			public void onRSCMeasurementReceived(@NonNull final BluetoothDevice device, final boolean running,
+												 final float instantaneousSpeed, final int instantaneousCadence,
+												 @Nullable final Integer strideLength, @Nullable final Long totalDistance) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x07, 0x00, 0x02, 0x5A, 0x40, 0x00, 0x10, 0x27, 0x00, 0x00), bytes(0x00, 0x00, 0x02, 0x5A));
+	}
+
+	@Test
+	public void sensorLocation() {
+		fuzz(fuzzer("Sensor Location", outcome -> new SensorLocationDataCallback() {
+			@Override
+			public void onSensorLocationReceived(@NonNull final BluetoothDevice device, final int location) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(1));
+	}
+
+	@Test
+	public void speedAndCadenceControlPoint() {
+		fuzz(fuzzer("SC Control Point", outcome -> new SpeedAndCadenceControlPointDataCallback() {
+			@Override
+			public void onSCOperationCompleted(@NonNull final BluetoothDevice device, final int requestCode) {
+				outcome.result();
+			}
+
+			@Override
+			public void onSCOperationError(@NonNull final BluetoothDevice device, final int requestCode, final int errorCode) {
+				outcome.result();
+			}
+
+			@Override
+			public void onSupportedSensorLocationsReceived(@NonNull final BluetoothDevice device, @NonNull final int[] locations) {
+				outcome.result();
+			}
+
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				outcome.invalid();
+			}
+		}), bytes(0x10, 0x01, 0x01), bytes(0x10, 0x04, 0x01, 1, 2, 3), bytes(0x10, 0x03, 0x02));
+	}
+}
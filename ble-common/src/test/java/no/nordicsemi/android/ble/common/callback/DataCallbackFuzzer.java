@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import no.nordicsemi.android.ble.callback.DataReceivedCallback;
+import no.nordicsemi.android.ble.common.metrics.DecodeMetrics;
+import no.nordicsemi.android.ble.common.metrics.Metrics;
+import no.nordicsemi.android.ble.common.util.CRC16;
+import no.nordicsemi.android.ble.data.Data;
+
+/**
+ * Mutation based fuzzer of data callbacks, in the style of libFuzzer.
+ * <p>
+ * Inputs are created by mutating a corpus, which starts with the given seeds. An input is added
+ * to the corpus if it reaches a feature not seen before: the combination of the outcome, the first
+ * byte (usually the flags or Op Code) and the length. Every input must be parsed without an
+ * exception and must end with either at least one valid callback, or exactly one invalid data
+ * callback, which must be the last one. The outcome and the dispatch must also be reported once
+ * to {@link Metrics}.
+ * The worst-case parse time is recorded for each input length.
+ */
+@SuppressWarnings("ConstantConditions")
+final class DataCallbackFuzzer {
+	/** The maximum length of a generated input. */
+	static final int MAX_LENGTH = 64;
+	private static final int MAX_CORPUS_SIZE = 4096;
+	private static final byte[] INTERESTING = { 0x00, 0x01, 0x7F, (byte) 0x80, (byte) 0xFE, (byte) 0xFF };
+
+	/** Callbacks made while parsing a single input. */
+	static final class Outcome {
+		private int results;
+		private int crcErrors;
+		private int invalid;
+		private boolean reportedAfterInvalid;
+
+		/** To be called from a valid value callback. */
+		void result() {
+			results++;
+			reportedAfterInvalid |= invalid > 0;
+		}
+
+		/** To be called from a CRC error callback. */
+		void crcError() {
+			crcErrors++;
+			reportedAfterInvalid |= invalid > 0;
+		}
+
+		/** To be called from the invalid data callback. */
+		void invalid() {
+			invalid++;
+		}
+
+		private void clear() {
+			results = 0;
+			crcErrors = 0;
+			invalid = 0;
+			reportedAfterInvalid = false;
+		}
+	}
+
+	/** Metrics recording the last reported outcome. */
+	private static final class RecordingMetrics implements DecodeMetrics {
+		private int reports;
+		private int dispatches;
+		private int outcome;
+		private int length;
+
+		@Override
+		public void onDecoded(final int characteristic, @Nullable final String deviceAddress,
+							  final int outcome, final int length, final long nanos) {
+			this.reports++;
+			this.outcome = outcome;
+			this.length = length;
+		}
+
+		@Override
+		public void onDispatched(final int characteristic, @Nullable final String deviceAddress, final long nanos) {
+			this.dispatches++;
+		}
+	}
+
+	interface Target {
+		/**
+		 * Creates the callback under test, which should count the callbacks in the given outcome.
+		 */
+		@NonNull
+		DataReceivedCallback create(@NonNull final Outcome outcome);
+	}
+
+	private final String name;
+	private final Random random;
+	private final Outcome outcome = new Outcome();
+	private final RecordingMetrics metrics = new RecordingMetrics();
+	private final DataReceivedCallback callback;
+	private final List<byte[]> corpus = new ArrayList<>();
+	private final Set<Integer> features = new HashSet<>();
+	private final long[] worstCaseNanos = new long[MAX_LENGTH + 1];
+	private final byte[][] worstCaseInputs = new byte[MAX_LENGTH + 1][];
+	private boolean emptyAllowed;
+	private boolean partialAllowed;
+	private boolean crcSecured;
+	private int valid;
+	private int invalid;
+
+	DataCallbackFuzzer(@NonNull final String name, @NonNull final Target target, final long seed) {
+		this.name = name;
+		this.random = new Random(seed);
+		this.callback = target.create(outcome);
+	}
+
+	/**
+	 * Allows valid values that do not result in any callback, for example a CSC Measurement
+	 * without wheel and crank data.
+	 */
+	DataCallbackFuzzer allowEmpty() {
+		emptyAllowed = true;
+		return this;
+	}
+
+	/**
+	 * Allows values with multiple records, where records preceding an invalid one are reported
+	 * before the invalid data callback, as in the CGM Measurement.
+	 */
+	DataCallbackFuzzer allowPartial() {
+		partialAllowed = true;
+		return this;
+	}
+
+	/**
+	 * Mutated inputs will often have a correct E2E-CRC in the last two bytes, so that
+	 * the parsing continues past the CRC check.
+	 */
+	DataCallbackFuzzer crcSecured() {
+		crcSecured = true;
+		return this;
+	}
+
+	/**
+	 * Parses the seeds and the given number of mutated inputs.
+	 *
+	 * @throws AssertionError if an input threw an exception or had a wrong outcome.
+	 */
+	void run(final int iterations, @NonNull final byte[]... seeds) {
+		Metrics.setDecodeMetrics(metrics);
+		try {
+			for (final byte[] seed : seeds)
+				execute(seed);
+			for (int i = 0; i < iterations; i++)
+				execute(mutate(corpus.get(random.nextInt(corpus.size()))));
+		} finally {
+			Metrics.setDecodeMetrics(null);
+		}
+	}
+
+	int getValidCount() {
+		return valid;
+	}
+
+	int getInvalidCount() {
+		return invalid;
+	}
+
+	int getCorpusSize() {
+		return corpus.size();
+	}
+
+	/**
+	 * Returns the worst-case parse time of inputs of each length, with the slowest input.
+	 */
+	@NonNull
+	String report() {
+		final StringBuilder builder = new StringBuilder(name).append(String.format(Locale.US,
+				": %d valid, %d invalid, corpus %d%n", valid, invalid, corpus.size()));
+		for (int length = 0; length <= MAX_LENGTH; length++) {
+			if (worstCaseInputs[length] != null)
+				builder.append(String.format(Locale.US, "  %2d B: %8.2f us  %s%n", length,
+						worstCaseNanos[length] / 1000.0, toHex(worstCaseInputs[length])));
+		}
+		return builder.toString();
+	}
+
+	private void execute(final byte[] input) {
+		outcome.clear();
+		metrics.reports = 0;
+		metrics.dispatches = 0;
+		final long start = System.nanoTime();
+		try {
+			callback.onDataReceived(null, new Data(input));
+		} catch (final RuntimeException e) {
+			throw new AssertionError(name + " threw on " + toHex(input), e);
+		}
+		final long elapsed = System.nanoTime() - start;
+		if (elapsed > worstCaseNanos[input.length]) {
+			worstCaseNanos[input.length] = elapsed;
+			worstCaseInputs[input.length] = input;
+		}
+
+		final int reported = outcome.results + outcome.crcErrors;
+		if (outcome.invalid > 1 || outcome.reportedAfterInvalid
+				|| (outcome.invalid == 1 && reported > 0 && !partialAllowed)
+				|| (outcome.invalid == 0 && reported == 0 && !emptyAllowed))
+			throw new AssertionError(String.format(Locale.US, "%s: %d results, %d CRC errors, %d invalid on %s",
+					name, outcome.results, outcome.crcErrors, outcome.invalid, toHex(input)));
+		final int expectedOutcome = outcome.invalid > 0 ? DecodeMetrics.OUTCOME_INVALID
+				: outcome.crcErrors > 0 ? DecodeMetrics.OUTCOME_CRC_ERROR : DecodeMetrics.OUTCOME_VALID;
+		if (metrics.reports != 1 || metrics.dispatches != 1
+				|| metrics.outcome != expectedOutcome || metrics.length != input.length)
+			throw new AssertionError(String.format(Locale.US, "%s: %d metrics reports, %d dispatches, outcome %d instead of %d on %s",
+					name, metrics.reports, metrics.dispatches, metrics.outcome, expectedOutcome, toHex(input)));
+		if (outcome.invalid == 0)
+			valid++;
+		else
+			invalid++;
+
+		final int feature = (outcome.invalid << 17) | (reported > 0 ? 1 << 16 : 0)
+				| ((input.length > 0 ? input[0] & 0xFF : 0) << 8) | input.length;
+		if (features.add(feature) && corpus.size() < MAX_CORPUS_SIZE)
+			corpus.add(input);
+	}
+
+	private byte[] mutate(final byte[] input) {
+		byte[] data = input;
+		final int count = 1 + random.nextInt(4);
+		for (int i = 0; i < count; i++)
+			data = mutateOnce(data);
+		if (crcSecured && data.length > 2 && random.nextBoolean()) {
+			if (data == input)
+				data = input.clone();
+			final int crc = CRC16.MCRF4XX(data, 0, data.length - 2);
+			data[data.length - 2] = (byte) crc;
+			data[data.length - 1] = (byte) (crc >> 8);
+		}
+		return data;
+	}
+
+	private byte[] mutateOnce(final byte[] input) {
+		final int length = input.length;
+		switch (random.nextInt(8)) {
+			case 0: { // Flip a bit
+				if (length == 0)
+					return input;
+				final byte[] data = input.clone();
+				data[random.nextInt(length)] ^= 1 << random.nextInt(8);
+				return data;
+			}
+			case 1: { // Set a random byte
+				if (length == 0)
+					return input;
+				final byte[] data = input.clone();
+				data[random.nextInt(length)] = (byte) random.nextInt();
+				return data;
+			}
+			case 2: { // Set an interesting byte
+				if (length == 0)
+					return input;
+				final byte[] data = input.clone();
+				data[random.nextInt(length)] = INTERESTING[random.nextInt(INTERESTING.length)];
+				return data;
+			}
+			case 3: { // Insert a byte
+				if (length == MAX_LENGTH)
+					return input;
+				final int position = random.nextInt(length + 1);
+				final byte[] data = new byte[length + 1];
+				System.arraycopy(input, 0, data, 0, position);
+				data[position] = (byte) random.nextInt();
+				System.arraycopy(input, position, data, position + 1, length - position);
+				return data;
+			}
+			case 4: { // Erase a byte
+				if (length == 0)
+					return input;
+				final int position = random.nextInt(length);
+				final byte[] data = new byte[length - 1];
+				System.arraycopy(input, 0, data, 0, position);
+				System.arraycopy(input, position + 1, data, position, length - position - 1);
+				return data;
+			}
+			case 5: // Truncate
+				return Arrays.copyOf(input, random.nextInt(length + 1));
+			case 6: { // Duplicate the tail, for repeated fields and records
+				if (length == 0)
+					return input;
+				final int position = random.nextInt(length);
+				final int newLength = Math.min(MAX_LENGTH, length + length - position);
+				final byte[] data = Arrays.copyOf(input, newLength);
+				System.arraycopy(input, position, data, length, newLength - length);
+				return data;
+			}
+			default: { // Cross over with another input from the corpus
+				final byte[] other = corpus.get(random.nextInt(corpus.size()));
+				final int split = random.nextInt(length + 1);
+				final int otherSplit = random.nextInt(other.length + 1);
+				final byte[] data = Arrays.copyOf(input, Math.min(MAX_LENGTH, split + other.length - otherSplit));
+				System.arraycopy(other, otherSplit, data, split, data.length - split);
+				return data;
+			}
+		}
+	}
+
+	private static String toHex(final byte[] data) {
+		final StringBuilder builder = new StringBuilder(data.length * 2 + 2).append("0x");
+		for (final byte b : data)
+			builder.append(String.format("%02X", b));
+		return builder.toString();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback;
+
+import org.junit.Test;
+
+import no.nordicsemi.android.ble.common.callback.csc.CyclingSpeedAndCadenceMeasurementResponse;
+import no.nordicsemi.android.ble.common.callback.hr.HeartRateMeasurementResponse;
+import no.nordicsemi.android.ble.data.Data;
+
+import static org.junit.Assert.*;
+
+public class ResponsePoolTest {
+
+	@Test
+	public void acquire_reusesReleased() {
+		final ResponsePool<HeartRateMeasurementResponse> pool = new ResponsePool<>(HeartRateMeasurementResponse::new);
+		final HeartRateMeasurementResponse response = pool.acquire();
+		response.onDataReceived(null, new Data(new byte[] { 0, 85 }));
+		assertEquals(85, response.getHeartRate());
+		pool.release(response);
+		assertEquals(1, pool.size());
+
+		final HeartRateMeasurementResponse reused = pool.acquire();
+		assertSame(response, reused);
+		assertEquals(0, reused.getHeartRate());
+		assertEquals(0, pool.size());
+	}
+
+	@Test
+	public void release_resetsPartialValues() {
+		final ResponsePool<CyclingSpeedAndCadenceMeasurementResponse> pool =
+				new ResponsePool<>(CyclingSpeedAndCadenceMeasurementResponse::new);
+		final CyclingSpeedAndCadenceMeasurementResponse response = pool.acquire();
+		// Wheel and crank data
+		response.onDataReceived(null, new Data(new byte[] { 0x03, 10, 0, 0, 0, 0, 4, 5, 0, 0, 2 }));
+		assertEquals(5, response.getCrankRevolutions());
+		pool.release(response);
+
+		final CyclingSpeedAndCadenceMeasurementResponse reused = pool.acquire();
+		// Wheel data only
+		reused.onDataReceived(null, new Data(new byte[] { 0x01, 11, 0, 0, 0, 0, 8 }));
+		assertEquals(11, reused.getWheelRevolutions());
+		assertEquals(0, reused.getCrankRevolutions());
+	}
+
+	@Test
+	public void release_invalidNotPooled() {
+		final ResponsePool<HeartRateMeasurementResponse> pool = new ResponsePool<>(HeartRateMeasurementResponse::new);
+		final HeartRateMeasurementResponse response = pool.acquire();
+		response.onDataReceived(null, new Data(new byte[] { 1 }));
+		assertFalse(response.isValid());
+		pool.release(response);
+		assertEquals(0, pool.size());
+		assertNotSame(response, pool.acquire());
+	}
+
+	@Test
+	public void release_capacity() {
+		final ResponsePool<HeartRateMeasurementResponse> pool = new ResponsePool<>(HeartRateMeasurementResponse::new, 2);
+		final HeartRateMeasurementResponse a = pool.acquire();
+		final HeartRateMeasurementResponse b = pool.acquire();
+		final HeartRateMeasurementResponse c = pool.acquire();
+		pool.release(a);
+		pool.release(b);
+		pool.release(c);
+		assertEquals(2, pool.size());
+	}
+
+	@Test
+	public void acquire_otherThread() throws InterruptedException {
+		final ResponsePool<HeartRateMeasurementResponse> pool = new ResponsePool<>(HeartRateMeasurementResponse::new);
+		final Throwable[] error = new Throwable[1];
+		final Thread thread = new Thread(() -> {
+			try {
+				pool.acquire();
+			} catch (final Throwable e) {
+				error[0] = e;
+			}
+		});
+		thread.start();
+		thread.join();
+		assertTrue(error[0] instanceof IllegalStateException);
+	}
+}
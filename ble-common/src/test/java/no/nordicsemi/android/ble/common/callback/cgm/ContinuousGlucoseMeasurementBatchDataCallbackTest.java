@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback.cgm;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.common.decoder.ContinuousGlucoseMeasurementBatch;
+import no.nordicsemi.android.ble.data.Data;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("ConstantConditions")
+public class ContinuousGlucoseMeasurementBatchDataCallbackTest {
+	private int calls;
+	private int records;
+	private int crcErrors;
+	private float lastGlucoseConcentration;
+	private int lastTimeOffset;
+
+	private final ProfileReadResponse response = new ContinuousGlucoseMeasurementBatchDataCallback() {
+
+		@Override
+		public void onContinuousGlucoseMeasurementsReceived(@NonNull final BluetoothDevice device,
+															@NonNull final ContinuousGlucoseMeasurementBatch batch) {
+			calls++;
+			records += batch.size();
+			lastGlucoseConcentration = batch.glucoseConcentration(batch.size() - 1);
+			lastTimeOffset = batch.timeOffset(batch.size() - 1);
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurementReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																	   @NonNull final Data data) {
+			crcErrors++;
+		}
+	};
+
+	@Test
+	public void onContinuousGlucoseMeasurementsReceived_multiple() {
+		final Data data = new Data(new byte[] {
+				6, 0, 120, 0, 1, 0,
+				6, 0, 121, 0, 2, 0,
+				6, 0, 122, 0, 3, 0
+		});
+		response.onDataReceived(null, data);
+		assertTrue(response.isValid());
+		assertEquals(1, calls);
+		assertEquals(3, records);
+		assertEquals(122f, lastGlucoseConcentration, 0.01f);
+		assertEquals(3, lastTimeOffset);
+		assertEquals(0, crcErrors);
+	}
+
+	@Test
+	public void onContinuousGlucoseMeasurementsReceived_crcError() {
+		final Data data = new Data(new byte[] {
+				6, 0, 120, 0, 1, 0,
+				8, 0, 121, 0, 2, 0, 0, 0
+		});
+		response.onDataReceived(null, data);
+		assertTrue(response.isValid());
+		assertEquals(1, calls);
+		assertEquals(1, records);
+		assertEquals(1, crcErrors);
+	}
+
+	@Test
+	public void onInvalidDataReceived_truncated() {
+		final Data data = new Data(new byte[] {
+				6, 0, 120, 0, 1, 0,
+				6, 0, 121
+		});
+		response.onDataReceived(null, data);
+		assertFalse(response.isValid());
+		assertEquals(1, records);
+	}
+}
@@ -260,6 +260,43 @@ public class CyclingSpeedAndCadenceMeasurementDataCallbackTest {
 		callback.onDataReceived(null, data);
 	}
 
+	@Test
+	public void onCrankDataChanged_rollover() {
+		final int[] called = new int[1];
+		final DataReceivedCallback callback = new CyclingSpeedAndCadenceMeasurementDataCallback() {
+			@Override
+			public void onInvalidDataReceived(@NonNull final BluetoothDevice device, @NonNull final Data data) {
+				assertEquals("Correct CSC data reported as invalid", 1, 2);
+			}
+
+			@Override
+			public void onDistanceChanged(@NonNull final BluetoothDevice device, final float totalDistance, final float distance, final float speed) {
+				assertEquals("Crank data not available and reported", 1, 2);
+			}
+
+			@Override
+			public void onCrankDataChanged(@NonNull final BluetoothDevice device, final float crankCadence, final float gearRatio) {
+				// Before the rollover fix the cadence was negative and this was not called
+				called[0]++;
+				assertEquals("Crank cadence", 60.0f, crankCadence, 0);
+			}
+		};
+		final MutableData data = new MutableData(new byte[5]);
+		// Flags
+		assertTrue(data.setByte(0x02, 0));
+		// Crank revolutions
+		assertTrue(data.setValue(65535, Data.FORMAT_UINT16, 1));
+		assertTrue(data.setValue(65000, Data.FORMAT_UINT16, 3));
+
+		callback.onDataReceived(null, data);
+
+		// Both the crank revolutions and the event time roll over
+		assertTrue(data.setValue(0, Data.FORMAT_UINT16, 1));
+		assertTrue(data.setValue((65000 + 1024) & 0xFFFF, Data.FORMAT_UINT16, 3)); // 1 second
+		callback.onDataReceived(null, data);
+		assertEquals(1, called[0]);
+	}
+
 	@Test
 	public void onInvalidDataReceived() {
 		final DataReceivedCallback callback = new CyclingSpeedAndCadenceMeasurementDataCallback() {
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package no.nordicsemi.android.ble.common.callback.csc;
+
+import org.junit.Test;
+
+import no.nordicsemi.android.ble.data.Data;
+import no.nordicsemi.android.ble.data.MutableData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("ConstantConditions")
+public class CyclingSpeedAndCadenceMeasurementResponseTest {
+
+	private static CyclingSpeedAndCadenceMeasurementResponse response(final long wheelRevolutions, final int lastWheelEventTime,
+																	  final int crankRevolutions, final int lastCrankEventTime) {
+		final MutableData data = new MutableData(new byte[11]);
+		// Flags
+		assertTrue(data.setByte(0x03, 0));
+		// Wheel revolutions
+		assertTrue(data.setValue((int) wheelRevolutions, Data.FORMAT_UINT32, 1));
+		assertTrue(data.setValue(lastWheelEventTime, Data.FORMAT_UINT16, 5));
+		// Crank revolutions
+		assertTrue(data.setValue(crankRevolutions, Data.FORMAT_UINT16, 7));
+		assertTrue(data.setValue(lastCrankEventTime, Data.FORMAT_UINT16, 9));
+
+		final CyclingSpeedAndCadenceMeasurementResponse response = new CyclingSpeedAndCadenceMeasurementResponse();
+		response.onDataReceived(null, data);
+		return response;
+	}
+
+	@Test
+	public void noRollover() {
+		final CyclingSpeedAndCadenceMeasurementResponse previous = response(20, 0, 10, 0);
+		final CyclingSpeedAndCadenceMeasurementResponse current = response(30, 1024, 11, 1024);
+
+		assertEquals("Distance", 23.4f, current.getDistance(2340, previous), 0.001f);
+		assertEquals("Speed", 23.4f, current.getSpeed(2340, previous), 0.001f);
+		assertEquals("Wheel cadence", 600.0f, current.getWheelCadence(previous), 0.001f);
+		assertEquals("Crank cadence", 60.0f, current.getCrankCadence(previous), 0.001f);
+		assertEquals("Gear ratio", 10.0f, current.getGearRatio(previous), 0.001f);
+	}
+
+	@Test
+	public void eventTimeRollover() {
+		final CyclingSpeedAndCadenceMeasurementResponse previous = response(20, 65000, 10, 65000);
+		// 1 second later, 65000 + 1024 rolls over to 488
+		final CyclingSpeedAndCadenceMeasurementResponse current = response(30, 488, 11, 488);
+
+		assertEquals("Speed", 23.4f, current.getSpeed(2340, previous), 0.001f);
+		assertEquals("Wheel cadence", 600.0f, current.getWheelCadence(previous), 0.001f);
+		assertEquals("Crank cadence", 60.0f, current.getCrankCadence(previous), 0.001f);
+	}
+
+	@Test
+	public void revolutionsRollover() {
+		final CyclingSpeedAndCadenceMeasurementResponse previous = response(0xFFFFFFFFL, 0, 65535, 0);
+		final CyclingSpeedAndCadenceMeasurementResponse current = response(9, 1024, 0, 1024);
+
+		assertEquals("Distance", 23.4f, current.getDistance(2340, previous), 0.001f);
+		assertEquals("Wheel cadence", 600.0f, current.getWheelCadence(previous), 0.001f);
+		assertEquals("Crank cadence", 60.0f, current.getCrankCadence(previous), 0.001f);
+		assertEquals("Gear ratio", 10.0f, current.getGearRatio(previous), 0.001f);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.callback.hr;
+
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import no.nordicsemi.android.ble.callback.profile.ProfileReadResponse;
+import no.nordicsemi.android.ble.data.Data;
+import no.nordicsemi.android.ble.data.MutableData;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("ConstantConditions")
+public class HeartRateMeasurementPrimitiveDataCallbackTest {
+	private boolean success;
+	private int heartRate;
+	private boolean contactSupported;
+	private boolean contactDetected;
+	private boolean energyExpandedPresent;
+	private int energyExpanded;
+	private int[] rrIntervals;
+	private int[] rrIntervalsBuffer;
+
+	private final ProfileReadResponse response = new HeartRateMeasurementPrimitiveDataCallback() {
+
+		@Override
+		public void onHeartRateMeasurementReceived(@NonNull final BluetoothDevice device,
+												   final int heartRate,
+												   final boolean contactSupported,
+												   final boolean contactDetected,
+												   final boolean energyExpandedPresent,
+												   final int energyExpanded,
+												   @NonNull final int[] rrIntervals,
+												   final int rrIntervalsCount) {
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.success = true;
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.heartRate = heartRate;
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.contactSupported = contactSupported;
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.contactDetected = contactDetected;
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.energyExpandedPresent = energyExpandedPresent;
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.energyExpanded = energyExpanded;
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.rrIntervals = Arrays.copyOf(rrIntervals, rrIntervalsCount);
+			HeartRateMeasurementPrimitiveDataCallbackTest.this.rrIntervalsBuffer = rrIntervals;
+		}
+	};
+
+	@Test
+	public void onHeartRateMeasurementReceived_simple() {
+		success = false;
+		final Data data = new Data(new byte[] { 0, 85 });
+		response.onDataReceived(null, data);
+		assertTrue(response.isValid());
+		assertTrue(success);
+		assertEquals(85, heartRate);
+		assertFalse(contactSupported);
+		assertFalse(contactDetected);
+		assertFalse(energyExpandedPresent);
+		assertEquals(0, rrIntervals.length);
+	}
+
+	@Test
+	public void onHeartRateMeasurementReceived_full() {
+		success = false;
+		final Data data = new Data(new byte[] { 0x1F, (byte) 0xFF, 0, 0x10, 0x20, 1, 4, 2, 4 });
+		response.onDataReceived(null, data);
+		assertTrue(response.isValid());
+		assertTrue(success);
+		assertEquals(255, heartRate);
+		assertTrue(contactSupported);
+		assertTrue(contactDetected);
+		assertTrue(energyExpandedPresent);
+		assertEquals(0x2010, energyExpanded);
+		assertArrayEquals(new int[] { 1025, 1026 }, rrIntervals);
+	}
+
+	@Test
+	public void onHeartRateMeasurementReceived_bufferReused() {
+		response.onDataReceived(null, new Data(new byte[] { 0x10, 60, 0, 4 }));
+		final int[] buffer = rrIntervalsBuffer;
+		response.onDataReceived(null, new Data(new byte[] { 0x10, 60, 1, 4, 2, 4 }));
+		assertSame(buffer, rrIntervalsBuffer);
+		assertArrayEquals(new int[] { 1025, 1026 }, rrIntervals);
+	}
+
+	@Test
+	public void onHeartRateMeasurementReceived_bufferGrows() {
+		final int count = 100;
+		final MutableData data = new MutableData(new byte[2 + 2 * count]);
+		data.setValue(0x10, Data.FORMAT_UINT8, 0);
+		data.setValue(60, Data.FORMAT_UINT8, 1);
+		for (int i = 0; i < count; ++i)
+			data.setValue(800 + i, Data.FORMAT_UINT16, 2 + 2 * i);
+		response.onDataReceived(null, data);
+		assertTrue(response.isValid());
+		assertEquals(count, rrIntervals.length);
+		assertEquals(800, rrIntervals[0]);
+		assertEquals(899, rrIntervals[count - 1]);
+	}
+
+	@Test
+	public void onInvalidDataReceived_noRrIntervals() {
+		success = false;
+		final Data data = new Data(new byte[] { 0x10, 85 });
+		response.onDataReceived(null, data);
+		assertFalse(response.isValid());
+		assertFalse(success);
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.racp;
+
+import android.bluetooth.BluetoothDevice;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+
+import no.nordicsemi.android.ble.common.callback.cgm.ContinuousGlucoseMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.callback.glucose.GlucoseMeasurementDataCallback;
+import no.nordicsemi.android.ble.common.decoder.DateTime;
+import no.nordicsemi.android.ble.common.profile.Characteristics;
+import no.nordicsemi.android.ble.common.profile.glucose.GlucoseMeasurementCallback;
+import no.nordicsemi.android.ble.common.simulator.CGMServerSimulator;
+import no.nordicsemi.android.ble.common.simulator.GlucoseServerSimulator;
+import no.nordicsemi.android.ble.common.simulator.RecordAccessServer;
+import no.nordicsemi.android.ble.data.Data;
+
+import static org.junit.Assert.*;
+
+/**
+ * Downloads records from simulated servers using {@link RecordAccessTransfer}.
+ */
+@SuppressWarnings("ConstantConditions")
+public class RecordAccessTransferSimulatorTest {
+	private final StringBuilder events = new StringBuilder();
+	private RecordAccessServer server;
+	private RecordAccessTransfer transfer;
+	private int records;
+	private int crcErrors;
+
+	private final RecordAccessTransfer.Listener listener = new RecordAccessTransfer.Listener() {
+		@Override
+		public void onTransferStarted(final int expectedRecords) {
+			events.append("started:").append(expectedRecords).append(' ');
+		}
+
+		@Override
+		public void onTransferProgress(final int receivedRecords, final int expectedRecords) {
+			// ignore
+		}
+
+		@Override
+		public void onTransferCompleted(final int receivedRecords) {
+			events.append("completed:").append(receivedRecords);
+		}
+
+		@Override
+		public void onTransferAborted(final int receivedRecords) {
+			events.append("aborted:").append(receivedRecords);
+		}
+
+		@Override
+		public void onTransferFailed(final int requestCode, final int errorCode) {
+			events.append("failed:").append(requestCode).append(',').append(errorCode);
+		}
+	};
+
+	private final GlucoseMeasurementDataCallback glucoseCallback = new GlucoseMeasurementDataCallback() {
+		@Override
+		public void onGlucoseMeasurementReceived(@NonNull final BluetoothDevice device, final int sequenceNumber,
+												 @NonNull final Calendar time, @Nullable final Float glucoseConcentration,
+												 @Nullable final Integer unit, @Nullable final Integer type,
+												 @Nullable final Integer sampleLocation, @Nullable final GlucoseStatus status,
+												 final boolean contextInformationFollows) {
+			assertEquals(records++, sequenceNumber);
+			assertEquals(GlucoseMeasurementCallback.UNIT_mol_L, (int) unit);
+		}
+	};
+
+	private final ContinuousGlucoseMeasurementDataCallback cgmCallback = new ContinuousGlucoseMeasurementDataCallback() {
+		@Override
+		public void onContinuousGlucoseMeasurementReceived(@NonNull final BluetoothDevice device,
+														   final float glucoseConcentration,
+														   @Nullable final Float cgmTrend, @Nullable final Float cgmQuality,
+														   @Nullable final CGMStatus status,
+														   final int timeOffset, final boolean secured) {
+			assertTrue(secured);
+			records++;
+			transfer.onRecordReceived(7);
+		}
+
+		@Override
+		public void onContinuousGlucoseMeasurementReceivedWithCrcError(@NonNull final BluetoothDevice device,
+																	   @NonNull final Data data) {
+			crcErrors++;
+		}
+	};
+
+	private void onValue(final int characteristic, @NonNull final byte[] value, final int offset, final int length) {
+		final Data data = new Data(Arrays.copyOfRange(value, offset, offset + length));
+		switch (characteristic) {
+			case Characteristics.RECORD_ACCESS_CONTROL_POINT:
+				transfer.onDataReceived(null, data);
+				break;
+			case Characteristics.GLUCOSE_MEASUREMENT:
+				glucoseCallback.onDataReceived(null, data);
+				transfer.onRecordReceived(length);
+				break;
+			default:
+				cgmCallback.onDataReceived(null, data);
+				break;
+		}
+	}
+
+	private void connect(final RecordAccessServer server) {
+		this.server = server;
+		transfer = new RecordAccessTransfer(
+				command -> assertEquals(RecordAccessServer.ATT_SUCCESS,
+						server.write(Characteristics.RECORD_ACCESS_CONTROL_POINT, command.getValue())),
+				listener, server::getTime);
+	}
+
+	private GlucoseServerSimulator glucoseServer(final int count) {
+		final GlucoseServerSimulator server = new GlucoseServerSimulator(this::onValue);
+		final long baseTime = DateTime.pack(2026, 10, 18, 12, 0, 0);
+		for (int i = 0; i < count; i++)
+			server.addRecord(baseTime, i, 0.0055f, true, 1, 1, -1);
+		connect(server);
+		return server;
+	}
+
+	@Test
+	public void glucose_allRecords() {
+		final GlucoseServerSimulator server = glucoseServer(1000);
+
+		transfer.startAll();
+		final long nanos = server.runUntilIdle();
+
+		assertEquals("started:1000 completed:1000", events.toString());
+		assertEquals(1000, records);
+		// 4 records every 7.5 ms
+		assertEquals(250 * RecordAccessServer.DEFAULT_CONNECTION_INTERVAL_NANOS, nanos, 2 * RecordAccessServer.DEFAULT_CONNECTION_INTERVAL_NANOS);
+		assertEquals(533.3, transfer.getRecordsPerSecond(), 10.0);
+	}
+
+	@Test
+	public void glucose_fromSequenceNumber() {
+		final GlucoseServerSimulator server = glucoseServer(100);
+
+		records = 90;
+		transfer.startFrom(90);
+		server.runUntilIdle();
+		assertEquals("started:10 completed:10", events.toString());
+		assertEquals(100, records);
+	}
+
+	@Test
+	public void glucose_abort() {
+		final GlucoseServerSimulator server = glucoseServer(1000);
+		server.setConnectionInterval(RecordAccessServer.DEFAULT_CONNECTION_INTERVAL_NANOS, 1);
+
+		transfer.startAll();
+		server.advance(11 * RecordAccessServer.DEFAULT_CONNECTION_INTERVAL_NANOS);
+		transfer.abort();
+		server.runUntilIdle();
+
+		// The first interval was used by the Report Number of Stored Records response
+		assertEquals("started:1000 aborted:10", events.toString());
+		assertTrue(server.isIdle());
+	}
+
+	@Test
+	public void glucose_error() {
+		final GlucoseServerSimulator server = glucoseServer(10);
+		server.injectRecordAccessError(RecordAccessServer.RACP_ERROR_PROCEDURE_NOT_COMPLETED);
+
+		transfer.startAll();
+		server.runUntilIdle();
+		assertEquals("failed:4,8", events.toString());
+	}
+
+	@Test
+	public void cgm_corrupted() {
+		final CGMServerSimulator server = new CGMServerSimulator(this::onValue);
+		for (int i = 0; i < 500; i++)
+			server.addRecord(i * 5, 110f, Float.NaN, Float.NaN);
+		server.setE2eCrc(true);
+		server.setMtu(247);
+		server.setRandomSeed(7);
+		server.setCorruptionRate(0.1);
+		connect(server);
+
+		transfer.startAll();
+		server.runUntilIdle();
+
+		assertTrue(events.toString().startsWith("started:500 completed:"));
+		assertTrue(crcErrors > 0);
+		assertEquals(records, transfer.getReceivedRecords());
+		assertTrue(records < 500);
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, Nordic Semiconductor
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to endorse or promote products derived from this
+ * software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE
+ * USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package no.nordicsemi.android.ble.common.racp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.ble.common.data.RecordAccessControlPointData;
+import no.nordicsemi.android.ble.data.Data;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("ConstantConditions")
+public class RecordAccessTransferTest {
+	private final List<Data> commands = new ArrayList<>();
+	private final StringBuilder events = new StringBuilder();
+	private long now;
+	private RecordAccessTransfer transfer;
+
+	@Before
+	public void setUp() {
+		transfer = new RecordAccessTransfer(commands::add, new RecordAccessTransfer.Listener() {
+			@Override
+			public void onTransferStarted(final int expectedRecords) {
+				events.append("started:").append(expectedRecords).append(' ');
+			}
+
+			@Override
+			public void onTransferProgress(final int receivedRecords, final int expectedRecords) {
+				events.append("progress:").append(receivedRecords).append('/').append(expectedRecords).append(' ');
+			}
+
+			@Override
+			public void onTransferCompleted(final int receivedRecords) {
+				events.append("completed:").append(receivedRecords);
+			}
+
+			@Override
+			public void onTransferAborted(final int receivedRecords) {
+				events.append("aborted:").append(receivedRecords);
+			}
+
+			@Override
+			public void onTransferFailed(final int requestCode, final int errorCode) {
+				events.append("failed:").append(requestCode).append(',').append(errorCode);
+			}
+		}, () -> now);
+	}
+
+	@Test
+	public void startAll_completed() {
+		transfer.startAll();
+		assertCommand(RecordAccessControlPointData.reportNumberOfAllStoredRecords());
+
+		transfer.onDataReceived(null, new Data(new byte[] { 5, 0, 3, 0 }));
+		assertCommand(RecordAccessControlPointData.reportAllStoredRecords());
+		assertEquals(RecordAccessTransfer.STATE_TRANSFERRING, transfer.getState());
+
+		for (int i = 0; i < 3; ++i) {
+			now += 100_000_000L; // 100 ms
+			transfer.onRecordReceived(17);
+		}
+		assertEquals(100, transfer.getProgress());
+		transfer.onDataReceived(null, new Data(new byte[] { 6, 0, 1, 1 }));
+
+		assertEquals("started:3 progress:1/3 progress:2/3 progress:3/3 completed:3", events.toString());
+		assertFalse(transfer.isRunning());
+		assertEquals(51, transfer.getReceivedBytes());
+		assertEquals(10.0, transfer.getRecordsPerSecond(), 0.001);
+		assertEquals(170.0, transfer.getBytesPerSecond(), 0.001);
+	}
+
+	@Test
+	public void startFrom_noRecords() {
+		transfer.startFrom(100);
+		assertCommand(RecordAccessControlPointData.reportNumberOfStoredRecordsGreaterThenOrEqualTo(100));
+		transfer.onDataReceived(null, new Data(new byte[] { 5, 0, 0, 0 }));
+		assertTrue(commands.isEmpty());
+		assertEquals("completed:0", events.toString());
+	}
+
+	@Test
+	public void timeout_aborts() {
+		transfer.setTimeout(1000);
+		transfer.startAll();
+		transfer.onDataReceived(null, new Data(new byte[] { 5, 0, 10, 0 }));
+		commands.clear();
+		transfer.onRecordReceived(10);
+
+		now += 999_000_000L;
+		assertFalse(transfer.checkTimeout());
+		now += 1_000_000L;
+		assertTrue(transfer.checkTimeout());
+		assertCommand(RecordAccessControlPointData.abortOperation());
+		assertEquals(RecordAccessTransfer.STATE_ABORTING, transfer.getState());
+
+		// Procedure Not Completed for the interrupted request is ignored
+		transfer.onDataReceived(null, new Data(new byte[] { 6, 0, 1, 8 }));
+		assertTrue(transfer.isRunning());
+		transfer.onDataReceived(null, new Data(new byte[] { 6, 0, 3, 1 }));
+		assertEquals("started:10 progress:1/10 aborted:1", events.toString());
+		assertFalse(transfer.isRunning());
+	}
+
+	@Test
+	public void error_fails() {
+		transfer.startAll();
+		transfer.onDataReceived(null, new Data(new byte[] { 6, 0, 4, 2 }));
+		assertEquals("failed:4,2", events.toString());
+		assertFalse(transfer.isRunning());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void start_whileRunning() {
+		transfer.startAll();
+		transfer.startAll();
+	}
+
+	private void assertCommand(final Data expected) {
+		assertEquals(1, commands.size());
+		assertArrayEquals(expected.getValue(), commands.remove(0).getValue());
+	}
+}